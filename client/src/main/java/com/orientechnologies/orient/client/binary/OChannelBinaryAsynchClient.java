@@ -28,8 +28,11 @@ import com.orientechnologies.orient.client.remote.OStorageRemoteNodeSession;
 import com.orientechnologies.orient.client.remote.OStorageRemoteSession;
 import com.orientechnologies.orient.client.remote.message.OError37Response;
 import com.orientechnologies.orient.core.OConstants;
+import com.orientechnologies.orient.core.compression.OCompression;
+import com.orientechnologies.orient.core.compression.OCompressionFactory;
 import com.orientechnologies.orient.core.config.OContextConfiguration;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.exception.OSecurityException;
 import com.orientechnologies.orient.enterprise.channel.OSocketFactory;
 import com.orientechnologies.orient.enterprise.channel.binary.OChannelBinary;
 import com.orientechnologies.orient.enterprise.channel.binary.OChannelBinaryProtocol;
@@ -58,6 +61,8 @@ public class OChannelBinaryAsynchClient extends OChannelBinary {
   private byte currentMessage;
   private volatile long lastUse;
   private volatile boolean inUse;
+  // COMPRESSION OF THE RESPONSES REQUESTED ON HANDSHAKE, NULL IF RESPONSES ARE NOT FRAMED
+  private OCompression responseCompression;
 
   public OChannelBinaryAsynchClient(
       final String remoteHost,
@@ -98,6 +103,13 @@ public class OChannelBinaryAsynchClient extends OChannelBinary {
         writeString(OConstants.getVersion());
         writeByte(OChannelBinaryProtocol.ENCODING_DEFAULT);
         writeByte(OChannelBinaryProtocol.ERROR_MESSAGE_JAVA);
+        if (srvProtocolVersion >= OChannelBinaryProtocol.PROTOCOL_VERSION_40
+            && iProtocolVersion >= OChannelBinaryProtocol.PROTOCOL_VERSION_40) {
+          responseCompression =
+              resolveCompression(
+                  iConfig.getValueAsString(OGlobalConfiguration.CLIENT_CHANNEL_COMPRESSION));
+          writeString(responseCompression != null ? responseCompression.name() : "");
+        }
         flush();
       } catch (IOException e) {
         throw new ONetworkProtocolException(
@@ -124,6 +136,18 @@ public class OChannelBinaryAsynchClient extends OChannelBinary {
     }
   }
 
+  private OCompression resolveCompression(final String name) {
+    if (name == null || name.isEmpty()) return null;
+
+    try {
+      return OCompressionFactory.INSTANCE.getCompression(name, null);
+    } catch (OSecurityException e) {
+      OLogManager.instance()
+          .warn(this, "Compression '%s' is not supported, responses are not compressed", name);
+      return null;
+    }
+  }
+
   @SuppressWarnings("unchecked")
   private static RuntimeException createException(
       final String iClassName, final String iMessage, final Exception iPrevious) {
@@ -179,6 +203,7 @@ public class OChannelBinaryAsynchClient extends OChannelBinary {
       }
 
       try {
+        endResponseFrame();
         setWaitResponseTimeout();
         currentStatus = readByte();
         currentSessionId = readInt();
@@ -207,6 +232,7 @@ public class OChannelBinaryAsynchClient extends OChannelBinary {
 
       currentMessage = readByte();
       handleStatus(currentStatus, currentSessionId);
+      if (currentStatus == OChannelBinaryProtocol.RESPONSE_STATUS_OK) beginResponseFrame();
       return tokenBytes;
     } catch (OLockException e) {
       Thread.currentThread().interrupt();
@@ -217,6 +243,7 @@ public class OChannelBinaryAsynchClient extends OChannelBinary {
   }
 
   public void endResponse() throws IOException {
+    endResponseFrame();
     // WAKE UP ALL THE WAITING THREADS
     try {
       releaseReadLock();
@@ -227,6 +254,18 @@ public class OChannelBinaryAsynchClient extends OChannelBinary {
     }
   }
 
+  /**
+   * Starts reading of the body of the successful response, if compression of the responses was
+   * negotiated on handshake the body is sent by the server as frame which may be compressed.
+   */
+  public void beginResponseFrame() throws IOException {
+    if (responseCompression != null) beginFrameRead(responseCompression);
+  }
+
+  public void endResponseFrame() {
+    endFrameRead();
+  }
+
   public void endRequest() throws IOException {
     flush();
     releaseWriteLock();
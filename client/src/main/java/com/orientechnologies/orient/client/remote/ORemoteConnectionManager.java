@@ -28,6 +28,7 @@ import com.orientechnologies.orient.client.binary.OChannelBinaryAsynchClient;
 import com.orientechnologies.orient.core.config.OContextConfiguration;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -48,6 +49,10 @@ public class ORemoteConnectionManager {
   public static final String PARAM_MAX_POOL = "maxpool";
 
   protected final ConcurrentMap<String, ORemoteConnectionPool> connections;
+  protected final ConcurrentMap<String, ORemoteMultiplexedChannel> multiplexedChannels =
+      new ConcurrentHashMap<String, ORemoteMultiplexedChannel>();
+  private final Set<String> multiplexingUnsupported =
+      Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
   protected final long timeout;
   protected final long idleTimeout;
   private final TimerTask idleTask;
@@ -78,6 +83,12 @@ public class ORemoteConnectionManager {
     }
 
     connections.clear();
+
+    for (ORemoteMultiplexedChannel channel : multiplexedChannels.values()) {
+      channel.close();
+    }
+    multiplexedChannels.clear();
+
     if (idleTask != null) {
       idleTask.cancel();
     }
@@ -128,6 +139,46 @@ public class ORemoteConnectionManager {
     return null;
   }
 
+  /**
+   * Returns the channel which is shared by all the multiplexed requests to the server. Network
+   * connection of the channel is taken from the pool of the server and is not returned back.
+   *
+   * @return the channel or <code>null</code> if server does not support request multiplexing.
+   */
+  public ORemoteMultiplexedChannel acquireMultiplexed(
+      final String iServerURL, final OContextConfiguration clientConfiguration) {
+    ORemoteMultiplexedChannel channel = multiplexedChannels.get(iServerURL);
+    if (channel != null && channel.isConnected()) return channel;
+
+    if (multiplexingUnsupported.contains(iServerURL)) return null;
+
+    synchronized (multiplexedChannels) {
+      channel = multiplexedChannels.get(iServerURL);
+      if (channel != null) {
+        if (channel.isConnected()) return channel;
+
+        channel.close();
+        multiplexedChannels.remove(iServerURL);
+      }
+
+      final OChannelBinaryAsynchClient network = acquire(iServerURL, clientConfiguration);
+      if (network == null) return null;
+
+      if (!ORemoteMultiplexedChannel.isSupported(network)) {
+        multiplexingUnsupported.add(iServerURL);
+        release(network);
+        return null;
+      }
+
+      final ORemoteConnectionPool pool = connections.get(iServerURL);
+      if (pool != null) pool.getPool().remove(network);
+
+      channel = new ORemoteMultiplexedChannel(network);
+      multiplexedChannels.put(iServerURL, channel);
+      return channel;
+    }
+  }
+
   public void release(final OChannelBinaryAsynchClient conn) {
     if (conn == null) return;
 
@@ -202,6 +253,9 @@ public class ORemoteConnectionManager {
   }
 
   public void closePool(final String url) {
+    final ORemoteMultiplexedChannel channel = multiplexedChannels.remove(url);
+    if (channel != null) channel.close();
+
     final ORemoteConnectionPool pool = connections.remove(url);
     if (pool == null) return;
 
@@ -229,5 +283,11 @@ public class ORemoteConnectionManager {
     for (Map.Entry<String, ORemoteConnectionPool> entry : connections.entrySet()) {
       entry.getValue().checkIdle(idleTimeout);
     }
+
+    for (ORemoteMultiplexedChannel channel : multiplexedChannels.values()) {
+      if (channel.closeIfIdle(idleTimeout)) {
+        multiplexedChannels.remove(channel.getServerURL(), channel);
+      }
+    }
   }
 }
@@ -0,0 +1,246 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.client.remote;
+
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.io.OIOException;
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.orient.client.binary.OChannelBinaryAsynchClient;
+import com.orientechnologies.orient.enterprise.channel.binary.OChannelBinaryProtocol;
+import com.orientechnologies.orient.enterprise.channel.binary.ONetworkProtocolException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Network channel shared by many requests at once. Every request is tagged by the id which is sent
+ * back by the server in the header of the response, so requests are written without waiting for
+ * the responses of the previous requests and responses are matched to the requests by the reader
+ * thread of the channel.
+ *
+ * <p>Channel can be used only if server supports protocol {@link
+ * OChannelBinaryProtocol#PROTOCOL_VERSION_39} or later.
+ */
+public class ORemoteMultiplexedChannel {
+  private final OChannelBinaryAsynchClient network;
+  private final AtomicInteger requestIds = new AtomicInteger();
+  private final ConcurrentMap<Integer, PendingRequest<?>> pending = new ConcurrentHashMap<>();
+  private final Thread reader;
+
+  private volatile boolean closed;
+  private volatile long lastUse;
+
+  public ORemoteMultiplexedChannel(final OChannelBinaryAsynchClient network) {
+    this.network = network;
+    this.lastUse = System.currentTimeMillis();
+
+    reader = new Thread(this::readResponses, "OrientDB multiplexed channel " + getServerURL());
+    reader.setDaemon(true);
+    reader.start();
+  }
+
+  public static boolean isSupported(final OChannelBinaryAsynchClient network) {
+    return network.getSrvProtocolVersion() >= OChannelBinaryProtocol.PROTOCOL_VERSION_39;
+  }
+
+  /**
+   * Sends the request, the returned future is completed once the response is received, or
+   * completed exceptionally if server returned the error or if the channel is broken.
+   */
+  public <T extends OBinaryResponse> CompletableFuture<T> send(
+      final OBinaryRequest<T> request, final OStorageRemoteSession session) {
+    final CompletableFuture<T> future = new CompletableFuture<>();
+    final OStorageRemoteNodeSession nodeSession = session.getServerSession(getServerURL());
+    if (nodeSession == null) {
+      future.completeExceptionally(
+          new OIOException("Invalid session for URL '" + getServerURL() + "'"));
+      return future;
+    }
+
+    final int requestId = requestIds.incrementAndGet();
+    pending.put(
+        requestId,
+        new PendingRequest<>(request.createResponse(), session, nodeSession, future));
+    lastUse = System.currentTimeMillis();
+
+    network.acquireWriteLock();
+    try {
+      if (closed) {
+        throw new IOException("Channel is closed");
+      }
+
+      network.writeByte(OChannelBinaryProtocol.REQUEST_MULTIPLEXED);
+      network.writeInt(requestId);
+      network.beginRequest(request.getCommand(), nodeSession);
+      request.write(network, session);
+      network.flush();
+    } catch (IOException | RuntimeException e) {
+      // PART OF THE REQUEST MAY BE ALREADY SENT, SO CHANNEL CANNOT BE USED ANYMORE
+      close(e);
+    } finally {
+      network.releaseWriteLock();
+    }
+
+    return future;
+  }
+
+  public String getServerURL() {
+    return network.getServerURL();
+  }
+
+  public boolean isConnected() {
+    return !closed && network.isConnected();
+  }
+
+  /** Closes the channel if there are no pending requests and it was not used for given time. */
+  public boolean closeIfIdle(final long timeout) {
+    network.acquireWriteLock();
+    try {
+      if (!pending.isEmpty() || lastUse + timeout >= System.currentTimeMillis()) {
+        return false;
+      }
+
+      close();
+      return true;
+    } finally {
+      network.releaseWriteLock();
+    }
+  }
+
+  public int getPendingRequests() {
+    return pending.size();
+  }
+
+  public void close() {
+    close(new IOException("Channel is closed"));
+  }
+
+  private void close(final Exception cause) {
+    closed = true;
+    network.close();
+
+    final OException exception =
+        OException.wrapException(
+            new OIOException("Multiplexed channel to " + getServerURL() + " is closed"), cause);
+
+    final List<PendingRequest<?>> requests = new ArrayList<>(pending.values());
+    pending.clear();
+    for (PendingRequest<?> request : requests) {
+      request.future.completeExceptionally(exception);
+    }
+  }
+
+  private void readResponses() {
+    try {
+      while (!closed) {
+        final byte status;
+        try {
+          network.setWaitRequestTimeout();
+          status = network.readByte();
+        } finally {
+          network.setReadRequestTimeout();
+        }
+
+        final int requestId = network.readInt();
+        final byte[] token = network.readBytes();
+        // ECHO OF THE REQUEST TYPE
+        network.readByte();
+
+        // REQUEST IS KEPT AS PENDING TILL THE RESPONSE IS READ, SO IT IS FAILED IF CHANNEL BREAKS
+        final PendingRequest<?> request = pending.get(requestId);
+        if (request == null) {
+          throw new ONetworkProtocolException("Response to the unknown request " + requestId);
+        }
+
+        if (token != null && token.length > 0) {
+          request.nodeSession.setSession(request.nodeSession.getSessionId(), token);
+        }
+
+        request.read(status, requestId);
+        pending.remove(requestId);
+      }
+    } catch (IOException | RuntimeException e) {
+      if (!closed) {
+        OLogManager.instance()
+            .debug(this, "Error on reading response from %s", e, getServerURL());
+      }
+      close(e);
+    }
+  }
+
+  private final class PendingRequest<T extends OBinaryResponse> {
+    private final T response;
+    private final OStorageRemoteSession session;
+    private final OStorageRemoteNodeSession nodeSession;
+    private final CompletableFuture<T> future;
+
+    private PendingRequest(
+        final T response,
+        final OStorageRemoteSession session,
+        final OStorageRemoteNodeSession nodeSession,
+        final CompletableFuture<T> future) {
+      this.response = response;
+      this.session = session;
+      this.nodeSession = nodeSession;
+      this.future = future;
+    }
+
+    private void read(final byte status, final int requestId) throws IOException {
+      if (status == OChannelBinaryProtocol.RESPONSE_STATUS_OK) {
+        network.beginResponseFrame();
+        try {
+          response.read(network, session);
+        } finally {
+          network.endResponseFrame();
+        }
+        future.complete(response);
+        return;
+      }
+
+      if (status != OChannelBinaryProtocol.RESPONSE_STATUS_ERROR) {
+        throw new ONetworkProtocolException("Unexpected response status " + status);
+      }
+
+      final Throwable[] error = new Throwable[1];
+      network.handleStatus(
+          status,
+          requestId,
+          (e) -> {
+            if (error[0] == null) {
+              error[0] = e;
+            }
+          });
+
+      try {
+        network.handleException(error[0]);
+      } catch (RuntimeException e) {
+        future.completeExceptionally(e);
+      }
+
+      if (!future.isDone()) {
+        future.completeExceptionally(new ONetworkProtocolException("Network response error"));
+      }
+    }
+  }
+}
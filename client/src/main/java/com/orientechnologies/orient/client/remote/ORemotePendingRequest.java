@@ -0,0 +1,114 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.client.remote;
+
+import com.orientechnologies.orient.client.binary.OChannelBinaryAsynchClient;
+import java.io.IOException;
+
+/**
+ * Request which is sent but response of which is not read yet. Channel of the request is not
+ * returned to the pool till the response is read, so the response waits in the channel till it is
+ * needed and it is read by the thread which needs it.
+ *
+ * <p>The server serves the requests of a session one by one, so the response has to be read before
+ * any other request of the same session is sent, otherwise the server may block on writing of the
+ * response while the next request waits for it. The response is read only once, following calls of
+ * {@link #read()} return the same response or throw the same error.
+ */
+public class ORemotePendingRequest<T extends OBinaryResponse> {
+  private final OChannelBinaryAsynchClient network;
+  private final OStorageRemoteSession session;
+  private final T response;
+
+  private long waitTime;
+  private long receivedBytes;
+
+  private boolean done;
+  private IOException ioError;
+  private RuntimeException error;
+
+  public ORemotePendingRequest(
+      final OChannelBinaryAsynchClient network,
+      final OStorageRemoteSession session,
+      final T response) {
+    this.network = network;
+    this.session = session;
+    this.response = response;
+  }
+
+  public OChannelBinaryAsynchClient getNetwork() {
+    return network;
+  }
+
+  public OStorageRemoteSession getSession() {
+    return session;
+  }
+
+  /** @return true if the response is already read, successfully or not. */
+  public boolean isDone() {
+    return done;
+  }
+
+  /** Reads the response, channel is not released, it is responsibility of the caller. */
+  public T read() throws IOException {
+    if (!done) {
+      done = true;
+      try {
+        doRead();
+      } catch (IOException e) {
+        ioError = e;
+      } catch (RuntimeException e) {
+        error = e;
+      }
+    }
+
+    if (ioError != null) {
+      throw ioError;
+    }
+    if (error != null) {
+      throw error;
+    }
+    return response;
+  }
+
+  private void doRead() throws IOException {
+    final long bytes = network.getMetricReceivedBytes();
+    final long start = System.nanoTime();
+    try {
+      OStorageRemote.beginResponse(network, session);
+      waitTime = System.nanoTime() - start;
+      response.read(network, session);
+    } finally {
+      network.endResponse();
+    }
+
+    receivedBytes = network.getMetricReceivedBytes() - bytes;
+  }
+
+  /** @return time in nanoseconds the reader waited for the response. */
+  public long getWaitTime() {
+    return waitTime;
+  }
+
+  /** @return size of the response in bytes. */
+  public long getReceivedBytes() {
+    return receivedBytes;
+  }
+}
@@ -32,6 +32,7 @@ import com.orientechnologies.common.util.OCallable;
 import com.orientechnologies.common.util.OCommonConst;
 import com.orientechnologies.orient.client.ONotSendRequestException;
 import com.orientechnologies.orient.client.binary.OChannelBinaryAsynchClient;
+import com.orientechnologies.orient.client.remote.message.OAdaptivePageSize;
 import com.orientechnologies.orient.client.remote.message.OAddClusterRequest;
 import com.orientechnologies.orient.client.remote.message.OAddClusterResponse;
 import com.orientechnologies.orient.client.remote.message.OBeginTransaction38Request;
@@ -189,6 +190,7 @@ import java.util.Set;
 import java.util.TimeZone;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -410,12 +412,51 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
     return networkOperationRetryTimeout(request, errorMessage, connectionRetry, 0);
   }
 
+  /**
+   * Sends the request over the channel which is shared by the requests of all the threads, so many
+   * requests are in flight on the single connection and the caller does not wait for the response.
+   * If the session is not opened on the server yet or if the server does not support request
+   * multiplexing, the request is executed synchronously and the completed future is returned.
+   *
+   * <p>Failed requests are not retried, the future is completed exceptionally instead.
+   */
+  public <T extends OBinaryResponse> CompletableFuture<T> networkOperationAsync(
+      final OBinaryRequest<T> request, final String errorMessage) {
+    final OStorageRemoteSession session = getCurrentSession();
+    readPendingRequests(session);
+    final String serverUrl = getNextAvailableServerURL(false, session);
+    final OStorageRemoteNodeSession nodeSession = session.getServerSession(serverUrl);
+
+    ORemoteMultiplexedChannel channel = null;
+    if (nodeSession != null && nodeSession.isValid()) {
+      try {
+        channel = connectionManager.acquireMultiplexed(serverUrl, clientConfiguration);
+      } catch (OException e) {
+        OLogManager.instance()
+            .debug(this, "Cannot open multiplexed channel to %s", e, serverUrl);
+      }
+    }
+
+    if (channel == null) {
+      final CompletableFuture<T> future = new CompletableFuture<>();
+      try {
+        future.complete(networkOperation(request, errorMessage));
+      } catch (RuntimeException e) {
+        future.completeExceptionally(e);
+      }
+      return future;
+    }
+
+    return channel.send(request, session);
+  }
+
   public <T> T baseNetworkOperation(
       final OStorageRemoteOperation<T> operation, final String errorMessage, int retry) {
     OStorageRemoteSession session = getCurrentSession();
     if (session.commandExecuting)
       throw new ODatabaseException(
           "Cannot execute the request because an asynchronous operation is in progress. Please use a different connection");
+    readPendingRequests(session);
 
     String serverUrl = null;
     do {
@@ -519,6 +560,44 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
     } while (true);
   }
 
+  /**
+   * Reads the responses of the requests of the session which are sent but not read yet, like
+   * prefetched pages of the queries. The server serves the requests of a session one by one, so the
+   * next request of the session is not served till those responses are read, responses stay in the
+   * pending requests till they are needed.
+   */
+  private void readPendingRequests(final OStorageRemoteSession session) {
+    for (ORemotePendingRequest<?> pending : session.getPendingRequests()) {
+      try {
+        readPendingRequest(pending);
+      } catch (IOException | RuntimeException e) {
+        OLogManager.instance().debug(this, "Error on reading of pending response", e);
+      }
+    }
+  }
+
+  /**
+   * Reads the response of the pending request and returns its channel to the pool, or removes the
+   * channel from the pool if the response can not be read.
+   */
+  private <T extends OBinaryResponse> T readPendingRequest(final ORemotePendingRequest<T> pending)
+      throws IOException {
+    if (!pending.getSession().removePendingRequest(pending)) {
+      // ALREADY READ, CHANNEL IS ALREADY RELEASED
+      return pending.read();
+    }
+
+    final OChannelBinaryAsynchClient network = pending.getNetwork();
+    try {
+      final T response = pending.read();
+      connectionManager.release(network);
+      return response;
+    } catch (IOException | RuntimeException e) {
+      connectionManager.remove(network);
+      throw e;
+    }
+  }
+
   @Override
   public boolean isAssigningClusterIds() {
     return false;
@@ -816,6 +895,14 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
     return new OStorageOperationResult<ORawBuffer>(response.getResult());
   }
 
+  /** Reads the record without waiting for the responses of the requests sent before. */
+  public CompletableFuture<ORawBuffer> readRecordAsync(
+      final ORecordId iRid, final String iFetchPlan, final boolean iIgnoreCache) {
+    OReadRecordRequest request = new OReadRecordRequest(iIgnoreCache, iRid, iFetchPlan, false);
+    return networkOperationAsync(request, "Error on read record " + iRid)
+        .thenApply(OReadRecordResponse::getResult);
+  }
+
   public OStorageOperationResult<ORawBuffer> readRecord(
       final ORecordId iRid,
       final String iFetchPlan,
@@ -1097,20 +1184,7 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
         new OQueryRequest(
             "sql", query, args, OQueryRequest.QUERY, db.getSerializer(), recordsPerPage);
     OQueryResponse response = networkOperation(request, "Error on executing command: " + query);
-    ORemoteResultSet rs =
-        new ORemoteResultSet(
-            db,
-            response.getQueryId(),
-            response.getResult(),
-            response.getExecutionPlan(),
-            response.getQueryStats(),
-            response.isHasNextPage());
-    if (response.isHasNextPage()) {
-      stickToSession();
-    } else {
-      db.queryClosed(response.getQueryId());
-    }
-    return new ORemoteQueryResult(rs, response.isTxChanges(), response.isReloadMetadata());
+    return createQueryResult(db, response, recordsPerPage);
   }
 
   public ORemoteQueryResult query(ODatabaseDocumentRemote db, String query, Map args) {
@@ -1122,21 +1196,7 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
         new OQueryRequest(
             "sql", query, args, OQueryRequest.QUERY, db.getSerializer(), recordsPerPage);
     OQueryResponse response = networkOperation(request, "Error on executing command: " + query);
-
-    ORemoteResultSet rs =
-        new ORemoteResultSet(
-            db,
-            response.getQueryId(),
-            response.getResult(),
-            response.getExecutionPlan(),
-            response.getQueryStats(),
-            response.isHasNextPage());
-    if (response.isHasNextPage()) {
-      stickToSession();
-    } else {
-      db.queryClosed(response.getQueryId());
-    }
-    return new ORemoteQueryResult(rs, response.isTxChanges(), response.isReloadMetadata());
+    return createQueryResult(db, response, recordsPerPage);
   }
 
   public ORemoteQueryResult command(ODatabaseDocumentRemote db, String query, Object[] args) {
@@ -1149,20 +1209,7 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
             "sql", query, args, OQueryRequest.COMMAND, db.getSerializer(), recordsPerPage);
     OQueryResponse response =
         networkOperationNoRetry(request, "Error on executing command: " + query);
-    ORemoteResultSet rs =
-        new ORemoteResultSet(
-            db,
-            response.getQueryId(),
-            response.getResult(),
-            response.getExecutionPlan(),
-            response.getQueryStats(),
-            response.isHasNextPage());
-    if (response.isHasNextPage()) {
-      stickToSession();
-    } else {
-      db.queryClosed(response.getQueryId());
-    }
-    return new ORemoteQueryResult(rs, response.isTxChanges(), response.isReloadMetadata());
+    return createQueryResult(db, response, recordsPerPage);
   }
 
   public ORemoteQueryResult command(ODatabaseDocumentRemote db, String query, Map args) {
@@ -1175,20 +1222,7 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
             "sql", query, args, OQueryRequest.COMMAND, db.getSerializer(), recordsPerPage);
     OQueryResponse response =
         networkOperationNoRetry(request, "Error on executing command: " + query);
-    ORemoteResultSet rs =
-        new ORemoteResultSet(
-            db,
-            response.getQueryId(),
-            response.getResult(),
-            response.getExecutionPlan(),
-            response.getQueryStats(),
-            response.isHasNextPage());
-    if (response.isHasNextPage()) {
-      stickToSession();
-    } else {
-      db.queryClosed(response.getQueryId());
-    }
-    return new ORemoteQueryResult(rs, response.isTxChanges(), response.isReloadMetadata());
+    return createQueryResult(db, response, recordsPerPage);
   }
 
   public ORemoteQueryResult serverCommand(String query, Object[] args) {
@@ -1264,22 +1298,7 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
             language, query, args, OQueryRequest.EXECUTE, db.getSerializer(), recordsPerPage);
     OQueryResponse response =
         networkOperationNoRetry(request, "Error on executing command: " + query);
-    ORemoteResultSet rs =
-        new ORemoteResultSet(
-            db,
-            response.getQueryId(),
-            response.getResult(),
-            response.getExecutionPlan(),
-            response.getQueryStats(),
-            response.isHasNextPage());
-
-    if (response.isHasNextPage()) {
-      stickToSession();
-    } else {
-      db.queryClosed(response.getQueryId());
-    }
-
-    return new ORemoteQueryResult(rs, response.isTxChanges(), response.isReloadMetadata());
+    return createQueryResult(db, response, recordsPerPage);
   }
 
   public ORemoteQueryResult execute(
@@ -1293,6 +1312,17 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
             language, query, args, OQueryRequest.EXECUTE, db.getSerializer(), recordsPerPage);
     OQueryResponse response =
         networkOperationNoRetry(request, "Error on executing command: " + query);
+    return createQueryResult(db, response, recordsPerPage);
+  }
+
+  public void closeQuery(ODatabaseDocumentRemote database, String queryId) {
+    unstickToSession();
+    OCloseQueryRequest request = new OCloseQueryRequest(queryId);
+    networkOperation(request, "Error closing query: " + queryId);
+  }
+
+  private ORemoteQueryResult createQueryResult(
+      final ODatabaseDocumentRemote db, final OQueryResponse response, final int recordsPerPage) {
     ORemoteResultSet rs =
         new ORemoteResultSet(
             db,
@@ -1303,26 +1333,84 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
             response.isHasNextPage());
     if (response.isHasNextPage()) {
       stickToSession();
+      rs.setPageSize(
+          new OAdaptivePageSize(
+              recordsPerPage,
+              OGlobalConfiguration.QUERY_REMOTE_RESULTSET_MAX_PAGE_SIZE.getValueAsInteger(),
+              OGlobalConfiguration.QUERY_REMOTE_RESULTSET_MAX_PAGE_BYTES.getValueAsInteger()));
+      prefetchNextPage(db, rs);
     } else {
       db.queryClosed(response.getQueryId());
     }
     return new ORemoteQueryResult(rs, response.isTxChanges(), response.isReloadMetadata());
   }
 
-  public void closeQuery(ODatabaseDocumentRemote database, String queryId) {
-    unstickToSession();
-    OCloseQueryRequest request = new OCloseQueryRequest(queryId);
-    networkOperation(request, "Error closing query: " + queryId);
+  public void fetchNextPage(ODatabaseDocumentRemote database, ORemoteResultSet rs) {
+    if (rs.getPageSize() == null) {
+      int recordsPerPage =
+          OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PAGE_SIZE.getValueAsInteger();
+      if (recordsPerPage <= 0) {
+        recordsPerPage = 100;
+      }
+      rs.setPageSize(new OAdaptivePageSize(recordsPerPage, recordsPerPage, 0));
+    }
+
+    final long consumeTime = System.nanoTime() - rs.getPageReceivedTime();
+    final long start = System.nanoTime();
+    if (rs.getPrefetch() == null) {
+      try {
+        rs.setPrefetch(sendNextPageRequest(rs));
+      } catch (OException e) {
+        OLogManager.instance()
+            .debug(this, "Cannot request next page of query %s", e, rs.getQueryId());
+      }
+    }
+
+    final ORemotePendingRequest<OQueryResponse> pending = rs.getPrefetch();
+    final OQueryResponse response = readNextPage(database, rs);
+    if (pending != null) {
+      rs.getPageSize()
+          .pageReceived(
+              response.getResult().size(),
+              pending.getReceivedBytes(),
+              pending.getWaitTime(),
+              consumeTime);
+    } else {
+      rs.getPageSize()
+          .pageReceived(response.getResult().size(), 0, System.nanoTime() - start, consumeTime);
+    }
+
+    prefetchNextPage(database, rs);
   }
 
-  public void fetchNextPage(ODatabaseDocumentRemote database, ORemoteResultSet rs) {
-    int recordsPerPage = OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PAGE_SIZE.getValueAsInteger();
-    if (recordsPerPage <= 0) {
-      recordsPerPage = 100;
+  /**
+   * Reads the page which was requested by {@link #prefetchNextPage(ODatabaseDocumentRemote,
+   * ORemoteResultSet)}, if page is not requested yet it is fetched synchronously. If reading of the
+   * prefetched page fails the error is thrown, the page is not fetched again because the server
+   * already moved the cursor of the query past it. Failed request is kept in the result set, so
+   * following reads throw the same error.
+   */
+  public OQueryResponse readNextPage(ODatabaseDocumentRemote database, ORemoteResultSet rs) {
+    final ORemotePendingRequest<OQueryResponse> pending = rs.getPrefetch();
+
+    final OQueryResponse response;
+    if (pending != null) {
+      try {
+        response = readPendingRequest(pending);
+      } catch (IOException e) {
+        throw OException.wrapException(
+            new OStorageException(
+                "Error on reading of prefetched page of query: " + rs.getQueryId()),
+            e);
+      }
+      rs.setPrefetch(null);
+    } else {
+      OQueryNextPageRequest request =
+          new OQueryNextPageRequest(rs.getQueryId(), rs.getPageSize().getPageSize());
+      response =
+          networkOperation(
+              request, "Error on fetching next page for statment: " + rs.getQueryId());
     }
-    OQueryNextPageRequest request = new OQueryNextPageRequest(rs.getQueryId(), recordsPerPage);
-    OQueryResponse response =
-        networkOperation(request, "Error on fetching next page for statment: " + rs.getQueryId());
 
     rs.fetched(
         response.getResult(),
@@ -1333,6 +1421,52 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
       unstickToSession();
       database.queryClosed(response.getQueryId());
     }
+    return response;
+  }
+
+  /**
+   * Requests the next page of the result set without reading the response, so the server prepares
+   * the page while the current page is consumed. Pages are not prefetched inside of transactions
+   * because changes of the transaction are sent to the server only when the page is fetched.
+   */
+  private void prefetchNextPage(ODatabaseDocumentRemote database, ORemoteResultSet rs) {
+    if (!rs.hasNextPage()
+        || rs.getPrefetch() != null
+        || !OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PREFETCH.getValueAsBoolean()
+        || database.getTransaction().isActive()) {
+      return;
+    }
+
+    try {
+      rs.setPrefetch(sendNextPageRequest(rs));
+    } catch (OException e) {
+      OLogManager.instance()
+          .debug(this, "Cannot prefetch next page of query %s", e, rs.getQueryId());
+    }
+  }
+
+  private ORemotePendingRequest<OQueryResponse> sendNextPageRequest(final ORemoteResultSet rs) {
+    final OQueryNextPageRequest request =
+        new OQueryNextPageRequest(rs.getQueryId(), rs.getPageSize().getPageSize());
+    final ORemotePendingRequest<OQueryResponse> pending =
+        baseNetworkOperation(
+            (network, session) -> {
+              try {
+                try {
+                  network.beginRequest(request.getCommand(), session);
+                  request.write(network, session);
+                } finally {
+                  network.endRequest();
+                }
+              } catch (IOException e) {
+                throw new ONotSendRequestException("Cannot send request on this channel");
+              }
+              return new ORemotePendingRequest<>(network, session, request.createResponse());
+            },
+            "Error on fetching next page for statment: " + rs.getQueryId(),
+            0);
+    pending.getSession().addPendingRequest(pending);
+    return pending;
   }
 
   public List<ORecordOperation> commit(final OTransactionInternal iTx) {
@@ -55,7 +55,13 @@ public class OStorageRemotePushThread extends Thread {
           byte[] token = network.readBytes();
           byte messageId = network.readByte();
           OBinaryResponse response = currentRequest.createResponse();
-          response.read(network, null);
+          final OChannelBinaryAsynchClient client = (OChannelBinaryAsynchClient) network;
+          client.beginResponseFrame();
+          try {
+            response.read(network, null);
+          } finally {
+            client.endResponseFrame();
+          }
           blockingQueue.put(response);
         } else if (res == OChannelBinaryProtocol.RESPONSE_STATUS_ERROR) {
           int currentSessionId = network.readInt();
@@ -26,10 +26,12 @@ import com.orientechnologies.orient.client.remote.message.OCloseRequest;
 import com.orientechnologies.orient.core.config.OContextConfiguration;
 import com.orientechnologies.orient.enterprise.channel.binary.OChannelBinary;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
@@ -45,6 +47,7 @@ public class OStorageRemoteSession {
 
   private Set<OChannelBinary> connections =
       Collections.newSetFromMap(new WeakHashMap<OChannelBinary, Boolean>());
+  private final List<ORemotePendingRequest<?>> pendingRequests = new ArrayList<>();
   private final int uniqueClientSessionId;
   private boolean closed = true;
   /**
@@ -84,6 +87,19 @@ public class OStorageRemoteSession {
     connections.add(connection);
   }
 
+  public synchronized void addPendingRequest(final ORemotePendingRequest<?> request) {
+    pendingRequests.add(request);
+  }
+
+  public synchronized boolean removePendingRequest(final ORemotePendingRequest<?> request) {
+    return pendingRequests.remove(request);
+  }
+
+  /** @return requests of the session which are sent but responses of which are not read yet. */
+  public synchronized List<ORemotePendingRequest<?>> getPendingRequests() {
+    return new ArrayList<>(pendingRequests);
+  }
+
   public void close() {
     commandExecuting = false;
     serverURLIndex = -1;
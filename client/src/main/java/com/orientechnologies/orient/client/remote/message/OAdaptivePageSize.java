@@ -0,0 +1,54 @@
+package com.orientechnologies.orient.client.remote.message;
+
+/**
+ * Size of the pages of the remote result set which is adapted to the speed the result set is
+ * consumed with. Page is doubled each time the consumer waited for it longer than the quarter of
+ * the time it spent on the previous page, so round trips are amortized if records are consumed
+ * faster than they are received. Page never exceeds the maximum amount of records and the maximum
+ * size in bytes estimated by the average size of the records received so far.
+ */
+public class OAdaptivePageSize {
+  private static final int WAIT_RATIO = 4;
+
+  private final int maxRecords;
+  private final long maxBytes;
+
+  private int pageSize;
+  private long recordSize;
+
+  public OAdaptivePageSize(final int pageSize, final int maxRecords, final long maxBytes) {
+    this.pageSize = Math.max(1, pageSize);
+    this.maxRecords = Math.max(this.pageSize, maxRecords);
+    this.maxBytes = maxBytes;
+  }
+
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  /**
+   * Updates the size of the next page.
+   *
+   * @param records amount of records in the received page
+   * @param bytes size of the received page in bytes, or 0 if it is unknown
+   * @param waitTime time the consumer waited for the page
+   * @param consumeTime time the consumer spent on the previous page
+   */
+  public void pageReceived(
+      final int records, final long bytes, final long waitTime, final long consumeTime) {
+    if (records > 0 && bytes > 0) {
+      recordSize = Math.max(1, bytes / records);
+    }
+
+    long size = pageSize;
+    if (waitTime * WAIT_RATIO > consumeTime) {
+      size = Math.min((long) pageSize * 2, maxRecords);
+    }
+
+    if (recordSize > 0 && maxBytes > 0) {
+      size = Math.min(size, Math.max(1, maxBytes / recordSize));
+    }
+
+    pageSize = (int) size;
+  }
+}
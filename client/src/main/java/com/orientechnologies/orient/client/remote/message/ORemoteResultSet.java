@@ -1,11 +1,14 @@
 package com.orientechnologies.orient.client.remote.message;
 
+import com.orientechnologies.orient.client.remote.ORemotePendingRequest;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentRemote;
 import com.orientechnologies.orient.core.record.ORecord;
 import com.orientechnologies.orient.core.sql.executor.OExecutionPlan;
 import com.orientechnologies.orient.core.sql.executor.OResult;
 import com.orientechnologies.orient.core.sql.executor.OResultInternal;
 import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -15,10 +18,13 @@ public class ORemoteResultSet implements OResultSet {
 
   private final ODatabaseDocumentRemote db;
   private final String queryId;
-  private List<OResultInternal> currentPage;
+  private Deque<OResultInternal> currentPage;
   private Optional<OExecutionPlan> executionPlan;
   private Map<String, Long> queryStats;
   private boolean hasNextPage;
+  private OAdaptivePageSize pageSize;
+  private ORemotePendingRequest<OQueryResponse> prefetch;
+  private long pageReceivedTime = System.nanoTime();
 
   public ORemoteResultSet(
       ODatabaseDocumentRemote db,
@@ -29,7 +35,7 @@ public class ORemoteResultSet implements OResultSet {
       boolean hasNextPage) {
     this.db = db;
     this.queryId = queryId;
-    this.currentPage = currentPage;
+    this.currentPage = new ArrayDeque<>(currentPage);
     this.executionPlan = executionPlan;
     this.queryStats = queryStats;
     this.hasNextPage = hasNextPage;
@@ -70,7 +76,7 @@ public class ORemoteResultSet implements OResultSet {
     if (currentPage.isEmpty()) {
       throw new IllegalStateException();
     }
-    OResultInternal internal = currentPage.remove(0);
+    OResultInternal internal = currentPage.poll();
 
     if (internal.isRecord() && db != null && db.getTransaction().isActive()) {
       ORecord record = db.getTransaction().getRecord(internal.getRecord().get().getIdentity());
@@ -83,10 +89,17 @@ public class ORemoteResultSet implements OResultSet {
 
   @Override
   public void close() {
-    if (hasNextPage && db != null) {
-      // CLOSES THE QUERY SERVER SIDE ONLY IF THERE IS ANOTHER PAGE. THE SERVER ALREADY
-      // AUTOMATICALLY CLOSES THE QUERY AFTER SENDING THE LAST PAGE
-      db.closeQuery(queryId);
+    try {
+      if (prefetch != null && !prefetch.isDone() && db != null) {
+        // RESPONSE OF THE PREFETCHED PAGE HAS TO BE READ BEFORE THE CHANNEL IS REUSED
+        db.readPrefetchedPage(this);
+      }
+    } finally {
+      if (hasNextPage && db != null) {
+        // CLOSES THE QUERY SERVER SIDE ONLY IF THERE IS ANOTHER PAGE. THE SERVER ALREADY
+        // AUTOMATICALLY CLOSES THE QUERY AFTER SENDING THE LAST PAGE
+        db.closeQuery(queryId);
+      }
     }
   }
 
@@ -117,12 +130,35 @@ public class ORemoteResultSet implements OResultSet {
       boolean hasNextPage,
       Optional<OExecutionPlan> executionPlan,
       Map<String, Long> queryStats) {
-    this.currentPage = result;
+    this.currentPage = new ArrayDeque<>(result);
     this.hasNextPage = hasNextPage;
+    this.pageReceivedTime = System.nanoTime();
 
     if (queryStats != null) {
       this.queryStats = queryStats;
     }
     executionPlan.ifPresent(x -> this.executionPlan = executionPlan);
   }
+
+  public OAdaptivePageSize getPageSize() {
+    return pageSize;
+  }
+
+  public void setPageSize(OAdaptivePageSize pageSize) {
+    this.pageSize = pageSize;
+  }
+
+  /** @return time in nanoseconds when the current page was received. */
+  public long getPageReceivedTime() {
+    return pageReceivedTime;
+  }
+
+  /** @return request of the next page which is sent but not read yet. */
+  public ORemotePendingRequest<OQueryResponse> getPrefetch() {
+    return prefetch;
+  }
+
+  public void setPrefetch(ORemotePendingRequest<OQueryResponse> prefetch) {
+    this.prefetch = prefetch;
+  }
 }
@@ -462,6 +462,11 @@ public class ODatabaseDocumentRemote extends ODatabaseDocumentAbstract {
     storage.fetchNextPage(this, rs);
   }
 
+  /** Reads the prefetched page of the result set, so the channel of the prefetch is released. */
+  public void readPrefetchedPage(ORemoteResultSet rs) {
+    storage.readNextPage(this, rs);
+  }
+
   @Override
   public OLiveQueryMonitor live(String query, OLiveQueryResultListener listener, Object... args) {
     return storage.liveQuery(
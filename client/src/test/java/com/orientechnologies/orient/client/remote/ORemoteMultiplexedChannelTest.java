@@ -0,0 +1,222 @@
+package com.orientechnologies.orient.client.remote;
+
+import com.orientechnologies.common.io.OIOException;
+import com.orientechnologies.orient.client.binary.OBinaryRequestExecutor;
+import com.orientechnologies.orient.client.binary.OChannelBinaryAsynchClient;
+import com.orientechnologies.orient.core.config.OContextConfiguration;
+import com.orientechnologies.orient.core.serialization.serializer.record.ORecordSerializer;
+import com.orientechnologies.orient.enterprise.channel.binary.OChannelBinaryProtocol;
+import com.orientechnologies.orient.enterprise.channel.binary.OChannelDataInput;
+import com.orientechnologies.orient.enterprise.channel.binary.OChannelDataOutput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ORemoteMultiplexedChannelTest {
+  private ServerSocket serverSocket;
+  private Thread server;
+
+  @Before
+  public void before() throws IOException {
+    serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+  }
+
+  @After
+  public void after() throws Exception {
+    serverSocket.close();
+    if (server != null) {
+      server.join(10_000);
+    }
+  }
+
+  @Test
+  public void testResponsesAreMatchedByRequestId() throws Exception {
+    // SERVER ANSWERS THE REQUESTS IN THE REVERSE ORDER
+    startServer(2, true);
+
+    final ORemoteMultiplexedChannel channel = new ORemoteMultiplexedChannel(connect());
+    try {
+      final OStorageRemoteSession session = createSession(channel.getServerURL());
+
+      final CompletableFuture<TestResponse> first = channel.send(new TestRequest(1), session);
+      final CompletableFuture<TestResponse> second = channel.send(new TestRequest(2), session);
+
+      Assert.assertEquals(20, second.get(10, TimeUnit.SECONDS).value);
+      Assert.assertEquals(10, first.get(10, TimeUnit.SECONDS).value);
+    } finally {
+      channel.close();
+    }
+  }
+
+  @Test
+  public void testPendingRequestsFailOnClose() throws Exception {
+    final CountDownLatch requestRead = startServer(1, false);
+
+    final ORemoteMultiplexedChannel channel = new ORemoteMultiplexedChannel(connect());
+    final OStorageRemoteSession session = createSession(channel.getServerURL());
+
+    final CompletableFuture<TestResponse> future = channel.send(new TestRequest(1), session);
+    Assert.assertTrue(requestRead.await(10, TimeUnit.SECONDS));
+    Assert.assertFalse(future.isDone());
+
+    channel.close();
+
+    try {
+      future.get(10, TimeUnit.SECONDS);
+      Assert.fail();
+    } catch (ExecutionException e) {
+      Assert.assertTrue(e.getCause() instanceof OIOException);
+    }
+    Assert.assertFalse(channel.isConnected());
+  }
+
+  private OChannelBinaryAsynchClient connect() throws IOException {
+    return new OChannelBinaryAsynchClient(
+        serverSocket.getInetAddress().getHostAddress(),
+        serverSocket.getLocalPort(),
+        new OContextConfiguration(),
+        OChannelBinaryProtocol.CURRENT_PROTOCOL_VERSION);
+  }
+
+  private static OStorageRemoteSession createSession(final String serverURL) {
+    final OStorageRemoteSession session = new OStorageRemoteSession(1);
+    session.getOrCreateServerSession(serverURL).setSession(1, new byte[] {1});
+    return session;
+  }
+
+  /** Emulates the server which reads the requests and answers them once all of them are read. */
+  private CountDownLatch startServer(final int requests, final boolean reply) {
+    final CountDownLatch requestsRead = new CountDownLatch(1);
+    server =
+        new Thread(
+            () -> {
+              try (Socket socket = serverSocket.accept()) {
+                final DataInputStream in = new DataInputStream(socket.getInputStream());
+                final DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+
+                out.writeShort(OChannelBinaryProtocol.CURRENT_PROTOCOL_VERSION);
+                out.flush();
+
+                // HANDSHAKE
+                Assert.assertEquals(OChannelBinaryProtocol.REQUEST_HANDSHAKE, in.readByte());
+                in.readShort();
+                readBytes(in);
+                readBytes(in);
+                in.readByte();
+                in.readByte();
+                // NO COMPRESSION OF THE RESPONSES
+                Assert.assertEquals(0, in.readInt());
+
+                final int[] ids = new int[requests];
+                final byte[] commands = new byte[requests];
+                final int[] values = new int[requests];
+                for (int i = 0; i < requests; i++) {
+                  Assert.assertEquals(OChannelBinaryProtocol.REQUEST_MULTIPLEXED, in.readByte());
+                  ids[i] = in.readInt();
+                  commands[i] = in.readByte();
+                  Assert.assertEquals(1, in.readInt());
+                  readBytes(in);
+                  values[i] = in.readInt();
+                }
+                requestsRead.countDown();
+
+                if (reply) {
+                  for (int i = requests - 1; i >= 0; i--) {
+                    out.writeByte(OChannelBinaryProtocol.RESPONSE_STATUS_OK);
+                    out.writeInt(ids[i]);
+                    out.writeInt(0);
+                    out.writeByte(commands[i]);
+                    out.writeInt(values[i] * 10);
+                  }
+                  out.flush();
+                }
+
+                // WAIT TILL CLIENT CLOSES CONNECTION
+                while (in.read() >= 0) ;
+              } catch (IOException e) {
+                // CONNECTION IS CLOSED
+              }
+            });
+    server.setDaemon(true);
+    server.start();
+    return requestsRead;
+  }
+
+  private static void readBytes(final DataInputStream in) throws IOException {
+    final int length = in.readInt();
+    if (length > 0) {
+      in.readFully(new byte[length]);
+    }
+  }
+
+  private static final class TestRequest implements OBinaryRequest<TestResponse> {
+    private final int value;
+
+    private TestRequest(final int value) {
+      this.value = value;
+    }
+
+    @Override
+    public void write(final OChannelDataOutput network, final OStorageRemoteSession session)
+        throws IOException {
+      network.writeInt(value);
+    }
+
+    @Override
+    public void read(
+        final OChannelDataInput channel,
+        final int protocolVersion,
+        final ORecordSerializer serializer) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public byte getCommand() {
+      return OChannelBinaryProtocol.REQUEST_DB_SIZE;
+    }
+
+    @Override
+    public TestResponse createResponse() {
+      return new TestResponse();
+    }
+
+    @Override
+    public OBinaryResponse execute(final OBinaryRequestExecutor executor) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String getDescription() {
+      return "Test request";
+    }
+  }
+
+  private static final class TestResponse implements OBinaryResponse {
+    private int value;
+
+    @Override
+    public void write(
+        final OChannelDataOutput channel,
+        final int protocolVersion,
+        final ORecordSerializer serializer) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void read(final OChannelDataInput network, final OStorageRemoteSession session)
+        throws IOException {
+      value = network.readInt();
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package com.orientechnologies.orient.client.remote.message;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OAdaptivePageSizeTest {
+  @Test
+  public void testPageGrowsIfConsumerWaits() {
+    final OAdaptivePageSize pageSize = new OAdaptivePageSize(100, 1000, 0);
+
+    pageSize.pageReceived(100, 0, 10, 10);
+    Assert.assertEquals(200, pageSize.getPageSize());
+
+    for (int i = 0; i < 10; i++) {
+      pageSize.pageReceived(pageSize.getPageSize(), 0, 10, 10);
+    }
+    Assert.assertEquals(1000, pageSize.getPageSize());
+  }
+
+  @Test
+  public void testPageDoesNotGrowIfConsumerIsSlow() {
+    final OAdaptivePageSize pageSize = new OAdaptivePageSize(100, 1000, 0);
+
+    pageSize.pageReceived(100, 0, 1, 1000);
+    Assert.assertEquals(100, pageSize.getPageSize());
+  }
+
+  @Test
+  public void testPageIsLimitedBySizeOfRecords() {
+    final OAdaptivePageSize pageSize = new OAdaptivePageSize(100, 1000, 10 * 1024);
+
+    // RECORDS OF 1KB
+    pageSize.pageReceived(100, 100 * 1024, 10, 10);
+    Assert.assertEquals(10, pageSize.getPageSize());
+
+    // RECORDS OF 100 BYTES
+    pageSize.pageReceived(10, 1000, 10, 10);
+    Assert.assertEquals(20, pageSize.getPageSize());
+  }
+}
@@ -0,0 +1,58 @@
+package com.orientechnologies.orient.client.remote.message;
+
+import com.orientechnologies.orient.core.compression.OCompression;
+import com.orientechnologies.orient.core.compression.OCompressionFactory;
+import com.orientechnologies.orient.core.compression.impl.OLZ4Compression;
+import java.io.IOException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OChannelFrameTest {
+  private final OCompression compression =
+      OCompressionFactory.INSTANCE.getCompression(OLZ4Compression.NAME, null);
+
+  @Test
+  public void testLargeFrameIsCompressed() throws IOException {
+    final MockChannel channel = new MockChannel();
+    final byte[] content = new byte[64 * 1024];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) (i % 7);
+    }
+
+    channel.beginFrame();
+    channel.writeBytes(content);
+    channel.writeString("end");
+    final int size = channel.getFrameSize();
+    final int sent = channel.endFrame(compression, 1024);
+    channel.writeInt(42);
+    channel.close();
+
+    Assert.assertTrue(sent < size);
+
+    channel.beginFrameRead(compression);
+    Assert.assertArrayEquals(content, channel.readBytes());
+    Assert.assertEquals("end", channel.readString());
+    channel.endFrameRead();
+    Assert.assertEquals(42, channel.readInt());
+  }
+
+  @Test
+  public void testFrameBelowThresholdIsNotCompressed() throws IOException {
+    final MockChannel channel = new MockChannel();
+
+    channel.beginFrame();
+    channel.writeString("small");
+    final int size = channel.getFrameSize();
+    final int sent = channel.endFrame(compression, 1024);
+    channel.writeInt(42);
+    channel.close();
+
+    // TYPE OF THE FRAME AND ITS LENGTH
+    Assert.assertEquals(size + 5, sent);
+
+    channel.beginFrameRead(compression);
+    Assert.assertEquals("small", channel.readString());
+    channel.endFrameRead();
+    Assert.assertEquals(42, channel.readInt());
+  }
+}
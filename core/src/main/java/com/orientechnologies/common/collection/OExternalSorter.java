@@ -0,0 +1,167 @@
+package com.orientechnologies.common.collection;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.function.Supplier;
+
+/**
+ * External merge sort of elements which do not fit in heap.
+ *
+ * <p>The caller collects the elements in heap and passes each full buffer to {@link #spill(List)},
+ * the buffer is sorted and written to a new sorted run (a temporary file). At the end the last,
+ * in-heap, buffer is passed to {@link #merge(List)} and the runs are lazily merged while the sorted
+ * elements are read. On equal elements the elements of the older runs come first, so the sort is
+ * stable. Sorted runs are deleted on {@link #close()}.
+ *
+ * @param <T> type of the sorted elements
+ */
+public class OExternalSorter<T> implements AutoCloseable {
+
+  /** Temporary file which holds a sequence of elements and returns them in the same order. */
+  public interface Run<T> extends AutoCloseable {
+    void write(T element);
+
+    /** Flushes the written elements, after this call the run can only be read. */
+    void finishWriting();
+
+    /** Returns the elements of the run in the order in which they were written. */
+    Iterator<T> iterator();
+
+    /** Releases the resources of the run and deletes its file. */
+    @Override
+    void close();
+  }
+
+  private final Comparator<? super T> comparator;
+  private final Supplier<? extends Run<T>> runFactory;
+  private final int maxRunSize;
+
+  private final List<Run<T>> runs = new ArrayList<>();
+
+  /**
+   * @param comparator order of the elements
+   * @param runFactory creates new empty sorted runs
+   * @param maxRunSize maximum number of the first elements of each buffer which are written to a
+   *     sorted run, the rest is dropped (used when only the first elements of the result are
+   *     needed), negative to write all the elements
+   */
+  public OExternalSorter(
+      final Comparator<? super T> comparator,
+      final Supplier<? extends Run<T>> runFactory,
+      final int maxRunSize) {
+    this.comparator = comparator;
+    this.runFactory = runFactory;
+    this.maxRunSize = maxRunSize;
+  }
+
+  public OExternalSorter(
+      final Comparator<? super T> comparator, final Supplier<? extends Run<T>> runFactory) {
+    this(comparator, runFactory, -1);
+  }
+
+  /** @return true if at least one buffer was written to disk. */
+  public boolean hasRuns() {
+    return !runs.isEmpty();
+  }
+
+  /** Sorts the buffer and writes it to a new sorted run, the buffer can be cleared after it. */
+  public void spill(final List<T> buffer) {
+    buffer.sort(comparator);
+
+    final Run<T> run = runFactory.get();
+    runs.add(run);
+    final int runSize = maxRunSize < 0 ? buffer.size() : Math.min(maxRunSize, buffer.size());
+    for (int i = 0; i < runSize; i++) {
+      run.write(buffer.get(i));
+    }
+    run.finishWriting();
+  }
+
+  /**
+   * Returns the elements of all the sorted runs and of the last buffer in sorted order, can be
+   * called only once.
+   *
+   * @param lastBuffer elements which were not spilled, they have to be already sorted
+   */
+  public Iterator<T> merge(final List<T> lastBuffer) {
+    if (runs.isEmpty()) {
+      return lastBuffer.iterator();
+    }
+
+    return new RunsMerger(lastBuffer);
+  }
+
+  @Override
+  public void close() {
+    for (final Run<T> run : runs) {
+      run.close();
+    }
+    runs.clear();
+  }
+
+  /** K-way merge of the sorted runs on disk and of the last (in heap) run. */
+  private final class RunsMerger implements Iterator<T> {
+    private final PriorityQueue<RunCursor<T>> heads;
+
+    private RunsMerger(final List<T> lastBuffer) {
+      heads =
+          new PriorityQueue<>(
+              runs.size() + 1,
+              (a, b) -> {
+                final int result = comparator.compare(a.current, b.current);
+                return result != 0 ? result : Integer.compare(a.runIndex, b.runIndex);
+              });
+      for (int i = 0; i < runs.size(); i++) {
+        addIfNotEmpty(new RunCursor<>(i, runs.get(i).iterator()));
+      }
+      addIfNotEmpty(new RunCursor<>(runs.size(), lastBuffer.iterator()));
+    }
+
+    private void addIfNotEmpty(final RunCursor<T> cursor) {
+      if (cursor.advance()) {
+        heads.add(cursor);
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !heads.isEmpty();
+    }
+
+    @Override
+    public T next() {
+      final RunCursor<T> cursor = heads.poll();
+      if (cursor == null) {
+        throw new NoSuchElementException();
+      }
+
+      final T element = cursor.current;
+      addIfNotEmpty(cursor);
+      return element;
+    }
+  }
+
+  private static final class RunCursor<T> {
+    private final int runIndex;
+    private final Iterator<T> iterator;
+    private T current;
+
+    private RunCursor(final int runIndex, final Iterator<T> iterator) {
+      this.runIndex = runIndex;
+      this.iterator = iterator;
+    }
+
+    private boolean advance() {
+      if (iterator.hasNext()) {
+        current = iterator.next();
+        return true;
+      }
+      current = null;
+      return false;
+    }
+  }
+}
@@ -412,6 +412,7 @@ public class ODirectMemoryAllocator implements ODirectMemoryAllocatorMXBean {
     DWL_ALLOCATE_COMPRESSED_CHUNK,
     ALLOCATE_FIRST_WAL_BUFFER,
     ALLOCATE_SECOND_WAL_BUFFER,
+    QUERY_DISTINCT_DIGESTS,
   }
 
   /**
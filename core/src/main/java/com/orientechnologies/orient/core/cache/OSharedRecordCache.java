@@ -0,0 +1,385 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.core.cache;
+
+import com.orientechnologies.orient.core.config.OStorageConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
+import com.orientechnologies.orient.core.db.OMetadataUpdateListener;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.index.OIndexManagerAbstract;
+import com.orientechnologies.orient.core.metadata.OMetadataInternal;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OImmutableSchema;
+import com.orientechnologies.orient.core.metadata.schema.OSchemaShared;
+import com.orientechnologies.orient.core.storage.ORawBuffer;
+import com.orientechnologies.orient.core.storage.cache.chm.FrequencySketch;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache of serialized records which is shared by all the sessions opened on the same storage, so
+ * hot records do not need to be read from the pages of the disk cache by every new session. Size of
+ * the cache is limited in bytes of record content, records are evicted in LRU order and new records
+ * are admitted only if they are accessed more frequently than the record which would be evicted
+ * (TinyLFU admission, the same {@link FrequencySketch} used by the disk cache).
+ *
+ * <p>Only records of the configured classes (and of their subclasses) are cached. Storage has to
+ * call {@link #invalidate(ORID)} once change of the record is committed. To avoid caching of stale
+ * content read concurrently with the commit, readers take a stamp with {@link #stamp(ORID)} before
+ * the read of the record and the record is put in the cache only if no invalidation happened in
+ * between.
+ *
+ * <p>Mapping of clusters to the cached classes is reset on every schema update, so clusters added
+ * to the class (<code>ALTER CLASS ... ADDCLUSTER</code>) are taken into account.
+ */
+public final class OSharedRecordCache implements OMetadataUpdateListener {
+  /** Approximate amount of heap memory consumed by single entry in addition to record content. */
+  private static final int ENTRY_OVERHEAD = 96;
+
+  private static final int STRIPES = 64;
+
+  private final long maxSize;
+  private final Set<String> classes;
+
+  private final ConcurrentHashMap<ORID, Entry> data = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Integer, Boolean> cachedClusters = new ConcurrentHashMap<>();
+  private final AtomicLongArray invalidations = new AtomicLongArray(STRIPES);
+
+  /** Minimum version of schema which can be used to map clusters to classes. */
+  private volatile int schemaVersion = -1;
+
+  private final ReentrantLock evictionLock = new ReentrantLock();
+
+  /** Entries in LRU order, guarded by {@link #evictionLock} */
+  private final LinkedHashMap<ORID, Entry> lru = new LinkedHashMap<>(16, 0.75f, true);
+
+  /** Frequency of access to records, guarded by {@link #evictionLock} */
+  private final FrequencySketch sketch = new FrequencySketch();
+
+  /** Size of cached records in bytes, guarded by {@link #evictionLock} */
+  private long size;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * @param maxSize Maximum size of the cache in bytes
+   * @param classes Comma separated list of names of classes which records are cached, <code>*
+   *     </code> means that records of all classes are cached
+   */
+  public OSharedRecordCache(final long maxSize, final String classes) {
+    this.maxSize = maxSize;
+
+    if (classes == null || classes.trim().equals("*")) {
+      this.classes = null;
+    } else {
+      final Set<String> names = new HashSet<>();
+      for (final String name : classes.split(",")) {
+        if (!name.trim().isEmpty()) {
+          names.add(name.trim());
+        }
+      }
+      this.classes = Collections.unmodifiableSet(names);
+    }
+
+    sketch.ensureCapacity(Math.max(1024, maxSize / 1024));
+  }
+
+  /**
+   * Checks whether records of the cluster are cached. Cluster is mapped to the class using schema of
+   * the database bound to the current thread, result is remembered till {@link
+   * #resetClusters()} is called.
+   */
+  public boolean isClusterCached(final int clusterId) {
+    if (classes == null) {
+      return clusterId > 0;
+    }
+
+    final Boolean cached = cachedClusters.get(clusterId);
+    if (cached != null) {
+      return cached;
+    }
+
+    final ODatabaseDocumentInternal db = ODatabaseRecordThreadLocal.instance().getIfDefined();
+    if (db == null || db.isClosed()) {
+      return false;
+    }
+
+    final OMetadataInternal metadata = db.getMetadata();
+    final OImmutableSchema schema = metadata != null ? metadata.getImmutableSchemaSnapshot() : null;
+    if (schema == null) {
+      return false;
+    }
+
+    boolean result = false;
+    final OClass cls = schema.getClassByClusterId(clusterId);
+    if (cls != null) {
+      for (final String name : classes) {
+        if (cls.isSubClassOf(name)) {
+          result = true;
+          break;
+        }
+      }
+    }
+
+    // mapping calculated using outdated snapshot of schema is not remembered
+    final int version = schemaVersion;
+    if (schema.getVersion() >= version) {
+      cachedClusters.putIfAbsent(clusterId, result);
+
+      if (schemaVersion != version) {
+        // schema was changed concurrently
+        cachedClusters.remove(clusterId);
+      }
+    }
+
+    return result;
+  }
+
+  /** Forgets mapping between clusters and cached classes, has to be called if clusters change. */
+  public void resetClusters() {
+    cachedClusters.clear();
+  }
+
+  @Override
+  public void onSchemaUpdate(final String database, final OSchemaShared schema) {
+    schemaVersion = schema.getVersion();
+    resetClusters();
+  }
+
+  @Override
+  public void onIndexManagerUpdate(
+      final String database, final OIndexManagerAbstract indexManager) {}
+
+  @Override
+  public void onFunctionLibraryUpdate(final String database) {}
+
+  @Override
+  public void onSequenceLibraryUpdate(final String database) {}
+
+  @Override
+  public void onStorageConfigurationUpdate(
+      final String database, final OStorageConfiguration update) {}
+
+  /**
+   * Returns cached content of the record or <code>null</code> if record is absent in the cache.
+   * Content of the returned buffer is shared with the cache and should not be modified.
+   */
+  public ORawBuffer get(final ORID rid) {
+    final Entry entry = data.get(rid);
+
+    if (evictionLock.tryLock()) {
+      try {
+        sketch.increment(rid.hashCode());
+        if (entry != null) {
+          // moves entry to the tail of LRU list
+          lru.get(entry.rid);
+        }
+      } finally {
+        evictionLock.unlock();
+      }
+    }
+
+    if (entry == null) {
+      misses.increment();
+      return null;
+    }
+
+    hits.increment();
+    return new ORawBuffer(entry.content, entry.version, entry.recordType);
+  }
+
+  /** @return Stamp which has to be passed to {@link #put(ORID, ORawBuffer, long)} */
+  public long stamp(final ORID rid) {
+    return invalidations.get(stripe(rid));
+  }
+
+  /**
+   * Puts record in the cache if record was not invalidated after the stamp was taken and if the
+   * record is accessed often enough to replace the records already stored in the cache.
+   */
+  public void put(final ORID rid, final ORawBuffer buffer, final long stamp) {
+    if (buffer == null || buffer.buffer == null) {
+      return;
+    }
+
+    final long weight = buffer.buffer.length + ENTRY_OVERHEAD;
+    if (weight > maxSize / 16) {
+      return;
+    }
+
+    final ORID key = rid.copy();
+    final Entry entry = new Entry(key, buffer.buffer, buffer.version, buffer.recordType, weight);
+    final int stripe = stripe(key);
+
+    final Entry added =
+        data.compute(
+            key,
+            (k, current) -> {
+              if (current != null || invalidations.get(stripe) != stamp) {
+                return current;
+              }
+
+              return entry;
+            });
+
+    if (added == entry) {
+      admit(entry);
+    }
+  }
+
+  private void admit(final Entry entry) {
+    evictionLock.lock();
+    try {
+      if (data.get(entry.rid) != entry) {
+        // record was invalidated concurrently
+        return;
+      }
+
+      lru.put(entry.rid, entry);
+      size += entry.weight;
+
+      if (size <= maxSize) {
+        return;
+      }
+
+      final int candidateFrequency = sketch.frequency(entry.rid.hashCode());
+      final Iterator<Entry> iterator = lru.values().iterator();
+      while (size > maxSize && iterator.hasNext()) {
+        final Entry victim = iterator.next();
+        if (victim == entry) {
+          continue;
+        }
+
+        if (candidateFrequency <= sketch.frequency(victim.rid.hashCode())) {
+          // victim is more popular than candidate, so candidate is rejected
+          lru.remove(entry.rid);
+          data.remove(entry.rid, entry);
+          size -= entry.weight;
+          break;
+        }
+
+        iterator.remove();
+        data.remove(victim.rid, victim);
+        size -= victim.weight;
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  /** Removes record from the cache, it has to be called once change of record is committed. */
+  public void invalidate(final ORID rid) {
+    final int stripe = stripe(rid);
+    final Entry[] removed = new Entry[1];
+
+    data.compute(
+        rid,
+        (k, current) -> {
+          invalidations.incrementAndGet(stripe);
+          removed[0] = current;
+          return null;
+        });
+
+    if (removed[0] != null) {
+      evictionLock.lock();
+      try {
+        if (lru.remove(removed[0].rid, removed[0])) {
+          size -= removed[0].weight;
+        }
+      } finally {
+        evictionLock.unlock();
+      }
+    }
+  }
+
+  /** Removes all the records from the cache. */
+  public void clear() {
+    for (int i = 0; i < STRIPES; i++) {
+      invalidations.incrementAndGet(i);
+    }
+
+    evictionLock.lock();
+    try {
+      data.clear();
+      lru.clear();
+      size = 0;
+    } finally {
+      evictionLock.unlock();
+    }
+
+    resetClusters();
+  }
+
+  public long getMaxSize() {
+    return maxSize;
+  }
+
+  /** @return Amount of bytes occupied by the cached records */
+  public long getSize() {
+    evictionLock.lock();
+    try {
+      return size;
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  private static int stripe(final ORID rid) {
+    return (rid.hashCode() & Integer.MAX_VALUE) % STRIPES;
+  }
+
+  private static final class Entry {
+    private final ORID rid;
+    private final byte[] content;
+    private final int version;
+    private final byte recordType;
+    private final long weight;
+
+    private Entry(
+        final ORID rid,
+        final byte[] content,
+        final int version,
+        final byte recordType,
+        final long weight) {
+      this.rid = rid;
+      this.content = content;
+      this.version = version;
+      this.recordType = recordType;
+      this.weight = weight;
+    }
+  }
+}
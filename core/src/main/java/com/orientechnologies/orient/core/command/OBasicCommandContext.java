@@ -62,6 +62,7 @@ public class OBasicCommandContext implements OCommandContext {
   private com.orientechnologies.orient.core.command.OCommandContext.TIMEOUT_STRATEGY
       timeoutStrategy;
   protected AtomicLong resultsProcessed = new AtomicLong(0);
+  protected AtomicLong spilledBytes = new AtomicLong(0);
   protected Set<Object> uniqueResult = new HashSet<Object>();
 
   public OBasicCommandContext() {}
@@ -360,6 +361,17 @@ public class OBasicCommandContext implements OCommandContext {
     return resultsProcessed;
   }
 
+  /**
+   * Returns the size in bytes of the temporary files currently written by the query. The counter is
+   * shared by the context of the query and all its child contexts.
+   */
+  public AtomicLong getSpilledBytes() {
+    if (parent instanceof OBasicCommandContext) {
+      return ((OBasicCommandContext) parent).getSpilledBytes();
+    }
+    return spilledBytes;
+  }
+
   /**
    * adds an item to the unique result set
    *
@@ -0,0 +1,69 @@
+/*
+ *
+ *  *  Copyright 2014 Orient Technologies LTD (info(at)orientechnologies.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://www.orientechnologies.com
+ *
+ */
+package com.orientechnologies.orient.core.compression.impl;
+
+import com.orientechnologies.common.serialization.types.OIntegerSerializer;
+import java.util.Arrays;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+/**
+ * Fast compression which trades compression ratio for speed, so it is suitable for the data which
+ * is compressed on the fly like the data sent over the network. Compressed content is prefixed by
+ * the length of the original content which is needed to uncompress it.
+ */
+public class OLZ4Compression extends OAbstractCompression {
+  public static final String NAME = "lz4";
+
+  public static final OLZ4Compression INSTANCE = new OLZ4Compression();
+
+  private static final LZ4Factory factory = LZ4Factory.fastestInstance();
+
+  @Override
+  public byte[] compress(final byte[] content, final int offset, final int length) {
+    final LZ4Compressor compressor = factory.fastCompressor();
+
+    final int maxLength = compressor.maxCompressedLength(length);
+    final byte[] result = new byte[OIntegerSerializer.INT_SIZE + maxLength];
+    OIntegerSerializer.INSTANCE.serializeLiteral(length, result, 0);
+
+    final int compressedLength =
+        compressor.compress(
+            content, offset, length, result, OIntegerSerializer.INT_SIZE, maxLength);
+    return Arrays.copyOf(result, OIntegerSerializer.INT_SIZE + compressedLength);
+  }
+
+  @Override
+  public byte[] uncompress(final byte[] content, final int offset, final int length) {
+    final int originalLength = OIntegerSerializer.INSTANCE.deserializeLiteral(content, offset);
+    final byte[] result = new byte[originalLength];
+
+    final LZ4FastDecompressor decompressor = factory.fastDecompressor();
+    decompressor.decompress(
+        content, offset + OIntegerSerializer.INT_SIZE, result, 0, originalLength);
+    return result;
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+}
@@ -198,6 +198,31 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       20,
       false),
 
+  DISK_CACHE_SCAN_RING_SIZE(
+      "storage.diskCache.scanRingSize",
+      "Maximum amount of pages loaded by massive reads (for example by database export or by"
+          + " scan of cluster with OIntentMassiveRead declared) which are kept in disk cache, such"
+          + " pages do not evict pages of working set. Value cannot be more than 5% of disk cache"
+          + " size, 0 disables this feature",
+      Integer.class,
+      256),
+
+  DISK_CACHE_READ_AHEAD_MAX_PAGES(
+      "storage.diskCache.readAheadMaxPages",
+      "Maximum amount of pages which are loaded into disk cache ahead of the reader once sequential"
+          + " read of the file is detected (for example during scan of cluster or range query on"
+          + " index). Amount of pages read ahead grows from 4 up to this value while read stays"
+          + " sequential, 0 disables read ahead",
+      Integer.class,
+      32),
+
+  DISK_CACHE_READ_AHEAD_THREADS(
+      "storage.diskCache.readAheadThreads",
+      "Number of threads which load pages read ahead, it is also maximum amount of read ahead"
+          + " requests which are processed in parallel",
+      Integer.class,
+      4),
+
   DISK_CACHE_SIZE(
       "storage.diskCache.bufferSize",
       "Size of disk buffer in megabytes, disk size may be changed at runtime, "
@@ -252,6 +277,14 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       Long.class,
       60 * 1000),
 
+  DISK_WRITE_CACHE_FLUSH_THREADS(
+      "storage.diskCache.writeCacheFlushThreads",
+      "Number of threads which write pages of write cache to the disk. Pages are partitioned between"
+          + " threads by file, so pages of the same file are always written by the same thread."
+          + " Values less than 2 mean that pages are written by the write cache flush thread itself",
+      Integer.class,
+      1),
+
   DISK_WRITE_CACHE_FLUSH_LOCK_TIMEOUT(
       "storage.diskCache.writeCacheFlushLockTimeout",
       "Maximum amount of time the write cache will wait before a page flushes (in ms, -1 to disable)",
@@ -448,6 +481,49 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       Integer.class,
       10),
 
+  STORAGE_SHARED_RECORD_CACHE_SIZE(
+      "storage.sharedRecordCache.size",
+      "Maximum size of the cache of serialized records shared by all sessions opened on the same"
+          + " storage (in megabytes). 0 means that shared record cache is disabled",
+      Integer.class,
+      0),
+
+  STORAGE_SHARED_RECORD_CACHE_CLASSES(
+      "storage.sharedRecordCache.classes",
+      "Comma separated list of classes which records are stored in shared record cache, records of"
+          + " subclasses are cached too. * means that records of all classes are cached",
+      String.class,
+      "*"),
+
+  STORAGE_TEMP_PATH(
+      "storage.tempPath",
+      "Directory where disk storages write the temporary files of queries and index builds, every"
+          + " storage uses a sub-directory of it which is emptied when the storage is opened."
+          + " If not set, the orientdb directory in java.io.tmpdir is used",
+      String.class,
+      null),
+
+  STORAGE_ONLINE_BACKUP(
+      "storage.backup.online",
+      "If true, backup does not freeze writes to the storage. Pages of files are copied in parallel"
+          + " in fuzzy state and the WAL written during the backup is added to it, so the restored"
+          + " storage is consistent",
+      Boolean.class,
+      false),
+
+  STORAGE_ONLINE_BACKUP_THREADS(
+      "storage.backup.onlineThreads",
+      "Number of threads which copy and compress pages during online backup and restore of it",
+      Integer.class,
+      Runtime.getRuntime().availableProcessors()),
+
+  STORAGE_ONLINE_BACKUP_COMPRESSION(
+      "storage.backup.onlineCompression",
+      "Name of the compression of pages in online backup, 'lz4' is fast, 'nothing' turns"
+          + " compression off",
+      String.class,
+      "lz4"),
+
   @Deprecated
   STORAGE_TRACK_CHANGED_RECORDS_IN_WAL(
       "storage.trackChangedRecordsInWAL",
@@ -544,6 +620,13 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       Integer.class,
       8 * 1024),
 
+  WAL_HIGH_COMPRESSION(
+      "storage.wal.highCompression",
+      "Compress WAL records with the high compression mode of LZ4. It decreases size of WAL at cost"
+          + " of CPU time spent during logging of records, speed of decompression is not affected",
+      Boolean.class,
+      false),
+
   WAL_MAX_SIZE(
       "storage.wal.maxSize", "Maximum size of WAL on disk (in megabytes)", Integer.class, -1),
 
@@ -566,6 +649,14 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       Integer.class,
       1000),
 
+  WAL_GROUP_COMMIT_INTERVAL(
+      "storage.wal.groupCommitInterval",
+      "If not negative, commit of transaction returns only after its changes are forced to the WAL"
+          + " on disk. WAL is forced once for all transactions committed during this interval (in"
+          + " microseconds). Negative value means that WAL is forced to the disk in background",
+      Integer.class,
+      -1),
+
   WAL_SHUTDOWN_TIMEOUT(
       "storage.wal.shutdownTimeout",
       "Maximum wait interval between events, when the background flush thread"
@@ -886,6 +977,27 @@ public enum OGlobalConfiguration { // ENVIRONMENT
   INDEX_CURSOR_PREFETCH_SIZE(
       "index.stream.prefetchSize", "Default prefetch size of index stream", Integer.class, 10),
 
+  INDEX_BULK_BUILD(
+      "index.bulkBuild",
+      "Build index on creation and rebuild by sorting all its entries and filling the pages one after another, "
+          + "instead of inserting the entries one by one",
+      Boolean.class,
+      true),
+
+  INDEX_BULK_BUILD_SORT_BUFFER_SIZE(
+      "index.bulkBuild.sortBufferSize",
+      "Maximum number of index entries sorted in heap during the bulk build of an index. "
+          + "Once exceeded, the sorted entries are written to temporary files in the directory set by"
+          + " storage.tempPath",
+      Integer.class,
+      500_000),
+
+  INDEX_BULK_BUILD_FILL_FACTOR(
+      "index.bulkBuild.fillFactor",
+      "Percentage of the page space filled by the bulk build of an index, the rest is left for later inserts",
+      Integer.class,
+      90),
+
   // SBTREE
   SBTREE_MAX_DEPTH(
       "sbtree.maxDepth",
@@ -1090,6 +1202,35 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       false,
       true),
 
+  NETWORK_BINARY_NON_BLOCKING(
+      "network.binary.nonBlocking",
+      "Serves binary connections by selector based event loop instead of dedicated thread per"
+          + " connection, so idle connections do not consume threads. Requests are executed by"
+          + " pool of worker threads. It is supported only by listeners with default socket factory",
+      Boolean.class,
+      false),
+
+  NETWORK_BINARY_NON_BLOCKING_WORKERS(
+      "network.binary.nonBlockingWorkers",
+      "Maximum number of worker threads which execute requests of connections served in"
+          + " non-blocking mode. Requests which arrive when all workers are busy wait in the queue",
+      Integer.class,
+      256),
+
+  NETWORK_BINARY_COMPRESSION_ENABLED(
+      "network.binary.compression.enabled",
+      "Compresses responses of binary protocol if compression is requested by the client during"
+          + " handshake. If disabled, responses are sent uncompressed to all the clients",
+      Boolean.class,
+      true),
+
+  NETWORK_BINARY_COMPRESSION_THRESHOLD(
+      "network.binary.compression.threshold",
+      "Minimal size of response of binary protocol in bytes which is compressed, smaller"
+          + " responses are sent uncompressed",
+      Integer.class,
+      4096),
+
   // HTTP
 
   /** Since v2.2.8 */
@@ -1312,6 +1453,38 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       Integer.class,
       1000),
 
+  QUERY_BINARY_FILTER(
+      "query.binaryFilter",
+      "Evaluates simple conditions of the WHERE clause (=, <, >, IN, IS NULL, LIKE 'prefix%') on"
+          + " the serialized documents, so documents which do not match are never deserialized",
+      Boolean.class,
+      true),
+
+  QUERY_REMOTE_RESULTSET_PREFETCH(
+      "query.remoteResultSet.prefetch",
+      "Requests the next page of a remote ResultSet as soon as the current page is received, so"
+          + " the server prepares the next page while the current one is consumed. Pages are not"
+          + " prefetched inside of transactions. A prefetched page holds its connection and is"
+          + " read before any other request of the same session is sent. This has to be set on"
+          + " the client.",
+      Boolean.class,
+      false),
+
+  QUERY_REMOTE_RESULTSET_MAX_PAGE_SIZE(
+      "query.remoteResultSet.maxPageSize",
+      "The maximum number of records in a remote ResultSet page. Page size grows from"
+          + " 'query.remoteResultSet.pageSize' up to this value if the client waits for the pages."
+          + " This has to be set on the client.",
+      Integer.class,
+      20000),
+
+  QUERY_REMOTE_RESULTSET_MAX_PAGE_BYTES(
+      "query.remoteResultSet.maxPageBytes",
+      "The maximum size of a remote ResultSet page in bytes, page size is limited by the average"
+          + " size of the records received so far. This has to be set on the client.",
+      Integer.class,
+      8 * 1024 * 1024),
+
   QUERY_REMOTE_SEND_EXECUTION_PLAN(
       "query.remoteResultSet.sendExecutionPlan",
       "Send the execution plan details or not. False by default",
@@ -1336,6 +1509,13 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       Integer.class,
       20000),
 
+  QUERY_PARALLEL_MAX_THREADS(
+      "query.parallelMaxThreads",
+      "Maximum number of sub-plans that a single parallel execution step runs concurrently. Concurrent execution is enabled by the PARALLEL keyword or by "
+          + "query.parallelAuto. Use 1 to always execute sub-plans sequentially",
+      Integer.class,
+      Runtime.getRuntime().availableProcessors()),
+
   QUERY_SCAN_PREFETCH_PAGES(
       "query.scanPrefetchPages",
       "Pages to prefetch during scan. Setting this value higher makes scans faster, because it reduces the number of I/O operations, though it consumes more memory. (Use 0 to disable)",
@@ -1369,6 +1549,28 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       Long.class,
       500_000),
 
+  QUERY_DISTINCT_MAX_DIRECT_MEMORY(
+      "query.distinctMaxDirectMemory",
+      "Maximum size in megabytes of the direct memory used by a single DISTINCT to track the projections already returned. "
+          + "When exceeded, further projections are tracked in heap and are subject to query.maxHeapElementsAllowedPerOp. "
+          + "Negative number means no limit",
+      Long.class,
+      256),
+
+  QUERY_SPILL_TO_DISK(
+      "query.spillToDisk",
+      "When the elements kept in heap by a memory-intensive operation (ORDER BY elements, GROUP BY groups) exceed "
+          + "query.maxHeapElementsAllowedPerOp, write them to temporary files in storage.tempPath instead of failing the query",
+      Boolean.class,
+      false),
+
+  QUERY_SPILL_MAX_SIZE(
+      "query.spillMaxSize",
+      "Maximum size in megabytes of the temporary files written by a single query when query.spillToDisk is enabled. "
+          + "If exceeded, the query fails with an OCommandExecutionException. Negative number means no limit",
+      Long.class,
+      10_240),
+
   QUERY_LIVE_SUPPORT(
       "query.live.support",
       "Enable/Disable the support of live query. (Use false to disable)",
@@ -1744,6 +1946,14 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       String.class,
       ORecordSerializerBinary.NAME),
 
+  DB_DOCUMENT_SERIALIZER_VERSION(
+      "db.document.serializer.version",
+      "Version of the binary record format used by the newly created databases, -1 means the"
+          + " default version. Version 2 adds the directory of fields to the documents with many"
+          + " fields, so single field is read without the scan of the whole record",
+      Integer.class,
+      -1),
+
   /** @Since 2.2 */
   @OApi(maturity = OApi.MATURITY.NEW)
   CLIENT_KRB5_CONFIG(
@@ -1974,6 +2184,13 @@ public enum OGlobalConfiguration { // ENVIRONMENT
   CLIENT_CHANNEL_IDLE_TIMEOUT(
       "client.channel.idleTimeout", "sockets maximum time idle in seconds", Integer.class, 900),
 
+  CLIENT_CHANNEL_COMPRESSION(
+      "client.channel.compression",
+      "Name of compression algorithm which is requested from the server for the responses, like"
+          + " 'lz4' or 'gzip'. Empty string means that responses are not compressed",
+      String.class,
+      ""),
+
   DISTRIBUTED_AUTO_CREATE_CLUSTERS(
       "distributed.autoCreateClusters",
       "if true enable auto creation of cluster when a new node join",
@@ -1,5 +1,6 @@
 package com.orientechnologies.orient.core.db;
 
+import com.orientechnologies.orient.core.cache.OSharedRecordCache;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.viewmanager.ViewManager;
 import com.orientechnologies.orient.core.id.ORID;
@@ -58,6 +59,12 @@ public class OSharedContextEmbedded extends OSharedContext {
                 .getValueAsInteger(OGlobalConfiguration.STATEMENT_CACHE_SIZE));
     this.registerListener(executionPlanCache);
 
+    final OSharedRecordCache sharedRecordCache =
+        ((OAbstractPaginatedStorage) storage).getSharedRecordCache();
+    if (sharedRecordCache != null) {
+      this.registerListener(sharedRecordCache);
+    }
+
     queryStats = new OQueryStats();
     activeDistributedQueries = new HashMap<>();
     ((OAbstractPaginatedStorage) storage)
@@ -19,6 +19,7 @@
  */
 package com.orientechnologies.orient.core.db;
 
+import static com.orientechnologies.orient.core.config.OGlobalConfiguration.DB_DOCUMENT_SERIALIZER_VERSION;
 import static com.orientechnologies.orient.core.config.OGlobalConfiguration.FILE_DELETE_DELAY;
 import static com.orientechnologies.orient.core.config.OGlobalConfiguration.FILE_DELETE_RETRY;
 import static com.orientechnologies.orient.core.config.OGlobalConfiguration.WARNING_DEFAULT_USERS;
@@ -42,6 +43,7 @@ import com.orientechnologies.orient.core.metadata.security.auth.OAuthenticationI
 import com.orientechnologies.orient.core.security.ODefaultSecuritySystem;
 import com.orientechnologies.orient.core.serialization.serializer.record.ORecordSerializer;
 import com.orientechnologies.orient.core.serialization.serializer.record.ORecordSerializerFactory;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.ORecordSerializerBinary;
 import com.orientechnologies.orient.core.sql.OSQLEngine;
 import com.orientechnologies.orient.core.sql.executor.OInternalResultSet;
 import com.orientechnologies.orient.core.sql.executor.OResultSet;
@@ -725,7 +727,7 @@ public class OrientDBEmbedded implements OrientDBInternal {
         storage = getOrInitStorage(name);
         storages.put(name, storage);
       }
-      storage.restore(in, null, callable, null);
+      restoreStorage(storage, in, null, callable, null);
     } catch (OModificationOperationProhibitedException e) {
       throw e;
     } catch (Exception e) {
@@ -773,6 +775,9 @@ public class OrientDBEmbedded implements OrientDBInternal {
             "Cannot create new storage '" + name + "' because it already exists");
     }
     storage.restoreFromIncrementalBackup(path);
+    // metadata were loaded from the empty database created before the restore
+    embedded.activateOnCurrentThread();
+    embedded.getSharedContext().reload(embedded);
     embedded.callOnCreateListeners();
     ODatabaseRecordThreadLocal.instance().remove();
   }
@@ -794,7 +799,7 @@ public class OrientDBEmbedded implements OrientDBInternal {
         storage = getOrInitStorage(name);
         storages.put(name, storage);
       }
-      storage.restore(in, options, callable, iListener);
+      restoreStorage(storage, in, options, callable, iListener);
     } catch (Exception e) {
       synchronized (this) {
         storages.remove(name);
@@ -810,6 +815,21 @@ public class OrientDBEmbedded implements OrientDBInternal {
     }
   }
 
+  /** Storage which does not exist yet is created with the configuration of this context. */
+  private void restoreStorage(
+      OAbstractPaginatedStorage storage,
+      InputStream in,
+      Map<String, Object> options,
+      Callable<Object> callable,
+      OCommandOutputListener iListener) {
+    if (storage instanceof OLocalPaginatedStorage) {
+      ((OLocalPaginatedStorage) storage)
+          .restore(in, options, callable, iListener, solveConfig(null).getConfigurations());
+    } else {
+      storage.restore(in, options, callable, iListener);
+    }
+  }
+
   protected ODatabaseDocumentEmbedded internalCreate(
       OrientDBConfig config, OAbstractPaginatedStorage storage) {
     storage.create(config.getConfigurations());
@@ -818,6 +838,10 @@ public class OrientDBEmbedded implements OrientDBInternal {
     if (serializer.toString().equals("ORecordDocument2csv"))
       throw new ODatabaseException(
           "Impossible to create the database with ORecordDocument2csv serializer");
+    final int serializerVersion =
+        config.getConfigurations().getValueAsInteger(DB_DOCUMENT_SERIALIZER_VERSION);
+    if (serializerVersion >= 0 && serializer instanceof ORecordSerializerBinary)
+      serializer = ORecordSerializerBinary.forVersion(serializerVersion);
     storage.setRecordSerializer(serializer.toString(), serializer.getCurrentVersion());
     // since 2.1 newly created databases use strict SQL validation by default
     storage.setProperty(OStatement.CUSTOM_STRICT_SQL, "true");
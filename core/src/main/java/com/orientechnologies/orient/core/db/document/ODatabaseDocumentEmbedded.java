@@ -85,6 +85,7 @@ import com.orientechnologies.orient.core.record.impl.OEdgeDelegate;
 import com.orientechnologies.orient.core.record.impl.OVertexDelegate;
 import com.orientechnologies.orient.core.schedule.OScheduledEvent;
 import com.orientechnologies.orient.core.serialization.serializer.record.ORecordSerializerFactory;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.ORecordSerializerBinary;
 import com.orientechnologies.orient.core.sql.OSQLEngine;
 import com.orientechnologies.orient.core.sql.executor.LiveQueryListenerImpl;
 import com.orientechnologies.orient.core.sql.executor.OExecutionPlan;
@@ -195,8 +196,15 @@ public class ODatabaseDocumentEmbedded extends ODatabaseDocumentAbstract
       if (serializer == null)
         throw new ODatabaseException(
             "RecordSerializer with name '" + serializeName + "' not found ");
-      if (getStorageInfo().getConfiguration().getRecordSerializerVersion()
-          > serializer.getMinSupportedVersion())
+      final int serializerVersion =
+          getStorageInfo().getConfiguration().getRecordSerializerVersion();
+      // DATABASE MAY BE CREATED WITH THE NEWER VERSION OF THE FORMAT THAN THE DEFAULT ONE
+      if (serializer instanceof ORecordSerializerBinary
+          && serializerVersion > serializer.getMinSupportedVersion()
+          && serializerVersion
+              < ((ORecordSerializerBinary) serializer).getNumberOfSupportedVersions())
+        serializer = ORecordSerializerBinary.forVersion(serializerVersion);
+      if (serializerVersion > serializer.getMinSupportedVersion())
         throw new ODatabaseException(
             "Persistent record serializer version is not support by the current implementation");
 
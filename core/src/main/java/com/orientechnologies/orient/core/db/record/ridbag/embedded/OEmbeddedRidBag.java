@@ -501,6 +501,26 @@ public class OEmbeddedRidBag implements ORidBagDelegate {
     return true;
   }
 
+  /**
+   * Adds first <code>count</code> items of the array at once, used when ridbag is deserialized.
+   */
+  public void addAllInternal(final OIdentifiable[] identifiables, final int count) {
+    if (entries.length - entriesLength < count) {
+      final Object[] oldEntries = entries;
+      entries = new Object[entriesLength + count];
+      System.arraycopy(oldEntries, 0, entries, 0, entriesLength);
+    }
+
+    System.arraycopy(identifiables, 0, entries, entriesLength, count);
+    entriesLength += count;
+
+    if (this.owner != null) {
+      for (int i = 0; i < count; i++) {
+        ORecordInternal.track(this.owner, identifiables[i]);
+      }
+    }
+  }
+
   public void addEntry(final OIdentifiable identifiable) {
     if (entries.length == entriesLength) {
       if (entriesLength == 0) {
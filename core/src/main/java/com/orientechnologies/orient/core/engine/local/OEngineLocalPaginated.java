@@ -113,7 +113,14 @@ public class OEngineLocalPaginated extends OEngineAbstract {
       pages.clear();
     }
 
-    readCache = new AsyncReadCache(OByteBufferPool.instance(null), diskCacheSize, pageSize, false);
+    readCache =
+        new AsyncReadCache(
+            OByteBufferPool.instance(null),
+            diskCacheSize,
+            pageSize,
+            false,
+            OGlobalConfiguration.DISK_CACHE_SCAN_RING_SIZE.getValueAsInteger(),
+            OGlobalConfiguration.DISK_CACHE_READ_AHEAD_MAX_PAGES.getValueAsInteger());
   }
 
   private static long calculateReadCacheMaxMemory(final long cacheSize) {
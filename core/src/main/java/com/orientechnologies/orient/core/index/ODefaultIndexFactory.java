@@ -21,6 +21,7 @@ import com.orientechnologies.orient.core.index.engine.OBaseIndexEngine;
 import com.orientechnologies.orient.core.index.engine.v1.OCellBTreeIndexEngine;
 import com.orientechnologies.orient.core.index.engine.v1.OCellBTreeMultiValueIndexEngine;
 import com.orientechnologies.orient.core.index.engine.v1.OCellBTreeSingleValueIndexEngine;
+import com.orientechnologies.orient.core.index.engine.v1.ONormalizedKeyBTreeIndexEngine;
 import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.storage.OStorage;
@@ -50,6 +51,7 @@ public class ODefaultIndexFactory implements OIndexFactory {
   static final String SBTREE_BONSAI_VALUE_CONTAINER = "SBTREEBONSAISET";
   public static final String NONE_VALUE_CONTAINER = "NONE";
   static final String CELL_BTREE_ALGORITHM = "CELL_BTREE";
+  static final String NKBTREE_ALGORITHM = "NKBTREE";
 
   private static final Set<String> TYPES;
   private static final Set<String> ALGORITHMS;
@@ -67,6 +69,7 @@ public class ODefaultIndexFactory implements OIndexFactory {
     final Set<String> algorithms = new HashSet<>();
     algorithms.add(SBTREE_ALGORITHM);
     algorithms.add(CELL_BTREE_ALGORITHM);
+    algorithms.add(NKBTREE_ALGORITHM);
 
     ALGORITHMS = Collections.unmodifiableSet(algorithms);
   }
@@ -119,6 +122,13 @@ public class ODefaultIndexFactory implements OIndexFactory {
       version = getLastVersion(algorithm);
     }
 
+    if (NKBTREE_ALGORITHM.equals(algorithm)
+        && !OClass.INDEX_TYPE.UNIQUE.toString().equals(indexType)
+        && !OClass.INDEX_TYPE.DICTIONARY.toString().equals(indexType)) {
+      throw new OConfigurationException(
+          "Algorithm " + NKBTREE_ALGORITHM + " supports only unique and dictionary indexes");
+    }
+
     return createSBTreeIndex(
         name,
         indexType,
@@ -201,6 +211,8 @@ public class ODefaultIndexFactory implements OIndexFactory {
         return OSBTreeIndexEngine.VERSION;
       case CELL_BTREE_ALGORITHM:
         return OCellBTreeIndexEngine.VERSION;
+      case NKBTREE_ALGORITHM:
+        return ONormalizedKeyBTreeIndexEngine.VERSION;
     }
 
     throw new IllegalStateException("Invalid algorithm name " + algorithm);
@@ -247,6 +259,15 @@ public class ODefaultIndexFactory implements OIndexFactory {
                       indexId, name, (OAbstractPaginatedStorage) storage, version);
             }
             break;
+          case NKBTREE_ALGORITHM:
+            if (multiValue) {
+              throw new OIndexException(
+                  "Algorithm " + NKBTREE_ALGORITHM + " does not support multi-value indexes");
+            }
+            indexEngine =
+                new ONormalizedKeyBTreeIndexEngine(
+                    indexId, name, (OAbstractPaginatedStorage) storage, version);
+            break;
           default:
             throw new IllegalStateException("Invalid name of algorithm :'" + "'");
         }
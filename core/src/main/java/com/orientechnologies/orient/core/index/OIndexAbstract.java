@@ -19,6 +19,7 @@
  */
 package com.orientechnologies.orient.core.index;
 
+import com.orientechnologies.common.comparator.ODefaultComparator;
 import com.orientechnologies.common.concur.lock.OOneEntryPerKeyLockManager;
 import com.orientechnologies.common.concur.lock.OPartitionedLockManager;
 import com.orientechnologies.common.concur.lock.OReadersWriterSpinLock;
@@ -38,6 +39,7 @@ import com.orientechnologies.orient.core.exception.OManualIndexesAreProhibited;
 import com.orientechnologies.orient.core.exception.OTooBigIndexKeyException;
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.index.engine.OBaseIndexEngine;
+import com.orientechnologies.orient.core.index.engine.OIndexBulkLoader;
 import com.orientechnologies.orient.core.intent.OIntentMassiveInsert;
 import com.orientechnologies.orient.core.metadata.schema.OType;
 import com.orientechnologies.orient.core.record.ORecord;
@@ -582,13 +584,27 @@ public abstract class OIndexAbstract implements OIndexInternal {
 
       if (iProgressListener != null) iProgressListener.onBegin(this, documentTotal, rebuild);
 
-      // INDEX ALL CLUSTERS
-      for (final String clusterName : clustersToIndex) {
-        final long[] metrics =
-            indexCluster(
-                clusterName, iProgressListener, documentNum, documentIndexed, documentTotal);
-        documentNum = metrics[0];
-        documentIndexed = metrics[1];
+      // THE LOADER IS CREATED BEFORE THE SCAN, SO CONCURRENT CHANGES OF THE INDEX ARE NOT LOST
+      try (final OIndexEntrySorter sorter = createEntrySorter();
+          final OIndexBulkLoader<Object> bulkLoader =
+              sorter != null ? createBulkLoader() : null) {
+        // INDEX ALL CLUSTERS
+        for (final String clusterName : clustersToIndex) {
+          final long[] metrics =
+              indexCluster(
+                  clusterName,
+                  sorter,
+                  iProgressListener,
+                  documentNum,
+                  documentIndexed,
+                  documentTotal);
+          documentNum = metrics[0];
+          documentIndexed = metrics[1];
+        }
+
+        if (sorter != null) {
+          loadSortedEntries(sorter, bulkLoader);
+        }
       }
 
       if (iProgressListener != null) iProgressListener.onCompletition(this, true);
@@ -599,6 +615,86 @@ public abstract class OIndexAbstract implements OIndexInternal {
     return documentIndexed;
   }
 
+  /**
+   * Returns sorter of the entries of the index if the index can be built from the sorted entries,
+   * or <code>null</code> if entries should be put into the index one by one.
+   */
+  private OIndexEntrySorter createEntrySorter() {
+    if (!OGlobalConfiguration.INDEX_BULK_BUILD.getValueAsBoolean()
+        || apiVersion != 1
+        || !(this instanceof OIndexOneValue)) {
+      return null;
+    }
+
+    while (true) {
+      try {
+        if (!storage.hasIndexRangeQuerySupport(indexId)) {
+          return null;
+        }
+        break;
+      } catch (OInvalidIndexEngineIdException ignore) {
+        doReloadIndexEngine();
+      }
+    }
+
+    return new OIndexEntrySorter(
+        name,
+        storage,
+        indexDefinition.getTypes(),
+        OGlobalConfiguration.INDEX_BULK_BUILD_SORT_BUFFER_SIZE.getValueAsInteger());
+  }
+
+  /** @return loader of the index or <code>null</code> if the index engine can not bulk load */
+  private OIndexBulkLoader<Object> createBulkLoader() {
+    while (true) {
+      try {
+        return storage.createIndexBulkLoader(indexId);
+      } catch (OInvalidIndexEngineIdException ignore) {
+        doReloadIndexEngine();
+      }
+    }
+  }
+
+  /**
+   * Builds the index from the sorted entries. If index engine does not support bulk loading,
+   * entries are put into the index one by one, but in sorted order, so pages of the index are
+   * mostly accessed sequentially.
+   */
+  private void loadSortedEntries(
+      final OIndexEntrySorter sorter, final OIndexBulkLoader<Object> bulkLoader) {
+    final Iterator<ORawPair<Object, ORID>> entries = sorter.iterator();
+
+    if (bulkLoader != null) {
+      storage.bulkLoadIndex(bulkLoader, new DistinctKeyIterator(entries));
+      return;
+    }
+
+    while (entries.hasNext()) {
+      final ORawPair<Object, ORID> entry = entries.next();
+      try {
+        while (true) {
+          try {
+            doPut(storage, entry.first, entry.second);
+            break;
+          } catch (OInvalidIndexEngineIdException ignore) {
+            doReloadIndexEngine();
+          }
+        }
+      } catch (OTooBigIndexKeyException | OIndexException e) {
+        logRebuildError(e, entry.first, entry.second);
+      }
+    }
+  }
+
+  /**
+   * Resolves the value of the key which is met several times during the bulk build of the index.
+   *
+   * @return value which should be stored in the index
+   */
+  protected ORID resolveDuplicateKey(final Object key, final ORID oldValue, final ORID newValue) {
+    return newValue;
+  }
+
   @Override
   public boolean doRemove(OAbstractPaginatedStorage storage, Object key, ORID rid)
       throws OInvalidIndexEngineIdException {
@@ -752,7 +848,7 @@ public abstract class OIndexAbstract implements OIndexInternal {
         updateConfiguration();
 
         // INDEX SINGLE CLUSTER
-        indexCluster(clusterName, null, 0, 0, 0);
+        indexCluster(clusterName, null, null, 0, 0, 0);
       }
 
       return this;
@@ -942,12 +1038,17 @@ public abstract class OIndexAbstract implements OIndexInternal {
 
   protected abstract OBinarySerializer determineValueSerializer();
 
-  private void populateIndex(ODocument doc, Object fieldValue) {
+  private void populateIndex(ODocument doc, Object fieldValue, OIndexEntrySorter sorter) {
     if (fieldValue instanceof Collection) {
       for (final Object fieldValueItem : (Collection<?>) fieldValue) {
-        put(fieldValueItem, doc);
+        populateIndexEntry(doc, fieldValueItem, sorter);
       }
-    } else put(fieldValue, doc);
+    } else populateIndexEntry(doc, fieldValue, sorter);
+  }
+
+  private void populateIndexEntry(ODocument doc, Object key, OIndexEntrySorter sorter) {
+    if (sorter != null) sorter.add(getCollatingValue(key), doc.getIdentity());
+    else put(key, doc);
   }
 
   public Object getCollatingValue(final Object key) {
@@ -1028,6 +1129,7 @@ public abstract class OIndexAbstract implements OIndexInternal {
 
   private long[] indexCluster(
       final String clusterName,
+      final OIndexEntrySorter sorter,
       final OProgressListener iProgressListener,
       long documentNum,
       long documentIndexed,
@@ -1052,16 +1154,9 @@ public abstract class OIndexAbstract implements OIndexInternal {
 
           if (fieldValue != null || !indexDefinition.isNullValuesIgnored()) {
             try {
-              populateIndex(doc, fieldValue);
+              populateIndex(doc, fieldValue, sorter);
             } catch (OTooBigIndexKeyException | OIndexException e) {
-              OLogManager.instance()
-                  .error(
-                      this,
-                      "Exception during index rebuild. Exception was caused by following key/ value pair - key %s, value %s."
-                          + " Rebuild will continue from this point",
-                      e,
-                      fieldValue,
-                      doc.getIdentity());
+              logRebuildError(e, fieldValue, doc.getIdentity());
             }
 
             ++documentIndexed;
@@ -1080,6 +1175,55 @@ public abstract class OIndexAbstract implements OIndexInternal {
     return new long[] {documentNum, documentIndexed};
   }
 
+  private void logRebuildError(final RuntimeException e, final Object key, final ORID rid) {
+    OLogManager.instance()
+        .error(
+            this,
+            "Exception during index rebuild. Exception was caused by following key/ value pair - key %s, value %s."
+                + " Rebuild will continue from this point",
+            e,
+            key,
+            rid);
+  }
+
+  /**
+   * Iterates over the sorted entries of the index and returns only one entry for each key, the
+   * value of which is chosen by {@link #resolveDuplicateKey(Object, ORID, ORID)}.
+   */
+  private final class DistinctKeyIterator implements Iterator<ORawPair<Object, ORID>> {
+    private final Iterator<ORawPair<Object, ORID>> entries;
+    private ORawPair<Object, ORID> nextEntry;
+
+    private DistinctKeyIterator(final Iterator<ORawPair<Object, ORID>> entries) {
+      this.entries = entries;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return nextEntry != null || entries.hasNext();
+    }
+
+    @Override
+    public ORawPair<Object, ORID> next() {
+      final ORawPair<Object, ORID> entry = nextEntry != null ? nextEntry : entries.next();
+      nextEntry = null;
+
+      final Object key = entry.first;
+      ORID value = entry.second;
+      while (entries.hasNext()) {
+        final ORawPair<Object, ORID> duplicate = entries.next();
+        if (ODefaultComparator.INSTANCE.compare(key, duplicate.first) != 0) {
+          nextEntry = duplicate;
+          break;
+        }
+
+        value = resolveDuplicateKey(key, value, duplicate.second);
+      }
+
+      return new ORawPair<>(key, value);
+    }
+  }
+
   protected void releaseExclusiveLock() {
     rwLock.releaseWriteLock();
   }
@@ -0,0 +1,252 @@
+package com.orientechnologies.orient.core.index;
+
+import com.orientechnologies.common.collection.OExternalSorter;
+import com.orientechnologies.common.comparator.ODefaultComparator;
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.common.util.ORawPair;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.serialization.serializer.binary.impl.index.OCompositeKeySerializer;
+import com.orientechnologies.orient.core.storage.OStorage;
+import com.orientechnologies.orient.core.storage.disk.OLocalPaginatedStorage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Sorts the entries of an index during its bulk build, by key and then by RID.
+ *
+ * <p>Entries are sorted in heap, up to the given number of entries. Full buffers are spilled by
+ * {@link OExternalSorter} as sorted runs into the temporary directory of the storage (or into the
+ * OrientDB temporary directory for in-memory databases), and the runs are lazily merged while the
+ * sorted entries are read. Temporary files are deleted on {@link #close()}.
+ */
+public final class OIndexEntrySorter implements AutoCloseable {
+  public static final String SORT_DIRECTORY = "indexBuild";
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private static final byte NULL_KEY = 0;
+  private static final byte KEY = 1;
+  private static final byte COMPOSITE_KEY = 2;
+
+  private static final Comparator<ORawPair<Object, ORID>> COMPARATOR =
+      (entryOne, entryTwo) -> {
+        final int result = ODefaultComparator.INSTANCE.compare(entryOne.first, entryTwo.first);
+        return result != 0 ? result : entryOne.second.compareTo(entryTwo.second);
+      };
+
+  private final String indexName;
+  private final OStorage storage;
+  private final OType[] keyTypes;
+  private final int bufferSize;
+
+  private List<ORawPair<Object, ORID>> buffer = new ArrayList<>();
+  private final OExternalSorter<ORawPair<Object, ORID>> sorter =
+      new OExternalSorter<>(COMPARATOR, SortedRun::new);
+
+  OIndexEntrySorter(
+      final String indexName,
+      final OStorage storage,
+      final OType[] keyTypes,
+      final int bufferSize) {
+    this.indexName = indexName;
+    this.storage = storage;
+    this.keyTypes = keyTypes;
+    this.bufferSize = bufferSize;
+  }
+
+  void add(final Object key, final ORID rid) {
+    buffer.add(new ORawPair<>(key, rid));
+    if (buffer.size() >= bufferSize) {
+      sorter.spill(buffer);
+      buffer = new ArrayList<>();
+    }
+  }
+
+  /** Returns the sorted entries, can be called only once. */
+  Iterator<ORawPair<Object, ORID>> iterator() {
+    buffer.sort(COMPARATOR);
+    return sorter.merge(buffer);
+  }
+
+  @Override
+  public void close() {
+    sorter.close();
+    buffer = new ArrayList<>();
+  }
+
+  private Path getSortDirectory() {
+    if (storage instanceof OLocalPaginatedStorage) {
+      return ((OLocalPaginatedStorage) storage).getTemporaryPath().resolve(SORT_DIRECTORY);
+    }
+    return Paths.get(Orient.getTempPath(), SORT_DIRECTORY);
+  }
+
+  private OException sortError(final String message, final Path path, final Exception e) {
+    return OException.wrapException(
+        new OIndexException(message + " " + path + " during build of index '" + indexName + "'"),
+        e);
+  }
+
+  /**
+   * Temporary file which contains sorted entries. Keys are serialized by {@link
+   * OCompositeKeySerializer}, a key of a single value index is wrapped into a composite key.
+   */
+  private final class SortedRun implements OExternalSorter.Run<ORawPair<Object, ORID>> {
+    private final Path path;
+    private DataOutputStream out;
+    private DataInputStream in;
+    private long size;
+
+    private SortedRun() {
+      Path directory = getSortDirectory();
+      try {
+        Files.createDirectories(directory);
+        path = Files.createTempFile(directory, indexName, ".sort");
+      } catch (IOException e) {
+        throw sortError("Cannot create temporary file in", directory, e);
+      }
+
+      try {
+        out =
+            new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+      } catch (IOException e) {
+        throw sortError("Cannot open temporary file", path, e);
+      }
+    }
+
+    @Override
+    public void write(final ORawPair<Object, ORID> entry) {
+      try {
+        final Object key = entry.first;
+        if (key == null) {
+          out.writeByte(NULL_KEY);
+        } else {
+          final OCompositeKey compositeKey;
+          if (key instanceof OCompositeKey) {
+            out.writeByte(COMPOSITE_KEY);
+            compositeKey = (OCompositeKey) key;
+          } else {
+            out.writeByte(KEY);
+            compositeKey = new OCompositeKey(key);
+          }
+
+          final byte[] serializedKey =
+              new byte
+                  [OCompositeKeySerializer.INSTANCE.getObjectSize(
+                      compositeKey, (Object[]) keyTypes)];
+          OCompositeKeySerializer.INSTANCE.serialize(
+              compositeKey, serializedKey, 0, (Object[]) keyTypes);
+
+          out.writeInt(serializedKey.length);
+          out.write(serializedKey);
+        }
+
+        out.writeInt(entry.second.getClusterId());
+        out.writeLong(entry.second.getClusterPosition());
+        size++;
+      } catch (IOException e) {
+        throw sortError("Error writing index entries to", path, e);
+      }
+    }
+
+    @Override
+    public void finishWriting() {
+      try {
+        out.close();
+      } catch (IOException e) {
+        throw sortError("Error writing index entries to", path, e);
+      } finally {
+        out = null;
+      }
+    }
+
+    @Override
+    public Iterator<ORawPair<Object, ORID>> iterator() {
+      try {
+        in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE));
+      } catch (IOException e) {
+        throw sortError("Error reading index entries from", path, e);
+      }
+
+      return new Iterator<ORawPair<Object, ORID>>() {
+        private long read = 0;
+
+        @Override
+        public boolean hasNext() {
+          return read < size;
+        }
+
+        @Override
+        public ORawPair<Object, ORID> next() {
+          if (read >= size) {
+            throw new NoSuchElementException();
+          }
+
+          try {
+            final ORawPair<Object, ORID> entry = read();
+            read++;
+            return entry;
+          } catch (IOException e) {
+            throw sortError("Error reading index entries from", path, e);
+          }
+        }
+      };
+    }
+
+    private ORawPair<Object, ORID> read() throws IOException {
+      final byte keyKind = in.readByte();
+
+      Object key = null;
+      if (keyKind != NULL_KEY) {
+        final byte[] serializedKey = new byte[in.readInt()];
+        in.readFully(serializedKey);
+
+        final OCompositeKey compositeKey =
+            OCompositeKeySerializer.INSTANCE.deserialize(serializedKey, 0);
+        key = keyKind == COMPOSITE_KEY ? compositeKey : compositeKey.getKeys().get(0);
+      }
+
+      final int clusterId = in.readInt();
+      final long clusterPosition = in.readLong();
+      return new ORawPair<>(key, new ORecordId(clusterId, clusterPosition));
+    }
+
+    @Override
+    public void close() {
+      try {
+        if (out != null) {
+          out.close();
+        }
+        if (in != null) {
+          in.close();
+        }
+      } catch (IOException e) {
+        OLogManager.instance().warn(this, "Error closing temporary index file %s", e, path);
+      } finally {
+        out = null;
+        in = null;
+        try {
+          Files.deleteIfExists(path);
+        } catch (IOException e) {
+          OLogManager.instance().warn(this, "Cannot delete temporary index file %s", e, path);
+        }
+      }
+    }
+  }
+}
@@ -116,6 +116,16 @@ public class OIndexUnique extends OIndexOneValue {
     storage.validatedPutIndexValue(indexId, key, rid, uniqueValidator);
   }
 
+  @Override
+  protected ORID resolveDuplicateKey(final Object key, final ORID oldValue, final ORID newValue) {
+    final Object result = uniqueValidator.validate(key, oldValue, newValue);
+    if (result == OBaseIndexEngine.Validator.IGNORE) {
+      return oldValue;
+    }
+
+    return (ORID) result;
+  }
+
   @Override
   public boolean canBeUsedInEqualityOperators() {
     return true;
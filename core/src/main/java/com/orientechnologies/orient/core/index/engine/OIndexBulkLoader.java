@@ -0,0 +1,40 @@
+package com.orientechnologies.orient.core.index.engine;
+
+import com.orientechnologies.common.util.ORawPair;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.atomicoperations.OAtomicOperation;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Fills an empty index with entries sorted by key in ascending order. Pages of the index are
+ * filled one after another and each of them is written only once, instead of being split again and
+ * again by the single inserts.
+ *
+ * <p>Entries are loaded in batches, each batch is loaded inside of its own atomic operation, so
+ * the amount of changes kept in memory by an atomic operation is limited. Loaded entries become
+ * visible only when {@link #complete(OAtomicOperation)} is called. Puts and removals done by other
+ * operations since the creation of the loader are applied again on top of the loaded entries on
+ * completion, so the loader should be created before the entries are collected.
+ *
+ * @param <K> type of the keys of the index
+ */
+public interface OIndexBulkLoader<K> extends AutoCloseable {
+  /**
+   * Loads the next batch of entries.
+   *
+   * @param atomicOperation atomic operation inside of which batch is loaded
+   * @param entries entries sorted by key, if the same key is met several times the last value
+   *     wins
+   * @return {@code true} if there are still entries which should be loaded by the next call
+   */
+  boolean load(OAtomicOperation atomicOperation, Iterator<ORawPair<K, ORID>> entries)
+      throws IOException;
+
+  /** Writes the rest of the loaded entries and makes all of them visible. */
+  void complete(OAtomicOperation atomicOperation) throws IOException;
+
+  /** Stops recording of the changes of the index, it is called also after the completion. */
+  @Override
+  void close();
+}
@@ -10,6 +10,16 @@ public interface OSingleValueIndexEngine extends OV1IndexEngine {
 
   boolean remove(OAtomicOperation atomicOperation, Object key) throws IOException;
 
+  /**
+   * Creates loader which fills the empty index with sorted entries, changes of the index are
+   * recorded by the loader from this point till the load is completed or the loader is closed.
+   *
+   * @return loader or {@code null} if bulk loading is not supported by the engine
+   */
+  default OIndexBulkLoader<Object> createBulkLoader(OAtomicOperation atomicOperation) {
+    return null;
+  }
+
   @Override
   default boolean isMultiValue() {
     return false;
@@ -7,6 +7,7 @@ import com.orientechnologies.orient.core.encryption.OEncryption;
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.index.OIndexDefinition;
 import com.orientechnologies.orient.core.index.OIndexException;
+import com.orientechnologies.orient.core.index.engine.OIndexBulkLoader;
 import com.orientechnologies.orient.core.index.engine.OSingleValueIndexEngine;
 import com.orientechnologies.orient.core.metadata.schema.OType;
 import com.orientechnologies.orient.core.record.impl.ODocument;
@@ -253,6 +254,11 @@ public final class OCellBTreeSingleValueIndexEngine
     return true;
   }
 
+  @Override
+  public OIndexBulkLoader<Object> createBulkLoader(final OAtomicOperation atomicOperation) {
+    return sbTree.createBulkLoader(atomicOperation);
+  }
+
   @Override
   public String getIndexNameByKey(Object key) {
     return name;
@@ -27,6 +27,7 @@ import com.orientechnologies.orient.core.exception.ODatabaseException;
 import com.orientechnologies.orient.core.exception.OSecurityException;
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.intent.OIntentMassiveRead;
 import com.orientechnologies.orient.core.metadata.security.ORole;
 import com.orientechnologies.orient.core.metadata.security.ORule;
 import com.orientechnologies.orient.core.metadata.security.OSecurityUser;
@@ -34,6 +35,8 @@ import com.orientechnologies.orient.core.record.ORecord;
 import com.orientechnologies.orient.core.record.ORecordInternal;
 import com.orientechnologies.orient.core.storage.OPhysicalPosition;
 import com.orientechnologies.orient.core.storage.OStorage;
+import com.orientechnologies.orient.core.storage.cache.OReadCache;
+import com.orientechnologies.orient.core.storage.impl.local.OAbstractPaginatedStorage;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -255,6 +258,21 @@ public abstract class OIdentifiableIterator<REC extends OIdentifiable>
       // LIMIT REACHED
       return null;
 
+    final OReadCache scanCache = getScanCache();
+    if (scanCache == null) {
+      return doReadCurrentRecord(iRecord, iMovement);
+    }
+
+    // MASSIVE READ: DO NOT LET BROWSED PAGES EVICT THE WORKING SET OF THE DISK CACHE
+    scanCache.startScan();
+    try {
+      return doReadCurrentRecord(iRecord, iMovement);
+    } finally {
+      scanCache.stopScan();
+    }
+  }
+
+  private ORecord doReadCurrentRecord(ORecord iRecord, final int iMovement) {
     do {
       final boolean moveResult;
       switch (iMovement) {
@@ -302,6 +320,19 @@ public abstract class OIdentifiableIterator<REC extends OIdentifiable>
     return null;
   }
 
+  private OReadCache getScanCache() {
+    if (!(database.getActiveIntent() instanceof OIntentMassiveRead)) {
+      return null;
+    }
+
+    final OStorage storage = dbStorage.getUnderlying();
+    if (storage instanceof OAbstractPaginatedStorage) {
+      return ((OAbstractPaginatedStorage) storage).getReadCache();
+    }
+
+    return null;
+  }
+
   protected boolean nextPosition() {
     if (positionsToProcess == null) {
       positionsToProcess =
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2010-2014 OrientDB LTD (info(-at-)orientdb.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.orientechnologies.orient.core.metadata.schema.clusterselection;
+
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Returns always the same cluster for the same thread, threads are spread over the clusters of the
+ * class by round robin algorithm.
+ *
+ * <p>Clusters are locked exclusively from the moment the first record is written into them till
+ * the end of the transaction, so if records created by the same transaction are spread over all
+ * the clusters of the class, concurrent transactions which insert into the same class are
+ * serialized. With this strategy all records created by a thread go into the same cluster, and
+ * concurrent inserts into the same class scale up to the number of clusters of the class.
+ */
+public class OThreadAffinityClusterSelectionStrategy implements OClusterSelectionStrategy {
+  public static final String NAME = "thread";
+
+  private static final AtomicInteger nextThreadSlot = new AtomicInteger();
+  private static final ThreadLocal<Integer> threadSlot =
+      ThreadLocal.withInitial(() -> nextThreadSlot.getAndIncrement() & Integer.MAX_VALUE);
+
+  public int getCluster(final OClass iClass, final ODocument doc) {
+    return getCluster(iClass, iClass.getClusterIds(), doc);
+  }
+
+  public int getCluster(final OClass clazz, final int[] clusters, final ODocument doc) {
+    if (clusters.length == 1)
+      // ONLY ONE: RETURN THE FIRST ONE
+      return clusters[0];
+
+    return clusters[threadSlot.get() % clusters.length];
+  }
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+}
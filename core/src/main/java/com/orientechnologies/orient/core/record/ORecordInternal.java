@@ -105,6 +105,14 @@ public class ORecordInternal {
     rec.clearSource();
   }
 
+  /**
+   * Internal only. Returns serialized content of the record, <code>null</code> if record was
+   * changed since it was loaded.
+   */
+  public static byte[] getSource(final ORecord record) {
+    return ((ORecordAbstract) record).source;
+  }
+
   public static void addIdentityChangeListener(
       ORecord record, final OIdentityChangeListener identityChangeListener) {
     if (!(record instanceof ORecordAbstract)) {
@@ -53,6 +53,7 @@ import com.orientechnologies.orient.core.storage.ridbag.sbtree.OSBTreeCollection
 import com.orientechnologies.orient.core.storage.ridbag.sbtree.OSBTreeRidBag;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.HashMap;
@@ -66,6 +67,12 @@ public class HelperClasses {
   protected static final ORecordId NULL_RECORD_ID = new ORecordId(-2, ORID.CLUSTER_POS_INVALID);
   public static final long MILLISEC_PER_DAY = 86400000;
 
+  /**
+   * Flag of the configuration byte of the ridbag which tells that entries of the embedded ridbag
+   * are grouped by cluster and positions of the entries are delta encoded.
+   */
+  protected static final byte RIDBAG_GROUPED_BY_CLUSTER = 4;
+
   public static class Tuple<T1, T2> {
 
     private final T1 firstVal;
@@ -329,6 +336,14 @@ public class HelperClasses {
   }
 
   public static void writeRidBag(BytesContainer bytes, ORidBag ridbag) {
+    writeRidBag(bytes, ridbag, false);
+  }
+
+  /**
+   * @param groupByCluster whether entries of the embedded ridbag are written grouped by cluster,
+   *     see {@link #writeGroupedEmbeddedRidbag(BytesContainer, ORidBag)}
+   */
+  public static void writeRidBag(BytesContainer bytes, ORidBag ridbag, boolean groupByCluster) {
     ridbag.checkAndConvert();
 
     UUID ownerUuid = ridbag.getTemporaryId();
@@ -344,13 +359,18 @@ public class HelperClasses {
 
     if (uuid != null) configByte |= 2;
 
+    groupByCluster = groupByCluster && ridbag.isEmbedded();
+    if (groupByCluster) configByte |= RIDBAG_GROUPED_BY_CLUSTER;
+
     // alloc will move offset and do skip
     int posForWrite = bytes.alloc(OByteSerializer.BYTE_SIZE);
     OByteSerializer.INSTANCE.serialize(configByte, bytes.bytes, posForWrite);
 
     // removed serializing UUID
 
-    if (ridbag.isEmbedded()) {
+    if (groupByCluster) {
+      writeGroupedEmbeddedRidbag(bytes, ridbag);
+    } else if (ridbag.isEmbedded()) {
       writeEmbeddedRidbag(bytes, ridbag);
     } else {
       writeSBTreeRidbag(bytes, ridbag, ownerUuid);
@@ -362,30 +382,92 @@ public class HelperClasses {
     Object[] entries = ((OEmbeddedRidBag) ridbag.getDelegate()).getEntries();
     ODatabaseDocumentInternal db = ODatabaseRecordThreadLocal.instance().getIfDefined();
     for (int i = 0; i < entries.length; i++) {
-      Object entry = entries[i];
-      if (entry instanceof OIdentifiable) {
-        OIdentifiable itemValue = (OIdentifiable) entry;
-        final ORID rid = itemValue.getIdentity();
-        if (db != null
-            && !db.isClosed()
-            && db.getTransaction().isActive()
-            && !itemValue.getIdentity().isPersistent()) {
-          itemValue = db.getTransaction().getRecord(itemValue.getIdentity());
-        }
-        if (itemValue == null) {
-          // should never happen
-          String errorMessage = "Found null entry in ridbag with rid=" + rid;
-          OSerializationException exc = new OSerializationException(errorMessage);
-          OLogManager.instance().error(ORecordSerializerBinaryV1.class, errorMessage, null);
-          throw exc;
-        } else {
-          entries[i] = itemValue.getIdentity();
-          writeLinkOptimized(bytes, itemValue);
-        }
+      if (entries[i] instanceof OIdentifiable) {
+        writeLinkOptimized(bytes, resolveRidbagEntry(entries, i, db));
       }
     }
   }
 
+  /**
+   * Writes entries of the embedded ridbag grouped by cluster. Entries of each cluster are sorted by
+   * position and only the difference from the position of the previous entry is written, so
+   * entries which point to the records created one after another take one or two bytes.
+   *
+   * <p>Format: size of the ridbag, amount of clusters, then for every cluster its id, amount of
+   * entries, position of the first entry and differences of the positions of the rest of entries.
+   */
+  protected static void writeGroupedEmbeddedRidbag(BytesContainer bytes, ORidBag ridbag) {
+    final Object[] entries = ((OEmbeddedRidBag) ridbag.getDelegate()).getEntries();
+    final ODatabaseDocumentInternal db = ODatabaseRecordThreadLocal.instance().getIfDefined();
+
+    final ORID[] rids = new ORID[entries.length];
+    int size = 0;
+    for (int i = 0; i < entries.length; i++) {
+      if (entries[i] instanceof OIdentifiable) {
+        rids[size++] = resolveRidbagEntry(entries, i, db);
+      }
+    }
+    Arrays.sort(rids, 0, size);
+
+    OVarIntSerializer.write(bytes, size);
+
+    int clusters = 0;
+    for (int i = 0; i < size; i++) {
+      if (i == 0 || rids[i].getClusterId() != rids[i - 1].getClusterId()) {
+        clusters++;
+      }
+    }
+    OVarIntSerializer.write(bytes, clusters);
+
+    int groupStart = 0;
+    while (groupStart < size) {
+      final int clusterId = rids[groupStart].getClusterId();
+      int groupEnd = groupStart + 1;
+      while (groupEnd < size && rids[groupEnd].getClusterId() == clusterId) {
+        groupEnd++;
+      }
+
+      OVarIntSerializer.write(bytes, clusterId);
+      OVarIntSerializer.write(bytes, groupEnd - groupStart);
+
+      long position = rids[groupStart].getClusterPosition();
+      OVarIntSerializer.write(bytes, position);
+      for (int i = groupStart + 1; i < groupEnd; i++) {
+        final long nextPosition = rids[i].getClusterPosition();
+        OVarIntSerializer.writeUnsignedVarLong(nextPosition - position, bytes);
+        position = nextPosition;
+      }
+
+      groupStart = groupEnd;
+    }
+  }
+
+  /**
+   * Replaces the entry of the embedded ridbag by the identity of the record, records created in the
+   * current transaction are looked up in it, because their identity may be already changed.
+   */
+  private static ORID resolveRidbagEntry(
+      final Object[] entries, final int index, final ODatabaseDocumentInternal db) {
+    OIdentifiable itemValue = (OIdentifiable) entries[index];
+    final ORID rid = itemValue.getIdentity();
+    if (db != null
+        && !db.isClosed()
+        && db.getTransaction().isActive()
+        && !itemValue.getIdentity().isPersistent()) {
+      itemValue = db.getTransaction().getRecord(itemValue.getIdentity());
+    }
+    if (itemValue == null) {
+      // should never happen
+      String errorMessage = "Found null entry in ridbag with rid=" + rid;
+      OSerializationException exc = new OSerializationException(errorMessage);
+      OLogManager.instance().error(ORecordSerializerBinaryV1.class, errorMessage, null);
+      throw exc;
+    }
+
+    entries[index] = itemValue.getIdentity();
+    return itemValue.getIdentity();
+  }
+
   protected static void writeSBTreeRidbag(BytesContainer bytes, ORidBag ridbag, UUID ownerUuid) {
     ((OSBTreeRidBag) ridbag.getDelegate()).applyNewEntries();
 
@@ -461,7 +543,9 @@ public class HelperClasses {
     // removed deserializing UUID
 
     ORidBag ridbag = null;
-    if (isEmbedded) {
+    if ((configByte & RIDBAG_GROUPED_BY_CLUSTER) != 0) {
+      ridbag = readGroupedEmbeddedRidbag(bytes);
+    } else if (isEmbedded) {
       ridbag = new ORidBag();
       int size = OVarIntSerializer.readAsInteger(bytes);
       ridbag.getDelegate().setSize(size);
@@ -496,6 +580,36 @@ public class HelperClasses {
     return ridbag;
   }
 
+  private static ORidBag readGroupedEmbeddedRidbag(final BytesContainer bytes) {
+    final ORidBag ridbag = new ORidBag();
+    final int size = OVarIntSerializer.readAsInteger(bytes);
+    ridbag.getDelegate().setSize(size);
+
+    final OIdentifiable[] records = new OIdentifiable[size];
+    int recordsCount = 0;
+
+    final int clusters = OVarIntSerializer.readAsInteger(bytes);
+    for (int n = 0; n < clusters; n++) {
+      final int clusterId = OVarIntSerializer.readAsInteger(bytes);
+      final int count = OVarIntSerializer.readAsInteger(bytes);
+
+      long position = OVarIntSerializer.readAsLong(bytes);
+      for (int i = 0; i < count; i++) {
+        if (i > 0) {
+          position += OVarIntSerializer.readUnsignedVarLong(bytes);
+        }
+
+        final ORID rid = new ORecordId(clusterId, position);
+        OIdentifiable identifiable = null;
+        if (rid.isTemporary()) identifiable = rid.getRecord();
+        records[recordsCount++] = identifiable != null ? identifiable : rid;
+      }
+    }
+
+    ((OEmbeddedRidBag) ridbag.getDelegate()).addAllInternal(records, recordsCount);
+    return ridbag;
+  }
+
   private static OIdentifiable readLinkOptimizedEmbedded(final BytesContainer bytes) {
     ORID rid =
         new ORecordId(OVarIntSerializer.readAsInteger(bytes), OVarIntSerializer.readAsLong(bytes));
@@ -22,6 +22,7 @@ package com.orientechnologies.orient.core.serialization.serializer.record.binary
 
 import com.orientechnologies.common.log.OLogManager;
 import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.exception.OSerializationException;
 import com.orientechnologies.orient.core.id.ORecordId;
 import com.orientechnologies.orient.core.record.ORecord;
 import com.orientechnologies.orient.core.record.impl.OBlob;
@@ -41,9 +42,10 @@ public class ORecordSerializerBinary implements ORecordSerializer {
   private final byte currentSerializerVersion;
 
   private void init() {
-    serializerByVersion = new ODocumentSerializer[2];
+    serializerByVersion = new ODocumentSerializer[3];
     serializerByVersion[0] = new ORecordSerializerBinaryV0();
     serializerByVersion[1] = new ORecordSerializerBinaryV1();
+    serializerByVersion[2] = new ORecordSerializerBinaryV2();
   }
 
   public ORecordSerializerBinary(byte serializerVersion) {
@@ -56,6 +58,21 @@ public class ORecordSerializerBinary implements ORecordSerializer {
     init();
   }
 
+  /**
+   * Returns the serializer which writes the records in the given version of the format, records of
+   * all the supported versions are read by any of the serializers.
+   */
+  public static ORecordSerializerBinary forVersion(final int version) {
+    if (version == INSTANCE.getCurrentVersion()) {
+      return INSTANCE;
+    }
+    if (version < 0 || version >= INSTANCE.getNumberOfSupportedVersions()) {
+      throw new OSerializationException(
+          "Version " + version + " of the binary record format is not supported");
+    }
+    return new ORecordSerializerBinary((byte) version);
+  }
+
   public int getNumberOfSupportedVersions() {
     return serializerByVersion.length;
   }
@@ -445,7 +445,7 @@ public class ORecordSerializerBinaryV1 implements ODocumentSerializer {
     destinationBuffer.offset += sourceBuffer1.offset + sourceBuffer2.offset;
   }
 
-  private void serializeDocument(
+  protected void serializeDocument(
       final ODocument document,
       final BytesContainer bytes,
       final OClass clazz,
@@ -0,0 +1,328 @@
+package com.orientechnologies.orient.core.serialization.serializer.record.binary;
+
+import static com.orientechnologies.orient.core.serialization.serializer.record.binary.HelperClasses.bytesFromString;
+import static com.orientechnologies.orient.core.serialization.serializer.record.binary.HelperClasses.readOType;
+import static com.orientechnologies.orient.core.serialization.serializer.record.binary.HelperClasses.stringFromBytes;
+
+import com.orientechnologies.common.serialization.types.OIntegerSerializer;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.record.ridbag.ORidBag;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OGlobalProperty;
+import com.orientechnologies.orient.core.metadata.schema.OImmutableSchema;
+import com.orientechnologies.orient.core.metadata.schema.OProperty;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.metadata.security.OPropertyEncryption;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.record.impl.ODocumentEntry;
+import com.orientechnologies.orient.core.record.impl.ODocumentInternal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Version of the binary format which prefixes the header of the document by the directory of its
+ * fields. Every entry of the directory contains hash of the field name, offset of the field in the
+ * header and offset of the field value, entries are sorted by hash, so single field is found by the
+ * binary search instead of the scan of the whole header. Directory is written only for documents
+ * with many fields, header of small documents is scanned as fast as the directory is searched, so
+ * they are prefixed by the empty directory. The rest of the document is written as in {@link
+ * ORecordSerializerBinaryV1}, except of embedded ridbags, entries of which are grouped by cluster
+ * and have delta encoded positions.
+ */
+public class ORecordSerializerBinaryV2 extends ORecordSerializerBinaryV1 {
+  /** Minimal amount of fields of the document which is written with the directory. */
+  public static final int DIRECTORY_MIN_FIELDS = 16;
+
+  private static final int ENTRY_SIZE = 3 * OIntegerSerializer.INT_SIZE;
+
+  @Override
+  protected void serializeDocument(
+      final ODocument document,
+      final BytesContainer bytes,
+      final OClass clazz,
+      OImmutableSchema schema,
+      OPropertyEncryption encryption) {
+    if (countFields(document) < DIRECTORY_MIN_FIELDS) {
+      OVarIntSerializer.write(bytes, 0);
+      super.serializeDocument(document, bytes, clazz, schema, encryption);
+      return;
+    }
+
+    final BytesContainer content = new BytesContainer();
+    super.serializeDocument(document, content, clazz, schema, encryption);
+
+    final int[][] directory = buildDirectory(content, schema);
+    OVarIntSerializer.write(bytes, directory.length);
+    int pos = bytes.alloc(directory.length * ENTRY_SIZE);
+    for (final int[] entry : directory) {
+      for (final int value : entry) {
+        OIntegerSerializer.INSTANCE.serializeLiteral(value, bytes.bytes, pos);
+        pos += OIntegerSerializer.INT_SIZE;
+      }
+    }
+
+    pos = bytes.alloc(content.offset);
+    System.arraycopy(content.bytes, 0, bytes.bytes, pos, content.offset);
+  }
+
+  @Override
+  protected int writeRidBag(final BytesContainer bytes, final ORidBag ridbag) {
+    final int positionOffset = bytes.offset;
+    HelperClasses.writeRidBag(bytes, ridbag, true);
+    return positionOffset;
+  }
+
+  private static int countFields(final ODocument document) {
+    int fields = 0;
+    for (final Map.Entry<String, ODocumentEntry> entry : ODocumentInternal.rawEntries(document)) {
+      if (entry.getValue().exists()) {
+        fields++;
+      }
+    }
+    return fields;
+  }
+
+  /** Parses header of the serialized document and builds the entries of its directory. */
+  private static int[][] buildDirectory(
+      final BytesContainer content, final OImmutableSchema schema) {
+    final BytesContainer header = new BytesContainer(content.bytes);
+    final int headerLength = OVarIntSerializer.readAsInteger(header);
+    final int headerStart = header.offset;
+
+    final List<int[]> entries = new ArrayList<>();
+    int valueOffset = 0;
+    while (header.offset < headerStart + headerLength) {
+      final int entryOffset = header.offset - headerStart;
+      final int len = OVarIntSerializer.readAsInteger(header);
+      final String fieldName;
+      final int fieldLength;
+      if (len > 0) {
+        fieldName = stringFromBytes(header.bytes, header.offset, len);
+        header.skip(len);
+        fieldLength = OVarIntSerializer.readAsInteger(header);
+        header.skip(1);
+      } else {
+        final OGlobalProperty prop = schema.getGlobalPropertyById((len * -1) - 1);
+        fieldName = prop.getName();
+        fieldLength = OVarIntSerializer.readAsInteger(header);
+        if (prop.getType() == OType.ANY) header.skip(1);
+      }
+
+      entries.add(new int[] {fieldName.hashCode(), entryOffset, valueOffset});
+      valueOffset += fieldLength;
+    }
+
+    entries.sort(Comparator.comparingInt(entry -> entry[0]));
+    return entries.toArray(new int[0][]);
+  }
+
+  @Override
+  public void deserializePartial(ODocument document, BytesContainer bytes, String[] iFields) {
+    final int directorySize = OVarIntSerializer.readAsInteger(bytes);
+    if (directorySize == 0) {
+      super.deserializePartial(document, bytes, iFields);
+      return;
+    }
+
+    final int directoryStart = bytes.offset;
+    for (final String fieldName : iFields) {
+      bytes.offset = directoryStart;
+      final FieldEntry field =
+          findField(
+              bytes,
+              directorySize,
+              fieldName,
+              id -> ODocumentInternal.getGlobalPropertyById(document, id));
+      if (field == null) {
+        continue;
+      }
+
+      if (field.length != 0) {
+        bytes.offset = field.valuePosition;
+        final Object value = deserializeValue(bytes, field.type, document);
+        ODocumentInternal.rawField(document, fieldName, value, field.type);
+      } else {
+        ODocumentInternal.rawField(document, fieldName, null, null);
+      }
+    }
+  }
+
+  @Override
+  public OBinaryField deserializeField(
+      final BytesContainer bytes,
+      final OClass iClass,
+      final String iFieldName,
+      boolean embedded,
+      OImmutableSchema schema,
+      OPropertyEncryption encryption) {
+    if (embedded) {
+      skipClassName(bytes);
+    }
+
+    final int directorySize = OVarIntSerializer.readAsInteger(bytes);
+    if (directorySize == 0) {
+      return super.deserializeField(bytes, iClass, iFieldName, false, schema, encryption);
+    }
+
+    final FieldEntry field =
+        findField(bytes, directorySize, iFieldName, schema::getGlobalPropertyById);
+    if (field == null || field.length == 0 || !getComparator().isBinaryComparable(field.type)) {
+      return null;
+    }
+
+    bytes.offset = field.valuePosition;
+    final OProperty classProp = field.global ? iClass.getProperty(iFieldName) : null;
+    return new OBinaryField(
+        iFieldName, field.type, bytes, classProp != null ? classProp.getCollate() : null);
+  }
+
+  @Override
+  public void deserialize(final ODocument document, final BytesContainer bytes) {
+    skipDirectory(bytes);
+    super.deserialize(document, bytes);
+  }
+
+  @Override
+  public String[] getFieldNames(ODocument reference, final BytesContainer bytes, boolean embedded) {
+    if (embedded) {
+      skipClassName(bytes);
+    }
+    skipDirectory(bytes);
+    return super.getFieldNames(reference, bytes, false);
+  }
+
+  @Override
+  protected <RET> RET deserializeFieldTypedLoopAndReturn(
+      BytesContainer bytes,
+      String iFieldName,
+      final OImmutableSchema schema,
+      OPropertyEncryption encryption) {
+    final int directorySize = OVarIntSerializer.readAsInteger(bytes);
+    if (directorySize == 0) {
+      return super.deserializeFieldTypedLoopAndReturn(bytes, iFieldName, schema, encryption);
+    }
+
+    final FieldEntry field =
+        findField(bytes, directorySize, iFieldName, schema::getGlobalPropertyById);
+    if (field == null || field.length == 0) {
+      return null;
+    }
+
+    bytes.offset = field.valuePosition;
+    //noinspection unchecked
+    return (RET) deserializeValue(bytes, field.type, null, false, field.length, false, schema);
+  }
+
+  @Override
+  public void deserializeDebug(
+      BytesContainer bytes,
+      ODatabaseDocumentInternal db,
+      ORecordSerializationDebug debugInfo,
+      OImmutableSchema schema) {
+    skipDirectory(bytes);
+    super.deserializeDebug(bytes, db, debugInfo, schema);
+  }
+
+  private static void skipDirectory(final BytesContainer bytes) {
+    final int directorySize = OVarIntSerializer.readAsInteger(bytes);
+    bytes.skip(directorySize * ENTRY_SIZE);
+  }
+
+  /**
+   * Looks up the field in the directory which starts at the current position of the container.
+   *
+   * @return the field or <code>null</code> if document does not contain it.
+   */
+  private static FieldEntry findField(
+      final BytesContainer bytes,
+      final int directorySize,
+      final String fieldName,
+      final IntFunction<OGlobalProperty> properties) {
+    final int directoryStart = bytes.offset;
+    bytes.skip(directorySize * ENTRY_SIZE);
+    final int headerLength = OVarIntSerializer.readAsInteger(bytes);
+    final int headerStart = bytes.offset;
+    final int valuesStart = headerStart + headerLength;
+
+    final int hash = fieldName.hashCode();
+    byte[] field = null;
+
+    // FIRST ENTRY WITH THE SAME HASH, SEVERAL FIELDS MAY SHARE IT
+    int low = 0;
+    int high = directorySize;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (readEntry(bytes, directoryStart, mid, 0) < hash) low = mid + 1;
+      else high = mid;
+    }
+
+    for (int i = low; i < directorySize && readEntry(bytes, directoryStart, i, 0) == hash; i++) {
+      bytes.offset = headerStart + readEntry(bytes, directoryStart, i, 1);
+      final int len = OVarIntSerializer.readAsInteger(bytes);
+      final boolean global;
+      final int fieldLength;
+      final OType type;
+      if (len > 0) {
+        if (field == null) {
+          field = bytesFromString(fieldName);
+        }
+        if (!matches(bytes, field, len)) {
+          continue;
+        }
+        global = false;
+        bytes.skip(len);
+        fieldLength = OVarIntSerializer.readAsInteger(bytes);
+        type = readOType(bytes, false);
+      } else {
+        final OGlobalProperty prop = properties.apply((len * -1) - 1);
+        if (prop == null || !fieldName.equals(prop.getName())) {
+          continue;
+        }
+        global = true;
+        fieldLength = OVarIntSerializer.readAsInteger(bytes);
+        type = prop.getType() != OType.ANY ? prop.getType() : readOType(bytes, false);
+      }
+
+      return new FieldEntry(
+          type, fieldLength, valuesStart + readEntry(bytes, directoryStart, i, 2), global);
+    }
+
+    return null;
+  }
+
+  private static int readEntry(
+      final BytesContainer bytes, final int directoryStart, final int entry, final int column) {
+    return OIntegerSerializer.INSTANCE.deserializeLiteral(
+        bytes.bytes, directoryStart + entry * ENTRY_SIZE + column * OIntegerSerializer.INT_SIZE);
+  }
+
+  private static boolean matches(final BytesContainer bytes, final byte[] field, final int len) {
+    if (field.length != len) {
+      return false;
+    }
+    for (int j = 0; j < len; ++j) {
+      if (bytes.bytes[bytes.offset + j] != field[j]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static final class FieldEntry {
+    private final OType type;
+    private final int length;
+    private final int valuePosition;
+    private final boolean global;
+
+    private FieldEntry(
+        final OType type, final int length, final int valuePosition, final boolean global) {
+      this.type = type;
+      this.length = length;
+      this.valuePosition = valuePosition;
+      this.global = global;
+    }
+  }
+}
@@ -2,27 +2,46 @@ package com.orientechnologies.orient.core.sql.executor;
 
 import com.orientechnologies.common.concur.OTimeoutException;
 import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.exception.OCommandExecutionException;
 import com.orientechnologies.orient.core.sql.parser.OExpression;
 import com.orientechnologies.orient.core.sql.parser.OGroupBy;
 import com.orientechnologies.orient.core.sql.parser.OProjection;
 import com.orientechnologies.orient.core.sql.parser.OProjectionItem;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
-/** Created by luigidellaquila on 12/07/16. */
+/**
+ * Calculates aggregate projections, optionally grouping by a GROUP BY clause.
+ *
+ * <p>Groups are kept in heap. If {@link OGlobalConfiguration#QUERY_SPILL_TO_DISK} is enabled and
+ * the number of groups exceeds {@link OGlobalConfiguration#QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP},
+ * the input records of the groups that do not fit are written to partition files (based on the
+ * hash of the GROUP BY key), and each partition is aggregated separately once the groups in heap
+ * are completed. Partitions that are still too big are partitioned again, up to a fixed number of
+ * levels. When spilling happens, the order of the groups is not preserved. The size of the
+ * partition files is limited by {@link OGlobalConfiguration#QUERY_SPILL_MAX_SIZE}.
+ *
+ * <p>Created by luigidellaquila on 12/07/16.
+ */
 public class AggregateProjectionCalculationStep extends ProjectionCalculationStep {
 
   private final OGroupBy groupBy;
   private final long timeoutMillis;
   private final long limit;
 
+  private static final int SPILL_PARTITIONS = 16;
+  private static final int MAX_SPILL_LEVELS = 4;
+
   // the key is the GROUP BY key, the value is the (partially) aggregated value
   private Map<List, OResultInternal> aggregateResults = new LinkedHashMap<>();
   private List<OResultInternal> finalResults = null;
+  private final List<OResultSpillFile> spillFiles = new ArrayList<>();
 
   private int nextItem = 0;
   private long cost = 0;
@@ -43,7 +62,12 @@ public class AggregateProjectionCalculationStep extends ProjectionCalculationSte
   @Override
   public OResultSet syncPull(OCommandContext ctx, int nRecords) throws OTimeoutException {
     if (finalResults == null) {
-      executeAggregation(ctx, nRecords);
+      try {
+        executeAggregation(ctx, nRecords);
+      } catch (RuntimeException e) {
+        closeSpillFiles();
+        throw e;
+      }
     }
 
     return new OResultSet() {
@@ -89,21 +113,130 @@ public class AggregateProjectionCalculationStep extends ProjectionCalculationSte
       throw new OCommandExecutionException(
           "Cannot execute an aggregation or a GROUP BY without a previous result");
     }
+    long maxGroups = getMaxGroupsInHeap(ctx);
+    finalResults = new ArrayList<>();
     OExecutionStepInternal prevStep = prev.get();
     OResultSet lastRs = prevStep.syncPull(ctx, nRecords);
+    OResultSpillFile[] partitions = null;
     while (lastRs.hasNext()) {
       if (timeoutMillis > 0 && timeoutBegin + timeoutMillis < System.currentTimeMillis()) {
         sendTimeout();
       }
-      aggregate(lastRs.next(), ctx);
+      OResult next = lastRs.next();
+      List<Object> key = calculateKey(next, ctx);
+      if (mustSpill(key, maxGroups)) {
+        partitions = spill(next, key, partitions, 0, ctx);
+      } else {
+        aggregate(next, key, ctx);
+      }
       if (!lastRs.hasNext()) {
         lastRs = prevStep.syncPull(ctx, nRecords);
       }
     }
-    finalResults = new ArrayList<>();
-    finalResults.addAll(aggregateResults.values());
-    aggregateResults.clear();
-    for (OResultInternal item : finalResults) {
+    flushGroups(timeoutBegin);
+    if (partitions != null) {
+      aggregatePartitions(partitions, 1, maxGroups, timeoutBegin, ctx);
+    }
+  }
+
+  /**
+   * @return the maximum number of groups that can be kept in heap before starting to write the
+   *     input to temporary files, -1 for no limit
+   */
+  private long getMaxGroupsInHeap(OCommandContext ctx) {
+    if (limit > 0 || groupBy == null) {
+      return -1;
+    }
+    if (!ctx.getDatabase()
+        .getConfiguration()
+        .getValueAsBoolean(OGlobalConfiguration.QUERY_SPILL_TO_DISK)) {
+      return -1;
+    }
+    return ctx.getDatabase()
+        .getConfiguration()
+        .getValueAsLong(OGlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP);
+  }
+
+  private boolean mustSpill(List<Object> key, long maxGroups) {
+    return maxGroups >= 0
+        && aggregateResults.size() >= maxGroups
+        && !aggregateResults.containsKey(key);
+  }
+
+  /**
+   * writes a record that does not belong to any group in heap to a partition file, chosen based on
+   * the hash of the GROUP BY key. All the records of a group end up in the same partition.
+   */
+  private OResultSpillFile[] spill(
+      OResult record,
+      List<Object> key,
+      OResultSpillFile[] partitions,
+      int level,
+      OCommandContext ctx) {
+    long begin = profilingEnabled ? System.nanoTime() : 0;
+    try {
+      OQueryStats stats = OQueryStats.get((ODatabaseDocumentInternal) ctx.getDatabase());
+      if (partitions == null) {
+        partitions = new OResultSpillFile[SPILL_PARTITIONS];
+      }
+      int hash = Integer.rotateLeft(key.hashCode() * 0x9E3779B9, level * 5);
+      int partition = Math.floorMod(hash, SPILL_PARTITIONS);
+      if (partitions[partition] == null) {
+        partitions[partition] = new OResultSpillFile(ctx, "groupBy");
+        spillFiles.add(partitions[partition]);
+        stats.addSpilledGroupByPartitions(1);
+      }
+      partitions[partition].write(record);
+      stats.addSpilledGroupByRecords(1);
+      return partitions;
+    } finally {
+      if (profilingEnabled) {
+        cost += (System.nanoTime() - begin);
+      }
+    }
+  }
+
+  private void aggregatePartitions(
+      OResultSpillFile[] partitions,
+      int level,
+      long maxGroups,
+      long timeoutBegin,
+      OCommandContext ctx) {
+    // after some levels of partitioning, the groups are just kept in heap
+    long levelMaxGroups = level < MAX_SPILL_LEVELS ? maxGroups : -1;
+    for (OResultSpillFile partition : partitions) {
+      if (partition == null) {
+        continue;
+      }
+      OResultSpillFile[] subPartitions = null;
+      try {
+        Iterator<OResult> records = partition.iterator();
+        while (records.hasNext()) {
+          if (timeoutMillis > 0 && timeoutBegin + timeoutMillis < System.currentTimeMillis()) {
+            sendTimeout();
+          }
+          OResult next = records.next();
+          List<Object> key = calculateKey(next, ctx);
+          if (mustSpill(key, levelMaxGroups)) {
+            subPartitions = spill(next, key, subPartitions, level, ctx);
+          } else {
+            aggregate(next, key, ctx);
+          }
+        }
+      } finally {
+        partition.close();
+        spillFiles.remove(partition);
+      }
+      flushGroups(timeoutBegin);
+      if (subPartitions != null) {
+        aggregatePartitions(subPartitions, level + 1, maxGroups, timeoutBegin, ctx);
+      }
+    }
+  }
+
+  /** moves the groups in heap to the final results, calculating the final aggregate values */
+  private void flushGroups(long timeoutBegin) {
+    for (OResultInternal item : aggregateResults.values()) {
       if (timeoutMillis > 0 && timeoutBegin + timeoutMillis < System.currentTimeMillis()) {
         sendTimeout();
       }
@@ -113,10 +246,12 @@ public class AggregateProjectionCalculationStep extends ProjectionCalculationSte
           item.setTemporaryProperty(name, ((AggregationContext) prevVal).getFinalValue());
         }
       }
+      finalResults.add(item);
     }
+    aggregateResults.clear();
   }
 
-  private void aggregate(OResult next, OCommandContext ctx) {
+  private List<Object> calculateKey(OResult next, OCommandContext ctx) {
     long begin = profilingEnabled ? System.nanoTime() : 0;
     try {
       List<Object> key = new ArrayList<>();
@@ -126,6 +261,17 @@ public class AggregateProjectionCalculationStep extends ProjectionCalculationSte
           key.add(val);
         }
       }
+      return key;
+    } finally {
+      if (profilingEnabled) {
+        cost += (System.nanoTime() - begin);
+      }
+    }
+  }
+
+  private void aggregate(OResult next, List<Object> key, OCommandContext ctx) {
+    long begin = profilingEnabled ? System.nanoTime() : 0;
+    try {
       OResultInternal preAggr = aggregateResults.get(key);
       if (preAggr == null) {
         if (limit > 0 && aggregateResults.size() > limit) {
@@ -160,6 +306,19 @@ public class AggregateProjectionCalculationStep extends ProjectionCalculationSte
     }
   }
 
+  @Override
+  public void close() {
+    closeSpillFiles();
+    super.close();
+  }
+
+  private void closeSpillFiles() {
+    for (OResultSpillFile file : spillFiles) {
+      file.close();
+    }
+    spillFiles.clear();
+  }
+
   @Override
   public String prettyPrint(int depth, int indent) {
     String spaces = OExecutionStepInternal.getIndent(depth, indent);
@@ -1,21 +1,41 @@
 package com.orientechnologies.orient.core.sql.executor;
 
 import com.orientechnologies.common.concur.OTimeoutException;
+import com.orientechnologies.common.exception.OException;
 import com.orientechnologies.orient.core.command.OCommandContext;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.ODatabase;
 import com.orientechnologies.orient.core.exception.OCommandExecutionException;
 import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
 
-/** Created by luigidellaquila on 08/07/16. */
+/**
+ * Removes duplicate results.
+ *
+ * <p>Records are tracked by RID in an {@link ORidSet}. Projections whose properties are all simple
+ * values (strings, numbers, booleans, dates, RIDs) are serialized and tracked off-heap in an {@link
+ * OResultDigestSet}, which compares them exactly when their digests match, up to {@link
+ * OGlobalConfiguration#QUERY_DISTINCT_MAX_DIRECT_MEMORY}. All the other results are kept in heap,
+ * and are subject to {@link OGlobalConfiguration#QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP}.
+ *
+ * <p>Created by luigidellaquila on 08/07/16.
+ */
 public class DistinctExecutionStep extends AbstractExecutionStep {
-
   private Set<OResult> pastItems = new HashSet<>();
   private ORidSet pastRids = new ORidSet();
+  private OResultDigestSet pastDigests;
+
+  private final ByteArrayOutputStream contentBuffer = new ByteArrayOutputStream();
+  private final DataOutputStream contentOutput = new DataOutputStream(contentBuffer);
 
   private OResultSet lastResult = null;
   private OResult nextValue;
@@ -33,6 +53,12 @@ public class DistinctExecutionStep extends AbstractExecutionStep {
             ? OGlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP.getValueAsLong()
             : db.getConfiguration()
                 .getValueAsLong(OGlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP);
+    long maxDirectMemory =
+        db == null
+            ? OGlobalConfiguration.QUERY_DISTINCT_MAX_DIRECT_MEMORY.getValueAsLong()
+            : db.getConfiguration()
+                .getValueAsLong(OGlobalConfiguration.QUERY_DISTINCT_MAX_DIRECT_MEMORY);
+    pastDigests = new OResultDigestSet(maxDirectMemory < 0 ? -1 : maxDirectMemory * 1024 * 1024);
   }
 
   @Override
@@ -97,6 +123,8 @@ public class DistinctExecutionStep extends AbstractExecutionStep {
         lastResult = getPrev().get().syncPull(ctx, nRecords);
       }
       if (lastResult == null || !lastResult.hasNext()) {
+        // no more results, the digests are not needed anymore
+        pastDigests.close();
         return;
       }
       long begin = profilingEnabled ? System.nanoTime() : 0;
@@ -125,6 +153,11 @@ public class DistinctExecutionStep extends AbstractExecutionStep {
         return;
       }
     }
+    byte[] content = serializeSimpleProjection(nextValue);
+    if (content != null && pastDigests.hasRoomFor(content)) {
+      pastDigests.add(content);
+      return;
+    }
     pastItems.add(nextValue);
     if (maxElementsAllowed > 0 && maxElementsAllowed < pastItems.size()) {
       this.pastItems.clear();
@@ -146,14 +179,89 @@ public class DistinctExecutionStep extends AbstractExecutionStep {
         return pastRids.contains(identity);
       }
     }
+    byte[] content = serializeSimpleProjection(nextValue);
+    // when the digest set is full the projections are kept in heap
+    if (content != null && pastDigests.contains(content)) {
+      return true;
+    }
     return pastItems.contains(nextValue);
   }
 
+  /**
+   * Serializes a projection, if it's made only of simple values, so that two results are equal if
+   * and only if their serialized forms are equal. The properties are written in alphabetical order,
+   * as the equality of two results does not depend on the order of their properties
+   *
+   * @return null if the result cannot be serialized this way
+   */
+  private byte[] serializeSimpleProjection(OResult result) {
+    if (result.getClass() != OResultInternal.class || !result.isProjection()) {
+      return null;
+    }
+    contentBuffer.reset();
+    try {
+      for (String name : new TreeSet<>(result.getPropertyNames())) {
+        contentOutput.writeUTF(name);
+        if (!writeSimpleValue(((OResultInternal) result).content.get(name))) {
+          return null;
+        }
+      }
+      contentOutput.flush();
+    } catch (IOException e) {
+      throw OException.wrapException(
+          new OCommandExecutionException("Cannot serialize a result"), e);
+    }
+    return contentBuffer.toByteArray();
+  }
+
+  private boolean writeSimpleValue(Object value) throws IOException {
+    // the value types are compared by class, as in the equals() of the values
+    if (value == null) {
+      contentOutput.writeByte(0);
+    } else if (value.getClass() == String.class) {
+      contentOutput.writeByte(1);
+      contentOutput.writeInt(((String) value).length());
+      contentOutput.writeChars((String) value);
+    } else if (value.getClass() == Integer.class) {
+      contentOutput.writeByte(2);
+      contentOutput.writeInt((Integer) value);
+    } else if (value.getClass() == Long.class) {
+      contentOutput.writeByte(3);
+      contentOutput.writeLong((Long) value);
+    } else if (value.getClass() == Short.class) {
+      contentOutput.writeByte(4);
+      contentOutput.writeShort((Short) value);
+    } else if (value.getClass() == Byte.class) {
+      contentOutput.writeByte(5);
+      contentOutput.writeByte((Byte) value);
+    } else if (value.getClass() == Float.class) {
+      contentOutput.writeByte(6);
+      contentOutput.writeInt(Float.floatToIntBits((Float) value));
+    } else if (value.getClass() == Double.class) {
+      contentOutput.writeByte(7);
+      contentOutput.writeLong(Double.doubleToLongBits((Double) value));
+    } else if (value.getClass() == Boolean.class) {
+      contentOutput.writeByte(8);
+      contentOutput.writeBoolean((Boolean) value);
+    } else if (value.getClass() == Date.class) {
+      contentOutput.writeByte(9);
+      contentOutput.writeLong(((Date) value).getTime());
+    } else if (value.getClass() == ORecordId.class) {
+      contentOutput.writeByte(10);
+      contentOutput.writeInt(((ORecordId) value).getClusterId());
+      contentOutput.writeLong(((ORecordId) value).getClusterPosition());
+    } else {
+      return false;
+    }
+    return true;
+  }
+
   @Override
   public void sendTimeout() {}
 
   @Override
   public void close() {
+    pastDigests.close();
     prev.ifPresent(x -> x.close());
   }
 
@@ -3,6 +3,7 @@ package com.orientechnologies.orient.core.sql.executor;
 import com.orientechnologies.common.concur.OTimeoutException;
 import com.orientechnologies.common.exception.OException;
 import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.exception.OCommandExecutionException;
 import com.orientechnologies.orient.core.sql.parser.OWhereClause;
 import java.util.Map;
@@ -14,6 +15,8 @@ public class FilterStep extends AbstractExecutionStep {
   private OWhereClause whereClause;
 
   private OResultSet prevResult = null;
+  private OBinaryFilter binaryFilter;
+  private boolean binaryFilterCreated;
 
   private long cost;
 
@@ -30,6 +33,14 @@ public class FilterStep extends AbstractExecutionStep {
       throw new IllegalStateException("filter step requires a previous step");
     }
     OExecutionStepInternal prevStep = prev.get();
+    if (!binaryFilterCreated) {
+      binaryFilterCreated = true;
+      if (ctx.getDatabase()
+          .getConfiguration()
+          .getValueAsBoolean(OGlobalConfiguration.QUERY_BINARY_FILTER)) {
+        binaryFilter = whereClause.createBinaryFilter(ctx);
+      }
+    }
 
     return new OResultSet() {
       public boolean finished = false;
@@ -61,7 +72,7 @@ public class FilterStep extends AbstractExecutionStep {
           nextItem = prevResult.next();
           long begin = profilingEnabled ? System.nanoTime() : 0;
           try {
-            if (whereClause.matchesFilters(nextItem, ctx)) {
+            if (matches(nextItem, ctx)) {
               break;
             }
 
@@ -128,6 +139,19 @@ public class FilterStep extends AbstractExecutionStep {
     };
   }
 
+  private boolean matches(final OResult item, final OCommandContext ctx) {
+    if (binaryFilter != null) {
+      final OBinaryRecord record = OBinaryRecord.of(item);
+      if (record != null) {
+        final Boolean result = binaryFilter.matches(record);
+        if (result != null) {
+          return result;
+        }
+      }
+    }
+    return whereClause.matchesFilters(item, ctx);
+  }
+
   @Override
   public String prettyPrint(int depth, int indent) {
     StringBuilder result = new StringBuilder();
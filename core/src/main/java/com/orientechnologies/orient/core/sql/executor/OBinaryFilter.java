@@ -0,0 +1,16 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+/**
+ * Condition of the WHERE clause which is evaluated on the serialized documents, see {@link
+ * com.orientechnologies.orient.core.sql.parser.OBooleanExpression#createBinaryFilter}.
+ */
+public interface OBinaryFilter {
+  /** Filter of the condition which cannot be evaluated on the serialized documents. */
+  OBinaryFilter UNKNOWN = record -> null;
+
+  /**
+   * @return result of the condition or <code>null</code> if it cannot be decided on the serialized
+   *     document, in such case the condition is evaluated on the deserialized document.
+   */
+  Boolean matches(OBinaryRecord record);
+}
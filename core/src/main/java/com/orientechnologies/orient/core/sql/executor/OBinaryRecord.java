@@ -0,0 +1,195 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import com.orientechnologies.orient.core.collate.OCollate;
+import com.orientechnologies.orient.core.collate.ODefaultCollate;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OImmutableSchema;
+import com.orientechnologies.orient.core.metadata.schema.OProperty;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.metadata.security.OPropertyAccess;
+import com.orientechnologies.orient.core.record.ORecordInternal;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.record.impl.ODocumentInternal;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.BytesContainer;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.OBinaryComparator;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.OBinaryField;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.ODocumentSerializer;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.ORecordSerializerBinary;
+import com.orientechnologies.orient.core.sql.parser.OExpression;
+
+/**
+ * Serialized content of the loaded document which is not deserialized yet, simple conditions of
+ * the WHERE clause are evaluated on it by {@link OBinaryFilter}, so documents which do not match
+ * are never deserialized.
+ */
+public class OBinaryRecord {
+  private final byte[] source;
+  private final ODocumentSerializer serializer;
+  private final OClass clazz;
+  private final OImmutableSchema schema;
+  private final OPropertyAccess propertyAccess;
+
+  private OBinaryRecord(
+      final byte[] source,
+      final ODocumentSerializer serializer,
+      final OClass clazz,
+      final OImmutableSchema schema,
+      final OPropertyAccess propertyAccess) {
+    this.source = source;
+    this.serializer = serializer;
+    this.clazz = clazz;
+    this.schema = schema;
+    this.propertyAccess = propertyAccess;
+  }
+
+  /**
+   * @return serialized content of the document of the result or <code>null</code> if result is not
+   *     the document loaded from the storage or if the document was changed after the load.
+   */
+  public static OBinaryRecord of(final OResult result) {
+    if (!(result instanceof OResultInternal)) {
+      return null;
+    }
+
+    final OResultInternal internal = (OResultInternal) result;
+    // PROPERTIES OF THE RESULT HIDE THE FIELDS OF THE DOCUMENT
+    if (!(internal.element instanceof ODocument) || !internal.content.isEmpty()) {
+      return null;
+    }
+
+    final ODocument document = (ODocument) internal.element;
+    if (!document.getIdentity().isPersistent() || document.isDirty()) {
+      return null;
+    }
+
+    final byte[] source = ORecordInternal.getSource(document);
+    if (source == null
+        || source.length == 0
+        || !(ORecordInternal.getRecordSerializer(document) instanceof ORecordSerializerBinary)
+        || source[0] < 0
+        || source[0] >= ORecordSerializerBinary.INSTANCE.getNumberOfSupportedVersions()) {
+      return null;
+    }
+
+    return new OBinaryRecord(
+        source,
+        ORecordSerializerBinary.INSTANCE.getSerializer(source[0]),
+        ODocumentInternal.getImmutableSchemaClass(document),
+        ODocumentInternal.getImmutableSchema(document),
+        ODocumentInternal.getPropertyAccess(document));
+  }
+
+  /**
+   * @return name of the field if expression is the plain field of the document, <code>null</code>
+   *     otherwise.
+   */
+  public static String getFieldName(final OExpression expression) {
+    if (expression == null || !expression.isBaseIdentifier()) {
+      return null;
+    }
+
+    final String name = expression.getDefaultAlias().getStringValue();
+    if (name == null || name.isEmpty() || name.startsWith("$")) {
+      return null;
+    }
+    return name;
+  }
+
+  /**
+   * Serializes the constant of the condition.
+   *
+   * @return serialized value or <code>null</code> if value cannot be compared in serialized form.
+   */
+  public static OBinaryField toBinaryField(final Object value) {
+    if (value == null) {
+      return null;
+    }
+
+    final OType type = OType.getTypeByValue(value);
+    if (type == null || !isComparable(type, type, false)) {
+      return null;
+    }
+    if (type == OType.LINK && !(value instanceof ORID && ((ORID) value).isPersistent())) {
+      return null;
+    }
+
+    final ODocumentSerializer serializer = ORecordSerializerBinary.INSTANCE.getCurrentSerializer();
+    final BytesContainer bytes = new BytesContainer();
+    serializer.serializeValue(bytes, value, type, null, null, null);
+    bytes.offset = 0;
+    return new OBinaryField(null, type, bytes, null);
+  }
+
+  /**
+   * Checks whether serialized values of given types are compared the same way as the deserialized
+   * ones are compared by the operators of the query.
+   *
+   * @param ordering <code>true</code> if values are ordered, <code>false</code> if they are only
+   *     checked for equality.
+   */
+  public static boolean isComparable(final OType first, final OType second, boolean ordering) {
+    if (isNumber(first) && isNumber(second)) {
+      // QUERY ROUNDS DOUBLE TO FLOAT BEFORE THE EQUALITY CHECK, SERIALIZED VALUES ARE NOT ROUNDED
+      return ordering
+          || !(first == OType.FLOAT && second == OType.DOUBLE
+              || first == OType.DOUBLE && second == OType.FLOAT);
+    }
+
+    if (first != second) {
+      return false;
+    }
+
+    switch (first) {
+      case STRING:
+      case DATETIME:
+        return true;
+      case BOOLEAN:
+      case LINK:
+        return !ordering;
+      default:
+        return false;
+    }
+  }
+
+  private static boolean isNumber(final OType type) {
+    switch (type) {
+      case BYTE:
+      case SHORT:
+      case INTEGER:
+      case LONG:
+      case FLOAT:
+      case DOUBLE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Looks up the field in the serialized document.
+   *
+   * @return the field or <code>null</code> if document does not contain non null value of the
+   *     field which may be compared in serialized form.
+   */
+  public OBinaryField getField(final String name) {
+    if (propertyAccess != null && !propertyAccess.isReadable(name)) {
+      return null;
+    }
+
+    if (clazz != null) {
+      final OProperty property = clazz.getProperty(name);
+      final OCollate collate = property != null ? property.getCollate() : null;
+      if (collate != null && !ODefaultCollate.NAME.equals(collate.getName())) {
+        return null;
+      }
+    }
+
+    final BytesContainer bytes = new BytesContainer(source).skip(1);
+    return serializer.deserializeField(bytes, clazz, name, false, schema, null);
+  }
+
+  public OBinaryComparator getComparator() {
+    return serializer.getComparator();
+  }
+}
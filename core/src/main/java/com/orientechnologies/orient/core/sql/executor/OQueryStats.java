@@ -98,6 +98,31 @@ public class OQueryStats {
     pushValue(key, value);
   }
 
+  public long getSpilledGroupByPartitions() {
+    return getCounter(generateKey("GROUPBY_SPILL", "partitions"));
+  }
+
+  public long getSpilledGroupByRecords() {
+    return getCounter(generateKey("GROUPBY_SPILL", "records"));
+  }
+
+  public void addSpilledGroupByPartitions(long value) {
+    addToCounter(generateKey("GROUPBY_SPILL", "partitions"), value);
+  }
+
+  public void addSpilledGroupByRecords(long value) {
+    addToCounter(generateKey("GROUPBY_SPILL", "records"), value);
+  }
+
+  private long getCounter(String key) {
+    Long val = stats.get(key);
+    return val == null ? 0 : val;
+  }
+
+  private void addToCounter(String key, long value) {
+    stats.merge(key, value, Long::sum);
+  }
+
   private void pushValue(String key, Long value) {
     if (value == null) {
       return;
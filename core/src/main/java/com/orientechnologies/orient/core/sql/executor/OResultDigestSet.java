@@ -0,0 +1,297 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import com.orientechnologies.common.directmemory.ODirectMemoryAllocator;
+import com.orientechnologies.common.directmemory.ODirectMemoryAllocator.Intention;
+import com.orientechnologies.common.directmemory.OPointer;
+import com.orientechnologies.common.hash.OMurmurHash3;
+import com.orientechnologies.orient.core.exception.OCommandExecutionException;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Set of serialized query results stored in direct memory, used to deduplicate query results without
+ * keeping them in heap. The table uses open addressing with linear probing, each slot holds the 64
+ * bit digest of a result and the position of its serialized content in a separate data area. The
+ * digest is only used to skip the results that are surely different: when two digests match, the
+ * serialized contents are compared byte by byte, so a digest collision never drops a result.
+ *
+ * <p>The memory is allocated through {@link ODirectMemoryAllocator}, up to an optional limit (see
+ * {@link #hasRoomFor(byte[])}), and is released with {@link #close()}. The memory of a set that is
+ * garbage collected without being closed is released when the next set allocates its memory.
+ */
+public class OResultDigestSet implements AutoCloseable {
+  private static final int DIGEST_SEED = 0x5bd1e995;
+
+  private static final int SLOT_SIZE = 2 * Long.BYTES;
+  private static final int INITIAL_CAPACITY = 1 << 10;
+  private static final int MAX_CAPACITY = 1 << 26;
+  private static final int INITIAL_DATA_SIZE = 1 << 16;
+
+  private static final ReferenceQueue<OResultDigestSet> ABANDONED_SETS = new ReferenceQueue<>();
+  private static final Set<MemoryReference> MEMORY_REFERENCES = ConcurrentHashMap.newKeySet();
+
+  private final ODirectMemoryAllocator allocator = ODirectMemoryAllocator.instance();
+  private final long maxMemory;
+
+  private MemoryReference memory;
+  private ByteBuffer table;
+  private int capacity;
+
+  private ByteBuffer data;
+  private int dataSize;
+
+  private long size = 0;
+
+  public OResultDigestSet() {
+    this(-1);
+  }
+
+  /** @param maxMemory maximum number of bytes of direct memory used by the set, -1 for no limit */
+  public OResultDigestSet(long maxMemory) {
+    this.maxMemory = maxMemory;
+  }
+
+  public long size() {
+    return size;
+  }
+
+  /**
+   * Adds a serialized result to the set
+   *
+   * @return true if the result was not in the set
+   */
+  public boolean add(byte[] content) {
+    return add(digest(content), content);
+  }
+
+  public boolean contains(byte[] content) {
+    return contains(digest(content), content);
+  }
+
+  /**
+   * @return true if the content can be added to the set without exceeding its memory limit (or the
+   *     maximum size of the set)
+   */
+  public boolean hasRoomFor(byte[] content) {
+    final long newCapacity = capacityAfterAdd();
+    final long newDataSize = (long) dataSize + Integer.BYTES + content.length;
+    if (newCapacity > MAX_CAPACITY || newDataSize > Integer.MAX_VALUE) {
+      return false;
+    }
+    return maxMemory < 0 || newCapacity * SLOT_SIZE + newDataSize <= maxMemory;
+  }
+
+  /** @return the capacity of the table after one more element is added */
+  private long capacityAfterAdd() {
+    final long current = memory == null ? INITIAL_CAPACITY : capacity;
+    return (size + 1) * 2 > current ? current * 2 : current;
+  }
+
+  boolean add(long digest, byte[] content) {
+    if (memory == null) {
+      releaseAbandonedSets();
+      memory = new MemoryReference(this);
+      MEMORY_REFERENCES.add(memory);
+      allocateTable(INITIAL_CAPACITY);
+      allocateData(
+          maxMemory < 0
+              ? INITIAL_DATA_SIZE
+              : (int)
+                  Math.max(
+                      1, Math.min(INITIAL_DATA_SIZE, maxMemory - INITIAL_CAPACITY * SLOT_SIZE)));
+    }
+    final int slot = find(digest, content);
+    if (slot >= 0) {
+      return false;
+    }
+    final int position = append(content);
+    final int offset = (-slot - 1) * SLOT_SIZE;
+    table.putLong(offset, digest);
+    // position zero marks the empty slots
+    table.putLong(offset + Long.BYTES, position + 1L);
+
+    size++;
+    if (size * 2 > capacity) {
+      if (capacity < MAX_CAPACITY) {
+        resize(capacity * 2);
+      } else if (size * 10 > (long) capacity * 9) {
+        throw new OCommandExecutionException(
+            "Too many distinct elements in a single query (" + size + ")");
+      }
+    }
+    return true;
+  }
+
+  boolean contains(long digest, byte[] content) {
+    if (memory == null) {
+      return false;
+    }
+    return find(digest, content) >= 0;
+  }
+
+  /**
+   * @return the slot that contains the content, or <code>-(slot + 1)</code> where slot is the empty
+   *     slot where the content can be inserted
+   */
+  private int find(long digest, byte[] content) {
+    final int mask = capacity - 1;
+    int slot = slot(digest, mask);
+    while (true) {
+      final int offset = slot * SLOT_SIZE;
+      final long position = table.getLong(offset + Long.BYTES);
+      if (position == 0) {
+        return -(slot + 1);
+      }
+      if (table.getLong(offset) == digest && contentEquals((int) (position - 1), content)) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  private boolean contentEquals(int position, byte[] content) {
+    if (data.getInt(position) != content.length) {
+      return false;
+    }
+    final int start = position + Integer.BYTES;
+    for (int i = 0; i < content.length; i++) {
+      if (data.get(start + i) != content[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int append(byte[] content) {
+    final long required = (long) dataSize + Integer.BYTES + content.length;
+    if (required > Integer.MAX_VALUE) {
+      throw new OCommandExecutionException(
+          "Too much distinct data in a single query (" + size + " elements)");
+    }
+    if (required > data.capacity()) {
+      long newSize = Math.max(required, 2L * data.capacity());
+      if (maxMemory >= 0) {
+        // the table can double when the element is added
+        newSize = Math.max(required, Math.min(newSize, maxMemory - capacityAfterAdd() * SLOT_SIZE));
+      }
+      growData((int) Math.min(Integer.MAX_VALUE, newSize));
+    }
+    final int position = dataSize;
+    data.putInt(position, content.length);
+    final ByteBuffer target = data.duplicate();
+    target.position(position + Integer.BYTES);
+    target.put(content);
+    dataSize = (int) required;
+    return position;
+  }
+
+  private static long digest(byte[] content) {
+    return OMurmurHash3.murmurHash3_x64_64(content, DIGEST_SEED);
+  }
+
+  private static int slot(long digest, int mask) {
+    return (int) (digest ^ (digest >>> 32)) & mask;
+  }
+
+  private void allocateTable(int newCapacity) {
+    memory.table =
+        allocator.allocate(newCapacity * SLOT_SIZE, -1, true, Intention.QUERY_DISTINCT_DIGESTS);
+    table = memory.table.getNativeByteBuffer();
+    capacity = newCapacity;
+  }
+
+  private void allocateData(int newSize) {
+    memory.data = allocator.allocate(newSize, -1, false, Intention.QUERY_DISTINCT_DIGESTS);
+    data = memory.data.getNativeByteBuffer();
+  }
+
+  private void growData(int newSize) {
+    final OPointer oldPointer = memory.data;
+    final ByteBuffer oldData = data.duplicate();
+    allocateData(newSize);
+    oldData.position(0);
+    oldData.limit(dataSize);
+    data.duplicate().put(oldData);
+    allocator.deallocate(oldPointer);
+  }
+
+  private void resize(int newCapacity) {
+    final OPointer oldPointer = memory.table;
+    final ByteBuffer oldTable = table;
+    final int oldCapacity = capacity;
+    allocateTable(newCapacity);
+    final int mask = capacity - 1;
+    for (int i = 0; i < oldCapacity; i++) {
+      final int oldOffset = i * SLOT_SIZE;
+      final long position = oldTable.getLong(oldOffset + Long.BYTES);
+      if (position != 0) {
+        final long digest = oldTable.getLong(oldOffset);
+        int slot = slot(digest, mask);
+        while (table.getLong(slot * SLOT_SIZE + Long.BYTES) != 0) {
+          slot = (slot + 1) & mask;
+        }
+        table.putLong(slot * SLOT_SIZE, digest);
+        table.putLong(slot * SLOT_SIZE + Long.BYTES, position);
+      }
+    }
+    allocator.deallocate(oldPointer);
+  }
+
+  /** Releases the direct memory used by the set, the set can still be used after this call */
+  @Override
+  public void close() {
+    if (memory != null) {
+      MEMORY_REFERENCES.remove(memory);
+      memory.release();
+      memory.clear();
+      memory = null;
+      table = null;
+      data = null;
+      capacity = 0;
+      dataSize = 0;
+      size = 0;
+    }
+  }
+
+  /**
+   * Releases the memory of the sets that were garbage collected without being closed.
+   *
+   * @return the number of released sets
+   */
+  static int releaseAbandonedSets() {
+    int released = 0;
+    MemoryReference reference;
+    while ((reference = (MemoryReference) ABANDONED_SETS.poll()) != null) {
+      if (MEMORY_REFERENCES.remove(reference)) {
+        reference.release();
+        released++;
+      }
+    }
+    return released;
+  }
+
+  /** Direct memory of a set, kept reachable till the set is closed or garbage collected. */
+  private static final class MemoryReference extends PhantomReference<OResultDigestSet> {
+    private OPointer table;
+    private OPointer data;
+
+    private MemoryReference(OResultDigestSet set) {
+      super(set, ABANDONED_SETS);
+    }
+
+    private void release() {
+      final ODirectMemoryAllocator allocator = ODirectMemoryAllocator.instance();
+      if (table != null) {
+        allocator.deallocate(table);
+        table = null;
+      }
+      if (data != null) {
+        allocator.deallocate(data);
+        data = null;
+      }
+    }
+  }
+}
@@ -0,0 +1,354 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import com.orientechnologies.common.collection.OExternalSorter;
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.command.OBasicCommandContext;
+import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.exception.OCommandExecutionException;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.record.ORecord;
+import com.orientechnologies.orient.core.record.ORecordInternal;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.BytesContainer;
+import com.orientechnologies.orient.core.serialization.serializer.result.binary.OResultSerializerNetwork;
+import com.orientechnologies.orient.core.storage.disk.OLocalPaginatedStorage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Temporary file that holds a sequence of query results, used by the query steps that cannot keep
+ * all their intermediate results in heap. Documents are stored with the binary record serializer of
+ * the database, projections with {@link OResultSerializerNetwork}.
+ *
+ * <p>Results are appended with {@link #write(OResult)} and read back in the same order with {@link
+ * #iterator()}, after {@link #finishWriting()}. The file is placed in the temporary directory of
+ * the storage (or in the OrientDB temporary directory for in-memory databases) and is deleted on
+ * {@link #close()}.
+ *
+ * <p>When the file is created for a query context, the size of all the temporary files of the
+ * query is limited by {@link OGlobalConfiguration#QUERY_SPILL_MAX_SIZE}.
+ */
+public class OResultSpillFile implements OExternalSorter.Run<OResult> {
+  public static final String SPILL_DIRECTORY = "querySpill";
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private static final byte PROJECTION = 0;
+  private static final byte DOCUMENT = 1;
+  private static final byte IDENTIFIABLE = 2;
+
+  private final ODatabaseDocumentInternal db;
+  private final Path path;
+  private final OResultSerializerNetwork serializer = new OResultSerializerNetwork();
+  private DataOutputStream out;
+  private DataInputStream in;
+  private long size = 0;
+  private long bytes = 0;
+
+  private final AtomicLong querySpilledBytes;
+  private final long maxQuerySpilledBytes;
+
+  public OResultSpillFile(OCommandContext ctx, String prefix) {
+    this(
+        (ODatabaseDocumentInternal) ctx.getDatabase(),
+        prefix,
+        ctx instanceof OBasicCommandContext
+            ? ((OBasicCommandContext) ctx).getSpilledBytes()
+            : null);
+  }
+
+  public OResultSpillFile(ODatabaseDocumentInternal db, String prefix) {
+    this(db, prefix, null);
+  }
+
+  /**
+   * @param db the current database
+   * @param prefix prefix of the name of the file
+   * @param querySpilledBytes size of all the temporary files of the query, null to not limit it
+   */
+  public OResultSpillFile(
+      ODatabaseDocumentInternal db, String prefix, AtomicLong querySpilledBytes) {
+    this.db = db;
+    this.querySpilledBytes = querySpilledBytes;
+    final long maxSize =
+        db == null || querySpilledBytes == null
+            ? -1
+            : db.getConfiguration().getValueAsLong(OGlobalConfiguration.QUERY_SPILL_MAX_SIZE);
+    this.maxQuerySpilledBytes = maxSize < 0 ? -1 : maxSize * 1024 * 1024;
+    try {
+      final Path directory = getSpillDirectory(db);
+      Files.createDirectories(directory);
+      this.path = Files.createTempFile(directory, prefix, ".spill");
+      this.out =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+    } catch (IOException e) {
+      throw OException.wrapException(
+          new OCommandExecutionException("Cannot create temporary file for query results"), e);
+    }
+  }
+
+  private static Path getSpillDirectory(ODatabaseDocumentInternal db) {
+    if (db != null && db.getStorage() instanceof OLocalPaginatedStorage) {
+      return ((OLocalPaginatedStorage) db.getStorage()).getTemporaryPath().resolve(SPILL_DIRECTORY);
+    }
+    return Paths.get(Orient.getTempPath(), SPILL_DIRECTORY);
+  }
+
+  /** @return the number of results written in this file */
+  public long size() {
+    return size;
+  }
+
+  /** @return the number of bytes written in this file */
+  public long bytes() {
+    return bytes;
+  }
+
+  @Override
+  public void write(OResult result) {
+    if (out == null) {
+      throw new IllegalStateException("Spill file " + path + " is not open for writing");
+    }
+    final long written = bytes;
+    try {
+      final OResultInternal rest = new OResultInternal();
+      final OIdentifiable element = result instanceof OResultInternal ? getElement(result) : null;
+      if (element != null) {
+        final ORecord record = element.getRecord();
+        if (record instanceof ODocument) {
+          out.writeByte(DOCUMENT);
+          out.writeByte(ORecordInternal.getRecordType(record));
+          writeRid(element);
+          out.writeInt(record.getVersion());
+          writeBytes(record.toStream());
+          bytes += 6;
+        } else {
+          out.writeByte(IDENTIFIABLE);
+          writeRid(element);
+          bytes += 1;
+        }
+        for (Map.Entry<String, Object> entry : ((OResultInternal) result).content.entrySet()) {
+          rest.setProperty(entry.getKey(), entry.getValue());
+        }
+      } else {
+        out.writeByte(PROJECTION);
+        bytes += 1;
+        for (String name : result.getPropertyNames()) {
+          rest.setProperty(name, result.getProperty(name));
+        }
+      }
+      for (String key : result.getMetadataKeys()) {
+        rest.setMetadata(key, result.getMetadata(key));
+      }
+      writeResult(rest);
+
+      final OResultInternal temporary = new OResultInternal();
+      if (result instanceof OResultInternal) {
+        for (String name : ((OResultInternal) result).getTemporaryProperties()) {
+          temporary.setProperty(name, ((OResultInternal) result).getTemporaryProperty(name));
+        }
+      }
+      writeResult(temporary);
+      size++;
+    } catch (IOException e) {
+      throw OException.wrapException(
+          new OCommandExecutionException("Error writing query results to " + path), e);
+    }
+    addQuerySpilledBytes(bytes - written);
+  }
+
+  private void addQuerySpilledBytes(long delta) {
+    if (querySpilledBytes == null) {
+      return;
+    }
+    final long total = querySpilledBytes.addAndGet(delta);
+    if (maxQuerySpilledBytes >= 0 && total > maxQuerySpilledBytes) {
+      throw new OCommandExecutionException(
+          "Limit of temporary files size in a single query exceeded ("
+              + maxQuerySpilledBytes / (1024 * 1024)
+              + " MB). You can set "
+              + OGlobalConfiguration.QUERY_SPILL_MAX_SIZE.getKey()
+              + " to increase this limit");
+    }
+  }
+
+  private static OIdentifiable getElement(OResult result) {
+    return ((OResultInternal) result).element;
+  }
+
+  private void writeRid(OIdentifiable element) throws IOException {
+    out.writeInt(element.getIdentity().getClusterId());
+    out.writeLong(element.getIdentity().getClusterPosition());
+    bytes += 12;
+  }
+
+  private void writeResult(OResultInternal result) throws IOException {
+    final BytesContainer bytes = new BytesContainer();
+    serializer.serialize(result, bytes);
+    writeBytes(bytes.fitBytes());
+  }
+
+  private void writeBytes(byte[] content) throws IOException {
+    out.writeInt(content.length);
+    out.write(content);
+    bytes += 4 + content.length;
+  }
+
+  /** Flushes the written results to disk, after this call the file can only be read */
+  @Override
+  public void finishWriting() {
+    if (out == null) {
+      return;
+    }
+    try {
+      out.close();
+    } catch (IOException e) {
+      throw OException.wrapException(
+          new OCommandExecutionException("Error writing query results to " + path), e);
+    } finally {
+      out = null;
+    }
+  }
+
+  /**
+   * Returns an iterator on the results written in this file. Only one iterator can be created for
+   * each file.
+   */
+  @Override
+  public Iterator<OResult> iterator() {
+    finishWriting();
+    if (in != null) {
+      throw new IllegalStateException("Spill file " + path + " is already being read");
+    }
+    try {
+      in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE));
+    } catch (IOException e) {
+      throw OException.wrapException(
+          new OCommandExecutionException("Error reading query results from " + path), e);
+    }
+    return new Iterator<OResult>() {
+      private long read = 0;
+
+      @Override
+      public boolean hasNext() {
+        return read < size;
+      }
+
+      @Override
+      public OResult next() {
+        if (read >= size) {
+          throw new NoSuchElementException();
+        }
+        try {
+          OResult result = read();
+          read++;
+          return result;
+        } catch (EOFException e) {
+          throw OException.wrapException(
+              new OCommandExecutionException("Unexpected end of file in " + path), e);
+        } catch (IOException e) {
+          throw OException.wrapException(
+              new OCommandExecutionException("Error reading query results from " + path), e);
+        }
+      }
+    };
+  }
+
+  private OResult read() throws IOException {
+    final byte kind = in.readByte();
+    OIdentifiable element = null;
+    if (kind == DOCUMENT) {
+      final byte recordType = in.readByte();
+      final ORecordId rid = readRid();
+      final int version = in.readInt();
+      final byte[] content = readBytes();
+      final ORecord record =
+          Orient.instance()
+              .getRecordFactoryManager()
+              .newInstance(recordType, rid.getClusterId(), db);
+      ORecordInternal.fill(record, rid, version, content, false);
+      element = record;
+    } else if (kind == IDENTIFIABLE) {
+      element = readRid();
+    }
+
+    final OResultInternal rest = readResult();
+    final OResultInternal temporary = readResult();
+
+    final OResultInternal result;
+    if (element == null) {
+      result = rest;
+    } else {
+      result = new OResultInternal(element);
+      for (String name : rest.getPropertyNames()) {
+        result.setProperty(name, rest.getProperty(name));
+      }
+      for (String key : rest.getMetadataKeys()) {
+        result.setMetadata(key, rest.getMetadata(key));
+      }
+    }
+    for (String name : temporary.getPropertyNames()) {
+      result.setTemporaryProperty(name, temporary.getProperty(name));
+    }
+    return result;
+  }
+
+  private ORecordId readRid() throws IOException {
+    final int clusterId = in.readInt();
+    final long clusterPosition = in.readLong();
+    return new ORecordId(clusterId, clusterPosition);
+  }
+
+  private OResultInternal readResult() throws IOException {
+    final BytesContainer bytes = new BytesContainer(readBytes());
+    return serializer.deserialize(bytes);
+  }
+
+  private byte[] readBytes() throws IOException {
+    final byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  @Override
+  public void close() {
+    try {
+      if (out != null) {
+        out.close();
+      }
+      if (in != null) {
+        in.close();
+      }
+    } catch (IOException e) {
+      OLogManager.instance().warn(this, "Error closing temporary query file %s", e, path);
+    } finally {
+      out = null;
+      in = null;
+      try {
+        Files.deleteIfExists(path);
+      } catch (IOException e) {
+        OLogManager.instance().warn(this, "Cannot delete temporary query file %s", e, path);
+      }
+      if (querySpilledBytes != null) {
+        querySpilledBytes.addAndGet(-bytes);
+      }
+      bytes = 0;
+    }
+  }
+}
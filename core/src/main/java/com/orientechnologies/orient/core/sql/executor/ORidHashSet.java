@@ -0,0 +1,158 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Open addressing hash set of RIDs, that stores cluster IDs and cluster positions in primitive
+ * arrays instead of keeping {@link ORID} instances. It is used by {@link ORidSet} for the RIDs that
+ * cannot be stored in its bitmaps (eg. temporary RIDs with negative positions).
+ *
+ * <p>Collisions are resolved with linear probing, removals with backward shift, so no tombstones
+ * are left in the table.
+ */
+public class ORidHashSet implements Iterable<ORID> {
+  private static final int EMPTY = Integer.MIN_VALUE;
+  private static final int INITIAL_CAPACITY = 16;
+
+  private int[] clusters;
+  private long[] positions;
+  private int size = 0;
+  private int mask;
+
+  public ORidHashSet() {
+    allocate(INITIAL_CAPACITY);
+  }
+
+  private void allocate(int capacity) {
+    clusters = new int[capacity];
+    positions = new long[capacity];
+    Arrays.fill(clusters, EMPTY);
+    mask = capacity - 1;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public boolean contains(ORID rid) {
+    return indexOf(rid.getClusterId(), rid.getClusterPosition()) >= 0;
+  }
+
+  public boolean add(ORID rid) {
+    return add(rid.getClusterId(), rid.getClusterPosition());
+  }
+
+  private boolean add(int cluster, long position) {
+    int slot = slot(cluster, position);
+    while (clusters[slot] != EMPTY) {
+      if (clusters[slot] == cluster && positions[slot] == position) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+    clusters[slot] = cluster;
+    positions[slot] = position;
+    size++;
+    if (size * 2 > clusters.length) {
+      rehash(clusters.length * 2);
+    }
+    return true;
+  }
+
+  public boolean remove(ORID rid) {
+    int slot = indexOf(rid.getClusterId(), rid.getClusterPosition());
+    if (slot < 0) {
+      return false;
+    }
+    // backward shift of the entries that follow in the same probe sequence
+    int free = slot;
+    int current = (free + 1) & mask;
+    while (clusters[current] != EMPTY) {
+      int home = slot(clusters[current], positions[current]);
+      if (((current - home) & mask) >= ((current - free) & mask)) {
+        clusters[free] = clusters[current];
+        positions[free] = positions[current];
+        free = current;
+      }
+      current = (current + 1) & mask;
+    }
+    clusters[free] = EMPTY;
+    size--;
+    return true;
+  }
+
+  public void clear() {
+    if (size > 0) {
+      allocate(INITIAL_CAPACITY);
+      size = 0;
+    }
+  }
+
+  private int indexOf(int cluster, long position) {
+    int slot = slot(cluster, position);
+    while (clusters[slot] != EMPTY) {
+      if (clusters[slot] == cluster && positions[slot] == position) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  private int slot(int cluster, long position) {
+    long hash = (position * 0x9E3779B97F4A7C15L) ^ (cluster * 0xC2B2AE3D27D4EB4FL);
+    return (int) (hash ^ (hash >>> 32)) & mask;
+  }
+
+  private void rehash(int newCapacity) {
+    int[] oldClusters = clusters;
+    long[] oldPositions = positions;
+    allocate(newCapacity);
+    size = 0;
+    for (int i = 0; i < oldClusters.length; i++) {
+      if (oldClusters[i] != EMPTY) {
+        add(oldClusters[i], oldPositions[i]);
+      }
+    }
+  }
+
+  /** Iterates over the RIDs of the set, creating a new ORID instance for each one */
+  @Override
+  public Iterator<ORID> iterator() {
+    return new Iterator<ORID>() {
+      private int next = findNext(0);
+
+      private int findNext(int from) {
+        for (int i = from; i < clusters.length; i++) {
+          if (clusters[i] != EMPTY) {
+            return i;
+          }
+        }
+        return -1;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return next >= 0;
+      }
+
+      @Override
+      public ORID next() {
+        if (next < 0) {
+          throw new NoSuchElementException();
+        }
+        ORID result = new ORecordId(clusters[next], positions[next]);
+        next = findNext(next + 1);
+        return result;
+      }
+    };
+  }
+}
@@ -2,7 +2,6 @@ package com.orientechnologies.orient.core.sql.executor;
 
 import com.orientechnologies.orient.core.id.ORID;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
 
@@ -11,12 +10,20 @@ import java.util.Set;
  * does not store actual RIDs, but it only keeps track that a RID was stored, so the iterator will
  * return new instances.
  *
+ * <p>Valid RIDs are stored as bitmaps, one per cluster, split in buckets of fixed size that are
+ * allocated only when a position that falls in them is added, so sparse positions do not allocate
+ * the whole bitmap up to the highest position. RIDs with negative cluster ID or position are kept in
+ * a {@link ORidHashSet}.
+ *
  * @author Luigi Dell'Aquila
  */
 public class ORidSet implements Set<ORID> {
 
   protected static int INITIAL_BLOCK_SIZE = 4096;
 
+  /** default bucket size, in longs: each bucket maps 63 * 4096 cluster positions */
+  protected static int DEFAULT_BUCKET_SIZE = 4096;
+
   /*
    * cluster / offset / bitmask
    * eg. inserting #12:0 you will have content[12][0][0] = 1
@@ -26,13 +33,13 @@ public class ORidSet implements Set<ORID> {
   protected long[][][] content = new long[8][][];
 
   private long size = 0;
-  protected Set<ORID> negatives = new HashSet<>();
+  protected ORidHashSet negatives = new ORidHashSet();
 
   protected int maxArraySize;
 
-  /** instantiates an ORidSet with a bucket size of Integer.MAX_VALUE / 10 */
+  /** instantiates an ORidSet with a bucket size of {@link #DEFAULT_BUCKET_SIZE} */
   public ORidSet() {
-    this(Integer.MAX_VALUE / 10);
+    this(DEFAULT_BUCKET_SIZE);
   }
 
   /** @param bucketSize */
@@ -49,7 +56,7 @@ public class ORidSet implements Set<ORID> {
 
   @Override
   public boolean isEmpty() {
-    return size == 0L;
+    return size == 0L && negatives.isEmpty();
   }
 
   @Override
@@ -203,7 +210,7 @@ public class ORidSet implements Set<ORID> {
     int cluster = identifiable.getClusterId();
     long position = identifiable.getClusterPosition();
     if (cluster < 0 || position < 0) {
-      return negatives.remove(o);
+      return negatives.remove(identifiable);
     }
     long positionByte = (position / 63);
     int positionBit = (int) (position % 63);
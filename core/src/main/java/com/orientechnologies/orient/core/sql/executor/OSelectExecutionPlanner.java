@@ -72,6 +72,7 @@ public class OSelectExecutionPlanner {
     info.skip = this.statement.getSkip();
     info.limit = this.statement.getLimit();
     info.lockRecord = this.statement.getLockRecord();
+    info.parallel = Boolean.TRUE.equals(this.statement.getParallel());
     info.timeout = this.statement.getTimeout() == null ? null : this.statement.getTimeout().copy();
     if (info.timeout == null
         && ctx.getDatabase().getConfiguration().getValueAsLong(OGlobalConfiguration.COMMAND_TIMEOUT)
@@ -239,7 +240,8 @@ public class OSelectExecutionPlanner {
           subPlans.add(subPlan);
         }
       }
-      result.chain(new ParallelExecStep((List) subPlans, ctx, enableProfiling));
+      result.chain(
+          new ParallelExecStep((List) subPlans, ctx, info.parallel, enableProfiling));
     }
     info.distributedPlanCreated = true;
   }
@@ -1308,7 +1310,9 @@ public class OSelectExecutionPlanner {
               profilingEnabled);
           plans.add(subPlan);
         }
-        shardedPlan.getValue().chain(new ParallelExecStep(plans, ctx, profilingEnabled));
+        shardedPlan
+            .getValue()
+            .chain(new ParallelExecStep(plans, ctx, info.parallel, profilingEnabled));
       } else if (target.getIndex() != null) {
         handleIndexAsTarget(
             shardedPlan.getValue(), info, target.getIndex(), null, ctx, profilingEnabled);
@@ -1896,6 +1900,11 @@ public class OSelectExecutionPlanner {
 
     AbstractExecutionStep fetcher;
     if (schema.getClass(className) != null) {
+      if (orderByRidAsc == null
+          && handleClassAsTargetWithParallelScan(
+              plan, filterClusters, schema.getClass(className), info, ctx, profilingEnabled)) {
+        return;
+      }
       fetcher =
           new FetchFromClassExecutionStep(
               className, filterClusters, info, ctx, orderByRidAsc, profilingEnabled);
@@ -1913,6 +1922,63 @@ public class OSelectExecutionPlanner {
     plan.chain(fetcher);
   }
 
+  /**
+   * Scans each cluster of the class in its own sub-plan and executes the sub-plans concurrently
+   * through a {@link ParallelExecStep}. This happens if the query is PARALLEL, or if {@link
+   * OGlobalConfiguration#QUERY_PARALLEL_AUTO} is enabled and the class has more than {@link
+   * OGlobalConfiguration#QUERY_PARALLEL_MINIMUM_RECORDS} records.
+   *
+   * @return true if the scan was added to the plan, false if the class has to be scanned
+   *     sequentially
+   */
+  private boolean handleClassAsTargetWithParallelScan(
+      OSelectExecutionPlan plan,
+      Set<String> filterClusters,
+      OClass clazz,
+      QueryPlanningInfo info,
+      OCommandContext ctx,
+      boolean profilingEnabled) {
+    ODatabaseDocumentInternal db = (ODatabaseDocumentInternal) ctx.getDatabase();
+    if (db.isRemote()) {
+      return false;
+    }
+    List<Integer> clusterIds = new ArrayList<>();
+    for (int clusterId : clazz.getPolymorphicClusterIds()) {
+      if (filterClusters == null || filterClusters.contains(db.getClusterNameById(clusterId))) {
+        clusterIds.add(clusterId);
+      }
+    }
+    if (clusterIds.size() < 2) {
+      return false;
+    }
+    if (!info.parallel) {
+      if (!db.getConfiguration().getValueAsBoolean(OGlobalConfiguration.QUERY_PARALLEL_AUTO)) {
+        return false;
+      }
+      long records =
+          db.getStorage().count(clusterIds.stream().mapToInt(Integer::intValue).toArray());
+      if (records
+          <= db.getConfiguration()
+              .getValueAsLong(OGlobalConfiguration.QUERY_PARALLEL_MINIMUM_RECORDS)) {
+        return false;
+      }
+    }
+
+    List<OInternalExecutionPlan> subPlans = new ArrayList<>();
+    for (int clusterId : clusterIds) {
+      OSelectExecutionPlan subPlan = new OSelectExecutionPlan(ctx);
+      subPlan.chain(new FetchFromClusterExecutionStep(clusterId, info, ctx, profilingEnabled));
+      subPlans.add(subPlan);
+    }
+    // records created in the current tx, in a tx the sub-plans are executed sequentially
+    OSelectExecutionPlan txPlan = new OSelectExecutionPlan(ctx);
+    txPlan.chain(new FetchTemporaryFromTxStep(ctx, clazz.getName(), profilingEnabled));
+    subPlans.add(txPlan);
+
+    plan.chain(new ParallelExecStep(subPlans, ctx, info.parallel, profilingEnabled));
+    return true;
+  }
+
   private boolean handleClassAsTargetWithIndexedFunction(
       OSelectExecutionPlan plan,
       Set<String> filterClusters,
@@ -2090,7 +2156,8 @@ public class OSelectExecutionPlanner {
     if (indexedFunctionsFound) {
       if (resultSubPlans.size()
           > 1) { // if resultSubPlans.size() == 1 the step was already chained (see above)
-        plan.chain(new ParallelExecStep(resultSubPlans, ctx, profilingEnabled));
+        plan.chain(
+            new ParallelExecStep(resultSubPlans, ctx, info.parallel, profilingEnabled));
         plan.chain(new FilterByClustersStep(filterClusters, ctx, profilingEnabled));
         plan.chain(new DistinctExecutionStep(ctx, profilingEnabled));
       }
@@ -2268,7 +2335,7 @@ public class OSelectExecutionPlanner {
       subclassPlans.add(subPlan);
     }
     if (subclassPlans.size() > 0) {
-      plan.chain(new ParallelExecStep(subclassPlans, ctx, profilingEnabled));
+      plan.chain(new ParallelExecStep(subclassPlans, ctx, info.parallel, profilingEnabled));
       return true;
     }
     return false;
@@ -2336,7 +2403,7 @@ public class OSelectExecutionPlanner {
         subclassPlans.add(subPlan);
       }
       if (subclassPlans.size() > 0) {
-        result.add(new ParallelExecStep(subclassPlans, ctx, profilingEnabled));
+        result.add(new ParallelExecStep(subclassPlans, ctx, info.parallel, profilingEnabled));
       }
     }
     return result.size() == 0 ? null : result;
@@ -2565,7 +2632,7 @@ public class OSelectExecutionPlanner {
       }
       subPlans.add(subPlan);
     }
-    return new ParallelExecStep(subPlans, ctx, profilingEnabled);
+    return new ParallelExecStep(subPlans, ctx, this.info.parallel, profilingEnabled);
   }
 
   /**
@@ -1,5 +1,6 @@
 package com.orientechnologies.orient.core.sql.executor;
 
+import com.orientechnologies.common.collection.OExternalSorter;
 import com.orientechnologies.common.concur.OTimeoutException;
 import com.orientechnologies.orient.core.command.OCommandContext;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
@@ -7,11 +8,22 @@ import com.orientechnologies.orient.core.exception.OCommandExecutionException;
 import com.orientechnologies.orient.core.sql.parser.OOrderBy;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
-/** Created by luigidellaquila on 11/07/16. */
+/**
+ * Sorts the results of the upstream step.
+ *
+ * <p>Results are sorted in heap, up to {@link
+ * OGlobalConfiguration#QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP} elements. If more elements are
+ * received and {@link OGlobalConfiguration#QUERY_SPILL_TO_DISK} is enabled, each full buffer is
+ * sorted and written to a temporary file (a sorted run) by {@link OExternalSorter}, and the runs are
+ * lazily merged while the results are fetched. Otherwise the query fails.
+ *
+ * <p>Created by luigidellaquila on 11/07/16.
+ */
 public class OrderByStep extends AbstractExecutionStep {
   private final OOrderBy orderBy;
   private final long timeoutMillis;
@@ -22,6 +34,9 @@ public class OrderByStep extends AbstractExecutionStep {
   private List<OResult> cachedResult = null;
   private int nextElement = 0;
 
+  private OExternalSorter<OResult> sorter = null;
+  private Iterator<OResult> mergedResult = null;
+
   public OrderByStep(
       OOrderBy orderBy, OCommandContext ctx, long timeoutMillis, boolean profilingEnabled) {
     this(orderBy, null, ctx, timeoutMillis, profilingEnabled);
@@ -49,6 +64,10 @@ public class OrderByStep extends AbstractExecutionStep {
       prev.ifPresent(p -> init(p, ctx));
     }
 
+    if (mergedResult != null) {
+      return mergedPull(nRecords);
+    }
+
     return new OResultSet() {
       private int currentBatchReturned = 0;
       private int offset = nextElement;
@@ -102,10 +121,65 @@ public class OrderByStep extends AbstractExecutionStep {
     };
   }
 
+  private OResultSet mergedPull(int nRecords) {
+    return new OResultSet() {
+      private int currentBatchReturned = 0;
+
+      @Override
+      public boolean hasNext() {
+        if (currentBatchReturned >= nRecords) {
+          return false;
+        }
+        if (!mergedResult.hasNext()) {
+          closeSorter();
+          return false;
+        }
+        return true;
+      }
+
+      @Override
+      public OResult next() {
+        long begin = profilingEnabled ? System.nanoTime() : 0;
+        try {
+          if (currentBatchReturned >= nRecords) {
+            throw new IllegalStateException();
+          }
+          currentBatchReturned++;
+          return mergedResult.next();
+        } finally {
+          if (profilingEnabled) {
+            cost += (System.nanoTime() - begin);
+          }
+        }
+      }
+
+      @Override
+      public void close() {
+        prev.ifPresent(p -> p.close());
+      }
+
+      @Override
+      public Optional<OExecutionPlan> getExecutionPlan() {
+        return Optional.empty();
+      }
+
+      @Override
+      public Map<String, Long> getQueryStats() {
+        return new HashMap<>();
+      }
+    };
+  }
+
   private void init(OExecutionStepInternal p, OCommandContext ctx) {
     long timeoutBegin = System.currentTimeMillis();
     final long maxElementsAllowed =
-        OGlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP.getValueAsLong();
+        ctx.getDatabase()
+            .getConfiguration()
+            .getValueAsLong(OGlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP);
+    final boolean spillToDisk =
+        ctx.getDatabase()
+            .getConfiguration()
+            .getValueAsBoolean(OGlobalConfiguration.QUERY_SPILL_TO_DISK);
     boolean sorted = true;
     do {
       OResultSet lastBatch = p.syncPull(ctx, 100);
@@ -125,6 +199,11 @@ public class OrderByStep extends AbstractExecutionStep {
         try {
           cachedResult.add(item);
           if (maxElementsAllowed >= 0 && maxElementsAllowed < cachedResult.size()) {
+            if (spillToDisk) {
+              spill(ctx);
+              sorted = true;
+              continue;
+            }
             this.cachedResult.clear();
             throw new OCommandExecutionException(
                 "Limit of allowed elements for in-heap ORDER BY in a single query exceeded ("
@@ -168,6 +247,9 @@ public class OrderByStep extends AbstractExecutionStep {
       if (!sorted) {
         cachedResult.sort((a, b) -> orderBy.compare(a, b, ctx));
       }
+      if (sorter != null) {
+        mergedResult = sorter.merge(cachedResult);
+      }
     } finally {
       if (profilingEnabled) {
         cost += (System.nanoTime() - begin);
@@ -175,6 +257,38 @@ public class OrderByStep extends AbstractExecutionStep {
     }
   }
 
+  /** sorts the current buffer and writes it to a new temporary file */
+  private void spill(OCommandContext ctx) {
+    if (sorter == null) {
+      // with a LIMIT, only the first elements of each run can be part of the result
+      sorter =
+          new OExternalSorter<>(
+              (a, b) -> orderBy.compare(a, b, ctx),
+              () -> new OResultSpillFile(ctx, "orderBy"),
+              maxResults == null ? -1 : maxResults);
+    }
+    try {
+      sorter.spill(cachedResult);
+    } catch (RuntimeException e) {
+      closeSorter();
+      throw e;
+    }
+    cachedResult = new ArrayList<>();
+  }
+
+  private void closeSorter() {
+    if (sorter != null) {
+      sorter.close();
+      sorter = null;
+    }
+  }
+
+  @Override
+  public void close() {
+    closeSorter();
+    super.close();
+  }
+
   @Override
   public String prettyPrint(int depth, int indent) {
     String result = OExecutionStepInternal.getIndent(depth, indent) + "+ " + orderBy;
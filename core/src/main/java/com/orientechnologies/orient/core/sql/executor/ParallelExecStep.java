@@ -1,30 +1,99 @@
 package com.orientechnologies.orient.core.sql.executor;
 
 import com.orientechnologies.common.concur.OTimeoutException;
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.command.OBasicCommandContext;
 import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
+import com.orientechnologies.orient.core.db.OExecutionThreadLocal;
+import com.orientechnologies.orient.core.exception.OCommandInterruptedException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
-/** @author Luigi Dell'Aquila (l.dellaquila-(at)-orientdb.com) */
+/**
+ * Executes a list of sub-plans and returns the union of their results.
+ *
+ * <p>By default the sub-plans are executed one after the other on the current thread. When the
+ * query is marked as PARALLEL (or {@link OGlobalConfiguration#QUERY_PARALLEL_AUTO} is enabled) the
+ * sub-plans are executed concurrently by at most {@link
+ * OGlobalConfiguration#QUERY_PARALLEL_MAX_THREADS} workers, each one with its own database session.
+ * Results are passed back through a bounded queue of {@link
+ * OGlobalConfiguration#QUERY_PARALLEL_RESULT_QUEUE_SIZE} elements, so workers are blocked if the
+ * consumer does not keep up. Closing the step (eg. when a LIMIT is reached) or a timeout stops the
+ * workers. The sessions of the workers are closed with the step, so the records they loaded can be
+ * used till then. In concurrent mode the order of the results is not defined.
+ *
+ * @author Luigi Dell'Aquila (l.dellaquila-(at)-orientdb.com)
+ */
 public class ParallelExecStep extends AbstractExecutionStep {
+  private static final int WORKER_BATCH_SIZE = 100;
+  private static final long QUEUE_POLL_TIMEOUT_MS = 100;
+
+  /** Marker put in the queue by a worker when it has no more results to produce */
+  private static final OResult END_OF_WORKER = new OResultInternal();
+
   private final List<OInternalExecutionPlan> subExecutionPlans;
+  private final boolean parallel;
 
   private int current = 0;
   private OResultSet currentResultSet = null;
 
+  private Boolean concurrent = null;
+  private BlockingQueue<OResult> queue;
+  private int runningWorkers = 0;
+  private OResult nextResult = null;
+  private volatile boolean cancelled = false;
+  private volatile boolean closed = false;
+  private final AtomicReference<RuntimeException> workerFailure = new AtomicReference<>();
+  /** Sessions of the finished workers, closed with the step */
+  private final List<ODatabaseDocumentInternal> workerSessions = new ArrayList<>();
+
+  public ParallelExecStep(
+      List<OInternalExecutionPlan> subExecuitonPlans,
+      OCommandContext ctx,
+      boolean profilingEnabled) {
+    this(subExecuitonPlans, ctx, false, profilingEnabled);
+  }
+
+  /**
+   * @param subExecuitonPlans the sub-plans to execute
+   * @param ctx the query context
+   * @param parallel true if the sub-plans have to be executed concurrently (if possible)
+   * @param profilingEnabled true to enable profiling
+   */
   public ParallelExecStep(
       List<OInternalExecutionPlan> subExecuitonPlans,
       OCommandContext ctx,
+      boolean parallel,
       boolean profilingEnabled) {
     super(ctx, profilingEnabled);
     this.subExecutionPlans = subExecuitonPlans;
+    this.parallel = parallel;
   }
 
   @Override
   public OResultSet syncPull(OCommandContext ctx, int nRecords) throws OTimeoutException {
     getPrev().ifPresent(x -> x.syncPull(ctx, nRecords));
+    if (concurrent == null) {
+      concurrent = canRunConcurrently(ctx);
+      if (concurrent) {
+        startWorkers(ctx);
+      }
+    }
+    if (concurrent) {
+      return concurrentPull(nRecords);
+    }
     return new OResultSet() {
       private int localCount = 0;
 
@@ -72,6 +141,258 @@ public class ParallelExecStep extends AbstractExecutionStep {
     };
   }
 
+  private OResultSet concurrentPull(int nRecords) {
+    return new OResultSet() {
+      private int localCount = 0;
+
+      @Override
+      public boolean hasNext() {
+        if (localCount >= nRecords) {
+          return false;
+        }
+        return fetchNextConcurrent() != null;
+      }
+
+      @Override
+      public OResult next() {
+        if (localCount >= nRecords) {
+          throw new IllegalStateException();
+        }
+        OResult result = fetchNextConcurrent();
+        if (result == null) {
+          throw new IllegalStateException();
+        }
+        nextResult = null;
+        localCount++;
+        return result;
+      }
+
+      @Override
+      public void close() {}
+
+      @Override
+      public Optional<OExecutionPlan> getExecutionPlan() {
+        return Optional.empty();
+      }
+
+      @Override
+      public Map<String, Long> getQueryStats() {
+        return null;
+      }
+    };
+  }
+
+  private boolean canRunConcurrently(OCommandContext ctx) {
+    if (subExecutionPlans.size() < 2) {
+      return false;
+    }
+    ODatabaseDocumentInternal db = (ODatabaseDocumentInternal) ctx.getDatabase();
+    if (db == null || db.isRemote()) {
+      return false;
+    }
+    if (!parallel
+        && !db.getConfiguration().getValueAsBoolean(OGlobalConfiguration.QUERY_PARALLEL_AUTO)) {
+      return false;
+    }
+    if (db.getConfiguration().getValueAsInteger(OGlobalConfiguration.QUERY_PARALLEL_MAX_THREADS)
+        < 2) {
+      return false;
+    }
+    // RECORDS CHANGED IN CURRENT TRANSACTION ARE NOT VISIBLE FROM OTHER SESSIONS
+    if (db.getTransaction().isActive()) {
+      return false;
+    }
+    // SUB-PLANS ARE COPIED ON THE SESSIONS OF THE WORKERS
+    for (OInternalExecutionPlan plan : subExecutionPlans) {
+      if (!plan.canBeCached()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void startWorkers(OCommandContext ctx) {
+    final ODatabaseDocumentInternal db = (ODatabaseDocumentInternal) ctx.getDatabase();
+    final int maxThreads =
+        db.getConfiguration().getValueAsInteger(OGlobalConfiguration.QUERY_PARALLEL_MAX_THREADS);
+    final int queueSize =
+        db.getConfiguration()
+            .getValueAsInteger(OGlobalConfiguration.QUERY_PARALLEL_RESULT_QUEUE_SIZE);
+    queue = new ArrayBlockingQueue<>(Math.max(queueSize, 1));
+
+    final AtomicInteger nextPlan = new AtomicInteger();
+    final int workers = Math.min(maxThreads, subExecutionPlans.size());
+    for (int i = 0; i < workers; i++) {
+      try {
+        Orient.instance().submit(() -> executeSubPlans(db, ctx, nextPlan));
+      } catch (RuntimeException e) {
+        cancelled = true;
+        throw e;
+      }
+      runningWorkers++;
+    }
+  }
+
+  private void executeSubPlans(
+      ODatabaseDocumentInternal db, OCommandContext ctx, AtomicInteger nextPlan) {
+    ODatabaseDocumentInternal localDatabase = null;
+    try {
+      localDatabase = db.copy();
+      localDatabase.activateOnCurrentThread();
+
+      int planIndex;
+      while (!cancelled && (planIndex = nextPlan.getAndIncrement()) < subExecutionPlans.size()) {
+        OBasicCommandContext localCtx = new OBasicCommandContext();
+        localCtx.setParentWithoutOverridingChild(ctx);
+        localCtx.setDatabase(localDatabase);
+
+        OInternalExecutionPlan plan = subExecutionPlans.get(planIndex).copy(localCtx);
+        try {
+          executeSubPlan(plan);
+        } finally {
+          plan.close();
+        }
+      }
+    } catch (RuntimeException e) {
+      workerFailure.compareAndSet(null, e);
+      cancelled = true;
+    } finally {
+      try {
+        if (localDatabase != null) {
+          releaseSession(localDatabase);
+        }
+      } finally {
+        ODatabaseRecordThreadLocal.instance().remove();
+        enqueue(END_OF_WORKER);
+      }
+    }
+  }
+
+  /**
+   * Keeps the session of a worker open till the step is closed, because the consumer can still use
+   * the records loaded by the worker. If the step is already closed the session is closed now.
+   */
+  private void releaseSession(ODatabaseDocumentInternal session) {
+    synchronized (workerSessions) {
+      if (!closed) {
+        workerSessions.add(session);
+        return;
+      }
+    }
+    session.close();
+  }
+
+  private void closeWorkerSessions() {
+    List<ODatabaseDocumentInternal> sessions;
+    synchronized (workerSessions) {
+      closed = true;
+      sessions = new ArrayList<>(workerSessions);
+      workerSessions.clear();
+    }
+    if (sessions.isEmpty()) {
+      return;
+    }
+
+    ODatabaseDocumentInternal current = ODatabaseRecordThreadLocal.instance().getIfDefined();
+    try {
+      for (ODatabaseDocumentInternal session : sessions) {
+        session.activateOnCurrentThread();
+        session.close();
+      }
+    } finally {
+      if (current != null) {
+        current.activateOnCurrentThread();
+      } else {
+        ODatabaseRecordThreadLocal.instance().remove();
+      }
+    }
+  }
+
+  private void executeSubPlan(OInternalExecutionPlan plan) {
+    while (!cancelled) {
+      OResultSet batch = plan.fetchNext(WORKER_BATCH_SIZE);
+      if (!batch.hasNext()) {
+        return;
+      }
+      while (batch.hasNext()) {
+        if (!enqueue(batch.next())) {
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Puts an item in the result queue, waiting for space to become available.
+   *
+   * @return false if the step was cancelled before the item could be added
+   */
+  private boolean enqueue(OResult item) {
+    try {
+      while (!closed) {
+        // THE END MARKER HAS TO BE DELIVERED ALSO IF THE EXECUTION WAS CANCELLED FOR AN ERROR
+        if (cancelled && item != END_OF_WORKER) {
+          return false;
+        }
+        if (queue.offer(item, QUEUE_POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+          return true;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return false;
+  }
+
+  private OResult fetchNextConcurrent() {
+    while (nextResult == null) {
+      checkWorkerFailure();
+      if (runningWorkers == 0) {
+        return null;
+      }
+      OResult item;
+      try {
+        item = queue.poll(QUEUE_POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        cancelled = true;
+        throw OException.wrapException(
+            new OCommandInterruptedException("The command has been interrupted"), e);
+      }
+      if (item == null) {
+        if (OExecutionThreadLocal.isInterruptCurrentOperation()) {
+          cancelled = true;
+          throw new OCommandInterruptedException("The command has been interrupted");
+        }
+      } else if (item == END_OF_WORKER) {
+        runningWorkers--;
+      } else {
+        nextResult = item;
+      }
+    }
+    return nextResult;
+  }
+
+  private void checkWorkerFailure() {
+    RuntimeException failure = workerFailure.get();
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  @Override
+  public void sendTimeout() {
+    cancelled = true;
+    super.sendTimeout();
+  }
+
+  @Override
+  public void close() {
+    cancelled = true;
+    closeWorkerSessions();
+    super.close();
+  }
+
   void fetchNext(OCommandContext ctx, int nRecords) {
     do {
       if (current >= subExecutionPlans.size()) {
@@ -219,6 +540,7 @@ public class ParallelExecStep extends AbstractExecutionStep {
     return new ParallelExecStep(
         subExecutionPlans.stream().map(x -> x.copy(ctx)).collect(Collectors.toList()),
         ctx,
+        parallel,
         profilingEnabled);
   }
 }
@@ -12,6 +12,7 @@ public class QueryPlanningInfo {
   protected OTimeout timeout;
   protected boolean distinct = false;
   protected boolean expand = false;
+  protected boolean parallel = false;
 
   protected OProjection preAggregateProjection;
   protected OProjection aggregateProjection;
@@ -56,6 +57,7 @@ public class QueryPlanningInfo {
     QueryPlanningInfo result = new QueryPlanningInfo();
     result.distinct = this.distinct;
     result.expand = this.expand;
+    result.parallel = this.parallel;
     result.preAggregateProjection = this.preAggregateProjection;
     result.aggregateProjection = this.aggregateProjection;
     result.projection = this.projection;
@@ -6,6 +6,7 @@ import com.orientechnologies.orient.core.command.OCommandContext;
 import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.sql.executor.OBinaryFilter;
 import com.orientechnologies.orient.core.sql.executor.OResult;
 import java.util.ArrayList;
 import java.util.List;
@@ -51,6 +52,36 @@ public class OAndBlock extends OBooleanExpression {
     return true;
   }
 
+  @Override
+  public OBinaryFilter createBinaryFilter(OCommandContext ctx) {
+    if (subBlocks == null) {
+      return null;
+    }
+
+    final List<OBinaryFilter> filters = new ArrayList<>(subBlocks.size());
+    boolean supported = false;
+    for (OBooleanExpression block : subBlocks) {
+      final OBinaryFilter filter = block.createBinaryFilter(ctx);
+      supported |= filter != null;
+      filters.add(filter != null ? filter : OBinaryFilter.UNKNOWN);
+    }
+    if (!supported) {
+      return null;
+    }
+
+    return record -> {
+      boolean decided = true;
+      for (OBinaryFilter filter : filters) {
+        final Boolean result = filter.matches(record);
+        if (Boolean.FALSE.equals(result)) {
+          return false;
+        }
+        decided &= result != null;
+      }
+      return decided ? Boolean.TRUE : null;
+    };
+  }
+
   public List<OBooleanExpression> getSubBlocks() {
     return subBlocks;
   }
@@ -9,11 +9,17 @@ import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.exception.OCommandExecutionException;
 import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.HelperClasses;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.OBinaryField;
+import com.orientechnologies.orient.core.sql.executor.OBinaryFilter;
+import com.orientechnologies.orient.core.sql.executor.OBinaryRecord;
 import com.orientechnologies.orient.core.sql.executor.OResult;
 import com.orientechnologies.orient.core.sql.executor.OResultInternal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -58,6 +64,97 @@ public class OBinaryCondition extends OBooleanExpression {
     return operator.execute(leftVal, rightVal);
   }
 
+  @Override
+  public OBinaryFilter createBinaryFilter(OCommandContext ctx) {
+    final String fieldName = OBinaryRecord.getFieldName(left);
+    if (fieldName == null || !right.isEarlyCalculated(ctx)) {
+      return null;
+    }
+
+    final Object rightVal = right.execute((OResult) null, ctx);
+    if (operator instanceof OLikeOperator) {
+      return createLikeFilter(fieldName, rightVal);
+    }
+
+    final OBinaryField value = OBinaryRecord.toBinaryField(rightVal);
+    if (value == null) {
+      return null;
+    }
+
+    if (operator instanceof OEqualsCompareOperator
+        || operator instanceof ONeOperator
+        || operator instanceof ONeqOperator) {
+      final boolean negate = !(operator instanceof OEqualsCompareOperator);
+      return record -> {
+        final OBinaryField field = record.getField(fieldName);
+        if (field == null || !OBinaryRecord.isComparable(field.type, value.type, false)) {
+          return null;
+        }
+        return record.getComparator().isEqual(field, value.copy()) != negate;
+      };
+    }
+
+    if (operator instanceof OLtOperator
+        || operator instanceof OLeOperator
+        || operator instanceof OGtOperator
+        || operator instanceof OGeOperator) {
+      return record -> {
+        final OBinaryField field = record.getField(fieldName);
+        if (field == null || !OBinaryRecord.isComparable(field.type, value.type, true)) {
+          return null;
+        }
+        final int result = record.getComparator().compare(field, value.copy());
+        if (operator instanceof OLtOperator) {
+          return result < 0;
+        } else if (operator instanceof OLeOperator) {
+          return result <= 0;
+        } else if (operator instanceof OGtOperator) {
+          return result > 0;
+        }
+        return result >= 0;
+      };
+    }
+
+    return null;
+  }
+
+  /** Only the prefix patterns are evaluated on the serialized documents, eg. "abc%". */
+  private static OBinaryFilter createLikeFilter(final String fieldName, final Object pattern) {
+    if (!(pattern instanceof String)) {
+      return null;
+    }
+    final String string = (String) pattern;
+    if (string.length() < 2
+        || string.indexOf('%') != string.length() - 1
+        || string.indexOf('?') >= 0) {
+      return null;
+    }
+
+    final String prefix = string.substring(0, string.length() - 1).toLowerCase(Locale.ENGLISH);
+    return record -> {
+      final OBinaryField field = record.getField(fieldName);
+      if (field == null || field.type != OType.STRING) {
+        return null;
+      }
+      final String value = HelperClasses.readString(field.bytes);
+      if (value.isEmpty()) {
+        return false;
+      }
+      // WILDCARD OF THE QUERY DOES NOT MATCH THE LINE TERMINATORS
+      for (int i = 0; i < value.length(); i++) {
+        switch (value.charAt(i)) {
+          case '\n':
+          case '\r':
+          case '\u0085':
+          case '\u2028':
+          case '\u2029':
+            return null;
+        }
+      }
+      return value.toLowerCase(Locale.ENGLISH).startsWith(prefix);
+    };
+  }
+
   private boolean evaluateAny(OResult currentRecord, OCommandContext ctx) {
     for (String s : currentRecord.getPropertyNames()) {
       Object leftVal = currentRecord.getProperty(s);
@@ -6,6 +6,8 @@ import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.exception.OCommandExecutionException;
 import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.sql.executor.OBinaryFilter;
+import com.orientechnologies.orient.core.sql.executor.OBinaryRecord;
 import com.orientechnologies.orient.core.sql.executor.OResult;
 import com.orientechnologies.orient.core.sql.executor.OResultInternal;
 import java.util.Collections;
@@ -186,6 +188,17 @@ public abstract class OBooleanExpression extends SimpleNode {
    */
   protected abstract boolean supportsBasicCalculation();
 
+  /**
+   * Creates the filter which evaluates this condition on the serialized documents, see {@link
+   * OBinaryRecord}.
+   *
+   * @return the filter or <code>null</code> if condition cannot be evaluated on the serialized
+   *     documents at all.
+   */
+  public OBinaryFilter createBinaryFilter(OCommandContext ctx) {
+    return null;
+  }
+
   /**
    * @return the number of sub-expressions that have to be calculated using an external engine (eg.
    *     LUCENE)
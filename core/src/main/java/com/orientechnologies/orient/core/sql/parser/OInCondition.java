@@ -6,10 +6,14 @@ import com.orientechnologies.common.collection.OMultiValue;
 import com.orientechnologies.orient.core.command.OBasicCommandContext;
 import com.orientechnologies.orient.core.command.OCommandContext;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.OBinaryField;
+import com.orientechnologies.orient.core.sql.executor.OBinaryFilter;
+import com.orientechnologies.orient.core.sql.executor.OBinaryRecord;
 import com.orientechnologies.orient.core.sql.executor.OResult;
 import com.orientechnologies.orient.core.sql.executor.OResultSet;
 import com.orientechnologies.orient.core.sql.operator.OQueryOperatorEquals;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -157,6 +161,55 @@ public class OInCondition extends OBooleanExpression {
     return false;
   }
 
+  @Override
+  public OBinaryFilter createBinaryFilter(OCommandContext ctx) {
+    final String fieldName = OBinaryRecord.getFieldName(left);
+    if (fieldName == null || rightStatement != null) {
+      return null;
+    }
+
+    final Object rightVal;
+    if (rightParam != null) {
+      rightVal = rightParam.getValue(ctx.getInputParameters());
+    } else if (rightMathExpression != null && rightMathExpression.isEarlyCalculated(ctx)) {
+      rightVal = rightMathExpression.execute((OResult) null, ctx);
+    } else {
+      return null;
+    }
+    if (!(rightVal instanceof Collection) && !(rightVal instanceof Object[])) {
+      return null;
+    }
+
+    final List<OBinaryField> values = new ArrayList<>();
+    for (Object item : OMultiValue.getMultiValueIterable(rightVal, false)) {
+      // NULL IS NOT EQUAL TO ANY VALUE OF THE FIELD
+      if (item == null) {
+        continue;
+      }
+      final OBinaryField value = OBinaryRecord.toBinaryField(item);
+      if (value == null) {
+        return null;
+      }
+      values.add(value);
+    }
+
+    return record -> {
+      final OBinaryField field = record.getField(fieldName);
+      if (field == null) {
+        return null;
+      }
+      for (OBinaryField value : values) {
+        if (!OBinaryRecord.isComparable(field.type, value.type, false)) {
+          return null;
+        }
+        if (record.getComparator().isEqual(field.copy(), value.copy())) {
+          return true;
+        }
+      }
+      return false;
+    };
+  }
+
   public void toString(Map<Object, Object> params, StringBuilder builder) {
     left.toString(params, builder);
     builder.append(" IN ");
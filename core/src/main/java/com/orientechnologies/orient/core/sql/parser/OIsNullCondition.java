@@ -4,6 +4,8 @@ package com.orientechnologies.orient.core.sql.parser;
 
 import com.orientechnologies.orient.core.command.OCommandContext;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.sql.executor.OBinaryFilter;
+import com.orientechnologies.orient.core.sql.executor.OBinaryRecord;
 import com.orientechnologies.orient.core.sql.executor.OResult;
 import java.util.Collections;
 import java.util.List;
@@ -60,6 +62,16 @@ public class OIsNullCondition extends OBooleanExpression {
     return true;
   }
 
+  @Override
+  public OBinaryFilter createBinaryFilter(OCommandContext ctx) {
+    final String fieldName = OBinaryRecord.getFieldName(expression);
+    if (fieldName == null) {
+      return null;
+    }
+    // FIELDS WHICH ARE NOT FOUND MAY STILL HAVE THE VALUE WHICH CANNOT BE READ IN SERIALIZED FORM
+    return record -> record.getField(fieldName) != null ? Boolean.FALSE : null;
+  }
+
   public OExpression getExpression() {
     return expression;
   }
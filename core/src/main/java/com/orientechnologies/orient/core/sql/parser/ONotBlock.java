@@ -6,6 +6,7 @@ import com.orientechnologies.orient.core.command.OCommandContext;
 import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.sql.executor.OBinaryFilter;
 import com.orientechnologies.orient.core.sql.executor.OResult;
 import java.util.List;
 import java.util.Map;
@@ -48,6 +49,21 @@ public class ONotBlock extends OBooleanExpression {
     return result;
   }
 
+  @Override
+  public OBinaryFilter createBinaryFilter(OCommandContext ctx) {
+    if (sub == null) {
+      return null;
+    }
+    final OBinaryFilter filter = sub.createBinaryFilter(ctx);
+    if (filter == null || !negate) {
+      return filter;
+    }
+    return record -> {
+      final Boolean result = filter.matches(record);
+      return result != null ? !result : null;
+    };
+  }
+
   public OBooleanExpression getSub() {
     return sub;
   }
@@ -7,6 +7,7 @@ import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.executor.OBinaryFilter;
 import com.orientechnologies.orient.core.sql.executor.OResult;
 import java.util.ArrayList;
 import java.util.List;
@@ -66,6 +67,36 @@ public class OOrBlock extends OBooleanExpression {
     return false;
   }
 
+  @Override
+  public OBinaryFilter createBinaryFilter(OCommandContext ctx) {
+    if (subBlocks == null) {
+      return null;
+    }
+
+    final List<OBinaryFilter> filters = new ArrayList<>(subBlocks.size());
+    boolean supported = false;
+    for (OBooleanExpression block : subBlocks) {
+      final OBinaryFilter filter = block.createBinaryFilter(ctx);
+      supported |= filter != null;
+      filters.add(filter != null ? filter : OBinaryFilter.UNKNOWN);
+    }
+    if (!supported) {
+      return null;
+    }
+
+    return record -> {
+      boolean decided = true;
+      for (OBinaryFilter filter : filters) {
+        final Boolean result = filter.matches(record);
+        if (Boolean.TRUE.equals(result)) {
+          return true;
+        }
+        decided &= result != null;
+      }
+      return decided ? Boolean.FALSE : null;
+    };
+  }
+
   public List<OBooleanExpression> getSubBlocks() {
     return subBlocks;
   }
@@ -15,6 +15,7 @@ import com.orientechnologies.orient.core.index.OIndexDefinition;
 import com.orientechnologies.orient.core.index.OPropertyIndexDefinition;
 import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.sql.executor.OBinaryFilter;
 import com.orientechnologies.orient.core.sql.executor.OResult;
 import com.orientechnologies.orient.core.sql.executor.OResultInternal;
 import java.util.ArrayList;
@@ -56,6 +57,14 @@ public class OWhereClause extends SimpleNode {
     return baseExpression.evaluate(currentRecord, ctx);
   }
 
+  /** @return filter which evaluates the clause on the serialized documents or <code>null</code> */
+  public OBinaryFilter createBinaryFilter(OCommandContext ctx) {
+    if (baseExpression == null) {
+      return null;
+    }
+    return baseExpression.createBinaryFilter(ctx);
+  }
+
   public void toString(Map<Object, Object> params, StringBuilder builder) {
     if (baseExpression == null) {
       return;
@@ -96,4 +96,14 @@ public interface OReadCache {
   void closeStorage(OWriteCache writeCache) throws IOException;
 
   void changeMaximumAmountOfMemory(long calculateReadCacheMaxMemory);
+
+  /**
+   * Switches current thread to the scan mode. Pages loaded for read in this mode are not admitted
+   * into the main part of the cache, so massive reads do not evict pages of the working set. Calls
+   * may be nested, each call should be paired with the call of {@link #stopScan()}.
+   */
+  default void startScan() {}
+
+  /** Leaves scan mode entered by {@link #startScan()}. */
+  default void stopScan() {}
 }
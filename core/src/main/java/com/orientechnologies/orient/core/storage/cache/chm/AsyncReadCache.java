@@ -5,9 +5,14 @@ import com.orientechnologies.common.directmemory.OByteBufferPool;
 import com.orientechnologies.common.directmemory.ODirectMemoryAllocator.Intention;
 import com.orientechnologies.common.directmemory.OPointer;
 import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.common.thread.OThreadPoolExecutorWithLogging;
 import com.orientechnologies.common.types.OModifiableBoolean;
 import com.orientechnologies.common.util.ORawPair;
+import com.orientechnologies.common.util.OUncaughtExceptionHandler;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.exception.OStorageException;
+import com.orientechnologies.orient.core.storage.OStorageAbstract;
 import com.orientechnologies.orient.core.storage.cache.OAbstractWriteCache;
 import com.orientechnologies.orient.core.storage.cache.OCacheEntry;
 import com.orientechnologies.orient.core.storage.cache.OCacheEntryImpl;
@@ -22,12 +27,21 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Disk cache based on ConcurrentHashMap and eviction policy which is asynchronously processed by
@@ -39,12 +53,39 @@ import java.util.concurrent.locks.ReentrantLock;
  * additional pages from write cache to disk cache. Window TinyLFU policy is used as cache eviction
  * policy because it prevents usage of ghost entries and as result considerably decrease usage of
  * heap memory.
+ *
+ * <p>Threads which perform massive reads may switch to the scan mode by calling {@link
+ * #startScan()}. Pages loaded in this mode bypass admission and are kept in the small separate
+ * ring of the cache, hits in this mode are not recorded, so scan of the whole cluster does not
+ * evict pages which are used by other threads.
+ *
+ * <p>Sequential reads of the file are detected for each thread, once detected, pages which follow
+ * the page being read are loaded into the cache in background ahead of the reader.
  */
 public final class AsyncReadCache implements OReadCache {
 
   private static final int N_CPU = Runtime.getRuntime().availableProcessors();
   private static final int WRITE_BUFFER_MAX_BATCH = 128 * ceilingPowerOfTwo(N_CPU);
 
+  private static final int READ_AHEAD_QUEUE_SIZE = 1024;
+
+  /** Executor which loads pages read ahead, tasks are discarded if the queue is full. */
+  private static final ExecutorService readAheadExecutor;
+
+  static {
+    final int readAheadThreads =
+        Math.max(1, OGlobalConfiguration.DISK_CACHE_READ_AHEAD_THREADS.getValueAsInteger());
+    readAheadExecutor =
+        new OThreadPoolExecutorWithLogging(
+            readAheadThreads,
+            readAheadThreads,
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(READ_AHEAD_QUEUE_SIZE),
+            new ReadAheadThreadFactory(),
+            new ThreadPoolExecutor.DiscardPolicy());
+  }
+
   private final ConcurrentHashMap<PageKey, OCacheEntry> data;
   private final Lock evictionLock = new ReentrantLock();
 
@@ -67,11 +108,53 @@ public final class AsyncReadCache implements OReadCache {
 
   private final OByteBufferPool bufferPool;
 
+  /** Depth of nested scan mode calls performed by the current thread. */
+  private final ThreadLocal<int[]> scanDepth = ThreadLocal.withInitial(() -> new int[1]);
+
+  private final boolean scanEnabled;
+
+  /** Maximum amount of pages read ahead at once, read ahead is disabled if value is zero. */
+  private final int readAheadMaxPages;
+
+  private final ThreadLocal<ReadAheadState> readAheadState;
+
+  /**
+   * Incremented when pages of the file are removed from the cache, pages which were scheduled to
+   * be read ahead before that are not loaded.
+   */
+  private final AtomicLong filesGeneration = new AtomicLong();
+
+  /**
+   * Shared lock is held during load of page which is read ahead, exclusive lock is held during
+   * increment of {@link #filesGeneration}, so removed pages can not be loaded back by read ahead.
+   */
+  private final ReadWriteLock readAheadLock = new ReentrantReadWriteLock();
+
   public AsyncReadCache(
       final OByteBufferPool bufferPool,
       final long maxCacheSizeInBytes,
       final int pageSize,
       final boolean trackHitRate) {
+    this(bufferPool, maxCacheSizeInBytes, pageSize, trackHitRate, 0, 0);
+  }
+
+  /**
+   * @param scanRingSize Maximum amount of pages loaded in scan mode which are kept in cache, if
+   *     value is zero scan mode is disabled.
+   * @param readAheadMaxPages Maximum amount of pages which are read ahead once sequential read of
+   *     the file is detected, if value is zero pages are not read ahead.
+   */
+  public AsyncReadCache(
+      final OByteBufferPool bufferPool,
+      final long maxCacheSizeInBytes,
+      final int pageSize,
+      final boolean trackHitRate,
+      final int scanRingSize,
+      final int readAheadMaxPages) {
+    this.readAheadMaxPages = readAheadMaxPages;
+    this.readAheadState =
+        ThreadLocal.withInitial(() -> new ReadAheadState(this.readAheadMaxPages));
+
     evictionLock.lock();
     try {
       this.pageSize = pageSize;
@@ -80,8 +163,9 @@ public final class AsyncReadCache implements OReadCache {
       this.trackHitRate = trackHitRate;
       this.maxCacheSize = (int) (maxCacheSizeInBytes / pageSize);
       this.data = new ConcurrentHashMap<>(this.maxCacheSize);
-      policy = new WTinyLFUPolicy(data, new FrequencySketch(), cacheSize);
+      policy = new WTinyLFUPolicy(data, new FrequencySketch(), cacheSize, scanRingSize);
       policy.setMaxSize(this.maxCacheSize);
+      this.scanEnabled = policy.getMaxScanSize() > 0;
     } finally {
       evictionLock.unlock();
     }
@@ -108,7 +192,8 @@ public final class AsyncReadCache implements OReadCache {
       final OWriteCache writeCache,
       final boolean verifyChecksums,
       final OLogSequenceNumber startLSN) {
-    final OCacheEntry cacheEntry = doLoad(fileId, (int) pageIndex, writeCache, verifyChecksums);
+    final OCacheEntry cacheEntry =
+        doLoad(fileId, (int) pageIndex, writeCache, verifyChecksums, false);
 
     if (cacheEntry != null) {
       cacheEntry.acquireExclusiveLock();
@@ -125,7 +210,119 @@ public final class AsyncReadCache implements OReadCache {
       final boolean checkPinnedPages,
       final OWriteCache writeCache,
       final boolean verifyChecksums) {
-    return doLoad(fileId, (int) pageIndex, writeCache, verifyChecksums);
+    final boolean scan = isScanMode();
+    final OCacheEntry cacheEntry =
+        doLoad(fileId, (int) pageIndex, writeCache, verifyChecksums, scan);
+
+    if (readAheadMaxPages > 0 && cacheEntry != null) {
+      final ReadAheadState state = readAheadState.get();
+      final int pages = state.onAccess(cacheEntry.getFileId(), pageIndex);
+
+      if (pages > 0) {
+        readAhead(
+            cacheEntry.getFileId(),
+            state.getWindowStart(),
+            pages,
+            writeCache,
+            verifyChecksums,
+            scan);
+      }
+    }
+
+    return cacheEntry;
+  }
+
+  private void readAhead(
+      final long fileId,
+      final long startPageIndex,
+      final int pages,
+      final OWriteCache writeCache,
+      final boolean verifyChecksums,
+      final boolean scan) {
+    final long generation = filesGeneration.get();
+
+    try {
+      readAheadExecutor.execute(
+          () -> {
+            for (long pageIndex = startPageIndex; pageIndex < startPageIndex + pages; pageIndex++) {
+              if (data.containsKey(new PageKey(fileId, (int) pageIndex))) {
+                continue;
+              }
+
+              if (!readAheadPage(
+                  fileId, pageIndex, writeCache, verifyChecksums, scan, generation)) {
+                return;
+              }
+            }
+          });
+    } catch (final RejectedExecutionException e) {
+      // executor is shut down, pages will be loaded by the reader itself
+    }
+  }
+
+  /** @return <code>false</code> if the rest of the pages should not be read ahead */
+  private boolean readAheadPage(
+      final long fileId,
+      final long pageIndex,
+      final OWriteCache writeCache,
+      final boolean verifyChecksums,
+      final boolean scan,
+      final long generation) {
+    final Lock lock = readAheadLock.readLock();
+    if (!lock.tryLock()) {
+      return false;
+    }
+
+    try {
+      if (filesGeneration.get() != generation) {
+        return false;
+      }
+
+      final OCacheEntry cacheEntry =
+          doLoad(fileId, (int) pageIndex, writeCache, verifyChecksums, scan);
+      if (cacheEntry == null) {
+        // end of file is reached
+        return false;
+      }
+
+      releaseFromRead(cacheEntry, writeCache);
+      return true;
+    } catch (final RuntimeException e) {
+      // file may be closed or deleted concurrently, page will be loaded by the reader if needed
+      OLogManager.instance()
+          .debug(this, "Page %d of file %d can not be read ahead", e, pageIndex, fileId);
+      return false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Prevents load of the pages which were scheduled to be read ahead before this call. */
+  private void cancelReadAhead() {
+    final Lock lock = readAheadLock.writeLock();
+    lock.lock();
+    try {
+      filesGeneration.incrementAndGet();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public final void startScan() {
+    scanDepth.get()[0]++;
+  }
+
+  @Override
+  public final void stopScan() {
+    final int[] depth = scanDepth.get();
+    if (depth[0] > 0) {
+      depth[0]--;
+    }
+  }
+
+  private boolean isScanMode() {
+    return scanEnabled && scanDepth.get()[0] > 0;
   }
 
   @Override
@@ -190,7 +387,8 @@ public final class AsyncReadCache implements OReadCache {
       final long extFileId,
       final int pageIndex,
       final OWriteCache writeCache,
-      final boolean verifyChecksums) {
+      final boolean verifyChecksums,
+      final boolean scan) {
     final long fileId = OAbstractWriteCache.checkFileIdCompatibility(writeCache.getId(), extFileId);
     final PageKey pageKey = new PageKey(fileId, pageIndex);
 
@@ -207,7 +405,9 @@ public final class AsyncReadCache implements OReadCache {
 
       if (cacheEntry != null) {
         if (cacheEntry.acquireEntry()) {
-          afterRead(cacheEntry);
+          if (!scan) {
+            afterRead(cacheEntry);
+          }
 
           if (trackHitRate) {
             hits.increment();
@@ -256,9 +456,15 @@ public final class AsyncReadCache implements OReadCache {
               hits.increment();
             }
 
-            afterRead(cacheEntry);
+            if (!scan) {
+              afterRead(cacheEntry);
+            }
           } else {
-            afterAdd(cacheEntry);
+            if (scan) {
+              afterScanAdd(cacheEntry);
+            } else {
+              afterAdd(cacheEntry);
+            }
 
             try {
               writeCache.checkCacheOverflow();
@@ -387,6 +593,10 @@ public final class AsyncReadCache implements OReadCache {
     afterWrite(() -> policy.onAdd(entry));
   }
 
+  private void afterScanAdd(final OCacheEntry entry) {
+    afterWrite(() -> policy.onScanAdd(entry));
+  }
+
   private void afterWrite(final Runnable command) {
     writeBuffer.offer(command);
 
@@ -489,6 +699,8 @@ public final class AsyncReadCache implements OReadCache {
 
   @Override
   public final void clear() {
+    cancelReadAhead();
+
     evictionLock.lock();
     try {
       emptyBuffers();
@@ -571,6 +783,8 @@ public final class AsyncReadCache implements OReadCache {
   }
 
   private void clearFile(final long fileId, final int filledUpTo, final OWriteCache writeCache) {
+    cancelReadAhead();
+
     evictionLock.lock();
     try {
       emptyBuffers();
@@ -656,6 +870,21 @@ public final class AsyncReadCache implements OReadCache {
     abstract boolean shouldBeDrained(boolean readBufferOverflow);
   }
 
+  private static final class ReadAheadThreadFactory implements ThreadFactory {
+    private final AtomicInteger counter = new AtomicInteger();
+
+    private ReadAheadThreadFactory() {}
+
+    @Override
+    public final Thread newThread(final Runnable r) {
+      final Thread thread = new Thread(OStorageAbstract.storageThreadGroup, r);
+      thread.setDaemon(true);
+      thread.setName("OrientDB Read Cache Read Ahead " + counter.incrementAndGet());
+      thread.setUncaughtExceptionHandler(new OUncaughtExceptionHandler());
+      return thread;
+    }
+  }
+
   @SuppressWarnings("SameParameterValue")
   private static int ceilingPowerOfTwo(final int x) {
     // From Hacker's Delight, Chapter 3, Harry S. Warren Jr.
@@ -0,0 +1,102 @@
+package com.orientechnologies.orient.core.storage.cache.chm;
+
+import java.util.Arrays;
+
+/**
+ * Tracks pages read by single thread and detects sequential access to the file. Several files are
+ * tracked at once because scan of the cluster or of the index touches pages of more than one file.
+ *
+ * <p>Once sequential access is detected, window of pages which should be read ahead is returned,
+ * the next window is returned once cursor passed half of the pages which are already read ahead.
+ * Size of the window is doubled till the maximum size is reached, it is reset to the minimum size
+ * once sequential access is broken.
+ *
+ * <p>Instance is not thread safe and should be used by single thread.
+ */
+final class ReadAheadState {
+  /** Amount of sequential page accesses after which pages are read ahead. */
+  static final int SEQUENTIAL_THRESHOLD = 4;
+
+  private static final int SLOTS = 4;
+  private static final int MIN_WINDOW = 4;
+
+  private final long[] fileIds = new long[SLOTS];
+  private final long[] lastPages = new long[SLOTS];
+  private final int[] runs = new int[SLOTS];
+  private final long[] readAheadEnds = new long[SLOTS];
+  private final int[] windows = new int[SLOTS];
+
+  private final int maxWindow;
+
+  private int nextSlot;
+
+  /** Index of the first page of the window returned by the last call of {@link #onAccess}. */
+  private long windowStart;
+
+  ReadAheadState(final int maxWindow) {
+    this.maxWindow = maxWindow;
+    Arrays.fill(fileIds, -1);
+  }
+
+  /**
+   * Registers access to the page.
+   *
+   * @return amount of pages starting from {@link #getWindowStart()} which should be read ahead, or
+   *     zero if pages should not be read ahead.
+   */
+  int onAccess(final long fileId, final long pageIndex) {
+    int slot = -1;
+    for (int i = 0; i < SLOTS; i++) {
+      if (fileIds[i] == fileId) {
+        slot = i;
+        break;
+      }
+    }
+
+    if (slot < 0) {
+      slot = nextSlot;
+      nextSlot = (nextSlot + 1) % SLOTS;
+
+      fileIds[slot] = fileId;
+      reset(slot, pageIndex);
+      return 0;
+    }
+
+    final long lastPage = lastPages[slot];
+    if (pageIndex == lastPage) {
+      return 0;
+    }
+
+    if (pageIndex != lastPage + 1) {
+      reset(slot, pageIndex);
+      return 0;
+    }
+
+    lastPages[slot] = pageIndex;
+    if (++runs[slot] < SEQUENTIAL_THRESHOLD) {
+      return 0;
+    }
+
+    final int window = windows[slot];
+    if (readAheadEnds[slot] - pageIndex - 1 > window / 2) {
+      return 0;
+    }
+
+    windowStart = Math.max(readAheadEnds[slot], pageIndex + 1);
+    readAheadEnds[slot] = windowStart + window;
+    windows[slot] = Math.min(window * 2, maxWindow);
+
+    return window;
+  }
+
+  long getWindowStart() {
+    return windowStart;
+  }
+
+  private void reset(final int slot, final long pageIndex) {
+    lastPages[slot] = pageIndex;
+    runs[slot] = 0;
+    readAheadEnds[slot] = pageIndex + 1;
+    windows[slot] = Math.min(MIN_WINDOW, maxWindow);
+  }
+}
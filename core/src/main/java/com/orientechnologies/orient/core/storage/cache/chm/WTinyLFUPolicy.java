@@ -6,10 +6,18 @@ import java.util.Iterator;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
-/** Window TinyLFU eviction policy https://arxiv.org/pdf/1512.00727.pdf. */
+/**
+ * Window TinyLFU eviction policy https://arxiv.org/pdf/1512.00727.pdf.
+ *
+ * <p>Pages loaded by massive reads are not passed through the admission, they are kept in the
+ * separate small LRU list (scan ring) and are evicted from it in FIFO order, so full scans do not
+ * evict working set of the cache. Page is moved from scan ring into the main part of the cache once
+ * it is accessed by usual read.
+ */
 final class WTinyLFUPolicy {
   private static final int EDEN_PERCENT = 20;
   private static final int PROBATIONARY_PERCENT = 20;
+  private static final int MAX_SCAN_PERCENT = 5;
 
   private volatile int maxSize;
   private final ConcurrentHashMap<PageKey, OCacheEntry> data;
@@ -20,22 +28,35 @@ final class WTinyLFUPolicy {
   private final LRUList eden = new LRUList();
   private final LRUList probation = new LRUList();
   private final LRUList protection = new LRUList();
+  private final LRUList scan = new LRUList();
+
+  private final int scanRingSize;
 
   private int maxEdenSize;
   private int maxProtectedSize;
   private int maxSecondLevelSize;
+  private int maxScanSize;
 
   WTinyLFUPolicy(
       final ConcurrentHashMap<PageKey, OCacheEntry> data,
       final Admittor admittor,
       final AtomicInteger cacheSize) {
+    this(data, admittor, cacheSize, 0);
+  }
+
+  WTinyLFUPolicy(
+      final ConcurrentHashMap<PageKey, OCacheEntry> data,
+      final Admittor admittor,
+      final AtomicInteger cacheSize,
+      final int scanRingSize) {
     this.data = data;
     this.admittor = admittor;
     this.cacheSize = cacheSize;
+    this.scanRingSize = scanRingSize;
   }
 
   public void setMaxSize(final int maxSize) {
-    if (eden.size() + protection.size() + probation.size() > maxSize) {
+    if (eden.size() + protection.size() + probation.size() + scan.size() > maxSize) {
       throw new IllegalStateException(
           "Can set maximum cache size to "
               + maxSize
@@ -56,7 +77,14 @@ final class WTinyLFUPolicy {
     admittor.increment(PageKey.hashCode(cacheEntry.getFileId(), (int) cacheEntry.getPageIndex()));
 
     if (!cacheEntry.isDead()) {
-      if (probation.contains(cacheEntry)) {
+      if (scan.contains(cacheEntry)) {
+        // page loaded by massive read is used by usual read, so it competes for the place in the
+        // main part of the cache
+        scan.remove(cacheEntry);
+        eden.moveToTheTail(cacheEntry);
+
+        purgeEden();
+      } else if (probation.contains(cacheEntry)) {
         probation.remove(cacheEntry);
         protection.moveToTheTail(cacheEntry);
 
@@ -95,6 +123,61 @@ final class WTinyLFUPolicy {
     assert probation.size() + protection.size() <= maxSecondLevelSize;
   }
 
+  /**
+   * Adds page loaded by massive read. Page is not counted by admittor and is placed into the scan
+   * ring, if scan ring is full the oldest not used page of the ring is removed from the cache.
+   */
+  void onScanAdd(final OCacheEntry cacheEntry) {
+    if (maxScanSize == 0) {
+      onAdd(cacheEntry);
+      return;
+    }
+
+    if (cacheEntry.isAlive()) {
+      assert !eden.contains(cacheEntry);
+      assert !probation.contains(cacheEntry);
+      assert !protection.contains(cacheEntry);
+      assert !scan.contains(cacheEntry);
+
+      scan.moveToTheTail(cacheEntry);
+
+      purgeScan();
+    }
+
+    assert scan.size() <= maxScanSize;
+  }
+
+  private void purgeScan() {
+    int attempts = scan.size();
+
+    while (scan.size() > maxScanSize) {
+      final OCacheEntry victim = scan.poll();
+      assert victim != null;
+
+      if (victim.freeze()) {
+        final boolean removed =
+            data.remove(new PageKey(victim.getFileId(), (int) victim.getPageIndex()), victim);
+        victim.makeDead();
+
+        if (removed) {
+          cacheSize.decrementAndGet();
+        }
+
+        final OCachePointer pointer = victim.getCachePointer();
+
+        pointer.decrementReadersReferrer();
+        victim.clearCachePointer();
+      } else if (attempts > 0) {
+        scan.moveToTheTail(victim);
+        attempts--;
+      } else {
+        // all pages of the ring are in use, page is moved to the main part of the cache
+        eden.moveToTheTail(victim);
+        purgeEden();
+      }
+    }
+  }
+
   private void purgeEden() {
     while (eden.size() > maxEdenSize) {
       final OCacheEntry candidate = eden.poll();
@@ -161,7 +244,9 @@ final class WTinyLFUPolicy {
   void onRemove(final OCacheEntry cacheEntry) {
     assert cacheEntry.isFrozen();
 
-    if (probation.contains(cacheEntry)) {
+    if (scan.contains(cacheEntry)) {
+      scan.remove(cacheEntry);
+    } else if (probation.contains(cacheEntry)) {
       probation.remove(cacheEntry);
     } else if (protection.contains(cacheEntry)) {
       protection.remove(cacheEntry);
@@ -177,9 +262,17 @@ final class WTinyLFUPolicy {
   }
 
   private void calculateMaxSizes() {
-    maxEdenSize = maxSize * EDEN_PERCENT / 100;
-    maxProtectedSize = maxSize - maxEdenSize - (maxSize - maxEdenSize) * PROBATIONARY_PERCENT / 100;
-    maxSecondLevelSize = maxSize - maxEdenSize;
+    maxScanSize = Math.min(scanRingSize, maxSize * MAX_SCAN_PERCENT / 100);
+
+    final int mainSize = maxSize - maxScanSize;
+    maxEdenSize = mainSize * EDEN_PERCENT / 100;
+    maxProtectedSize =
+        mainSize - maxEdenSize - (mainSize - maxEdenSize) * PROBATIONARY_PERCENT / 100;
+    maxSecondLevelSize = mainSize - maxEdenSize;
+  }
+
+  int getMaxScanSize() {
+    return maxScanSize;
   }
 
   Iterator<OCacheEntry> eden() {
@@ -194,8 +287,12 @@ final class WTinyLFUPolicy {
     return probation.iterator();
   }
 
+  Iterator<OCacheEntry> scan() {
+    return scan.iterator();
+  }
+
   void assertSize() {
-    assert eden.size() + probation.size() + protection.size() == cacheSize.get()
+    assert eden.size() + probation.size() + protection.size() + scan.size() == cacheSize.get()
         && data.size() == cacheSize.get()
         && cacheSize.get() <= maxSize;
   }
@@ -204,7 +301,8 @@ final class WTinyLFUPolicy {
     for (final OCacheEntry cacheEntry : data.values()) {
       assert eden.contains(cacheEntry)
           || protection.contains(cacheEntry)
-          || probation.contains(cacheEntry);
+          || probation.contains(cacheEntry)
+          || scan.contains(cacheEntry);
     }
 
     int counter = 0;
@@ -226,6 +324,12 @@ final class WTinyLFUPolicy {
       counter++;
     }
 
+    for (final OCacheEntry cacheEntry : scan) {
+      assert data.get(new PageKey(cacheEntry.getFileId(), (int) cacheEntry.getPageIndex()))
+          == cacheEntry;
+      counter++;
+    }
+
     assert counter == data.size();
   }
 }
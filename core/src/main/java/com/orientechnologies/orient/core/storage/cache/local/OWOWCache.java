@@ -105,6 +105,7 @@ import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
@@ -236,6 +237,15 @@ public final class OWOWCache extends OAbstractWriteCache
   /** Executor which is used to call event listeners in background thread */
   private static final ExecutorService cacheEventsPublisher;
 
+  /**
+   * Executor which writes pages of different files in parallel, pages of the same file are always
+   * written by the same task. Flushes are serialized by {@link #commitExecutor}, so the amount of
+   * threads of this executor is limited by the biggest amount of flush threads of a single cache.
+   *
+   * @see OGlobalConfiguration#DISK_WRITE_CACHE_FLUSH_THREADS
+   */
+  private static final ExecutorService pagesWriteExecutor;
+
   static {
     cacheEventsPublisher =
         new OThreadPoolExecutorWithLogging(
@@ -248,8 +258,23 @@ public final class OWOWCache extends OAbstractWriteCache
 
     commitExecutor = new OScheduledThreadPoolExecutorWithLogging(1, new FlushThreadFactory());
     commitExecutor.setMaximumPoolSize(1);
+
+    pagesWriteExecutor =
+        new OThreadPoolExecutorWithLogging(
+            0,
+            Integer.MAX_VALUE,
+            60L,
+            TimeUnit.SECONDS,
+            new SynchronousQueue<>(),
+            new PagesWriteThreadFactory());
   }
 
+  /**
+   * Amount of threads which write pages to the disk during a flush of write cache, if it is less
+   * than 2 pages are written by {@link #commitExecutor} thread.
+   */
+  private final int flushThreads;
+
   /** Limit of free space on disk after which database will be switched to "read only" mode */
   private final long freeSpaceLimit =
       OGlobalConfiguration.DISK_CACHE_FREE_SPACE_LIMIT.getValueAsLong() * 1024L * 1024L;
@@ -338,6 +363,18 @@ public final class OWOWCache extends OAbstractWriteCache
    */
   private final LongAdder cacheOverflowCountSum = new LongAdder();
 
+  /** Amount of pages written to the disk by flush of write cache */
+  private final LongAdder flushedPagesSum = new LongAdder();
+
+  /** Time spent to write pages to the disk by flush of write cache, in nanoseconds */
+  private final LongAdder flushTimeSum = new LongAdder();
+
+  /**
+   * Distance in WAL segments between the end of WAL and the oldest segment which contains changes
+   * of pages not flushed to the disk yet, measured by the last periodic flush.
+   */
+  private volatile long flushLag;
+
   /** Serialized is used to encode/decode names of files are managed by write cache. */
   private final OBinarySerializer<String> stringSerializer;
 
@@ -441,6 +478,44 @@ public final class OWOWCache extends OAbstractWriteCache
       final byte[] iv,
       final byte[] aesKey,
       final boolean callFsync) {
+    this(
+        pageSize,
+        bufferPool,
+        writeAheadLog,
+        doubleWriteLog,
+        pagesFlushInterval,
+        shutdownTimeout,
+        exclusiveWriteCacheMaxSize,
+        storagePath,
+        storageName,
+        stringSerializer,
+        files,
+        id,
+        checksumMode,
+        iv,
+        aesKey,
+        callFsync,
+        OGlobalConfiguration.DISK_WRITE_CACHE_FLUSH_THREADS.getValueAsInteger());
+  }
+
+  public OWOWCache(
+      final int pageSize,
+      final OByteBufferPool bufferPool,
+      final OWriteAheadLog writeAheadLog,
+      final DoubleWriteLog doubleWriteLog,
+      final long pagesFlushInterval,
+      final int shutdownTimeout,
+      final long exclusiveWriteCacheMaxSize,
+      final Path storagePath,
+      final String storageName,
+      final OBinarySerializer<String> stringSerializer,
+      final OClosableLinkedContainer<Long, OFile> files,
+      final int id,
+      final OChecksumMode checksumMode,
+      final byte[] iv,
+      final byte[] aesKey,
+      final boolean callFsync,
+      final int flushThreads) {
 
     if (aesKey != null && aesKey.length != 16 && aesKey.length != 24 && aesKey.length != 32) {
       throw new OInvalidStorageEncryptionKeyException(
@@ -456,6 +531,7 @@ public final class OWOWCache extends OAbstractWriteCache
     this.iv = iv;
     this.aesKey = aesKey;
     this.callFsync = callFsync;
+    this.flushThreads = Math.max(1, flushThreads);
 
     filesLock.acquireWriteLock();
     try {
@@ -1687,6 +1763,30 @@ public final class OWOWCache extends OAbstractWriteCache
     return exclusiveWriteCacheSize.get();
   }
 
+  /** @return Amount of threads which write pages to the disk during a flush of write cache */
+  public int getFlushThreads() {
+    return flushThreads;
+  }
+
+  /** @return Amount of pages written to the disk by flush of write cache */
+  public long getFlushedPagesCount() {
+    return flushedPagesSum.sum();
+  }
+
+  /** @return Time spent to write pages to the disk by flush of write cache, in nanoseconds */
+  public long getFlushTime() {
+    return flushTimeSum.sum();
+  }
+
+  /**
+   * @return Amount of WAL segments between the end of WAL and the oldest segment which contains
+   *     changes not flushed to the disk, as measured by the last periodic flush. WAL can not be
+   *     truncated till those changes are flushed.
+   */
+  public long getFlushLag() {
+    return flushLag;
+  }
+
   private static void openFile(final OFile fileClassic) {
     if (fileClassic.exists()) {
       if (!fileClassic.isOpen()) {
@@ -2798,6 +2898,11 @@ public final class OWOWCache extends OAbstractWriteCache
             if (firstSegment != null && firstSegment.getKey() < end.getSegment()) {
               flushInterval = 1;
             }
+
+            flushLag =
+                firstSegment == null ? 0 : Math.max(0, end.getSegment() - firstSegment.getKey());
+          } else {
+            flushLag = 0;
           }
         } catch (final Error | Exception t) {
           OLogManager.instance().error(this, "Exception during data flush", t);
@@ -3046,6 +3151,7 @@ public final class OWOWCache extends OAbstractWriteCache
       }
     }
 
+    final long flushStart = System.nanoTime();
     final boolean fsyncFiles;
 
     int flushedPages = 0;
@@ -3075,18 +3181,6 @@ public final class OWOWCache extends OAbstractWriteCache
         containerPointers[i] = containerPointer;
         containerBuffers[i] = containerBuffer;
 
-        for (final OQuarto<Long, ByteBuffer, OPointer, OCachePointer> quarto : chunk) {
-          final ByteBuffer buffer = quarto.two;
-
-          final OCachePointer pointer = quarto.four;
-
-          addMagicChecksumAndEncryption(
-              extractFileId(pointer.getFileId()), pointer.getPageIndex(), buffer);
-
-          buffer.position(0);
-          containerBuffer.put(buffer);
-        }
-
         final OQuarto<Long, ByteBuffer, OPointer, OCachePointer> firstPage = chunk.get(0);
         final OCachePointer firstCachePointer = firstPage.four;
 
@@ -3101,70 +3195,48 @@ public final class OWOWCache extends OAbstractWriteCache
         chunkFileIds[i] = internalFileId(fileId);
       }
 
-      fsyncFiles = doubleWriteLog.write(containerBuffers, chunkFileIds, chunkPositions);
-
-      final List<OClosableEntry<Long, OFile>> acquiredFiles =
-          new ArrayList<>(buffersByFileId.size());
-      final List<IOResult> ioResults = new ArrayList<>(buffersByFileId.size());
-
-      final Iterator<Map.Entry<Long, List<ORawPair<Long, ByteBuffer>>>> filesIterator =
-          buffersByFileId.entrySet().iterator();
-      Map.Entry<Long, List<ORawPair<Long, ByteBuffer>>> entry = null;
-      // acquire as much files as possible and flush data
-      while (true) {
-        if (entry == null) {
-          if (filesIterator.hasNext()) {
-            entry = filesIterator.next();
-          } else {
-            break;
-          }
-        }
-
-        final OClosableEntry<Long, OFile> fileEntry = files.tryAcquire(entry.getKey());
-        if (fileEntry != null) {
-          final OFile file = fileEntry.get();
-
-          final List<ORawPair<Long, ByteBuffer>> bufferList = entry.getValue();
-
-          ioResults.add(file.write(bufferList));
-          acquiredFiles.add(fileEntry);
-
-          entry = null;
-        } else {
-          assert ioResults.size() == acquiredFiles.size();
-
-          if (!ioResults.isEmpty()) {
-            for (final IOResult ioResult : ioResults) {
-              ioResult.await();
-            }
-
-            for (final OClosableEntry<Long, OFile> closableEntry : acquiredFiles) {
-              files.release(closableEntry);
-            }
-
-            ioResults.clear();
-            acquiredFiles.clear();
-          } else {
-            Thread.yield();
-          }
+      final List<List<Integer>> chunksByShard = partitionChunks(chunkFileIds);
+      if (chunksByShard == null) {
+        for (int i = 0; i < chunks.size(); i++) {
+          fillContainer(chunks.get(i), containerBuffers[i]);
         }
+      } else {
+        runInParallel(
+            chunksByShard,
+            (shardChunks) -> {
+              for (final int chunkIndex : shardChunks) {
+                fillContainer(chunks.get(chunkIndex), containerBuffers[chunkIndex]);
+              }
+            });
       }
 
-      assert ioResults.size() == acquiredFiles.size();
+      fsyncFiles = doubleWriteLog.write(containerBuffers, chunkFileIds, chunkPositions);
 
-      if (!ioResults.isEmpty()) {
-        for (final IOResult ioResult : ioResults) {
-          ioResult.await();
+      if (chunksByShard == null) {
+        writeFiles(buffersByFileId);
+      } else {
+        final List<List<Long>> filesByShard = new ArrayList<>(flushThreads);
+        for (int i = 0; i < flushThreads; i++) {
+          filesByShard.add(new ArrayList<>());
         }
-
-        for (final OClosableEntry<Long, OFile> closableEntry : acquiredFiles) {
-          files.release(closableEntry);
+        for (final long fileId : buffersByFileId.keySet()) {
+          filesByShard.get(shard(internalFileId(fileId))).add(fileId);
         }
-      }
+        filesByShard.removeIf(List::isEmpty);
 
+        runInParallel(
+            filesByShard,
+            (shardFiles) -> {
+              for (final long fileId : shardFiles) {
+                writeFile(fileId, buffersByFileId.get(fileId));
+              }
+            });
+      }
     } finally {
       for (final OPointer containerPointer : containerPointers) {
-        ODirectMemoryAllocator.instance().deallocate(containerPointer);
+        if (containerPointer != null) {
+          ODirectMemoryAllocator.instance().deallocate(containerPointer);
+        }
       }
     }
 
@@ -3205,9 +3277,199 @@ public final class OWOWCache extends OAbstractWriteCache
       }
     }
 
+    flushedPagesSum.add(flushedPages);
+    flushTimeSum.add(System.nanoTime() - flushStart);
+
     return flushedPages;
   }
 
+  private void fillContainer(
+      final List<OQuarto<Long, ByteBuffer, OPointer, OCachePointer>> chunk,
+      final ByteBuffer containerBuffer) {
+    for (final OQuarto<Long, ByteBuffer, OPointer, OCachePointer> quarto : chunk) {
+      final ByteBuffer buffer = quarto.two;
+
+      final OCachePointer pointer = quarto.four;
+
+      addMagicChecksumAndEncryption(
+          extractFileId(pointer.getFileId()), pointer.getPageIndex(), buffer);
+
+      buffer.position(0);
+      containerBuffer.put(buffer);
+    }
+  }
+
+  private int shard(final int intFileId) {
+    return Math.floorMod(intFileId, flushThreads);
+  }
+
+  /**
+   * Splits chunks between flush threads by file id.
+   *
+   * @return indexes of chunks assigned to each flush thread or <code>null</code> if all chunks
+   *     should be processed by the current thread.
+   */
+  private List<List<Integer>> partitionChunks(final int[] chunkFileIds) {
+    if (flushThreads < 2 || chunkFileIds.length < 2) {
+      return null;
+    }
+
+    final List<List<Integer>> chunksByShard = new ArrayList<>(flushThreads);
+    for (int i = 0; i < flushThreads; i++) {
+      chunksByShard.add(new ArrayList<>());
+    }
+
+    for (int i = 0; i < chunkFileIds.length; i++) {
+      chunksByShard.get(shard(chunkFileIds[i])).add(i);
+    }
+
+    chunksByShard.removeIf(List::isEmpty);
+    if (chunksByShard.size() < 2) {
+      return null;
+    }
+
+    return chunksByShard;
+  }
+
+  /**
+   * Runs passed in task for each of the shards, the first shard is processed by the current thread,
+   * the rest by {@link #pagesWriteExecutor}. Returns once all shards are processed.
+   */
+  private <T> void runInParallel(final List<T> shards, final ShardTask<T> task)
+      throws InterruptedException, IOException {
+    final List<Future<Void>> futures = new ArrayList<>(shards.size() - 1);
+    try {
+      for (int i = 1; i < shards.size(); i++) {
+        final T shard = shards.get(i);
+        futures.add(
+            pagesWriteExecutor.submit(
+                () -> {
+                  task.execute(shard);
+                  return null;
+                }));
+      }
+
+      task.execute(shards.get(0));
+    } finally {
+      Throwable error = null;
+      for (final Future<Void> future : futures) {
+        try {
+          future.get();
+        } catch (final ExecutionException e) {
+          if (error == null) {
+            error = e.getCause();
+          }
+        }
+      }
+
+      if (error != null) {
+        if (error instanceof IOException) {
+          throw (IOException) error;
+        }
+        if (error instanceof InterruptedException) {
+          throw (InterruptedException) error;
+        }
+        if (error instanceof RuntimeException) {
+          throw (RuntimeException) error;
+        }
+        if (error instanceof Error) {
+          throw (Error) error;
+        }
+        throw OException.wrapException(
+            new OStorageException("Error during write of pages to the disk"), error);
+      }
+    }
+  }
+
+  /**
+   * Writes chunks of pages of a single file, chunks are sorted by position in file so the file is
+   * written sequentially.
+   */
+  private void writeFile(final long fileId, final List<ORawPair<Long, ByteBuffer>> bufferList)
+      throws InterruptedException, IOException {
+    bufferList.sort((first, second) -> Long.compare(first.first, second.first));
+
+    OClosableEntry<Long, OFile> fileEntry = files.tryAcquire(fileId);
+    while (fileEntry == null) {
+      Thread.yield();
+      fileEntry = files.tryAcquire(fileId);
+    }
+
+    try {
+      fileEntry.get().write(bufferList).await();
+    } finally {
+      files.release(fileEntry);
+    }
+  }
+
+  private void writeFiles(final Map<Long, List<ORawPair<Long, ByteBuffer>>> buffersByFileId)
+      throws InterruptedException, IOException {
+    final List<OClosableEntry<Long, OFile>> acquiredFiles =
+        new ArrayList<>(buffersByFileId.size());
+    final List<IOResult> ioResults = new ArrayList<>(buffersByFileId.size());
+
+    final Iterator<Map.Entry<Long, List<ORawPair<Long, ByteBuffer>>>> filesIterator =
+        buffersByFileId.entrySet().iterator();
+    Map.Entry<Long, List<ORawPair<Long, ByteBuffer>>> entry = null;
+    // acquire as much files as possible and flush data
+    while (true) {
+      if (entry == null) {
+        if (filesIterator.hasNext()) {
+          entry = filesIterator.next();
+        } else {
+          break;
+        }
+      }
+
+      final OClosableEntry<Long, OFile> fileEntry = files.tryAcquire(entry.getKey());
+      if (fileEntry != null) {
+        final OFile file = fileEntry.get();
+
+        final List<ORawPair<Long, ByteBuffer>> bufferList = entry.getValue();
+        bufferList.sort((first, second) -> Long.compare(first.first, second.first));
+
+        ioResults.add(file.write(bufferList));
+        acquiredFiles.add(fileEntry);
+
+        entry = null;
+      } else {
+        assert ioResults.size() == acquiredFiles.size();
+
+        if (!ioResults.isEmpty()) {
+          for (final IOResult ioResult : ioResults) {
+            ioResult.await();
+          }
+
+          for (final OClosableEntry<Long, OFile> closableEntry : acquiredFiles) {
+            files.release(closableEntry);
+          }
+
+          ioResults.clear();
+          acquiredFiles.clear();
+        } else {
+          Thread.yield();
+        }
+      }
+    }
+
+    assert ioResults.size() == acquiredFiles.size();
+
+    if (!ioResults.isEmpty()) {
+      for (final IOResult ioResult : ioResults) {
+        ioResult.await();
+      }
+
+      for (final OClosableEntry<Long, OFile> closableEntry : acquiredFiles) {
+        files.release(closableEntry);
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface ShardTask<T> {
+    void execute(T shard) throws InterruptedException, IOException;
+  }
+
   private void flushExclusiveWriteCache(final CountDownLatch latch, long pagesToFlush)
       throws InterruptedException, IOException {
     final Iterator<PageKey> iterator = exclusiveWritePages.iterator();
@@ -3527,6 +3789,21 @@ public final class OWOWCache extends OAbstractWriteCache
     }
   }
 
+  private static final class PagesWriteThreadFactory implements ThreadFactory {
+    private final AtomicInteger counter = new AtomicInteger();
+
+    private PagesWriteThreadFactory() {}
+
+    @Override
+    public final Thread newThread(final Runnable r) {
+      final Thread thread = new Thread(OStorageAbstract.storageThreadGroup, r);
+      thread.setDaemon(true);
+      thread.setName("OrientDB Write Cache Pages Writer " + counter.incrementAndGet());
+      thread.setUncaughtExceptionHandler(new OUncaughtExceptionHandler());
+      return thread;
+    }
+  }
+
   private static final class CacheEventsPublisherFactory implements ThreadFactory {
 
     private CacheEventsPublisherFactory() {}
@@ -32,6 +32,7 @@ import com.orientechnologies.common.log.OLogManager;
 import com.orientechnologies.common.parser.OSystemVariableResolver;
 import com.orientechnologies.common.serialization.types.OStringSerializer;
 import com.orientechnologies.common.thread.OThreadPoolExecutorWithLogging;
+import com.orientechnologies.orient.core.Orient;
 import com.orientechnologies.orient.core.command.OCommandOutputListener;
 import com.orientechnologies.orient.core.compression.impl.OZIPCompressionUtil;
 import com.orientechnologies.orient.core.config.OContextConfiguration;
@@ -157,6 +158,7 @@ public class OLocalPaginatedStorage extends OAbstractPaginatedStorage {
   private final StorageStartupMetadata startupMetadata;
 
   private final Path storagePath;
+  private volatile Path temporaryPath;
   private final OClosableLinkedContainer<Long, OFile> files;
 
   private Future<?> fuzzyCheckpointTask;
@@ -189,6 +191,8 @@ public class OLocalPaginatedStorage extends OAbstractPaginatedStorage {
             OFileUtils.getPath(new java.io.File(url).getPath()));
 
     storagePath = Paths.get(OIOUtils.getPathFromDatabaseName(sp));
+    temporaryPath =
+        temporaryPath(OGlobalConfiguration.STORAGE_TEMP_PATH.getValueAsString(), name, storagePath);
 
     deleteMaxRetries = OGlobalConfiguration.FILE_DELETE_RETRY.getValueAsInteger();
     deleteWaitTime = OGlobalConfiguration.FILE_DELETE_DELAY.getValueAsInteger();
@@ -256,6 +260,27 @@ public class OLocalPaginatedStorage extends OAbstractPaginatedStorage {
     return storagePath;
   }
 
+  /**
+   * Returns the directory of the temporary files of this storage. It is outside of the storage
+   * directory, so temporary files are never included in backups, and it is emptied when the storage
+   * is opened, so files left by a crash are removed.
+   */
+  public final Path getTemporaryPath() {
+    return temporaryPath;
+  }
+
+  private static Path temporaryPath(
+      final String configuredPath, final String name, final Path storagePath) {
+    final Path root = Paths.get(configuredPath != null ? configuredPath : Orient.getTempPath());
+    // STORAGES WITH THE SAME NAME IN DIFFERENT DIRECTORIES DO NOT SHARE TEMPORARY FILES
+    return root.resolve(
+        name + "-" + Integer.toHexString(storagePath.toAbsolutePath().normalize().hashCode()));
+  }
+
+  private void deleteTemporaryFiles() {
+    OFileUtils.deleteRecursively(temporaryPath.toFile());
+  }
+
   @Override
   public String getType() {
     return OEngineLocalPaginated.NAME;
@@ -272,6 +297,12 @@ public class OLocalPaginatedStorage extends OAbstractPaginatedStorage {
     try {
       if (out == null) throw new IllegalArgumentException("Backup output is null");
 
+      if (getConfiguration()
+          .getContextConfiguration()
+          .getValueAsBoolean(OGlobalConfiguration.STORAGE_ONLINE_BACKUP)) {
+        return onlineBackup(out, callable, iOutput, compressionLevel, bufferSize);
+      }
+
       freeze(false);
       try {
         if (callable != null)
@@ -328,13 +359,60 @@ public class OLocalPaginatedStorage extends OAbstractPaginatedStorage {
     }
   }
 
+  /** Backup which does not freeze writes, pages of files are copied in parallel. */
+  private List<String> onlineBackup(
+      final OutputStream out,
+      final Callable<Object> callable,
+      final OCommandOutputListener iOutput,
+      final int compressionLevel,
+      final int bufferSize)
+      throws IOException {
+    if (callable != null)
+      try {
+        callable.call();
+      } catch (final Exception e) {
+        OLogManager.instance().error(this, "Error on callback invocation during backup", e);
+      }
+
+    final OutputStream bo = bufferSize > 0 ? new BufferedOutputStream(out, bufferSize) : out;
+    try {
+      return onlineBackup(bo, compressionLevel, iOutput);
+    } finally {
+      if (bufferSize > 0) {
+        bo.flush();
+        bo.close();
+      }
+    }
+  }
+
   @Override
   public final void restore(
       final InputStream in,
       final Map<String, Object> options,
       final Callable<Object> callable,
       final OCommandOutputListener iListener) {
+    restore(in, options, callable, iListener, new OContextConfiguration());
+  }
+
+  /**
+   * Restores the storage from the backup.
+   *
+   * @param contextConfiguration configuration used to create or open the storage restored from the
+   *     backup
+   */
+  public final void restore(
+      final InputStream in,
+      final Map<String, Object> options,
+      final Callable<Object> callable,
+      final OCommandOutputListener iListener,
+      final OContextConfiguration contextConfiguration) {
     try {
+      final BufferedInputStream bufferedIn = new BufferedInputStream(in);
+      if (isOnlineBackup(bufferedIn)) {
+        restoreOnlineBackup(bufferedIn, callable, iListener, contextConfiguration);
+        return;
+      }
+
       if (!isClosed()) close(true, false);
       try {
         stateLock.acquireWriteLock();
@@ -356,7 +434,7 @@ public class OLocalPaginatedStorage extends OAbstractPaginatedStorage {
           }
         }
 
-        OZIPCompressionUtil.uncompressDirectory(in, storagePath.toString(), iListener);
+        OZIPCompressionUtil.uncompressDirectory(bufferedIn, storagePath.toString(), iListener);
 
         final java.io.File[] newStorageFiles = dbDir.listFiles();
         if (newStorageFiles != null) {
@@ -388,7 +466,7 @@ public class OLocalPaginatedStorage extends OAbstractPaginatedStorage {
         stateLock.releaseWriteLock();
       }
 
-      open(null, null, new OContextConfiguration());
+      open(null, null, contextConfiguration);
     } catch (final RuntimeException e) {
       throw logAndPrepareForRethrow(e);
     } catch (final Error e) {
@@ -398,6 +476,26 @@ public class OLocalPaginatedStorage extends OAbstractPaginatedStorage {
     }
   }
 
+  private void restoreOnlineBackup(
+      final InputStream in,
+      final Callable<Object> callable,
+      final OCommandOutputListener listener,
+      final OContextConfiguration contextConfiguration) {
+    // files of the backup are restored into the opened storage
+    if (!exists()) {
+      create(contextConfiguration);
+    }
+
+    restoreFromOnlineBackup(in, listener);
+
+    if (callable != null)
+      try {
+        callable.call();
+      } catch (final Exception e) {
+        OLogManager.instance().error(this, "Error on calling callback on database restore", e);
+      }
+  }
+
   @Override
   protected OLogSequenceNumber copyWALToIncrementalBackup(
       final ZipOutputStream zipOutputStream, final long startSegment) throws IOException {
@@ -519,7 +617,11 @@ public class OLocalPaginatedStorage extends OAbstractPaginatedStorage {
         contextConfiguration.getValueAsBoolean(
             OGlobalConfiguration.STORAGE_PRINT_WAL_PERFORMANCE_STATISTICS),
         contextConfiguration.getValueAsInteger(
-            OGlobalConfiguration.STORAGE_PRINT_WAL_PERFORMANCE_INTERVAL));
+            OGlobalConfiguration.STORAGE_PRINT_WAL_PERFORMANCE_INTERVAL),
+        contextConfiguration.getValueAsInteger(OGlobalConfiguration.WAL_GROUP_COMMIT_INTERVAL),
+        contextConfiguration.getValueAsInteger(
+            OGlobalConfiguration.WAL_MIN_COMPRESSED_RECORD_SIZE),
+        contextConfiguration.getValueAsBoolean(OGlobalConfiguration.WAL_HIGH_COMPRESSION));
   }
 
   @Override
@@ -600,6 +702,7 @@ public class OLocalPaginatedStorage extends OAbstractPaginatedStorage {
     String databasePath =
         OIOUtils.getPathFromDatabaseName(OSystemVariableResolver.resolveSystemVariables(url));
     deleteFilesFromDisc(name, deleteMaxRetries, deleteWaitTime, databasePath);
+    deleteTemporaryFiles();
   }
 
   public static void deleteFilesFromDisc(
@@ -680,6 +783,11 @@ public class OLocalPaginatedStorage extends OAbstractPaginatedStorage {
     return true;
   }
 
+  @Override
+  public boolean supportIncremental() {
+    return true;
+  }
+
   @Override
   protected void initIv() throws IOException {
     try (final RandomAccessFile ivFile =
@@ -743,6 +851,13 @@ public class OLocalPaginatedStorage extends OAbstractPaginatedStorage {
             .map(keyEncoded -> Base64.getDecoder().decode(keyEncoded))
             .orElse(null);
 
+    temporaryPath =
+        temporaryPath(
+            contextConfiguration.getValueAsString(OGlobalConfiguration.STORAGE_TEMP_PATH),
+            name,
+            storagePath);
+    deleteTemporaryFiles();
+
     fuzzyCheckpointTask =
         fuzzyCheckpointExecutor.scheduleWithFixedDelay(
             new PeriodicFuzzyCheckpoint(),
@@ -784,7 +899,12 @@ public class OLocalPaginatedStorage extends OAbstractPaginatedStorage {
             contextConfiguration.getValueAsBoolean(
                 OGlobalConfiguration.STORAGE_PRINT_WAL_PERFORMANCE_STATISTICS),
             contextConfiguration.getValueAsInteger(
-                OGlobalConfiguration.STORAGE_PRINT_WAL_PERFORMANCE_INTERVAL));
+                OGlobalConfiguration.STORAGE_PRINT_WAL_PERFORMANCE_INTERVAL),
+            contextConfiguration.getValueAsInteger(
+                OGlobalConfiguration.WAL_GROUP_COMMIT_INTERVAL),
+            contextConfiguration.getValueAsInteger(
+                OGlobalConfiguration.WAL_MIN_COMPRESSED_RECORD_SIZE),
+            contextConfiguration.getValueAsBoolean(OGlobalConfiguration.WAL_HIGH_COMPRESSION));
 
     writeAheadLog = diskWriteAheadLog;
     writeAheadLog.addCheckpointListener(this);
@@ -844,7 +964,9 @@ public class OLocalPaginatedStorage extends OAbstractPaginatedStorage {
                 OGlobalConfiguration.STORAGE_CHECKSUM_MODE, OChecksumMode.class),
             iv,
             aesKey,
-            contextConfiguration.getValueAsBoolean(OGlobalConfiguration.STORAGE_CALL_FSYNC));
+            contextConfiguration.getValueAsBoolean(OGlobalConfiguration.STORAGE_CALL_FSYNC),
+            contextConfiguration.getValueAsInteger(
+                OGlobalConfiguration.DISK_WRITE_CACHE_FLUSH_THREADS));
 
     wowCache.loadRegisteredFiles();
     wowCache.addBackgroundExceptionListener(this);
@@ -23,29 +23,39 @@ package com.orientechnologies.orient.core.storage.impl.local;
 import static com.orientechnologies.orient.core.config.OGlobalConfiguration.RID_BAG_SBTREEBONSAI_DELETE_DELAY;
 
 import com.orientechnologies.common.concur.ONeedRetryException;
+import com.orientechnologies.common.concur.lock.OInterruptedException;
 import com.orientechnologies.common.concur.lock.OLockManager;
 import com.orientechnologies.common.concur.lock.OModificationOperationProhibitedException;
 import com.orientechnologies.common.concur.lock.ONotThreadRWLockManager;
 import com.orientechnologies.common.concur.lock.OPartitionedLockManager;
 import com.orientechnologies.common.concur.lock.OSimpleRWLockManager;
+import com.orientechnologies.common.exception.OErrorCode;
 import com.orientechnologies.common.exception.OException;
 import com.orientechnologies.common.exception.OHighLevelException;
+import com.orientechnologies.common.io.OFileUtils;
 import com.orientechnologies.common.io.OIOException;
+import com.orientechnologies.common.io.OIOUtils;
 import com.orientechnologies.common.log.OLogManager;
 import com.orientechnologies.common.profiler.ModifiableLongProfileHookValue;
 import com.orientechnologies.common.profiler.OProfiler;
 import com.orientechnologies.common.serialization.types.OBinarySerializer;
+import com.orientechnologies.common.serialization.types.OByteSerializer;
 import com.orientechnologies.common.serialization.types.OIntegerSerializer;
+import com.orientechnologies.common.serialization.types.OLongSerializer;
 import com.orientechnologies.common.serialization.types.OUTF8Serializer;
 import com.orientechnologies.common.thread.OScheduledThreadPoolExecutorWithLogging;
+import com.orientechnologies.common.thread.OThreadPoolExecutorWithLogging;
 import com.orientechnologies.common.types.OModifiableBoolean;
 import com.orientechnologies.common.types.OModifiableLong;
 import com.orientechnologies.common.util.*;
 import com.orientechnologies.orient.core.OConstants;
 import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.cache.OSharedRecordCache;
 import com.orientechnologies.orient.core.command.OCommandExecutor;
 import com.orientechnologies.orient.core.command.OCommandOutputListener;
 import com.orientechnologies.orient.core.command.OCommandRequestText;
+import com.orientechnologies.orient.core.compression.OCompression;
+import com.orientechnologies.orient.core.compression.OCompressionFactory;
 import com.orientechnologies.orient.core.config.OContextConfiguration;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.config.OStorageClusterConfiguration;
@@ -59,11 +69,14 @@ import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
 import com.orientechnologies.orient.core.db.OrientDBConfig;
 import com.orientechnologies.orient.core.db.record.OCurrentStorageComponentsFactory;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.db.record.ORecordLazyMultiValue;
 import com.orientechnologies.orient.core.db.record.ORecordOperation;
+import com.orientechnologies.orient.core.db.record.ridbag.ORidBag;
 import com.orientechnologies.orient.core.db.record.ridbag.ORidBagDeleter;
 import com.orientechnologies.orient.core.encryption.OEncryption;
 import com.orientechnologies.orient.core.encryption.OEncryptionFactory;
 import com.orientechnologies.orient.core.encryption.impl.ONothingEncryption;
+import com.orientechnologies.orient.core.exception.OBackupInProgressException;
 import com.orientechnologies.orient.core.exception.OClusterDoesNotExistException;
 import com.orientechnologies.orient.core.exception.OCommandExecutionException;
 import com.orientechnologies.orient.core.exception.OConcurrentCreateException;
@@ -73,8 +86,10 @@ import com.orientechnologies.orient.core.exception.ODatabaseException;
 import com.orientechnologies.orient.core.exception.OFastConcurrentModificationException;
 import com.orientechnologies.orient.core.exception.OInvalidDatabaseNameException;
 import com.orientechnologies.orient.core.exception.OInvalidIndexEngineIdException;
+import com.orientechnologies.orient.core.exception.OInvalidStorageEncryptionKeyException;
 import com.orientechnologies.orient.core.exception.ORecordNotFoundException;
 import com.orientechnologies.orient.core.exception.ORetryQueryException;
+import com.orientechnologies.orient.core.exception.OSecurityException;
 import com.orientechnologies.orient.core.exception.OStorageDoesNotExistException;
 import com.orientechnologies.orient.core.exception.OStorageException;
 import com.orientechnologies.orient.core.exception.OStorageExistsException;
@@ -82,6 +97,7 @@ import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.id.ORecordId;
 import com.orientechnologies.orient.core.index.*;
 import com.orientechnologies.orient.core.index.engine.OBaseIndexEngine;
+import com.orientechnologies.orient.core.index.engine.OIndexBulkLoader;
 import com.orientechnologies.orient.core.index.engine.OIndexEngine;
 import com.orientechnologies.orient.core.index.engine.OMultiValueIndexEngine;
 import com.orientechnologies.orient.core.index.engine.OSingleValueIndexEngine;
@@ -100,6 +116,7 @@ import com.orientechnologies.orient.core.record.ORecordInternal;
 import com.orientechnologies.orient.core.record.ORecordVersionHelper;
 import com.orientechnologies.orient.core.record.impl.OBlob;
 import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.record.impl.ODocumentEntry;
 import com.orientechnologies.orient.core.record.impl.ODocumentInternal;
 import com.orientechnologies.orient.core.serialization.serializer.binary.impl.index.OCompositeKeySerializer;
 import com.orientechnologies.orient.core.serialization.serializer.record.ORecordSerializer;
@@ -160,16 +177,34 @@ import com.orientechnologies.orient.core.tx.OTransactionIndexChangesPerKey;
 import com.orientechnologies.orient.core.tx.OTransactionInternal;
 import com.orientechnologies.orient.core.tx.OTxMetadataHolder;
 import com.orientechnologies.orient.core.tx.OTxMetadataHolderImpl;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.SecureRandom;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
@@ -188,7 +223,12 @@ import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.UUID;
 import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -196,7 +236,15 @@ import java.util.concurrent.locks.Lock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import net.jpountz.xxhash.StreamingXXHash64;
+import net.jpountz.xxhash.XXHashFactory;
 
 /**
  * @author Andrey Lomakin (a.lomakin-at-orientdb.com)
@@ -213,6 +261,33 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
   private static final Comparator<ORecordOperation> COMMIT_RECORD_OPERATION_COMPARATOR =
       Comparator.comparing(o -> o.getRecord().getIdentity());
 
+  private static final String INCREMENTAL_BACKUP_EXTENSION = ".ibu";
+  private static final String INCREMENTAL_BACKUP_DATE_FORMAT = "yyyy-MM-dd-HH-mm-ss";
+  private static final int INCREMENTAL_BACKUP_VERSION = 1;
+
+  /** Version, UUID of database, index of backup, LSN of the last change and flag of full backup */
+  private static final int INCREMENTAL_BACKUP_HEADER_SIZE =
+      OIntegerSerializer.INT_SIZE
+          + 4 * OLongSerializer.LONG_SIZE
+          + OIntegerSerializer.INT_SIZE
+          + OByteSerializer.BYTE_SIZE;
+
+  private static final String INCREMENTAL_BACKUP_WAL_IV = "wal.iv";
+  private static final String INCREMENTAL_BACKUP_ENCRYPTION_IV = "encryption.iv";
+  private static final String INCREMENTAL_BACKUP_METADATA = "tx.metadata";
+  private static final int INCREMENTAL_BACKUP_IV_SIZE = 16;
+
+  private static final String ONLINE_BACKUP_HEADER = "online.backup.header";
+  private static final String ONLINE_BACKUP_MANIFEST = "online.backup.manifest";
+  private static final String ONLINE_BACKUP_PAGES = "pages/";
+  private static final String ONLINE_BACKUP_RESTORE_FILE = "online.backup.restore";
+  private static final int ONLINE_BACKUP_VERSION = 1;
+
+  /** Approximate size of the chunk of pages which is copied and compressed by a single task. */
+  private static final int ONLINE_BACKUP_CHUNK_SIZE = 4 * 1024 * 1024;
+
+  private static final long ONLINE_BACKUP_CHECKSUM_SEED = 0x4F424B50L;
+
   protected static final OScheduledThreadPoolExecutorWithLogging fuzzyCheckpointExecutor;
   // public static final int STORAGE_CONFIGURATION_INDEX_ID = -1;
 
@@ -235,6 +310,7 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
 
   private volatile ThreadLocal<OStorageTransaction> transaction;
   private final AtomicBoolean walVacuumInProgress = new AtomicBoolean();
+  private final AtomicBoolean incrementalBackupInProgress = new AtomicBoolean();
 
   protected volatile OWriteAheadLog writeAheadLog;
   private OStorageRecoverListener recoverListener;
@@ -274,6 +350,9 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
   private final OModifiableLong txRollback = new OModifiableLong();
 
   private final AtomicInteger sessionCount = new AtomicInteger(0);
+
+  /** Cache of records shared by all sessions, <code>null</code> if cache is disabled. */
+  private volatile OSharedRecordCache sharedRecordCache;
   private final AtomicLong lastCloseTime = new AtomicLong(System.currentTimeMillis());
 
   protected AtomicOperationsTable atomicOperationsTable;
@@ -326,6 +405,16 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
   }
 
   public final void open(final OContextConfiguration contextConfiguration) {
+    open(contextConfiguration, null);
+  }
+
+  /**
+   * Opens the storage, if the content of the incremental backup is passed in, data of the storage
+   * are restored from it before the storage configuration and components are loaded.
+   */
+  private void open(
+      final OContextConfiguration contextConfiguration,
+      final IncrementalBackupContent incrementalBackup) {
     try {
       stateLock.acquireReadLock();
       try {
@@ -364,6 +453,7 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
         readIv();
 
         initWalAndDiskCache(contextConfiguration);
+        initSharedRecordCache(contextConfiguration);
         transaction = new ThreadLocal<>();
 
         final StartupMetadata startupMetadata = checkIfStorageDirty();
@@ -392,6 +482,10 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
 
         recoverIfNeeded();
 
+        if (incrementalBackup != null) {
+          restoreFromIncrementalBackup(incrementalBackup, contextConfiguration);
+        }
+
         atomicOperationsManager.executeInsideAtomicOperation(
             null,
             (atomicOperation) -> {
@@ -682,6 +776,7 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
         initIv();
 
         initWalAndDiskCache(contextConfiguration);
+        initSharedRecordCache(contextConfiguration);
 
         atomicOperationsTable =
             new AtomicOperationsTable(
@@ -1996,18 +2091,22 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
           makeStorageDirty();
 
           final OCluster cluster = doGetAndCheckCluster(rid.getClusterId());
-          return atomicOperationsManager.calculateInsideAtomicOperation(
-              null,
-              atomicOperation ->
-                  doUpdateRecord(
-                      atomicOperation,
-                      rid,
-                      updateContent,
-                      content,
-                      version,
-                      recordType,
-                      callback,
-                      cluster));
+          try {
+            return atomicOperationsManager.calculateInsideAtomicOperation(
+                null,
+                atomicOperation ->
+                    doUpdateRecord(
+                        atomicOperation,
+                        rid,
+                        updateContent,
+                        content,
+                        version,
+                        recordType,
+                        callback,
+                        cluster));
+          } finally {
+            invalidateSharedRecordCache(rid);
+          }
         } finally {
           lock.unlock();
         }
@@ -2055,8 +2154,12 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
 
         makeStorageDirty();
 
-        return atomicOperationsManager.calculateInsideAtomicOperation(
-            null, atomicOperation -> doDeleteRecord(atomicOperation, rid, version, cluster));
+        try {
+          return atomicOperationsManager.calculateInsideAtomicOperation(
+              null, atomicOperation -> doDeleteRecord(atomicOperation, rid, version, cluster));
+        } finally {
+          invalidateSharedRecordCache(rid);
+        }
       } finally {
         stateLock.releaseReadLock();
         interruptionManager.exitCriticalPath();
@@ -2326,6 +2429,9 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
         }
       }
 
+      final Map<ORecordOperation, byte[]> serializedRecords =
+          serializeRecordsBeforeCommit(recordOperations, database.getSerializer());
+
       final List<ORecordOperation> result = new ArrayList<>(8);
       stateLock.acquireReadLock();
       try {
@@ -2416,6 +2522,7 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
                   atomicOperation,
                   recordOperation,
                   positions.get(recordOperation),
+                  serializedRecords.get(recordOperation),
                   database.getSerializer());
               result.add(recordOperation);
             }
@@ -2444,6 +2551,15 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
         }
       } finally {
         try {
+          // changes are committed (or rolled back) at this point, so stale copies of records can
+          // not be read any more
+          for (final ORecordOperation recordOperation : recordOperations) {
+            if (recordOperation.type == ORecordOperation.UPDATED
+                || recordOperation.type == ORecordOperation.DELETED) {
+              invalidateSharedRecordCache(recordOperation.getRID());
+            }
+          }
+
           if (modificationLock) {
             final List<ORID> recordLocks = new ArrayList<>();
             for (final ORecordOperation recordOperation : recordOperations) {
@@ -3400,6 +3516,91 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
     ((OV1IndexEngine) engine).put(atomicOperation, key, value);
   }
 
+  /**
+   * Creates {@link OIndexBulkLoader} of the index engine. Changes of the index done from this point
+   * are recorded by the loader and applied again on completion of the load, the loader has to be
+   * closed once it is not needed any more.
+   *
+   * @return loader or {@code null} if the index engine does not support bulk loading
+   * @see OSingleValueIndexEngine#createBulkLoader(OAtomicOperation)
+   * @see #bulkLoadIndex(OIndexBulkLoader, Iterator)
+   */
+  public OIndexBulkLoader<Object> createIndexBulkLoader(int indexId)
+      throws OInvalidIndexEngineIdException {
+    final int engineAPIVersion = extractEngineAPIVersion(indexId);
+    final int internalIndexId = extractInternalId(indexId);
+
+    if (engineAPIVersion != 1 || transaction.get() != null) {
+      return null;
+    }
+
+    try {
+      stateLock.acquireReadLock();
+      try {
+        checkOpenness();
+        checkIndexId(internalIndexId);
+
+        final OBaseIndexEngine engine = indexEngines.get(internalIndexId);
+        assert engine.getId() == internalIndexId;
+
+        if (!(engine instanceof OSingleValueIndexEngine)) {
+          return null;
+        }
+
+        return atomicOperationsManager.calculateInsideAtomicOperation(
+            null, ((OSingleValueIndexEngine) engine)::createBulkLoader);
+      } finally {
+        stateLock.releaseReadLock();
+      }
+    } catch (final OInvalidIndexEngineIdException ie) {
+      throw logAndPrepareForRethrow(ie);
+    } catch (final RuntimeException ee) {
+      throw logAndPrepareForRethrow(ee);
+    } catch (final Error ee) {
+      throw logAndPrepareForRethrow(ee);
+    } catch (final Throwable t) {
+      throw logAndPrepareForRethrow(t);
+    }
+  }
+
+  /**
+   * Fills the index with entries sorted by key using the loader created by {@link
+   * #createIndexBulkLoader(int)}. Every batch of entries is loaded inside of its own atomic
+   * operation.
+   */
+  public void bulkLoadIndex(
+      final OIndexBulkLoader<Object> bulkLoader, final Iterator<ORawPair<Object, ORID>> entries) {
+    try {
+      boolean hasNext = true;
+      while (hasNext) {
+        stateLock.acquireReadLock();
+        try {
+          interruptionManager.enterCriticalPath();
+          checkOpenness();
+          checkIfThreadIsBlocked();
+
+          makeStorageDirty();
+
+          hasNext =
+              atomicOperationsManager.calculateInsideAtomicOperation(
+                  null, atomicOperation -> bulkLoader.load(atomicOperation, entries));
+          if (!hasNext) {
+            atomicOperationsManager.executeInsideAtomicOperation(null, bulkLoader::complete);
+          }
+        } finally {
+          stateLock.releaseReadLock();
+          interruptionManager.exitCriticalPath();
+        }
+      }
+    } catch (final RuntimeException ee) {
+      throw logAndPrepareForRethrow(ee);
+    } catch (final Error ee) {
+      throw logAndPrepareForRethrow(ee);
+    } catch (final Throwable t) {
+      throw logAndPrepareForRethrow(t);
+    }
+  }
+
   public boolean removeRidIndexEntry(int indexId, final Object key, final ORID value)
       throws OInvalidIndexEngineIdException {
     final int engineAPIVersion = extractEngineAPIVersion(indexId);
@@ -5161,6 +5362,20 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
       } catch (IllegalArgumentException e) {
         return null;
       }
+
+      final OSharedRecordCache recordCache = sharedRecordCache;
+      if (recordCache != null && recordCache.isClusterCached(rid.getClusterId())) {
+        final ORawBuffer cached = recordCache.get(rid);
+        if (cached != null) {
+          return cached;
+        }
+
+        final long stamp = recordCache.stamp(rid);
+        final ORawBuffer buff = doReadRecord(cluster, rid, prefetchRecords);
+        recordCache.put(rid, buff, stamp);
+        return buff;
+      }
+
       return doReadRecord(cluster, rid, prefetchRecords);
     } finally {
       try {
@@ -5425,6 +5640,47 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
     }
   }
 
+  /**
+   * Creates shared record cache if it is enabled in configuration of the database. Cache is created
+   * only once, so the same instance is used if storage is reopened.
+   */
+  private void initSharedRecordCache(final OContextConfiguration contextConfiguration) {
+    if (sharedRecordCache != null) {
+      return;
+    }
+
+    final long sharedRecordCacheSize =
+        contextConfiguration.getValueAsLong(OGlobalConfiguration.STORAGE_SHARED_RECORD_CACHE_SIZE)
+            * 1024
+            * 1024;
+    if (sharedRecordCacheSize > 0) {
+      sharedRecordCache =
+          new OSharedRecordCache(
+              sharedRecordCacheSize,
+              contextConfiguration.getValueAsString(
+                  OGlobalConfiguration.STORAGE_SHARED_RECORD_CACHE_CLASSES));
+    }
+  }
+
+  private void invalidateSharedRecordCache(final ORID rid) {
+    final OSharedRecordCache recordCache = sharedRecordCache;
+    if (recordCache != null) {
+      recordCache.invalidate(rid);
+    }
+  }
+
+  private void clearSharedRecordCache() {
+    final OSharedRecordCache recordCache = sharedRecordCache;
+    if (recordCache != null) {
+      recordCache.clear();
+    }
+  }
+
+  /** @return Cache of records shared by all sessions or <code>null</code> if it is disabled */
+  public OSharedRecordCache getSharedRecordCache() {
+    return sharedRecordCache;
+  }
+
   private ORawBuffer doReadRecord(
       final OCluster clusterSegment, final ORecordId rid, final boolean prefetchRecords) {
     try {
@@ -5524,6 +5780,7 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
     }
 
     setCluster(id, cluster);
+    clearSharedRecordCache();
 
     return id;
   }
@@ -5706,6 +5963,7 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
 
     clusterMap.remove(cluster.getName().toLowerCase(configuration.getLocaleInstance()));
     clusters.set(clusterId, null);
+    clearSharedRecordCache();
 
     return false;
   }
@@ -5720,6 +5978,8 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
       return;
     }
 
+    clearSharedRecordCache();
+
     final long timer = Orient.instance().getProfiler().startChrono();
     Map<String, Object> params = new HashMap<>(2);
 
@@ -5913,10 +6173,88 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
     return null;
   }
 
+  /**
+   * Serializes created and updated records of the transaction before any lock is acquired, so the
+   * commit does not spend serialization time while holding the locks of clusters and indexes.
+   * Records which contain links to records created in the same transaction are skipped, because
+   * identities of such records are changed during commit, as well as records which contain ridbags,
+   * because serialization of tree based ridbags requires an active atomic operation. Such records
+   * are serialized during commit.
+   *
+   * @return serialized content of records, mapped by record operations
+   */
+  private static Map<ORecordOperation, byte[]> serializeRecordsBeforeCommit(
+      final Collection<ORecordOperation> recordOperations, final ORecordSerializer serializer) {
+    final Map<ORecordOperation, byte[]> serializedRecords = new IdentityHashMap<>(8);
+    for (final ORecordOperation recordOperation : recordOperations) {
+      if (recordOperation.type != ORecordOperation.CREATED
+          && recordOperation.type != ORecordOperation.UPDATED) {
+        continue;
+      }
+
+      final ORecord record = recordOperation.getRecord();
+      if (!record.isDirty()) {
+        continue;
+      }
+
+      if (record instanceof ODocument && !canBeSerializedBeforeCommit((ODocument) record)) {
+        continue;
+      }
+
+      serializedRecords.put(recordOperation, serializer.toStream(record));
+    }
+
+    return serializedRecords;
+  }
+
+  private static boolean canBeSerializedBeforeCommit(final ODocument document) {
+    for (final Map.Entry<String, ODocumentEntry> entry : ODocumentInternal.rawEntries(document)) {
+      if (entry.getValue().exists() && !canBeSerializedBeforeCommit(entry.getValue().value)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean canBeSerializedBeforeCommit(final Object value) {
+    if (value instanceof ORidBag) {
+      return false;
+    }
+
+    if (value instanceof ODocument && ((ODocument) value).isEmbedded()) {
+      return canBeSerializedBeforeCommit((ODocument) value);
+    }
+
+    if (value instanceof OIdentifiable) {
+      return ((OIdentifiable) value).getIdentity().isPersistent();
+    }
+
+    final Iterator<?> iterator;
+    if (value instanceof ORecordLazyMultiValue) {
+      iterator = ((ORecordLazyMultiValue) value).rawIterator();
+    } else if (value instanceof Map) {
+      iterator = ((Map<?, ?>) value).values().iterator();
+    } else if (value instanceof Collection) {
+      iterator = ((Collection<?>) value).iterator();
+    } else if (value instanceof Object[]) {
+      iterator = Arrays.asList((Object[]) value).iterator();
+    } else {
+      return true;
+    }
+
+    while (iterator.hasNext()) {
+      if (!canBeSerializedBeforeCommit(iterator.next())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private void commitEntry(
       final OAtomicOperation atomicOperation,
       final ORecordOperation txEntry,
       final OPhysicalPosition allocated,
+      final byte[] serializedRecord,
       final ORecordSerializer serializer) {
     final ORecord rec = txEntry.getRecord();
     if (txEntry.type != ORecordOperation.DELETED && !rec.isDirty())
@@ -5948,7 +6286,8 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
           break;
         case ORecordOperation.CREATED:
           {
-            final byte[] stream = serializer.toStream(rec);
+            final byte[] stream =
+                serializedRecord != null ? serializedRecord : serializer.toStream(rec);
             if (allocated != null) {
               final OPhysicalPosition ppos;
               final byte recordType = ORecordInternal.getRecordType(rec);
@@ -5987,7 +6326,8 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
           }
         case ORecordOperation.UPDATED:
           {
-            final byte[] stream = serializer.toStream(rec);
+            final byte[] stream =
+                serializedRecord != null ? serializedRecord : serializer.toStream(rec);
 
             final OStorageOperationResult<Integer> updateRes =
                 doUpdateRecord(
@@ -6056,12 +6396,81 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
     }
   }
 
-  @SuppressWarnings("CanBeFinal")
   @Override
   public String incrementalBackup(final String backupDirectory, final OCallable<Void, Void> started)
       throws UnsupportedOperationException {
-    throw new UnsupportedOperationException(
-        "Incremental backup is supported only in enterprise version");
+    checkIncrementalBackupSupport();
+
+    try {
+      checkOpenness();
+
+      final File directory = new File(backupDirectory);
+      if (!directory.exists() && !directory.mkdirs()) {
+        throw new OStorageException(
+            "Backup directory "
+                + directory.getAbsolutePath()
+                + " does not exist and can not be created");
+      }
+
+      final List<IncrementalBackupFile> backups = fetchIncrementalBackups(directory);
+      final IncrementalBackupFile lastBackup =
+          backups.isEmpty() ? null : backups.get(backups.size() - 1);
+      if (lastBackup != null && !lastBackup.uuid.equals(uuid)) {
+        throw new OStorageException(
+            "Directory "
+                + directory.getAbsolutePath()
+                + " contains incremental backup of another database");
+      }
+
+      final long index = lastBackup == null ? 0 : lastBackup.index + 1;
+      final OLogSequenceNumber fromLsn = lastBackup == null ? null : lastBackup.lsn;
+
+      final String fileName =
+          name
+              + "_"
+              + new SimpleDateFormat(INCREMENTAL_BACKUP_DATE_FORMAT).format(new Date())
+              + "_"
+              + index
+              + (fromLsn == null ? "_full" : "")
+              + INCREMENTAL_BACKUP_EXTENSION;
+      final File backupFile = new File(directory, fileName);
+
+      if (started != null) {
+        started.call(null);
+      }
+
+      boolean completed = false;
+      try (final FileChannel channel =
+          FileChannel.open(
+              backupFile.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+        channel.position(INCREMENTAL_BACKUP_HEADER_SIZE);
+        final OLogSequenceNumber lastLsn =
+            incrementalBackup(Channels.newOutputStream(channel), fromLsn);
+
+        // header is written the last, so backups which were not completed are ignored
+        final IncrementalBackupFile backup =
+            new IncrementalBackupFile(backupFile, uuid, index, lastLsn, fromLsn == null);
+        OIOUtils.writeByteBuffer(backup.header(), channel, 0);
+        channel.force(true);
+        completed = true;
+      } finally {
+        if (!completed) {
+          Files.deleteIfExists(backupFile.toPath());
+        }
+      }
+
+      return fileName;
+    } catch (final IOException e) {
+      throw logAndPrepareForRethrow(
+          OException.wrapException(
+              new OStorageException("Error during incremental backup of storage " + name), e));
+    } catch (final RuntimeException e) {
+      throw logAndPrepareForRethrow(e);
+    } catch (final Error e) {
+      throw logAndPrepareForRethrow(e);
+    } catch (final Throwable t) {
+      throw logAndPrepareForRethrow(t);
+    }
   }
 
   @Override
@@ -6072,68 +6481,1463 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
   @Override
   public void fullIncrementalBackup(final OutputStream stream)
       throws UnsupportedOperationException {
-    throw new UnsupportedOperationException(
-        "Incremental backup is supported only in enterprise version");
+    checkIncrementalBackupSupport();
+
+    try {
+      checkOpenness();
+      incrementalBackup(stream, null);
+    } catch (final IOException e) {
+      throw logAndPrepareForRethrow(
+          OException.wrapException(
+              new OStorageException("Error during incremental backup of storage " + name), e));
+    } catch (final RuntimeException e) {
+      throw logAndPrepareForRethrow(e);
+    } catch (final Error e) {
+      throw logAndPrepareForRethrow(e);
+    } catch (final Throwable t) {
+      throw logAndPrepareForRethrow(t);
+    }
   }
 
-  @SuppressWarnings("CanBeFinal")
   @Override
   public void restoreFromIncrementalBackup(final String filePath) {
-    throw new UnsupportedOperationException(
-        "Incremental backup is supported only in enterprise version");
+    checkIncrementalBackupSupport();
+
+    final File directory = new File(filePath);
+    if (!directory.exists()) {
+      throw new OStorageException(
+          "Directory which should contain incremental backup files (files with extension '"
+              + INCREMENTAL_BACKUP_EXTENSION
+              + "') is absent. It should be located at '"
+              + directory.getAbsolutePath()
+              + "'");
+    }
+
+    final List<IncrementalBackupFile> backups = fetchIncrementalBackups(directory);
+    if (backups.isEmpty()) {
+      throw new OStorageException(
+          "Cannot find incremental backup files (files with extension '"
+              + INCREMENTAL_BACKUP_EXTENSION
+              + "') in directory '"
+              + directory.getAbsolutePath()
+              + "'");
+    }
+
+    final IncrementalBackupFile fullBackup = backups.get(0);
+    if (!fullBackup.full) {
+      throw new OStorageException(
+          "Incremental backup in directory '"
+              + directory.getAbsolutePath()
+              + "' does not start from the full backup");
+    }
+
+    for (int i = 1; i < backups.size(); i++) {
+      final IncrementalBackupFile backup = backups.get(i);
+      if (!backup.uuid.equals(fullBackup.uuid) || backup.index != fullBackup.index + i) {
+        throw new OStorageException(
+            "Incremental backup file "
+                + backup.file.getName()
+                + " does not continue backup "
+                + backups.get(i - 1).file.getName());
+      }
+    }
+
+    restoreFromIncrementalBackup(
+        contextConfiguration -> {
+          OLogSequenceNumber lastLsn = null;
+          for (final IncrementalBackupFile backup : backups) {
+            OLogManager.instance()
+                .infoNoDb(this, "Restore data of storage %s from %s", name, backup.file.getName());
+            try (final InputStream stream = backup.openContent()) {
+              lastLsn =
+                  maxLsn(
+                      lastLsn,
+                      restoreIncrementalBackupContent(stream, backup.full, contextConfiguration));
+            }
+          }
+          return lastLsn;
+        });
   }
 
   @Override
   public void restoreFullIncrementalBackup(final InputStream stream)
       throws UnsupportedOperationException {
-    throw new UnsupportedOperationException(
-        "Incremental backup is supported only in enterprise version");
+    checkIncrementalBackupSupport();
+
+    restoreFromIncrementalBackup(
+        contextConfiguration ->
+            restoreIncrementalBackupContent(stream, true, contextConfiguration));
   }
 
-  private OLogSequenceNumber restoreFromBeginning() throws IOException {
-    OLogManager.instance().info(this, "Data restore procedure is started.");
+  private void checkIncrementalBackupSupport() {
+    if (!supportIncremental()) {
+      throw new UnsupportedOperationException(
+          "Incremental backup is not supported by storage " + name);
+    }
+  }
 
-    final OLogSequenceNumber lsn = writeAheadLog.begin();
+  /**
+   * Writes content of incremental backup into the stream. Pages which were changed after the
+   * passed in LSN (all pages if LSN is <code>null</code>) are copied into the backup, writes are
+   * allowed during the backup, so pages are copied in fuzzy state and changes of WAL which are done
+   * since the start of the backup are copied after them.
+   *
+   * @return LSN of the last change which is contained in the backup
+   */
+  private OLogSequenceNumber incrementalBackup(
+      final OutputStream stream, final OLogSequenceNumber fromLsn) throws IOException {
+    if (!incrementalBackupInProgress.compareAndSet(false, true)) {
+      throw new OBackupInProgressException(
+          "Incremental backup of storage " + name + " is already in progress",
+          name,
+          OErrorCode.BACKUP_IN_PROGRESS);
+    }
 
-    writeCache.restoreModeOn();
     try {
-      final int nextOperationId;
+      stateLock.acquireReadLock();
+      try {
+        checkOpenness();
 
-      if (OGlobalConfiguration.STORAGE_CHECK_LATEST_OPERATION_ID.getValueAsBoolean()) {
-        OLogManager.instance()
-            .infoNoDb(
-                this,
-                "Storage %s , scan all pages to "
-                    + "find the latest operation stored into the files,"
-                    + " if you wish to skip this step to speed up data restore but"
-                    + " decrease durability guarantees please set flag %s to the false",
-                name,
-                OGlobalConfiguration.STORAGE_CHECK_LATEST_OPERATION_ID.getKey());
+        final long freezeId;
+        if (isWriteAllowedDuringIncrementalBackup()) {
+          freezeId = -1;
+        } else {
+          freezeId =
+              atomicOperationsManager.freezeAtomicOperations(
+                  OModificationOperationProhibitedException.class,
+                  "Incremental backup in progress");
+        }
 
-        nextOperationId = fetchNextOperationId();
-        assert nextOperationId >= 0;
-      } else {
-        nextOperationId = Integer.MIN_VALUE;
-      }
+        try {
+          final ZipOutputStream zipOutputStream =
+              new ZipOutputStream(new BufferedOutputStream(stream));
 
-      return restoreFrom(writeAheadLog, lsn, nextOperationId);
-    } finally {
-      writeCache.restoreModeOff();
-    }
-  }
+          final OLogSequenceNumber startLsn;
+          final long startSegment;
+          final long segmentFreezeId = atomicOperationsManager.freezeAtomicOperations(null, null);
+          try {
+            startLsn =
+                Optional.ofNullable(writeAheadLog.end()).orElse(new OLogSequenceNumber(0, 0));
+            writeAheadLog.addCutTillLimit(startLsn);
+            writeAheadLog.appendNewSegment();
+            startSegment = writeAheadLog.activeSegment();
+          } finally {
+            atomicOperationsManager.releaseAtomicOperations(segmentFreezeId);
+          }
 
-  protected OLogSequenceNumber restoreFrom(
-      OWriteAheadLog writeAheadLog, OLogSequenceNumber lsn, int nextOperationId)
-      throws IOException {
-    OLogSequenceNumber logSequenceNumber = null;
-    final OModifiableBoolean atLeastOnePageUpdate = new OModifiableBoolean();
+          try {
+            final byte[] aesKey =
+                incrementalBackupKey(getConfiguration().getContextConfiguration());
 
-    long recordsProcessed = 0;
+            final byte[] walIv = getIv();
+            if (walIv != null) {
+              writeBackupEntry(zipOutputStream, INCREMENTAL_BACKUP_WAL_IV, walIv);
+            }
 
-    final int reportBatchSize =
-        OGlobalConfiguration.WAL_REPORT_AFTER_OPERATIONS_DURING_RESTORE.getValueAsInteger();
-    final Map<Long, List<OWALRecord>> operationUnits = new HashMap<>(1024);
-    final Map<Long, byte[]> operationMetadata = new LinkedHashMap<>(1024);
+            byte[] encryptionIv = null;
+            if (aesKey != null) {
+              encryptionIv = new byte[INCREMENTAL_BACKUP_IV_SIZE];
+              new SecureRandom().nextBytes(encryptionIv);
+              writeBackupEntry(zipOutputStream, INCREMENTAL_BACKUP_ENCRYPTION_IV, encryptionIv);
+            }
+
+            final byte[] metadata = lastMetadata;
+            if (metadata != null) {
+              writeBackupEntry(zipOutputStream, INCREMENTAL_BACKUP_METADATA, metadata);
+            }
+
+            OLogSequenceNumber lastLsn =
+                backupChangedPages(zipOutputStream, fromLsn, encryptionIv, aesKey);
+            lastLsn = maxLsn(lastLsn, copyWALToIncrementalBackup(zipOutputStream, startSegment));
+
+            zipOutputStream.finish();
+            zipOutputStream.flush();
+
+            return lastLsn;
+          } finally {
+            writeAheadLog.removeCutTillLimit(startLsn);
+          }
+        } finally {
+          if (freezeId >= 0) {
+            atomicOperationsManager.releaseAtomicOperations(freezeId);
+          }
+        }
+      } finally {
+        stateLock.releaseReadLock();
+      }
+    } finally {
+      incrementalBackupInProgress.set(false);
+    }
+  }
+
+  /**
+   * Each file is written as a separate entry which contains id of the file and the changed pages,
+   * every page is prefixed by its index. Entries are written also for files without changes, so
+   * files which were deleted since the previous backup can be found during restore.
+   */
+  private OLogSequenceNumber backupChangedPages(
+      final ZipOutputStream stream,
+      final OLogSequenceNumber fromLsn,
+      final byte[] encryptionIv,
+      final byte[] aesKey)
+      throws IOException {
+    OLogSequenceNumber lastLsn = fromLsn;
+
+    final int pageSize = writeCache.pageSize();
+    final byte[] data = new byte[OLongSerializer.LONG_SIZE + pageSize];
+
+    for (final Map.Entry<String, Long> entry : writeCache.files().entrySet()) {
+      final long fileId = writeCache.externalFileId(writeCache.internalFileId(entry.getValue()));
+
+      stream.putNextEntry(new ZipEntry(entry.getKey()));
+      OLongSerializer.INSTANCE.serializeNative(fileId, data, 0);
+      stream.write(data, 0, OLongSerializer.LONG_SIZE);
+
+      final long filledUpTo = writeCache.getFilledUpTo(fileId);
+      for (int pageIndex = 0; pageIndex < filledUpTo; pageIndex++) {
+        final OLogSequenceNumber pageLsn = copyBackupPage(fileId, pageIndex, fromLsn, data);
+        if (pageLsn == null) {
+          break;
+        }
+
+        if (fromLsn == null || pageLsn.compareTo(fromLsn) > 0) {
+          OLongSerializer.INSTANCE.serializeNative(pageIndex, data, 0);
+          if (aesKey != null) {
+            encryptBackupPage(
+                Cipher.ENCRYPT_MODE,
+                aesKey,
+                encryptionIv,
+                writeCache.internalFileId(fileId),
+                pageIndex,
+                data);
+          }
+
+          stream.write(data);
+          lastLsn = maxLsn(lastLsn, pageLsn);
+        }
+      }
+
+      stream.closeEntry();
+    }
+
+    return lastLsn;
+  }
+
+  /**
+   * Copies content of the page into the buffer after the place reserved for the index of the page,
+   * if the page was changed after the passed in LSN (or LSN is <code>null</code>).
+   *
+   * @return LSN of the page or <code>null</code> if the page does not exist
+   */
+  private OLogSequenceNumber copyBackupPage(
+      final long fileId, final int pageIndex, final OLogSequenceNumber fromLsn, final byte[] data)
+      throws IOException {
+    final OCacheEntry cacheEntry = readCache.silentLoadForRead(fileId, pageIndex, writeCache, true);
+    if (cacheEntry == null) {
+      return null;
+    }
+
+    cacheEntry.acquireSharedLock();
+    try {
+      final ByteBuffer buffer = cacheEntry.getCachePointer().getBufferDuplicate();
+      final OLogSequenceNumber pageLsn = ODurablePage.getLogSequenceNumberFromPage(buffer);
+      if (fromLsn == null || pageLsn.compareTo(fromLsn) > 0) {
+        ODurablePage.getPageData(
+            buffer, data, OLongSerializer.LONG_SIZE, data.length - OLongSerializer.LONG_SIZE);
+      }
+      return pageLsn;
+    } finally {
+      cacheEntry.releaseSharedLock();
+      readCache.releaseFromRead(cacheEntry, writeCache);
+    }
+  }
+
+  private void restoreFromIncrementalBackup(final IncrementalBackupContent incrementalBackup) {
+    try {
+      final OContextConfiguration contextConfiguration =
+          configuration != null
+              ? configuration.getContextConfiguration()
+              : new OContextConfiguration();
+      if (!isClosed()) {
+        close(true, false);
+      }
+
+      open(contextConfiguration, incrementalBackup);
+    } catch (final RuntimeException e) {
+      throw logAndPrepareForRethrow(e);
+    } catch (final Error e) {
+      throw logAndPrepareForRethrow(e);
+    } catch (final Throwable t) {
+      throw logAndPrepareForRethrow(t);
+    }
+  }
+
+  /**
+   * Called during open of the storage, before storage configuration is loaded. After the data are
+   * restored LSN of the WAL is moved after the last restored change, otherwise pages changed after
+   * restore could be skipped during crash recovery.
+   */
+  private void restoreFromIncrementalBackup(
+      final IncrementalBackupContent incrementalBackup,
+      final OContextConfiguration contextConfiguration)
+      throws IOException {
+    final OLogSequenceNumber lastLsn;
+
+    writeCache.restoreModeOn();
+    try {
+      lastLsn = incrementalBackup.restore(contextConfiguration);
+    } finally {
+      writeCache.restoreModeOff();
+    }
+
+    if (lastLsn != null) {
+      writeAheadLog.moveLsnAfter(lastLsn);
+    }
+    flushAllData();
+  }
+
+  private OLogSequenceNumber restoreIncrementalBackupContent(
+      final InputStream stream,
+      final boolean fullBackup,
+      final OContextConfiguration contextConfiguration)
+      throws IOException {
+    final byte[] aesKey = incrementalBackupKey(contextConfiguration);
+
+    if (fullBackup) {
+      for (final long fileId : new ArrayList<>(writeCache.files().values())) {
+        readCache.deleteFile(fileId, writeCache);
+      }
+    }
+
+    OLogSequenceNumber lastLsn = null;
+    final Set<String> restoredFiles = new HashSet<>();
+    final File walDirectory = createWalTempDirectory();
+    try {
+      final ZipInputStream zipInputStream = new ZipInputStream(new BufferedInputStream(stream));
+
+      byte[] walIv = null;
+      byte[] encryptionIv = null;
+
+      ZipEntry zipEntry;
+      while ((zipEntry = zipInputStream.getNextEntry()) != null) {
+        final String entryName = zipEntry.getName();
+        if (entryName.equals(INCREMENTAL_BACKUP_WAL_IV)) {
+          walIv = readBackupEntry(zipInputStream);
+        } else if (entryName.equals(INCREMENTAL_BACKUP_ENCRYPTION_IV)) {
+          encryptionIv = readBackupEntry(zipInputStream);
+        } else if (entryName.equals(INCREMENTAL_BACKUP_METADATA)) {
+          lastMetadata = readBackupEntry(zipInputStream);
+        } else if (entryName.endsWith(OWriteAheadLog.WAL_SEGMENT_EXTENSION)) {
+          addBackupWALSegment(entryName, zipInputStream, walDirectory);
+        } else {
+          if (aesKey != null && encryptionIv == null) {
+            throw new OStorageException(
+                "Incremental backup is not encrypted, but encryption key is provided");
+          }
+          if (aesKey == null && encryptionIv != null) {
+            throw new OStorageException(
+                "Incremental backup is encrypted, but encryption key is absent");
+          }
+
+          lastLsn =
+              maxLsn(
+                  lastLsn, restoreBackupPages(zipInputStream, entryName, encryptionIv, aesKey));
+          restoredFiles.add(entryName);
+        }
+      }
+
+      // files which are absent in backup were deleted
+      for (final Map.Entry<String, Long> file : new ArrayList<>(writeCache.files().entrySet())) {
+        if (!restoredFiles.contains(file.getKey())) {
+          readCache.deleteFile(file.getValue(), writeCache);
+        }
+      }
+
+      lastLsn = maxLsn(lastLsn, restoreFromBackupWAL(walDirectory, contextConfiguration, walIv));
+    } finally {
+      OFileUtils.deleteRecursively(walDirectory);
+    }
+
+    return lastLsn;
+  }
+
+  /** Copies WAL segment of the backup into the directory, segment is renamed after the storage. */
+  private void addBackupWALSegment(
+      final String entryName, final InputStream stream, final File walDirectory)
+      throws IOException {
+    final int segmentIndex =
+        entryName.lastIndexOf(
+            ".", entryName.length() - OWriteAheadLog.WAL_SEGMENT_EXTENSION.length() - 1);
+    if (segmentIndex < 0) {
+      throw new OStorageException("Can not find index of WAL segment " + entryName);
+    }
+
+    addFileToDirectory(name + entryName.substring(segmentIndex), stream, walDirectory);
+  }
+
+  /**
+   * Applies changes of the WAL copied from the backup.
+   *
+   * @return LSN of the last applied change or <code>null</code> if WAL is empty
+   */
+  private OLogSequenceNumber restoreFromBackupWAL(
+      final File walDirectory,
+      final OContextConfiguration contextConfiguration,
+      final byte[] walIv)
+      throws IOException {
+    final OWriteAheadLog restoreLog =
+        createWalFromIBUFiles(walDirectory, contextConfiguration, Locale.getDefault(), walIv);
+    if (restoreLog == null) {
+      return null;
+    }
+
+    try {
+      final OLogSequenceNumber beginLsn = restoreLog.begin();
+      if (beginLsn == null) {
+        return null;
+      }
+
+      restoreFrom(restoreLog, beginLsn, Integer.MIN_VALUE);
+      return restoreLog.end();
+    } finally {
+      restoreLog.delete();
+    }
+  }
+
+  private OLogSequenceNumber restoreBackupPages(
+      final InputStream stream,
+      final String fileName,
+      final byte[] encryptionIv,
+      final byte[] aesKey)
+      throws IOException {
+    final byte[] binaryFileId = new byte[OLongSerializer.LONG_SIZE];
+    OIOUtils.readFully(stream, binaryFileId, 0, binaryFileId.length);
+    final long expectedFileId = OLongSerializer.INSTANCE.deserializeNative(binaryFileId, 0);
+
+    long fileId;
+    if (writeCache.exists(fileName)) {
+      fileId = writeCache.fileIdByName(fileName);
+      if (!writeCache.fileIdsAreEqual(expectedFileId, fileId)) {
+        // file was deleted and created again
+        readCache.deleteFile(fileId, writeCache);
+        fileId = readCache.addFile(fileName, expectedFileId, writeCache);
+      }
+    } else {
+      fileId = readCache.addFile(fileName, expectedFileId, writeCache);
+    }
+
+    OLogSequenceNumber lastLsn = null;
+    final int pageSize = writeCache.pageSize();
+    final byte[] data = new byte[OLongSerializer.LONG_SIZE + pageSize];
+    while (readPage(stream, data, fileName)) {
+      final long pageIndex = OLongSerializer.INSTANCE.deserializeNative(data, 0);
+      if (aesKey != null) {
+        encryptBackupPage(
+            Cipher.DECRYPT_MODE,
+            aesKey,
+            encryptionIv,
+            writeCache.internalFileId(fileId),
+            pageIndex,
+            data);
+      }
+
+      OCacheEntry cacheEntry =
+          readCache.loadForWrite(fileId, pageIndex, true, writeCache, true, null);
+      if (cacheEntry == null) {
+        do {
+          if (cacheEntry != null) {
+            readCache.releaseFromWrite(cacheEntry, writeCache, true);
+          }
+
+          cacheEntry = readCache.allocateNewPage(fileId, writeCache, null);
+        } while (cacheEntry.getPageIndex() != pageIndex);
+      }
+
+      try {
+        final ByteBuffer buffer = cacheEntry.getCachePointer().getBuffer();
+        buffer.position(0);
+        buffer.put(data, OLongSerializer.LONG_SIZE, pageSize);
+      } finally {
+        readCache.releaseFromWrite(cacheEntry, writeCache, true);
+      }
+
+      lastLsn =
+          maxLsn(lastLsn, ODurablePage.getLogSequenceNumber(OLongSerializer.LONG_SIZE, data));
+    }
+
+    return lastLsn;
+  }
+
+  /** @return <code>false</code> if end of the entry is reached */
+  private static boolean readPage(
+      final InputStream stream, final byte[] data, final String fileName) throws IOException {
+    int read = 0;
+    while (read < data.length) {
+      final int bytes = stream.read(data, read, data.length - read);
+      if (bytes == -1) {
+        if (read > 0) {
+          throw new OStorageException(
+              "Incremental backup is broken, page of file " + fileName + " is incomplete");
+        }
+        return false;
+      }
+      read += bytes;
+    }
+    return true;
+  }
+
+  /**
+   * Pages are encrypted by AES in CTR mode. Initialization vector of every page is unique inside of
+   * the backup, it is built from the random vector of the backup, id of the file and index of the
+   * page, the last 4 bytes are left for the block counter.
+   */
+  private static void encryptBackupPage(
+      final int mode,
+      final byte[] aesKey,
+      final byte[] encryptionIv,
+      final long fileId,
+      final long pageIndex,
+      final byte[] data) {
+    final byte[] pageIv = Arrays.copyOf(encryptionIv, INCREMENTAL_BACKUP_IV_SIZE);
+    for (int i = 0; i < OIntegerSerializer.INT_SIZE; i++) {
+      pageIv[i] ^= (byte) (fileId >>> (8 * i));
+      pageIv[i + OIntegerSerializer.INT_SIZE] ^= (byte) (pageIndex >>> (8 * i));
+      pageIv[i + 3 * OIntegerSerializer.INT_SIZE] = 0;
+    }
+
+    try {
+      final Cipher cipher = Cipher.getInstance("AES/CTR/NoPadding");
+      cipher.init(mode, new SecretKeySpec(aesKey, "AES"), new IvParameterSpec(pageIv));
+      cipher.doFinal(
+          data,
+          OLongSerializer.LONG_SIZE,
+          data.length - OLongSerializer.LONG_SIZE,
+          data,
+          OLongSerializer.LONG_SIZE);
+    } catch (final InvalidKeyException e) {
+      throw OException.wrapException(new OInvalidStorageEncryptionKeyException(e.getMessage()), e);
+    } catch (final GeneralSecurityException e) {
+      throw OException.wrapException(
+          new OSecurityException("Error during encryption of incremental backup"), e);
+    }
+  }
+
+  private static byte[] incrementalBackupKey(final OContextConfiguration contextConfiguration) {
+    final String aesKeyEncoded =
+        contextConfiguration.getValueAsString(OGlobalConfiguration.STORAGE_ENCRYPTION_KEY);
+    if (aesKeyEncoded == null) {
+      return null;
+    }
+
+    return Base64.getDecoder().decode(aesKeyEncoded);
+  }
+
+  private static void writeBackupEntry(
+      final ZipOutputStream stream, final String entryName, final byte[] content)
+      throws IOException {
+    stream.putNextEntry(new ZipEntry(entryName));
+    stream.write(content);
+    stream.closeEntry();
+  }
+
+  private static byte[] readBackupEntry(final InputStream stream) throws IOException {
+    final ByteArrayOutputStream content = new ByteArrayOutputStream();
+    OIOUtils.copyStream(stream, content, -1);
+    return content.toByteArray();
+  }
+
+  private static OLogSequenceNumber maxLsn(
+      final OLogSequenceNumber first, final OLogSequenceNumber second) {
+    if (first == null) {
+      return second;
+    }
+    if (second == null) {
+      return first;
+    }
+    return first.compareTo(second) >= 0 ? first : second;
+  }
+
+  /**
+   * Returns backups which are stored in the directory, sorted by their index. Files which were not
+   * completed have empty header and are skipped.
+   */
+  private List<IncrementalBackupFile> fetchIncrementalBackups(final File directory) {
+    final File[] files =
+        directory.listFiles(
+            (dir, fileName) ->
+                fileName.toLowerCase(Locale.ENGLISH).endsWith(INCREMENTAL_BACKUP_EXTENSION));
+    if (files == null) {
+      return Collections.emptyList();
+    }
+
+    final List<IncrementalBackupFile> backups = new ArrayList<>(files.length);
+    for (final File file : files) {
+      final IncrementalBackupFile backup = IncrementalBackupFile.read(file);
+      if (backup != null) {
+        backups.add(backup);
+      } else {
+        OLogManager.instance()
+            .warnNoDb(this, "File %s is not completed incremental backup and is skipped", file);
+      }
+    }
+
+    backups.sort(Comparator.comparingLong(backup -> backup.index));
+    return backups;
+  }
+
+  /**
+   * Writes online backup of the storage into the stream. Writes are not frozen during the backup,
+   * files are split into chunks of pages which are copied and compressed in parallel in fuzzy
+   * state. WAL written since the start of the backup is added after the pages, so the restored
+   * storage is consistent.
+   *
+   * <p>Backup is a ZIP archive. It starts from the header which lists the backed up files, chunks
+   * of pages and WAL segments follow it. Manifest with LSN of the last change and checksums of the
+   * files is written the last, so backups which were not completed can not be restored.
+   *
+   * @return names of the backed up files
+   */
+  public final List<String> onlineBackup(
+      final OutputStream stream, final int compressionLevel, final OCommandOutputListener listener)
+      throws IOException {
+    if (!incrementalBackupInProgress.compareAndSet(false, true)) {
+      throw new OBackupInProgressException(
+          "Backup of storage " + name + " is already in progress",
+          name,
+          OErrorCode.BACKUP_IN_PROGRESS);
+    }
+
+    try {
+      stateLock.acquireReadLock();
+      try {
+        checkOpenness();
+
+        final OContextConfiguration contextConfiguration =
+            getConfiguration().getContextConfiguration();
+        final OCompression compression =
+            OCompressionFactory.INSTANCE.getCompression(
+                contextConfiguration.getValueAsString(
+                    OGlobalConfiguration.STORAGE_ONLINE_BACKUP_COMPRESSION),
+                null);
+        final byte[] aesKey = incrementalBackupKey(contextConfiguration);
+
+        final ZipOutputStream zipOutputStream = new ZipOutputStream(stream);
+        zipOutputStream.setComment("OrientDB Backup executed on " + new Date());
+        zipOutputStream.setLevel(compressionLevel);
+
+        final OLogSequenceNumber startLsn;
+        final long startSegment;
+        final List<OnlineBackupFile> files = new ArrayList<>();
+
+        // list of files is consistent with the WAL, files created later are restored from the WAL
+        final long segmentFreezeId = atomicOperationsManager.freezeAtomicOperations(null, null);
+        try {
+          startLsn = Optional.ofNullable(writeAheadLog.end()).orElse(new OLogSequenceNumber(0, 0));
+          writeAheadLog.addCutTillLimit(startLsn);
+          writeAheadLog.appendNewSegment();
+          startSegment = writeAheadLog.activeSegment();
+
+          for (final Map.Entry<String, Long> entry : writeCache.files().entrySet()) {
+            final long fileId =
+                writeCache.externalFileId(writeCache.internalFileId(entry.getValue()));
+            files.add(
+                new OnlineBackupFile(entry.getKey(), fileId, writeCache.getFilledUpTo(fileId)));
+          }
+        } finally {
+          atomicOperationsManager.releaseAtomicOperations(segmentFreezeId);
+        }
+
+        try {
+          byte[] encryptionIv = null;
+          if (aesKey != null) {
+            encryptionIv = new byte[INCREMENTAL_BACKUP_IV_SIZE];
+            new SecureRandom().nextBytes(encryptionIv);
+          }
+
+          final ByteArrayOutputStream header = new ByteArrayOutputStream();
+          try (final DataOutputStream output = new DataOutputStream(header)) {
+            output.writeInt(ONLINE_BACKUP_VERSION);
+            output.writeInt(writeCache.pageSize());
+            output.writeUTF(compression.name());
+            writeBackupBytes(output, getIv());
+            writeBackupBytes(output, encryptionIv);
+            writeBackupBytes(output, lastMetadata);
+
+            output.writeInt(files.size());
+            for (final OnlineBackupFile file : files) {
+              output.writeUTF(file.name);
+              output.writeLong(file.fileId);
+            }
+          }
+          writeBackupEntry(zipOutputStream, ONLINE_BACKUP_HEADER, header.toByteArray());
+
+          OLogSequenceNumber lastLsn =
+              backupOnlinePages(
+                  zipOutputStream,
+                  files,
+                  compression,
+                  encryptionIv,
+                  aesKey,
+                  onlineBackupThreads(contextConfiguration));
+          lastLsn = maxLsn(lastLsn, copyWALToIncrementalBackup(zipOutputStream, startSegment));
+          lastLsn = maxLsn(lastLsn, startLsn);
+
+          final ByteArrayOutputStream manifest = new ByteArrayOutputStream();
+          try (final DataOutputStream output = new DataOutputStream(manifest)) {
+            output.writeLong(lastLsn.getSegment());
+            output.writeInt(lastLsn.getPosition());
+
+            output.writeInt(files.size());
+            for (final OnlineBackupFile file : files) {
+              output.writeUTF(file.name);
+              output.writeInt(file.chunks);
+              output.writeLong(file.checksum.getValue());
+            }
+          }
+          writeBackupEntry(zipOutputStream, ONLINE_BACKUP_MANIFEST, manifest.toByteArray());
+
+          zipOutputStream.finish();
+          zipOutputStream.flush();
+
+          final List<String> names = new ArrayList<>(files.size());
+          for (final OnlineBackupFile file : files) {
+            names.add(file.name);
+            if (listener != null) {
+              listener.onMessage("\n- Added file " + file.name + " (" + file.pages + " pages)");
+            }
+          }
+          return names;
+        } finally {
+          writeAheadLog.removeCutTillLimit(startLsn);
+        }
+      } finally {
+        stateLock.releaseReadLock();
+      }
+    } finally {
+      incrementalBackupInProgress.set(false);
+    }
+  }
+
+  /**
+   * Pages are copied and compressed by the backup threads, chunks are written into the stream in
+   * the order of submission. Amount of chunks which are kept in memory is limited by twice the
+   * number of threads.
+   *
+   * @return LSN of the last change contained in the copied pages
+   */
+  private OLogSequenceNumber backupOnlinePages(
+      final ZipOutputStream stream,
+      final List<OnlineBackupFile> files,
+      final OCompression compression,
+      final byte[] encryptionIv,
+      final byte[] aesKey,
+      final int threads)
+      throws IOException {
+    final int chunkPages = Math.max(1, ONLINE_BACKUP_CHUNK_SIZE / writeCache.pageSize());
+
+    final ArrayDeque<Future<OnlineBackupChunk>> chunks = new ArrayDeque<>();
+    final ExecutorService executor = createBackupExecutor(threads);
+    try {
+      OLogSequenceNumber lastLsn = null;
+      for (int fileIndex = 0; fileIndex < files.size(); fileIndex++) {
+        final OnlineBackupFile file = files.get(fileIndex);
+        final int chunkFileIndex = fileIndex;
+
+        for (long startPage = 0; startPage < file.pages; startPage += chunkPages) {
+          final long chunkStartPage = startPage;
+          final long chunkEndPage = Math.min(file.pages, startPage + chunkPages);
+
+          chunks.add(
+              executor.submit(
+                  () ->
+                      backupOnlineChunk(
+                          chunkFileIndex,
+                          file,
+                          chunkStartPage,
+                          chunkEndPage,
+                          compression,
+                          encryptionIv,
+                          aesKey)));
+
+          if (chunks.size() >= 2 * threads) {
+            lastLsn =
+                maxLsn(
+                    lastLsn, writeOnlineBackupChunk(stream, awaitBackupTask(chunks.poll()), files));
+          }
+        }
+      }
+
+      while (!chunks.isEmpty()) {
+        lastLsn =
+            maxLsn(lastLsn, writeOnlineBackupChunk(stream, awaitBackupTask(chunks.poll()), files));
+      }
+
+      return lastLsn;
+    } finally {
+      shutdownBackupExecutor(executor, chunks);
+    }
+  }
+
+  private OnlineBackupChunk backupOnlineChunk(
+      final int fileIndex,
+      final OnlineBackupFile file,
+      final long startPage,
+      final long endPage,
+      final OCompression compression,
+      final byte[] encryptionIv,
+      final byte[] aesKey)
+      throws IOException {
+    final String entryName = ONLINE_BACKUP_PAGES + fileIndex + "/" + startPage;
+
+    // file was deleted after the start of backup, it is deleted during restore of WAL too
+    if (!writeCache.exists(file.fileId)) {
+      return new OnlineBackupChunk(fileIndex, entryName, new byte[0], null);
+    }
+
+    final byte[] data = new byte[OLongSerializer.LONG_SIZE + writeCache.pageSize()];
+    final ByteArrayOutputStream pages =
+        new ByteArrayOutputStream((int) (endPage - startPage) * data.length);
+
+    OLogSequenceNumber lastLsn = null;
+    for (long pageIndex = startPage; pageIndex < endPage; pageIndex++) {
+      final OLogSequenceNumber pageLsn = copyBackupPage(file.fileId, (int) pageIndex, null, data);
+      if (pageLsn == null) {
+        break;
+      }
+
+      OLongSerializer.INSTANCE.serializeNative(pageIndex, data, 0);
+      if (aesKey != null) {
+        encryptBackupPage(
+            Cipher.ENCRYPT_MODE,
+            aesKey,
+            encryptionIv,
+            writeCache.internalFileId(file.fileId),
+            pageIndex,
+            data);
+      }
+
+      pages.write(data, 0, data.length);
+      lastLsn = maxLsn(lastLsn, pageLsn);
+    }
+
+    final byte[] content =
+        pages.size() > 0 ? compression.compress(pages.toByteArray()) : new byte[0];
+    return new OnlineBackupChunk(fileIndex, entryName, content, lastLsn);
+  }
+
+  private static OLogSequenceNumber writeOnlineBackupChunk(
+      final ZipOutputStream stream,
+      final OnlineBackupChunk chunk,
+      final List<OnlineBackupFile> files)
+      throws IOException {
+    final CRC32 crc = new CRC32();
+    crc.update(chunk.content, 0, chunk.content.length);
+
+    // content of chunk is already compressed
+    final ZipEntry entry = new ZipEntry(chunk.entryName);
+    entry.setMethod(ZipEntry.STORED);
+    entry.setSize(chunk.content.length);
+    entry.setCompressedSize(chunk.content.length);
+    entry.setCrc(crc.getValue());
+
+    stream.putNextEntry(entry);
+    stream.write(chunk.content);
+    stream.closeEntry();
+
+    files.get(chunk.fileIndex).addChunk(chunk.content);
+    return chunk.lastLsn;
+  }
+
+  /**
+   * Checks whether the stream contains online backup. Position of the stream is not changed.
+   *
+   * @see #onlineBackup(OutputStream, int, OCommandOutputListener)
+   */
+  protected static boolean isOnlineBackup(final BufferedInputStream stream) throws IOException {
+    stream.mark(64 * 1024);
+    try {
+      // stream is not closed because it is read again by restore
+      final ZipInputStream zipInputStream = new ZipInputStream(stream);
+      final ZipEntry entry = zipInputStream.getNextEntry();
+      return entry != null && entry.getName().equals(ONLINE_BACKUP_HEADER);
+    } finally {
+      stream.reset();
+    }
+  }
+
+  /**
+   * Restores the storage from online backup. Storage is reopened and, once the backup is checked
+   * against its manifest, all its files are replaced by the files of the backup, chunks of pages are
+   * decompressed and written in parallel, then WAL of the backup is applied to them.
+   *
+   * @see #onlineBackup(OutputStream, int, OCommandOutputListener)
+   */
+  protected final void restoreFromOnlineBackup(
+      final InputStream stream, final OCommandOutputListener listener) {
+    restoreFromIncrementalBackup(
+        contextConfiguration -> restoreOnlineBackupContent(stream, contextConfiguration, listener));
+  }
+
+  /**
+   * Manifest with the checksums of the files is the last entry of the backup, so the backup is
+   * copied into the temporary directory and checked before the files of the storage are deleted.
+   */
+  private OLogSequenceNumber restoreOnlineBackupContent(
+      final InputStream stream,
+      final OContextConfiguration contextConfiguration,
+      final OCommandOutputListener listener)
+      throws IOException {
+    final byte[] aesKey = incrementalBackupKey(contextConfiguration);
+
+    final File walDirectory = createWalTempDirectory();
+    try {
+      final File backupFile = new File(walDirectory, ONLINE_BACKUP_RESTORE_FILE);
+      Files.copy(stream, backupFile.toPath());
+
+      try (final InputStream backupStream =
+          new BufferedInputStream(new FileInputStream(backupFile))) {
+        checkOnlineBackup(backupStream, aesKey);
+      } catch (final IOException e) {
+        throw OException.wrapException(
+            new OStorageException("Online backup is broken and can not be restored"), e);
+      }
+
+      try (final InputStream backupStream =
+          new BufferedInputStream(new FileInputStream(backupFile))) {
+        return restoreOnlineBackupFiles(
+            backupStream, contextConfiguration, aesKey, walDirectory, listener);
+      }
+    } finally {
+      OFileUtils.deleteRecursively(walDirectory);
+    }
+  }
+
+  /** Reads the whole backup and checks the checksums of its files against the manifest. */
+  private void checkOnlineBackup(final InputStream stream, final byte[] aesKey)
+      throws IOException {
+    final ZipInputStream zipInputStream = new ZipInputStream(stream);
+    final OnlineBackupHeader header = readOnlineBackupHeader(zipInputStream, aesKey);
+
+    final List<OnlineBackupFile> files = new ArrayList<>(header.fileNames.size());
+    for (final String fileName : header.fileNames) {
+      files.add(new OnlineBackupFile(fileName, -1, 0));
+    }
+
+    boolean manifestChecked = false;
+    ZipEntry zipEntry;
+    while ((zipEntry = zipInputStream.getNextEntry()) != null) {
+      final String entryName = zipEntry.getName();
+      if (entryName.startsWith(ONLINE_BACKUP_PAGES)) {
+        files
+            .get(onlineBackupFileIndex(entryName, files.size()))
+            .addChunk(readBackupEntry(zipInputStream));
+      } else if (entryName.equals(ONLINE_BACKUP_MANIFEST)) {
+        checkOnlineBackupManifest(zipInputStream, files);
+        manifestChecked = true;
+      }
+    }
+
+    if (!manifestChecked) {
+      throw new OStorageException("Online backup is not completed, manifest of backup is absent");
+    }
+  }
+
+  private OLogSequenceNumber restoreOnlineBackupFiles(
+      final InputStream stream,
+      final OContextConfiguration contextConfiguration,
+      final byte[] aesKey,
+      final File walDirectory,
+      final OCommandOutputListener listener)
+      throws IOException {
+    final ZipInputStream zipInputStream = new ZipInputStream(stream);
+    final OnlineBackupHeader header = readOnlineBackupHeader(zipInputStream, aesKey);
+
+    if (header.metadata != null) {
+      lastMetadata = header.metadata;
+    }
+
+    for (final long fileId : new ArrayList<>(writeCache.files().values())) {
+      readCache.deleteFile(fileId, writeCache);
+    }
+
+    final List<OnlineBackupFile> files = new ArrayList<>(header.fileNames.size());
+    for (int i = 0; i < header.fileNames.size(); i++) {
+      final String fileName = header.fileNames.get(i);
+      final long fileId = readCache.addFile(fileName, header.fileIds[i], writeCache);
+      files.add(new OnlineBackupFile(fileName, fileId, 0));
+    }
+
+    final OCompression compression = header.compression;
+    final byte[] encryptionIv = header.encryptionIv;
+    final int threads = onlineBackupThreads(contextConfiguration);
+    final ArrayDeque<Future<Void>> chunks = new ArrayDeque<>();
+    final ExecutorService executor = createBackupExecutor(threads);
+    try {
+      OLogSequenceNumber lastLsn = null;
+
+      ZipEntry zipEntry;
+      while ((zipEntry = zipInputStream.getNextEntry()) != null) {
+        final String entryName = zipEntry.getName();
+        if (entryName.startsWith(ONLINE_BACKUP_PAGES)) {
+          final OnlineBackupFile file = files.get(onlineBackupFileIndex(entryName, files.size()));
+          final byte[] content = readBackupEntry(zipInputStream);
+          file.addChunk(content);
+
+          chunks.add(
+              executor.submit(
+                  () -> {
+                    restoreOnlineChunk(file, content, compression, encryptionIv, aesKey);
+                    return null;
+                  }));
+
+          if (chunks.size() >= 2 * threads) {
+            awaitBackupTask(chunks.poll());
+          }
+        } else if (entryName.endsWith(OWriteAheadLog.WAL_SEGMENT_EXTENSION)) {
+          addBackupWALSegment(entryName, zipInputStream, walDirectory);
+        } else if (entryName.equals(ONLINE_BACKUP_MANIFEST)) {
+          lastLsn = checkOnlineBackupManifest(zipInputStream, files);
+        }
+      }
+
+      while (!chunks.isEmpty()) {
+        awaitBackupTask(chunks.poll());
+      }
+
+      if (lastLsn == null) {
+        throw new OStorageException("Online backup is not completed, manifest of backup is absent");
+      }
+
+      if (listener != null) {
+        for (final OnlineBackupFile file : files) {
+          listener.onMessage("\n- Restored file " + file.name + " (" + file.chunks + " chunks)");
+        }
+      }
+
+      return maxLsn(
+          lastLsn, restoreFromBackupWAL(walDirectory, contextConfiguration, header.walIv));
+    } finally {
+      shutdownBackupExecutor(executor, chunks);
+    }
+  }
+
+  private OnlineBackupHeader readOnlineBackupHeader(
+      final ZipInputStream zipInputStream, final byte[] aesKey) throws IOException {
+    final ZipEntry zipEntry = zipInputStream.getNextEntry();
+    if (zipEntry == null || !zipEntry.getName().equals(ONLINE_BACKUP_HEADER)) {
+      throw new OStorageException("Online backup is broken, header of backup is absent");
+    }
+
+    final DataInputStream header = new DataInputStream(zipInputStream);
+    final int version = header.readInt();
+    if (version != ONLINE_BACKUP_VERSION) {
+      throw new OStorageException("Unsupported version of online backup " + version);
+    }
+
+    final int pageSize = header.readInt();
+    if (pageSize != writeCache.pageSize()) {
+      throw new OStorageException(
+          "Page size of online backup "
+              + pageSize
+              + " is different from page size of storage "
+              + writeCache.pageSize());
+    }
+
+    final OCompression compression =
+        OCompressionFactory.INSTANCE.getCompression(header.readUTF(), null);
+    final byte[] walIv = readBackupBytes(header);
+    final byte[] encryptionIv = readBackupBytes(header);
+    final byte[] metadata = readBackupBytes(header);
+
+    if (aesKey != null && encryptionIv == null) {
+      throw new OStorageException(
+          "Online backup is not encrypted, but encryption key is provided");
+    }
+    if (aesKey == null && encryptionIv != null) {
+      throw new OStorageException("Online backup is encrypted, but encryption key is absent");
+    }
+
+    final int filesCount = header.readInt();
+    final List<String> fileNames = new ArrayList<>(filesCount);
+    final long[] fileIds = new long[filesCount];
+    for (int i = 0; i < filesCount; i++) {
+      fileNames.add(header.readUTF());
+      fileIds[i] = header.readLong();
+    }
+
+    return new OnlineBackupHeader(compression, walIv, encryptionIv, metadata, fileNames, fileIds);
+  }
+
+  private void restoreOnlineChunk(
+      final OnlineBackupFile file,
+      final byte[] content,
+      final OCompression compression,
+      final byte[] encryptionIv,
+      final byte[] aesKey)
+      throws IOException {
+    if (content.length == 0) {
+      return;
+    }
+
+    final byte[] pages = compression.uncompress(content);
+    final byte[] data = new byte[OLongSerializer.LONG_SIZE + writeCache.pageSize()];
+    if (pages.length % data.length != 0) {
+      throw new OStorageException(
+          "Online backup is broken, page of file " + file.name + " is incomplete");
+    }
+
+    for (int offset = 0; offset < pages.length; offset += data.length) {
+      System.arraycopy(pages, offset, data, 0, data.length);
+
+      final long pageIndex = OLongSerializer.INSTANCE.deserializeNative(data, 0);
+      if (aesKey != null) {
+        encryptBackupPage(
+            Cipher.DECRYPT_MODE,
+            aesKey,
+            encryptionIv,
+            writeCache.internalFileId(file.fileId),
+            pageIndex,
+            data);
+      }
+
+      // chunks of the same file are restored concurrently, so file is extended under its lock
+      synchronized (file) {
+        while (writeCache.getFilledUpTo(file.fileId) <= pageIndex) {
+          final OCacheEntry cacheEntry = readCache.allocateNewPage(file.fileId, writeCache, null);
+          readCache.releaseFromWrite(cacheEntry, writeCache, true);
+        }
+      }
+
+      final OCacheEntry cacheEntry =
+          readCache.loadForWrite(file.fileId, pageIndex, true, writeCache, true, null);
+      try {
+        final ByteBuffer buffer = cacheEntry.getCachePointer().getBuffer();
+        buffer.position(0);
+        buffer.put(data, OLongSerializer.LONG_SIZE, data.length - OLongSerializer.LONG_SIZE);
+      } finally {
+        readCache.releaseFromWrite(cacheEntry, writeCache, true);
+      }
+    }
+  }
+
+  /** @return LSN of the last change contained in the backup */
+  private static OLogSequenceNumber checkOnlineBackupManifest(
+      final InputStream stream, final List<OnlineBackupFile> files) throws IOException {
+    final DataInputStream manifest = new DataInputStream(stream);
+    final OLogSequenceNumber lastLsn =
+        new OLogSequenceNumber(manifest.readLong(), manifest.readInt());
+
+    if (manifest.readInt() != files.size()) {
+      throw new OStorageException("Online backup is broken, list of files does not match");
+    }
+
+    for (final OnlineBackupFile file : files) {
+      final String fileName = manifest.readUTF();
+      final int chunks = manifest.readInt();
+      final long checksum = manifest.readLong();
+
+      if (!file.name.equals(fileName)
+          || file.chunks != chunks
+          || file.checksum.getValue() != checksum) {
+        throw new OStorageException(
+            "Online backup is broken, checksum of file " + fileName + " does not match");
+      }
+    }
+
+    return lastLsn;
+  }
+
+  private static int onlineBackupFileIndex(final String entryName, final int filesCount) {
+    final int start = ONLINE_BACKUP_PAGES.length();
+    final int end = entryName.indexOf('/', start);
+
+    int fileIndex = -1;
+    if (end > start) {
+      try {
+        fileIndex = Integer.parseInt(entryName.substring(start, end));
+      } catch (final NumberFormatException e) {
+        fileIndex = -1;
+      }
+    }
+
+    if (fileIndex < 0 || fileIndex >= filesCount) {
+      throw new OStorageException("Online backup is broken, invalid entry " + entryName);
+    }
+    return fileIndex;
+  }
+
+  private static int onlineBackupThreads(final OContextConfiguration contextConfiguration) {
+    return Math.max(
+        1,
+        contextConfiguration.getValueAsInteger(OGlobalConfiguration.STORAGE_ONLINE_BACKUP_THREADS));
+  }
+
+  private static ExecutorService createBackupExecutor(final int threads) {
+    return new OThreadPoolExecutorWithLogging(
+        threads,
+        threads,
+        0L,
+        TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(),
+        new BackupThreadFactory());
+  }
+
+  /**
+   * Threads of the executor are not interrupted, because interruption closes the channels of files
+   * which they read or write. Tasks which are not started yet are cancelled.
+   */
+  private static void shutdownBackupExecutor(
+      final ExecutorService executor, final Collection<? extends Future<?>> tasks) {
+    for (final Future<?> task : tasks) {
+      task.cancel(false);
+    }
+
+    executor.shutdown();
+    try {
+      //noinspection ResultOfMethodCallIgnored
+      executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static <T> T awaitBackupTask(final Future<T> task) throws IOException {
+    try {
+      return task.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw OException.wrapException(new OInterruptedException("Backup was interrupted"), e);
+    } catch (final ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+
+      throw OException.wrapException(new OStorageException("Error during backup"), cause);
+    }
+  }
+
+  private static void writeBackupBytes(final DataOutputStream stream, final byte[] content)
+      throws IOException {
+    if (content == null) {
+      stream.writeInt(-1);
+    } else {
+      stream.writeInt(content.length);
+      stream.write(content);
+    }
+  }
+
+  private static byte[] readBackupBytes(final DataInputStream stream) throws IOException {
+    final int length = stream.readInt();
+    if (length < 0) {
+      return null;
+    }
+
+    final byte[] content = new byte[length];
+    stream.readFully(content);
+    return content;
+  }
+
+  /** Restores data of the storage from incremental backup. */
+  @FunctionalInterface
+  private interface IncrementalBackupContent {
+    /** @return LSN of the last restored change */
+    OLogSequenceNumber restore(OContextConfiguration contextConfiguration) throws IOException;
+  }
+
+  /**
+   * File of incremental backup. It starts from the header which is followed by ZIP archive with
+   * the content of backup.
+   */
+  private static final class IncrementalBackupFile {
+    private final File file;
+    private final UUID uuid;
+    private final long index;
+    private final OLogSequenceNumber lsn;
+    private final boolean full;
+
+    private IncrementalBackupFile(
+        final File file,
+        final UUID uuid,
+        final long index,
+        final OLogSequenceNumber lsn,
+        final boolean full) {
+      this.file = file;
+      this.uuid = uuid;
+      this.index = index;
+      this.lsn = lsn;
+      this.full = full;
+    }
+
+    private ByteBuffer header() {
+      final ByteBuffer header = ByteBuffer.allocate(INCREMENTAL_BACKUP_HEADER_SIZE);
+      header.putInt(INCREMENTAL_BACKUP_VERSION);
+      header.putLong(uuid.getMostSignificantBits());
+      header.putLong(uuid.getLeastSignificantBits());
+      header.putLong(index);
+      header.putLong(lsn.getSegment());
+      header.putInt(lsn.getPosition());
+      header.put(full ? (byte) 1 : 0);
+      header.rewind();
+      return header;
+    }
+
+    private InputStream openContent() throws IOException {
+      final InputStream stream = new FileInputStream(file);
+      try {
+        OIOUtils.readFully(
+            stream, new byte[INCREMENTAL_BACKUP_HEADER_SIZE], 0, INCREMENTAL_BACKUP_HEADER_SIZE);
+      } catch (final IOException e) {
+        stream.close();
+        throw e;
+      }
+      return stream;
+    }
+
+    private static IncrementalBackupFile read(final File file) {
+      try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+        if (channel.size() < INCREMENTAL_BACKUP_HEADER_SIZE) {
+          return null;
+        }
+
+        final ByteBuffer header = ByteBuffer.allocate(INCREMENTAL_BACKUP_HEADER_SIZE);
+        OIOUtils.readByteBuffer(header, channel, 0, true);
+        header.rewind();
+
+        if (header.getInt() != INCREMENTAL_BACKUP_VERSION) {
+          return null;
+        }
+
+        final UUID uuid = new UUID(header.getLong(), header.getLong());
+        final long index = header.getLong();
+        final OLogSequenceNumber lsn = new OLogSequenceNumber(header.getLong(), header.getInt());
+        final boolean full = header.get() == 1;
+
+        return new IncrementalBackupFile(file, uuid, index, lsn, full);
+      } catch (final IOException e) {
+        throw OException.wrapException(
+            new OStorageException("Can not read incremental backup file " + file), e);
+      }
+    }
+  }
+
+  /** File of the storage which is copied into online backup. */
+  private static final class OnlineBackupFile {
+    private final String name;
+    private final long fileId;
+    private final long pages;
+
+    /** Checksum of the chunks of the file, they are added in the order of entries of the backup. */
+    private final StreamingXXHash64 checksum =
+        XXHashFactory.fastestInstance().newStreamingHash64(ONLINE_BACKUP_CHECKSUM_SEED);
+
+    private int chunks;
+
+    private OnlineBackupFile(final String name, final long fileId, final long pages) {
+      this.name = name;
+      this.fileId = fileId;
+      this.pages = pages;
+    }
+
+    private void addChunk(final byte[] content) {
+      checksum.update(content, 0, content.length);
+      chunks++;
+    }
+  }
+
+  private static final class OnlineBackupHeader {
+    private final OCompression compression;
+    private final byte[] walIv;
+    private final byte[] encryptionIv;
+    private final byte[] metadata;
+    private final List<String> fileNames;
+    private final long[] fileIds;
+
+    private OnlineBackupHeader(
+        final OCompression compression,
+        final byte[] walIv,
+        final byte[] encryptionIv,
+        final byte[] metadata,
+        final List<String> fileNames,
+        final long[] fileIds) {
+      this.compression = compression;
+      this.walIv = walIv;
+      this.encryptionIv = encryptionIv;
+      this.metadata = metadata;
+      this.fileNames = fileNames;
+      this.fileIds = fileIds;
+    }
+  }
+
+  /** Compressed content of the range of pages of the file. */
+  private static final class OnlineBackupChunk {
+    private final int fileIndex;
+    private final String entryName;
+    private final byte[] content;
+    private final OLogSequenceNumber lastLsn;
+
+    private OnlineBackupChunk(
+        final int fileIndex,
+        final String entryName,
+        final byte[] content,
+        final OLogSequenceNumber lastLsn) {
+      this.fileIndex = fileIndex;
+      this.entryName = entryName;
+      this.content = content;
+      this.lastLsn = lastLsn;
+    }
+  }
+
+  private OLogSequenceNumber restoreFromBeginning() throws IOException {
+    OLogManager.instance().info(this, "Data restore procedure is started.");
+
+    final OLogSequenceNumber lsn = writeAheadLog.begin();
+
+    writeCache.restoreModeOn();
+    try {
+      final int nextOperationId;
+
+      if (OGlobalConfiguration.STORAGE_CHECK_LATEST_OPERATION_ID.getValueAsBoolean()) {
+        OLogManager.instance()
+            .infoNoDb(
+                this,
+                "Storage %s , scan all pages to "
+                    + "find the latest operation stored into the files,"
+                    + " if you wish to skip this step to speed up data restore but"
+                    + " decrease durability guarantees please set flag %s to the false",
+                name,
+                OGlobalConfiguration.STORAGE_CHECK_LATEST_OPERATION_ID.getKey());
+
+        nextOperationId = fetchNextOperationId();
+        assert nextOperationId >= 0;
+      } else {
+        nextOperationId = Integer.MIN_VALUE;
+      }
+
+      return restoreFrom(writeAheadLog, lsn, nextOperationId);
+    } finally {
+      writeCache.restoreModeOff();
+    }
+  }
+
+  protected OLogSequenceNumber restoreFrom(
+      OWriteAheadLog writeAheadLog, OLogSequenceNumber lsn, int nextOperationId)
+      throws IOException {
+    OLogSequenceNumber logSequenceNumber = null;
+    final OModifiableBoolean atLeastOnePageUpdate = new OModifiableBoolean();
+
+    long recordsProcessed = 0;
+
+    final int reportBatchSize =
+        OGlobalConfiguration.WAL_REPORT_AFTER_OPERATIONS_DURING_RESTORE.getValueAsInteger();
+    final Map<Long, List<OWALRecord>> operationUnits = new HashMap<>(1024);
+    final Map<Long, byte[]> operationMetadata = new LinkedHashMap<>(1024);
 
     long lastReportTime = 0;
 
@@ -7148,6 +8952,16 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
     }
   }
 
+  private static final class BackupThreadFactory implements ThreadFactory {
+    @Override
+    public final Thread newThread(final Runnable r) {
+      final Thread thread = new Thread(storageThreadGroup, r, "OrientDB Backup");
+      thread.setDaemon(true);
+      thread.setUncaughtExceptionHandler(new OUncaughtExceptionHandler());
+      return thread;
+    }
+  }
+
   private final class WALVacuum implements Runnable {
 
     private WALVacuum() {}
@@ -3,6 +3,7 @@ package com.orientechnologies.orient.core.storage.impl.local.paginated.atomicope
 import com.orientechnologies.orient.core.storage.cache.OCacheEntry;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OLogSequenceNumber;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OWriteAheadLog;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.base.ODurableComponent;
 import com.orientechnologies.orient.core.storage.index.sbtreebonsai.local.OBonsaiBucketPointer;
 import java.io.IOException;
 import java.util.Set;
@@ -57,6 +58,15 @@ public interface OAtomicOperation {
 
   Iterable<String> lockedObjects();
 
+  /**
+   * Registers component locked exclusively till the end of this operation.
+   *
+   * @return <code>true</code> if component was not registered yet
+   */
+  boolean addLockedComponent(ODurableComponent component);
+
+  Iterable<ODurableComponent> lockedComponents();
+
   void addDeletedRecordPosition(final int clusterId, final int pageIndex, final int recordPosition);
 
   Set<Integer> getBookedRecordPositions(final int clusterId, final int pageIndex);
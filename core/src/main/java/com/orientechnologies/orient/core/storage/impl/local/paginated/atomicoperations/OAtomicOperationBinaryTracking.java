@@ -27,6 +27,7 @@ import com.orientechnologies.orient.core.storage.cache.OCacheEntryImpl;
 import com.orientechnologies.orient.core.storage.cache.OCachePointer;
 import com.orientechnologies.orient.core.storage.cache.OReadCache;
 import com.orientechnologies.orient.core.storage.cache.OWriteCache;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.base.ODurableComponent;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.base.ODurablePage;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OFileCreatedWALRecord;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OFileDeletedWALRecord;
@@ -59,6 +60,7 @@ final class OAtomicOperationBinaryTracking implements OAtomicOperation {
   private boolean rollback;
 
   private final Set<String> lockedObjects = new HashSet<>();
+  private final Set<ODurableComponent> lockedComponents = new HashSet<>();
   private final Map<Long, FileChanges> fileChanges = new HashMap<>();
   private final Map<String, Long> newFileNamesId = new HashMap<>();
   private final Set<Long> deletedFiles = new HashSet<>();
@@ -603,6 +605,14 @@ final class OAtomicOperationBinaryTracking implements OAtomicOperation {
     return lockedObjects;
   }
 
+  public boolean addLockedComponent(final ODurableComponent component) {
+    return lockedComponents.add(component);
+  }
+
+  public Iterable<ODurableComponent> lockedComponents() {
+    return lockedComponents;
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (this == o) {
@@ -4,6 +4,7 @@ import com.orientechnologies.common.util.ORawPair;
 import com.orientechnologies.orient.core.storage.cache.OCacheEntry;
 import com.orientechnologies.orient.core.storage.cache.OReadCache;
 import com.orientechnologies.orient.core.storage.cache.OWriteCache;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.base.ODurableComponent;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.base.ODurablePage;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OLogSequenceNumber;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OWriteAheadLog;
@@ -32,6 +33,7 @@ final class OAtomicOperationPageOperationsTracking implements OAtomicOperation {
   private int componentOperationsCounter;
 
   private final Set<String> lockedObjects = new HashSet<>();
+  private final Set<ODurableComponent> lockedComponents = new HashSet<>();
 
   private boolean rollbackInProgress;
 
@@ -182,6 +184,16 @@ final class OAtomicOperationPageOperationsTracking implements OAtomicOperation {
     return lockedObjects;
   }
 
+  @Override
+  public boolean addLockedComponent(ODurableComponent component) {
+    return lockedComponents.add(component);
+  }
+
+  @Override
+  public Iterable<ODurableComponent> lockedComponents() {
+    return lockedComponents;
+  }
+
   @Override
   public void rollbackInProgress() {
     rollbackInProgress = true;
@@ -163,6 +163,8 @@ public class OAtomicOperationsManager {
       final OAtomicOperation atomicOperation,
       final ODurableComponent component,
       final TxConsumer consumer) {
+    Objects.requireNonNull(atomicOperation);
+    acquireExclusiveLockTillOperationComplete(atomicOperation, component);
     executeInsideComponentOperation(atomicOperation, component.getLockName(), consumer);
   }
 
@@ -189,6 +191,12 @@ public class OAtomicOperationsManager {
       final OAtomicOperation atomicOperation,
       final ODurableComponent component,
       final TxConsumer consumer) {
+    Objects.requireNonNull(atomicOperation);
+    if (!tryAcquireExclusiveLockTillOperationComplete(atomicOperation, component.getLockName())) {
+      return false;
+    }
+    lockComponent(atomicOperation, component);
+
     return tryExecuteInsideComponentOperation(atomicOperation, component.getLockName(), consumer);
   }
 
@@ -219,6 +227,8 @@ public class OAtomicOperationsManager {
       final OAtomicOperation atomicOperation,
       final ODurableComponent component,
       final TxFunction<T> function) {
+    Objects.requireNonNull(atomicOperation);
+    acquireExclusiveLockTillOperationComplete(atomicOperation, component);
     return calculateInsideComponentOperation(atomicOperation, component.getLockName(), function);
   }
 
@@ -318,6 +328,7 @@ public class OAtomicOperationsManager {
       throw new ODatabaseException("There is no atomic operation active");
     }
 
+    OLogSequenceNumber commitLsn = null;
     try {
       storage.moveToErrorStateIfNeeded(error);
 
@@ -341,9 +352,11 @@ public class OAtomicOperationsManager {
         } else {
           atomicOperationsTable.commitOperation(operationId);
           writeAheadLog.addEventAt(lsn, () -> atomicOperationsTable.persistOperation(operationId));
+          commitLsn = lsn;
         }
 
       } finally {
+        unlockComponents(operation);
         final Iterator<String> lockedObjectIterator = operation.lockedObjects().iterator();
 
         try {
@@ -361,11 +374,16 @@ public class OAtomicOperationsManager {
     } finally {
       atomicOperationsFreezer.endOperation();
     }
+
+    // wait for durability of changes once all components are unlocked, so other operations may be
+    // committed in the same group
+    writeAheadLog.waitForGroupCommit(commitLsn);
   }
 
   public void ensureThatComponentsUnlocked() {
     final OAtomicOperation operation = currentOperation.get();
     if (operation != null) {
+      unlockComponents(operation);
       final Iterator<String> lockedObjectIterator = operation.lockedObjects().iterator();
 
       while (lockedObjectIterator.hasNext()) {
@@ -402,7 +420,37 @@ public class OAtomicOperationsManager {
   public void acquireExclusiveLockTillOperationComplete(ODurableComponent durableComponent) {
     final OAtomicOperation operation = currentOperation.get();
     assert operation != null;
+    acquireExclusiveLockTillOperationComplete(operation, durableComponent);
+  }
+
+  private void acquireExclusiveLockTillOperationComplete(
+      final OAtomicOperation operation, final ODurableComponent durableComponent) {
     acquireExclusiveLockTillOperationComplete(operation, durableComponent.getLockName());
+    lockComponent(operation, durableComponent);
+  }
+
+  /**
+   * Marks component as modified till the end of the atomic operation, so optimistic reads of the
+   * component fall back to the locked ones meanwhile. Pages of the component may be changed from
+   * this point till the locks of the atomic operation are released, either by the operation itself
+   * or by its commit.
+   */
+  private static void lockComponent(
+      final OAtomicOperation operation, final ODurableComponent durableComponent) {
+    if (operation.addLockedComponent(durableComponent)) {
+      durableComponent.startModification();
+    }
+  }
+
+  private static void unlockComponents(final OAtomicOperation operation) {
+    final Iterator<ODurableComponent> lockedComponentIterator =
+        operation.lockedComponents().iterator();
+    while (lockedComponentIterator.hasNext()) {
+      final ODurableComponent lockedComponent = lockedComponentIterator.next();
+      lockedComponentIterator.remove();
+
+      lockedComponent.endModification();
+    }
   }
 
   public void acquireReadLock(ODurableComponent durableComponent) {
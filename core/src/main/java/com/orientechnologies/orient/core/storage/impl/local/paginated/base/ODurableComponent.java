@@ -30,6 +30,7 @@ import com.orientechnologies.orient.core.storage.impl.local.OAbstractPaginatedSt
 import com.orientechnologies.orient.core.storage.impl.local.paginated.atomicoperations.OAtomicOperation;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.atomicoperations.OAtomicOperationsManager;
 import java.io.IOException;
+import java.util.concurrent.locks.StampedLock;
 
 /**
  * Base class for all durable data structures, that is data structures state of which can be
@@ -52,6 +53,12 @@ public abstract class ODurableComponent extends OSharedResourceAdaptive {
 
   private final String lockName;
 
+  /**
+   * Is locked for write while the component is modified by an atomic operation, used to validate
+   * reads of the component done without acquisition of its locks.
+   */
+  private final StampedLock modificationLock = new StampedLock();
+
   public ODurableComponent(
       final OAbstractPaginatedStorage storage,
       final String name,
@@ -107,6 +114,40 @@ public abstract class ODurableComponent extends OSharedResourceAdaptive {
     return atomicOperationsManager.tryExecuteInsideComponentOperation(operation, this, consumer);
   }
 
+  /**
+   * Called by {@link OAtomicOperationsManager} once the component is locked exclusively by an
+   * atomic operation. Pages of the component may be changed till the call of {@link
+   * #endModification()}.
+   */
+  public void startModification() {
+    modificationLock.writeLock();
+  }
+
+  /** Called by {@link OAtomicOperationsManager} when the atomic operation releases its locks. */
+  public void endModification() {
+    modificationLock.tryUnlockWrite();
+  }
+
+  /**
+   * Starts read of the pages of the component without acquisition of any locks. The read may see
+   * pages in inconsistent state and should be validated by {@link #validateOptimisticRead(long)}
+   * once all the data are read, even if the read itself fails.
+   *
+   * @return stamp of the read or <code>0</code> if the component is modified at the moment and
+   *     should be read under the locks
+   */
+  protected long startOptimisticRead() {
+    return modificationLock.tryOptimisticRead();
+  }
+
+  /**
+   * @return <code>true</code> if the component was not modified since the call of {@link
+   *     #startOptimisticRead()} which returned given stamp
+   */
+  protected boolean validateOptimisticRead(final long stamp) {
+    return modificationLock.validate(stamp);
+  }
+
   protected long getFilledUpTo(final OAtomicOperation atomicOperation, final long fileId) {
     if (atomicOperation == null) {
       return writeCache.getFilledUpTo(fileId);
@@ -167,6 +167,9 @@ public class OMemoryWriteAheadLog extends OAbstractWriteAheadLog {
     event.run();
   }
 
+  @Override
+  public void waitForGroupCommit(OLogSequenceNumber lsn) {}
+
   @Override
   public boolean appendNewSegment() {
     return false;
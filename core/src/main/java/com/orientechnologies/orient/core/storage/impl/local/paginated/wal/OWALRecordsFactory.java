@@ -120,6 +120,20 @@ import static com.orientechnologies.orient.core.storage.impl.local.paginated.wal
 import static com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes.LOCAL_HASH_TABLE_V2_NULL_BUCKET_REMOVE_VALUE_PO;
 import static com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes.LOCAL_HASH_TABLE_V2_NULL_BUCKET_SET_VALUE_PO;
 import static com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes.NON_TX_OPERATION_PERFORMED_WAL_RECORD;
+import static com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes.NORMALIZED_KEY_BTREE_BUCKET_ADD_ALL_PO;
+import static com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes.NORMALIZED_KEY_BTREE_BUCKET_ADD_LEAF_ENTRY_PO;
+import static com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes.NORMALIZED_KEY_BTREE_BUCKET_ADD_NON_LEAF_ENTRY_PO;
+import static com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes.NORMALIZED_KEY_BTREE_BUCKET_INIT_PO;
+import static com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes.NORMALIZED_KEY_BTREE_BUCKET_REMOVE_LEAF_ENTRY_PO;
+import static com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes.NORMALIZED_KEY_BTREE_BUCKET_REMOVE_NON_LEAF_ENTRY_PO;
+import static com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes.NORMALIZED_KEY_BTREE_BUCKET_SET_LEFT_SIBLING_PO;
+import static com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes.NORMALIZED_KEY_BTREE_BUCKET_SET_RIGHT_SIBLING_PO;
+import static com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes.NORMALIZED_KEY_BTREE_BUCKET_SHRINK_PO;
+import static com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes.NORMALIZED_KEY_BTREE_BUCKET_SWITCH_BUCKET_TYPE_PO;
+import static com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes.NORMALIZED_KEY_BTREE_BUCKET_UPDATE_VALUE_PO;
+import static com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes.NORMALIZED_KEY_BTREE_ENTRY_POINT_INIT_PO;
+import static com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes.NORMALIZED_KEY_BTREE_ENTRY_POINT_SET_PAGES_SIZE_PO;
+import static com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes.NORMALIZED_KEY_BTREE_ENTRY_POINT_SET_TREE_SIZE_PO;
 import static com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes.PAGINATED_CLUSTER_STATE_V0_SET_FREE_LIST_PAGE_PO;
 import static com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes.PAGINATED_CLUSTER_STATE_V0_SET_RECORDS_SIZE_PO;
 import static com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes.PAGINATED_CLUSTER_STATE_V0_SET_SIZE_PO;
@@ -272,6 +286,20 @@ import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.loc
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.localhashtable.v2.nullbucket.LocalHashTableV2NullBucketInitPO;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.localhashtable.v2.nullbucket.LocalHashTableV2NullBucketRemoveValuePO;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.localhashtable.v2.nullbucket.LocalHashTableV2NullBucketSetValuePO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket.NormalizedKeyBTreeBucketAddAllPO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket.NormalizedKeyBTreeBucketAddLeafEntryPO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket.NormalizedKeyBTreeBucketAddNonLeafEntryPO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket.NormalizedKeyBTreeBucketInitPO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket.NormalizedKeyBTreeBucketRemoveLeafEntryPO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket.NormalizedKeyBTreeBucketRemoveNonLeafEntryPO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket.NormalizedKeyBTreeBucketSetLeftSiblingPO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket.NormalizedKeyBTreeBucketSetRightSiblingPO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket.NormalizedKeyBTreeBucketShrinkPO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket.NormalizedKeyBTreeBucketSwitchBucketTypePO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket.NormalizedKeyBTreeBucketUpdateValuePO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.entrypoint.NormalizedKeyBTreeEntryPointInitPO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.entrypoint.NormalizedKeyBTreeEntryPointSetPagesSizePO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.entrypoint.NormalizedKeyBTreeEntryPointSetTreeSizePO;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.sbtree.v1.bucket.SBTreeBucketV1AddAllPO;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.sbtree.v1.bucket.SBTreeBucketV1AddLeafEntryPO;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.sbtree.v1.bucket.SBTreeBucketV1AddNonLeafEntryPO;
@@ -307,6 +335,7 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import net.jpountz.lz4.LZ4Compressor;
 import net.jpountz.lz4.LZ4Factory;
 import net.jpountz.lz4.LZ4FastDecompressor;
@@ -337,7 +366,49 @@ public final class OWALRecordsFactory {
   private static final int MIN_COMPRESSED_RECORD_SIZE =
       OGlobalConfiguration.WAL_MIN_COMPRESSED_RECORD_SIZE.getValueAsInteger();
 
+  /**
+   * Amount of failed attempts to compress records of the same type after which compression of
+   * records of this type is skipped for a window of {@link #COMPRESSION_RETRY_INTERVAL} records.
+   */
+  private static final int MAX_FAILED_COMPRESSIONS = 16;
+
+  /**
+   * Size of the window of skipped records, at the end of each window the counter of failed
+   * attempts is halved, so compression is tried again.
+   */
+  private static final int COMPRESSION_RETRY_INTERVAL = 64;
+
+  /**
+   * Counters of failed attempts to compress records indexed by record id, they are used to avoid
+   * wasting of CPU time on compression of records which content is not compressible. A successful
+   * compression resets the counter.
+   */
+  private static final AtomicIntegerArray failedCompressions = new AtomicIntegerArray(256);
+
+  /** Counters of records which compression was skipped, indexed by record id. */
+  private static final AtomicIntegerArray skippedCompressions = new AtomicIntegerArray(256);
+
   public static ByteBuffer toStream(final WriteableWALRecord walRecord) {
+    return toStream(
+        walRecord,
+        MIN_COMPRESSED_RECORD_SIZE,
+        OGlobalConfiguration.WAL_HIGH_COMPRESSION.getValueAsBoolean());
+  }
+
+  /**
+   * Serializes WAL record, content of record is compressed if its size is not less than
+   * <code>minCompressedRecordSize</code>.
+   *
+   * @param minCompressedRecordSize minimum size of record which is compressed, compression is
+   *     switched off if value is not positive
+   * @param highCompression use high compression mode of LZ4 instead of fast one
+   * @see OGlobalConfiguration#WAL_MIN_COMPRESSED_RECORD_SIZE
+   * @see OGlobalConfiguration#WAL_HIGH_COMPRESSION
+   */
+  public static ByteBuffer toStream(
+      final WriteableWALRecord walRecord,
+      final int minCompressedRecordSize,
+      final boolean highCompression) {
     final int contentSize = walRecord.serializedSize() + METADATA_SIZE;
 
     final ByteBuffer content = ByteBuffer.allocate(contentSize).order(ByteOrder.nativeOrder());
@@ -348,11 +419,14 @@ public final class OWALRecordsFactory {
 
     walRecord.toStream(content);
 
-    if (MIN_COMPRESSED_RECORD_SIZE <= 0 || contentSize < MIN_COMPRESSED_RECORD_SIZE) {
+    if (minCompressedRecordSize <= 0
+        || contentSize < minCompressedRecordSize
+        || !tryToCompress(recordId)) {
       return content;
     }
 
-    final LZ4Compressor compressor = factory.fastCompressor();
+    final LZ4Compressor compressor =
+        highCompression ? factory.highCompressor() : factory.fastCompressor();
     final int maxCompressedLength = compressor.maxCompressedLength(contentSize - 1);
 
     final ByteBuffer compressedContent =
@@ -375,12 +449,39 @@ public final class OWALRecordsFactory {
       compressedContent.putShort(RECORD_ID_OFFSET, (short) (-(recordId + 1)));
       compressedContent.putInt(ORIGINAL_CONTENT_SIZE_OFFSET, contentSize);
 
+      if (recordId < failedCompressions.length()) {
+        failedCompressions.set(recordId, 0);
+      }
+
       return compressedContent;
     } else {
+      if (recordId < failedCompressions.length()) {
+        failedCompressions.updateAndGet(
+            recordId, failed -> Math.min(failed + 1, MAX_FAILED_COMPRESSIONS));
+      }
+
       return content;
     }
   }
 
+  private static boolean tryToCompress(final int recordId) {
+    if (recordId >= failedCompressions.length()) {
+      return true;
+    }
+
+    final int failed = failedCompressions.get(recordId);
+    if (failed < MAX_FAILED_COMPRESSIONS) {
+      return true;
+    }
+
+    // skip compression but count record, at the end of the window the counter of failures decays
+    if (skippedCompressions.incrementAndGet(recordId) % COMPRESSION_RETRY_INTERVAL == 0) {
+      failedCompressions.compareAndSet(recordId, failed, failed / 2);
+      return true;
+    }
+    return false;
+  }
+
   public static void serializeRecordId(final ByteBuffer buffer, final int operationId) {
     buffer.putInt(OPERATION_ID_OFFSET, operationId);
   }
@@ -859,6 +960,48 @@ public final class OWALRecordsFactory {
       case FREE_SPACE_MAP_UPDATE:
         walRecord = new UpdateMaxFreeSpacePO();
         break;
+      case NORMALIZED_KEY_BTREE_BUCKET_INIT_PO:
+        walRecord = new NormalizedKeyBTreeBucketInitPO();
+        break;
+      case NORMALIZED_KEY_BTREE_BUCKET_SWITCH_BUCKET_TYPE_PO:
+        walRecord = new NormalizedKeyBTreeBucketSwitchBucketTypePO();
+        break;
+      case NORMALIZED_KEY_BTREE_BUCKET_ADD_LEAF_ENTRY_PO:
+        walRecord = new NormalizedKeyBTreeBucketAddLeafEntryPO();
+        break;
+      case NORMALIZED_KEY_BTREE_BUCKET_REMOVE_LEAF_ENTRY_PO:
+        walRecord = new NormalizedKeyBTreeBucketRemoveLeafEntryPO();
+        break;
+      case NORMALIZED_KEY_BTREE_BUCKET_UPDATE_VALUE_PO:
+        walRecord = new NormalizedKeyBTreeBucketUpdateValuePO();
+        break;
+      case NORMALIZED_KEY_BTREE_BUCKET_ADD_NON_LEAF_ENTRY_PO:
+        walRecord = new NormalizedKeyBTreeBucketAddNonLeafEntryPO();
+        break;
+      case NORMALIZED_KEY_BTREE_BUCKET_REMOVE_NON_LEAF_ENTRY_PO:
+        walRecord = new NormalizedKeyBTreeBucketRemoveNonLeafEntryPO();
+        break;
+      case NORMALIZED_KEY_BTREE_BUCKET_ADD_ALL_PO:
+        walRecord = new NormalizedKeyBTreeBucketAddAllPO();
+        break;
+      case NORMALIZED_KEY_BTREE_BUCKET_SHRINK_PO:
+        walRecord = new NormalizedKeyBTreeBucketShrinkPO();
+        break;
+      case NORMALIZED_KEY_BTREE_BUCKET_SET_LEFT_SIBLING_PO:
+        walRecord = new NormalizedKeyBTreeBucketSetLeftSiblingPO();
+        break;
+      case NORMALIZED_KEY_BTREE_BUCKET_SET_RIGHT_SIBLING_PO:
+        walRecord = new NormalizedKeyBTreeBucketSetRightSiblingPO();
+        break;
+      case NORMALIZED_KEY_BTREE_ENTRY_POINT_INIT_PO:
+        walRecord = new NormalizedKeyBTreeEntryPointInitPO();
+        break;
+      case NORMALIZED_KEY_BTREE_ENTRY_POINT_SET_TREE_SIZE_PO:
+        walRecord = new NormalizedKeyBTreeEntryPointSetTreeSizePO();
+        break;
+      case NORMALIZED_KEY_BTREE_ENTRY_POINT_SET_PAGES_SIZE_PO:
+        walRecord = new NormalizedKeyBTreeEntryPointSetPagesSizePO();
+        break;
       default:
         if (idToTypeMap.containsKey(recordId))
           try {
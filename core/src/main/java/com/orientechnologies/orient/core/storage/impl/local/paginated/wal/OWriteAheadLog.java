@@ -73,6 +73,12 @@ public interface OWriteAheadLog {
 
   OLogSequenceNumber getFlushedLsn();
 
+  /**
+   * Waits till record with passed in LSN is forced to the disk if WAL works in group commit mode,
+   * otherwise returns immediately.
+   */
+  void waitForGroupCommit(OLogSequenceNumber lsn);
+
   /**
    * Cut WAL content till passed in value of LSN at maximum in many cases smaller portion of WAL may
    * be cut. If value of LSN is bigger than values provided in {@link
@@ -181,4 +181,20 @@ public final class WALRecordTypes {
 
   public static final int FREE_SPACE_MAP_INIT = 196;
   public static final int FREE_SPACE_MAP_UPDATE = 197;
+
+  public static final int NORMALIZED_KEY_BTREE_BUCKET_INIT_PO = 198;
+  public static final int NORMALIZED_KEY_BTREE_BUCKET_SWITCH_BUCKET_TYPE_PO = 199;
+  public static final int NORMALIZED_KEY_BTREE_BUCKET_ADD_LEAF_ENTRY_PO = 200;
+  public static final int NORMALIZED_KEY_BTREE_BUCKET_REMOVE_LEAF_ENTRY_PO = 201;
+  public static final int NORMALIZED_KEY_BTREE_BUCKET_UPDATE_VALUE_PO = 202;
+  public static final int NORMALIZED_KEY_BTREE_BUCKET_ADD_NON_LEAF_ENTRY_PO = 203;
+  public static final int NORMALIZED_KEY_BTREE_BUCKET_REMOVE_NON_LEAF_ENTRY_PO = 204;
+  public static final int NORMALIZED_KEY_BTREE_BUCKET_ADD_ALL_PO = 205;
+  public static final int NORMALIZED_KEY_BTREE_BUCKET_SHRINK_PO = 206;
+  public static final int NORMALIZED_KEY_BTREE_BUCKET_SET_LEFT_SIBLING_PO = 207;
+  public static final int NORMALIZED_KEY_BTREE_BUCKET_SET_RIGHT_SIBLING_PO = 208;
+
+  public static final int NORMALIZED_KEY_BTREE_ENTRY_POINT_INIT_PO = 209;
+  public static final int NORMALIZED_KEY_BTREE_ENTRY_POINT_SET_TREE_SIZE_PO = 210;
+  public static final int NORMALIZED_KEY_BTREE_ENTRY_POINT_SET_PAGES_SIZE_PO = 211;
 }
@@ -14,6 +14,7 @@ import com.orientechnologies.common.thread.OThreadPoolExecutorWithLogging;
 import com.orientechnologies.common.types.OModifiableLong;
 import com.orientechnologies.common.util.OPair;
 import com.orientechnologies.common.util.OUncaughtExceptionHandler;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.exception.EncryptionKeyAbsentException;
 import com.orientechnologies.orient.core.exception.OInvalidStorageEncryptionKeyException;
 import com.orientechnologies.orient.core.exception.OSecurityException;
@@ -99,6 +100,9 @@ public final class CASDiskWriteAheadLog implements OWriteAheadLog {
 
   protected static final int DEFAULT_MAX_CACHE_SIZE = Integer.MAX_VALUE;
 
+  private static final int GROUP_COMMIT_HISTOGRAM_SIZE = 24;
+  private static final long GROUP_COMMIT_MAX_WAIT_INTERVAL = 10;
+
   private static final OScheduledThreadPoolExecutorWithLogging commitExecutor;
   private static final OThreadPoolExecutorWithLogging writeExecutor;
 
@@ -232,6 +236,28 @@ public final class CASDiskWriteAheadLog implements OWriteAheadLog {
   private final LongAdder threadsWaitingSum = new LongAdder();
   private final LongAdder threadsWaitingCount = new LongAdder();
 
+  /**
+   * Interval in microseconds during which commits are collected before WAL is forced to the disk,
+   * or negative value if group commit is disabled.
+   */
+  private final int groupCommitInterval;
+
+  private final AtomicBoolean groupCommitScheduled = new AtomicBoolean();
+  private final Object groupCommitMonitor = new Object();
+
+  /**
+   * Histogram of time spent by threads waiting for the group commit, bucket with index <code>i
+   * </code> contains amount of waits which took less than <code>2^(i+1)</code> microseconds.
+   */
+  private final LongAdder[] groupCommitWaitHistogram = new LongAdder[GROUP_COMMIT_HISTOGRAM_SIZE];
+
+  private final LongAdder groupCommitWaitSum = new LongAdder();
+
+  /** Minimum size of records which are compressed, not positive value switches off compression. */
+  private final int minCompressedRecordSize;
+
+  private final boolean highCompression;
+
   private long reportTs = -1;
 
   public CASDiskWriteAheadLog(
@@ -254,6 +280,96 @@ public final class CASDiskWriteAheadLog implements OWriteAheadLog {
       boolean printPerformanceStatistic,
       int statisticPrintInterval)
       throws IOException {
+    this(
+        storageName,
+        storagePath,
+        walPath,
+        maxPagesCacheSize,
+        bufferSize,
+        aesKey,
+        iv,
+        segmentsInterval,
+        maxSegmentSize,
+        commitDelay,
+        filterWALFiles,
+        locale,
+        walSizeHardLimit,
+        fsyncInterval,
+        keepSingleWALSegment,
+        callFsync,
+        printPerformanceStatistic,
+        statisticPrintInterval,
+        -1);
+  }
+
+  public CASDiskWriteAheadLog(
+      final String storageName,
+      final Path storagePath,
+      final Path walPath,
+      final int maxPagesCacheSize,
+      final int bufferSize,
+      byte[] aesKey,
+      byte[] iv,
+      long segmentsInterval,
+      final long maxSegmentSize,
+      final int commitDelay,
+      final boolean filterWALFiles,
+      final Locale locale,
+      final long walSizeHardLimit,
+      final int fsyncInterval,
+      boolean keepSingleWALSegment,
+      boolean callFsync,
+      boolean printPerformanceStatistic,
+      int statisticPrintInterval,
+      int groupCommitInterval)
+      throws IOException {
+    this(
+        storageName,
+        storagePath,
+        walPath,
+        maxPagesCacheSize,
+        bufferSize,
+        aesKey,
+        iv,
+        segmentsInterval,
+        maxSegmentSize,
+        commitDelay,
+        filterWALFiles,
+        locale,
+        walSizeHardLimit,
+        fsyncInterval,
+        keepSingleWALSegment,
+        callFsync,
+        printPerformanceStatistic,
+        statisticPrintInterval,
+        groupCommitInterval,
+        OGlobalConfiguration.WAL_MIN_COMPRESSED_RECORD_SIZE.getValueAsInteger(),
+        OGlobalConfiguration.WAL_HIGH_COMPRESSION.getValueAsBoolean());
+  }
+
+  public CASDiskWriteAheadLog(
+      final String storageName,
+      final Path storagePath,
+      final Path walPath,
+      final int maxPagesCacheSize,
+      final int bufferSize,
+      byte[] aesKey,
+      byte[] iv,
+      long segmentsInterval,
+      final long maxSegmentSize,
+      final int commitDelay,
+      final boolean filterWALFiles,
+      final Locale locale,
+      final long walSizeHardLimit,
+      final int fsyncInterval,
+      boolean keepSingleWALSegment,
+      boolean callFsync,
+      boolean printPerformanceStatistic,
+      int statisticPrintInterval,
+      int groupCommitInterval,
+      int minCompressedRecordSize,
+      boolean highCompression)
+      throws IOException {
 
     if (aesKey != null && aesKey.length != 16 && aesKey.length != 24 && aesKey.length != 32) {
       throw new OInvalidStorageEncryptionKeyException(
@@ -276,6 +392,13 @@ public final class CASDiskWriteAheadLog implements OWriteAheadLog {
     this.statisticPrintInterval = statisticPrintInterval;
 
     this.fsyncInterval = fsyncInterval;
+    this.groupCommitInterval = groupCommitInterval;
+    this.minCompressedRecordSize = minCompressedRecordSize;
+    this.highCompression = highCompression;
+
+    for (int i = 0; i < groupCommitWaitHistogram.length; i++) {
+      groupCommitWaitHistogram[i] = new LongAdder();
+    }
 
     walSizeLimit = walSizeHardLimit;
 
@@ -1321,7 +1444,8 @@ public final class CASDiskWriteAheadLog implements OWriteAheadLog {
   private OLogSequenceNumber doLogRecord(final WriteableWALRecord writeableRecord) {
     ByteBuffer serializedRecord;
     if (writeableRecord.getBinaryContentLen() < 0) {
-      serializedRecord = OWALRecordsFactory.toStream(writeableRecord);
+      serializedRecord =
+          OWALRecordsFactory.toStream(writeableRecord, minCompressedRecordSize, highCompression);
       writeableRecord.setBinaryContent(serializedRecord, 0);
     } else {
       serializedRecord = writeableRecord.getBinaryContent();
@@ -1477,6 +1601,78 @@ public final class CASDiskWriteAheadLog implements OWriteAheadLog {
     return flushedLSN;
   }
 
+  @Override
+  public void waitForGroupCommit(final OLogSequenceNumber lsn) {
+    if (groupCommitInterval < 0 || lsn == null || isFlushed(lsn)) {
+      return;
+    }
+
+    final long startTs = System.nanoTime();
+    synchronized (groupCommitMonitor) {
+      while (!isFlushed(lsn)) {
+        // the first thread which does not find scheduled flush becomes the leader of the group,
+        // the flush is performed by WAL flush thread once group commit interval is over
+        if (groupCommitScheduled.compareAndSet(false, true)) {
+          commitExecutor.schedule(this::groupCommit, groupCommitInterval, TimeUnit.MICROSECONDS);
+        }
+
+        if (recordsWriterFuture.isDone()) {
+          throw new OStorageException(
+              "WAL records write task for storage '" + storageName + "' is finished");
+        }
+
+        try {
+          groupCommitMonitor.wait(GROUP_COMMIT_MAX_WAIT_INTERVAL);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw OException.wrapException(
+              new OStorageException("Group commit in storage " + storageName + " was interrupted"),
+              e);
+        }
+      }
+    }
+
+    final long waitTime = (System.nanoTime() - startTs) / 1_000;
+    groupCommitWaitSum.add(waitTime);
+    final int bucket =
+        Math.min(
+            GROUP_COMMIT_HISTOGRAM_SIZE - 1, 63 - Long.numberOfLeadingZeros(Math.max(waitTime, 1)));
+    groupCommitWaitHistogram[bucket].increment();
+  }
+
+  private boolean isFlushed(final OLogSequenceNumber lsn) {
+    final OLogSequenceNumber flushed = flushedLSN;
+    return flushed != null && flushed.compareTo(lsn) >= 0;
+  }
+
+  private void groupCommit() {
+    // reset flag before the write, so all records logged after that will be covered by next flush
+    groupCommitScheduled.set(false);
+    new RecordsWriter(true, true).run();
+  }
+
+  private void notifyGroupCommitWaiters() {
+    if (groupCommitInterval >= 0) {
+      synchronized (groupCommitMonitor) {
+        groupCommitMonitor.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * @return Histogram of time spent by threads waiting for the group commit, item with index <code>
+   *     i</code> contains amount of waits which took from <code>2^i</code> till <code>2^(i+1)
+   *     </code> microseconds, the last item contains all longer waits.
+   */
+  public long[] getGroupCommitWaitHistogram() {
+    final long[] histogram = new long[groupCommitWaitHistogram.length];
+    for (int i = 0; i < histogram.length; i++) {
+      histogram[i] = groupCommitWaitHistogram[i].sum();
+    }
+
+    return histogram;
+  }
+
   private void doEncryptionDecryption(
       final long segmentId,
       final long pageIndex,
@@ -2100,6 +2296,7 @@ public final class CASDiskWriteAheadLog implements OWriteAheadLog {
                             flushedLSN = writtenUpTo.get().lsn;
 
                             fireEventsFor(flushedLSN);
+                            notifyGroupCommitWaiters();
 
                             if (printPerformanceStatistic) {
                               final long endTs = System.nanoTime();
@@ -2287,18 +2484,26 @@ public final class CASDiskWriteAheadLog implements OWriteAheadLog {
         final long threadsWaitingCount = CASDiskWriteAheadLog.this.threadsWaitingCount.sum();
         final long threadsWaitingSum = CASDiskWriteAheadLog.this.threadsWaitingSum.sum();
 
+        long groupCommitWaitCount = 0;
+        for (final LongAdder bucket : groupCommitWaitHistogram) {
+          groupCommitWaitCount += bucket.sum();
+        }
+        final long groupCommitWaitSum = CASDiskWriteAheadLog.this.groupCommitWaitSum.sum();
+
         OLogManager.instance()
             .infoNoDb(
                 this,
                 "WAL stat:%s: %d KB was written, write speed is %d KB/s. FSync count %d. "
-                    + "Avg. fsync time %d ms. %d times threads were waiting for WAL. Avg wait interval %d ms.",
+                    + "Avg. fsync time %d ms. %d times threads were waiting for WAL. Avg wait interval %d ms."
+                    + " Avg. group commit wait interval %d us.",
                 storageName,
                 bytesWritten / 1024,
                 writtenTime > 0 ? 1_000_000_000L * bytesWritten / writtenTime / 1024 : -1,
                 fsyncCount,
                 fsyncCount > 0 ? fsyncTime / fsyncCount / 1_000_000 : -1,
                 threadsWaitingCount,
-                threadsWaitingCount > 0 ? threadsWaitingSum / threadsWaitingCount / 1_000_000 : -1);
+                threadsWaitingCount > 0 ? threadsWaitingSum / threadsWaitingCount / 1_000_000 : -1,
+                groupCommitWaitCount > 0 ? groupCommitWaitSum / groupCommitWaitCount : -1);
 
         //noinspection NonAtomicOperationOnVolatileField
         CASDiskWriteAheadLog.this.bytesWrittenSum -= bytesWritten;
@@ -0,0 +1,89 @@
+package com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket;
+
+import com.orientechnologies.common.serialization.types.OIntegerSerializer;
+import com.orientechnologies.orient.core.storage.cache.OCacheEntry;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.PageOperationRecord;
+import com.orientechnologies.orient.core.storage.index.nkbtree.NormalizedKeyBTreeBucket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class NormalizedKeyBTreeBucketAddAllPO extends PageOperationRecord {
+  private int prevSize;
+
+  private List<byte[]> rawRecords;
+
+  public NormalizedKeyBTreeBucketAddAllPO() {}
+
+  public NormalizedKeyBTreeBucketAddAllPO(int prevSize, List<byte[]> rawRecords) {
+    this.prevSize = prevSize;
+    this.rawRecords = rawRecords;
+  }
+
+  public int getPrevSize() {
+    return prevSize;
+  }
+
+  public List<byte[]> getRawRecords() {
+    return rawRecords;
+  }
+
+  @Override
+  public void redo(OCacheEntry cacheEntry) {
+    final NormalizedKeyBTreeBucket bucket = new NormalizedKeyBTreeBucket(cacheEntry);
+    bucket.addAll(rawRecords);
+  }
+
+  @Override
+  public void undo(OCacheEntry cacheEntry) {
+    final NormalizedKeyBTreeBucket bucket = new NormalizedKeyBTreeBucket(cacheEntry);
+    bucket.shrink(prevSize);
+  }
+
+  @Override
+  public int getId() {
+    return WALRecordTypes.NORMALIZED_KEY_BTREE_BUCKET_ADD_ALL_PO;
+  }
+
+  @Override
+  public int serializedSize() {
+    int serializedSize =
+        2 * OIntegerSerializer.INT_SIZE + OIntegerSerializer.INT_SIZE * rawRecords.size();
+    for (final byte[] record : rawRecords) {
+      serializedSize += record.length;
+    }
+
+    return super.serializedSize() + serializedSize;
+  }
+
+  @Override
+  protected void serializeToByteBuffer(ByteBuffer buffer) {
+    super.serializeToByteBuffer(buffer);
+
+    buffer.putInt(prevSize);
+
+    buffer.putInt(rawRecords.size());
+    for (final byte[] record : rawRecords) {
+      buffer.putInt(record.length);
+      buffer.put(record);
+    }
+  }
+
+  @Override
+  protected void deserializeFromByteBuffer(ByteBuffer buffer) {
+    super.deserializeFromByteBuffer(buffer);
+
+    prevSize = buffer.getInt();
+
+    rawRecords = new ArrayList<>();
+    final int recordsSize = buffer.getInt();
+    for (int i = 0; i < recordsSize; i++) {
+      final int recordSize = buffer.getInt();
+      final byte[] record = new byte[recordSize];
+      buffer.get(record);
+
+      rawRecords.add(record);
+    }
+  }
+}
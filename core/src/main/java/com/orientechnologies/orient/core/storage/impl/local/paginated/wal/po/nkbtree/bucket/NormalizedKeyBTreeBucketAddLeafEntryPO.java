@@ -0,0 +1,105 @@
+package com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket;
+
+import com.orientechnologies.common.serialization.types.OIntegerSerializer;
+import com.orientechnologies.orient.core.storage.cache.OCacheEntry;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.PageOperationRecord;
+import com.orientechnologies.orient.core.storage.index.nkbtree.NormalizedKeyBTreeBucket;
+import java.nio.ByteBuffer;
+
+public final class NormalizedKeyBTreeBucketAddLeafEntryPO extends PageOperationRecord {
+  private int index;
+  private byte[] key;
+  private byte[] serializedKey;
+  private byte[] value;
+
+  public NormalizedKeyBTreeBucketAddLeafEntryPO() {}
+
+  public NormalizedKeyBTreeBucketAddLeafEntryPO(
+      int index, byte[] key, byte[] serializedKey, byte[] value) {
+    this.index = index;
+    this.key = key;
+    this.serializedKey = serializedKey;
+    this.value = value;
+  }
+
+  public int getIndex() {
+    return index;
+  }
+
+  public byte[] getKey() {
+    return key;
+  }
+
+  public byte[] getSerializedKey() {
+    return serializedKey;
+  }
+
+  public byte[] getValue() {
+    return value;
+  }
+
+  @Override
+  public void redo(OCacheEntry cacheEntry) {
+    final NormalizedKeyBTreeBucket bucket = new NormalizedKeyBTreeBucket(cacheEntry);
+    final boolean result = bucket.addLeafEntry(index, key, serializedKey, value);
+    if (!result) {
+      throw new IllegalStateException("Can not redo leaf entry addition");
+    }
+  }
+
+  @Override
+  public void undo(OCacheEntry cacheEntry) {
+    final NormalizedKeyBTreeBucket bucket = new NormalizedKeyBTreeBucket(cacheEntry);
+    bucket.removeLeafEntry(index, key, serializedKey, value);
+  }
+
+  @Override
+  public int getId() {
+    return WALRecordTypes.NORMALIZED_KEY_BTREE_BUCKET_ADD_LEAF_ENTRY_PO;
+  }
+
+  @Override
+  public int serializedSize() {
+    return super.serializedSize()
+        + 4 * OIntegerSerializer.INT_SIZE
+        + key.length
+        + serializedKey.length
+        + value.length;
+  }
+
+  @Override
+  protected void serializeToByteBuffer(ByteBuffer buffer) {
+    super.serializeToByteBuffer(buffer);
+
+    buffer.putInt(index);
+
+    buffer.putInt(key.length);
+    buffer.put(key);
+
+    buffer.putInt(serializedKey.length);
+    buffer.put(serializedKey);
+
+    buffer.putInt(value.length);
+    buffer.put(value);
+  }
+
+  @Override
+  protected void deserializeFromByteBuffer(ByteBuffer buffer) {
+    super.deserializeFromByteBuffer(buffer);
+
+    index = buffer.getInt();
+
+    final int keyLen = buffer.getInt();
+    key = new byte[keyLen];
+    buffer.get(key);
+
+    final int serializedKeyLen = buffer.getInt();
+    serializedKey = new byte[serializedKeyLen];
+    buffer.get(serializedKey);
+
+    final int valueLen = buffer.getInt();
+    value = new byte[valueLen];
+    buffer.get(value);
+  }
+}
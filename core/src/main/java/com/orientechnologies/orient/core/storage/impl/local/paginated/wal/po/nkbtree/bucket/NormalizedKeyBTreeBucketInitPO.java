@@ -0,0 +1,51 @@
+package com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket;
+
+import com.orientechnologies.common.serialization.types.OByteSerializer;
+import com.orientechnologies.orient.core.storage.cache.OCacheEntry;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.PageOperationRecord;
+import com.orientechnologies.orient.core.storage.index.nkbtree.NormalizedKeyBTreeBucket;
+import java.nio.ByteBuffer;
+
+public final class NormalizedKeyBTreeBucketInitPO extends PageOperationRecord {
+  private boolean isLeaf;
+
+  public NormalizedKeyBTreeBucketInitPO() {}
+
+  public NormalizedKeyBTreeBucketInitPO(boolean isLeaf) {
+    this.isLeaf = isLeaf;
+  }
+
+  @Override
+  public void redo(OCacheEntry cacheEntry) {
+    final NormalizedKeyBTreeBucket bucket = new NormalizedKeyBTreeBucket(cacheEntry);
+    bucket.init(isLeaf);
+  }
+
+  @Override
+  public void undo(OCacheEntry cacheEntry) {}
+
+  @Override
+  public int getId() {
+    return WALRecordTypes.NORMALIZED_KEY_BTREE_BUCKET_INIT_PO;
+  }
+
+  @Override
+  public int serializedSize() {
+    return super.serializedSize() + OByteSerializer.BYTE_SIZE;
+  }
+
+  @Override
+  protected void serializeToByteBuffer(ByteBuffer buffer) {
+    super.serializeToByteBuffer(buffer);
+
+    buffer.put(isLeaf ? (byte) 1 : 0);
+  }
+
+  @Override
+  protected void deserializeFromByteBuffer(ByteBuffer buffer) {
+    super.deserializeFromByteBuffer(buffer);
+
+    isLeaf = buffer.get() > 0;
+  }
+}
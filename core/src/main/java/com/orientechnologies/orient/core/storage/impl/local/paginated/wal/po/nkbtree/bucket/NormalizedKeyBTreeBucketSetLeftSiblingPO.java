@@ -0,0 +1,66 @@
+package com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket;
+
+import com.orientechnologies.common.serialization.types.OIntegerSerializer;
+import com.orientechnologies.orient.core.storage.cache.OCacheEntry;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.PageOperationRecord;
+import com.orientechnologies.orient.core.storage.index.nkbtree.NormalizedKeyBTreeBucket;
+import java.nio.ByteBuffer;
+
+public final class NormalizedKeyBTreeBucketSetLeftSiblingPO extends PageOperationRecord {
+  private int prevLeftSibling;
+  private int leftSibling;
+
+  public NormalizedKeyBTreeBucketSetLeftSiblingPO() {}
+
+  public NormalizedKeyBTreeBucketSetLeftSiblingPO(int prevLeftSibling, int leftSibling) {
+    this.prevLeftSibling = prevLeftSibling;
+    this.leftSibling = leftSibling;
+  }
+
+  public int getPrevLeftSibling() {
+    return prevLeftSibling;
+  }
+
+  public int getLeftSibling() {
+    return leftSibling;
+  }
+
+  @Override
+  public void redo(OCacheEntry cacheEntry) {
+    final NormalizedKeyBTreeBucket bucket = new NormalizedKeyBTreeBucket(cacheEntry);
+    bucket.setLeftSibling(leftSibling);
+  }
+
+  @Override
+  public void undo(OCacheEntry cacheEntry) {
+    final NormalizedKeyBTreeBucket bucket = new NormalizedKeyBTreeBucket(cacheEntry);
+    bucket.setLeftSibling(prevLeftSibling);
+  }
+
+  @Override
+  public int getId() {
+    return WALRecordTypes.NORMALIZED_KEY_BTREE_BUCKET_SET_LEFT_SIBLING_PO;
+  }
+
+  @Override
+  public int serializedSize() {
+    return super.serializedSize() + 2 * OIntegerSerializer.INT_SIZE;
+  }
+
+  @Override
+  protected void serializeToByteBuffer(ByteBuffer buffer) {
+    super.serializeToByteBuffer(buffer);
+
+    buffer.putInt(prevLeftSibling);
+    buffer.putInt(leftSibling);
+  }
+
+  @Override
+  protected void deserializeFromByteBuffer(ByteBuffer buffer) {
+    super.deserializeFromByteBuffer(buffer);
+
+    prevLeftSibling = buffer.getInt();
+    leftSibling = buffer.getInt();
+  }
+}
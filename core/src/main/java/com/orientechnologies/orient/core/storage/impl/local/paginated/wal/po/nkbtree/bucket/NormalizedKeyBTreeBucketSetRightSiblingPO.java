@@ -0,0 +1,66 @@
+package com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket;
+
+import com.orientechnologies.common.serialization.types.OIntegerSerializer;
+import com.orientechnologies.orient.core.storage.cache.OCacheEntry;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.PageOperationRecord;
+import com.orientechnologies.orient.core.storage.index.nkbtree.NormalizedKeyBTreeBucket;
+import java.nio.ByteBuffer;
+
+public final class NormalizedKeyBTreeBucketSetRightSiblingPO extends PageOperationRecord {
+  private int prevRightSibling;
+  private int rightSibling;
+
+  public NormalizedKeyBTreeBucketSetRightSiblingPO() {}
+
+  public NormalizedKeyBTreeBucketSetRightSiblingPO(int prevRightSibling, int rightSibling) {
+    this.prevRightSibling = prevRightSibling;
+    this.rightSibling = rightSibling;
+  }
+
+  public int getPrevRightSibling() {
+    return prevRightSibling;
+  }
+
+  public int getRightSibling() {
+    return rightSibling;
+  }
+
+  @Override
+  public void redo(OCacheEntry cacheEntry) {
+    final NormalizedKeyBTreeBucket bucket = new NormalizedKeyBTreeBucket(cacheEntry);
+    bucket.setRightSibling(rightSibling);
+  }
+
+  @Override
+  public void undo(OCacheEntry cacheEntry) {
+    final NormalizedKeyBTreeBucket bucket = new NormalizedKeyBTreeBucket(cacheEntry);
+    bucket.setRightSibling(prevRightSibling);
+  }
+
+  @Override
+  public int getId() {
+    return WALRecordTypes.NORMALIZED_KEY_BTREE_BUCKET_SET_RIGHT_SIBLING_PO;
+  }
+
+  @Override
+  public int serializedSize() {
+    return super.serializedSize() + 2 * OIntegerSerializer.INT_SIZE;
+  }
+
+  @Override
+  protected void serializeToByteBuffer(ByteBuffer buffer) {
+    super.serializeToByteBuffer(buffer);
+
+    buffer.putInt(prevRightSibling);
+    buffer.putInt(rightSibling);
+  }
+
+  @Override
+  protected void deserializeFromByteBuffer(ByteBuffer buffer) {
+    super.deserializeFromByteBuffer(buffer);
+
+    prevRightSibling = buffer.getInt();
+    rightSibling = buffer.getInt();
+  }
+}
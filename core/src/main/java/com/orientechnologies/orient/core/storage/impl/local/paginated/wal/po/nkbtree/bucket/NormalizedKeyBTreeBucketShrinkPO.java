@@ -0,0 +1,88 @@
+package com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket;
+
+import com.orientechnologies.common.serialization.types.OIntegerSerializer;
+import com.orientechnologies.orient.core.storage.cache.OCacheEntry;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.PageOperationRecord;
+import com.orientechnologies.orient.core.storage.index.nkbtree.NormalizedKeyBTreeBucket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class NormalizedKeyBTreeBucketShrinkPO extends PageOperationRecord {
+  private int newSize;
+  private List<byte[]> removedRecords;
+
+  public NormalizedKeyBTreeBucketShrinkPO() {}
+
+  public NormalizedKeyBTreeBucketShrinkPO(final int newSize, final List<byte[]> removedRecords) {
+    this.newSize = newSize;
+    this.removedRecords = removedRecords;
+  }
+
+  public int getNewSize() {
+    return newSize;
+  }
+
+  public List<byte[]> getRemovedRecords() {
+    return removedRecords;
+  }
+
+  @Override
+  public void redo(OCacheEntry cacheEntry) {
+    final NormalizedKeyBTreeBucket bucket = new NormalizedKeyBTreeBucket(cacheEntry);
+    bucket.shrink(newSize);
+  }
+
+  @Override
+  public void undo(OCacheEntry cacheEntry) {
+    final NormalizedKeyBTreeBucket bucket = new NormalizedKeyBTreeBucket(cacheEntry);
+    bucket.addAll(removedRecords);
+  }
+
+  @Override
+  public int getId() {
+    return WALRecordTypes.NORMALIZED_KEY_BTREE_BUCKET_SHRINK_PO;
+  }
+
+  @Override
+  public int serializedSize() {
+    int serializedSize =
+        2 * OIntegerSerializer.INT_SIZE + removedRecords.size() * OIntegerSerializer.INT_SIZE;
+    for (final byte[] record : removedRecords) {
+      serializedSize += record.length;
+    }
+
+    return super.serializedSize() + serializedSize;
+  }
+
+  @Override
+  protected void serializeToByteBuffer(ByteBuffer buffer) {
+    super.serializeToByteBuffer(buffer);
+
+    buffer.putInt(newSize);
+    buffer.putInt(removedRecords.size());
+
+    for (final byte[] record : removedRecords) {
+      buffer.putInt(record.length);
+      buffer.put(record);
+    }
+  }
+
+  @Override
+  protected void deserializeFromByteBuffer(ByteBuffer buffer) {
+    super.deserializeFromByteBuffer(buffer);
+
+    newSize = buffer.getInt();
+    final int records = buffer.getInt();
+
+    removedRecords = new ArrayList<>();
+    for (int i = 0; i < records; i++) {
+      final int recordLen = buffer.getInt();
+      final byte[] record = new byte[recordLen];
+      buffer.get(record);
+
+      removedRecords.add(record);
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket;
+
+import com.orientechnologies.common.serialization.types.OIntegerSerializer;
+import com.orientechnologies.orient.core.storage.cache.OCacheEntry;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.PageOperationRecord;
+import com.orientechnologies.orient.core.storage.index.nkbtree.NormalizedKeyBTreeBucket;
+import java.nio.ByteBuffer;
+
+public final class NormalizedKeyBTreeBucketUpdateValuePO extends PageOperationRecord {
+  private int index;
+
+  private byte[] prevValue;
+  private byte[] value;
+
+  public NormalizedKeyBTreeBucketUpdateValuePO() {}
+
+  public NormalizedKeyBTreeBucketUpdateValuePO(int index, byte[] prevValue, byte[] value) {
+    this.index = index;
+    this.prevValue = prevValue;
+    this.value = value;
+  }
+
+  public int getIndex() {
+    return index;
+  }
+
+  public byte[] getPrevValue() {
+    return prevValue;
+  }
+
+  public byte[] getValue() {
+    return value;
+  }
+
+  @Override
+  public void redo(OCacheEntry cacheEntry) {
+    final NormalizedKeyBTreeBucket bucket = new NormalizedKeyBTreeBucket(cacheEntry);
+    bucket.updateValue(index, value);
+  }
+
+  @Override
+  public void undo(OCacheEntry cacheEntry) {
+    final NormalizedKeyBTreeBucket bucket = new NormalizedKeyBTreeBucket(cacheEntry);
+    bucket.updateValue(index, prevValue);
+  }
+
+  @Override
+  public int getId() {
+    return WALRecordTypes.NORMALIZED_KEY_BTREE_BUCKET_UPDATE_VALUE_PO;
+  }
+
+  @Override
+  public int serializedSize() {
+    return super.serializedSize()
+        + 3 * OIntegerSerializer.INT_SIZE
+        + prevValue.length
+        + value.length;
+  }
+
+  @Override
+  protected void serializeToByteBuffer(ByteBuffer buffer) {
+    super.serializeToByteBuffer(buffer);
+
+    buffer.putInt(index);
+
+    buffer.putInt(prevValue.length);
+    buffer.put(prevValue);
+
+    buffer.putInt(value.length);
+    buffer.put(value);
+  }
+
+  @Override
+  protected void deserializeFromByteBuffer(ByteBuffer buffer) {
+    super.deserializeFromByteBuffer(buffer);
+
+    index = buffer.getInt();
+
+    final int prevValueLen = buffer.getInt();
+    prevValue = new byte[prevValueLen];
+    buffer.get(prevValue);
+
+    final int valueLen = buffer.getInt();
+    value = new byte[valueLen];
+    buffer.get(value);
+  }
+}
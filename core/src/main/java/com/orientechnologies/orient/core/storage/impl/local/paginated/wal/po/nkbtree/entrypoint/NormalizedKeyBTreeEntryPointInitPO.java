@@ -0,0 +1,22 @@
+package com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.entrypoint;
+
+import com.orientechnologies.orient.core.storage.cache.OCacheEntry;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.PageOperationRecord;
+import com.orientechnologies.orient.core.storage.index.nkbtree.NormalizedKeyBTreeEntryPoint;
+
+public final class NormalizedKeyBTreeEntryPointInitPO extends PageOperationRecord {
+  @Override
+  public void redo(OCacheEntry cacheEntry) {
+    final NormalizedKeyBTreeEntryPoint bucket = new NormalizedKeyBTreeEntryPoint(cacheEntry);
+    bucket.init();
+  }
+
+  @Override
+  public void undo(OCacheEntry cacheEntry) {}
+
+  @Override
+  public int getId() {
+    return WALRecordTypes.NORMALIZED_KEY_BTREE_ENTRY_POINT_INIT_PO;
+  }
+}
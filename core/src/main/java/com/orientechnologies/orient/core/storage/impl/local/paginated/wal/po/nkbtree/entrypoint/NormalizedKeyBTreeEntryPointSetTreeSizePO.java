@@ -0,0 +1,66 @@
+package com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.entrypoint;
+
+import com.orientechnologies.common.serialization.types.OLongSerializer;
+import com.orientechnologies.orient.core.storage.cache.OCacheEntry;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.WALRecordTypes;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.PageOperationRecord;
+import com.orientechnologies.orient.core.storage.index.nkbtree.NormalizedKeyBTreeEntryPoint;
+import java.nio.ByteBuffer;
+
+public final class NormalizedKeyBTreeEntryPointSetTreeSizePO extends PageOperationRecord {
+  private long prevTreeSize;
+  private long treeSize;
+
+  public NormalizedKeyBTreeEntryPointSetTreeSizePO() {}
+
+  public NormalizedKeyBTreeEntryPointSetTreeSizePO(long prevTreeSize, long treeSize) {
+    this.prevTreeSize = prevTreeSize;
+    this.treeSize = treeSize;
+  }
+
+  public long getPrevTreeSize() {
+    return prevTreeSize;
+  }
+
+  public long getTreeSize() {
+    return treeSize;
+  }
+
+  @Override
+  public void redo(OCacheEntry cacheEntry) {
+    final NormalizedKeyBTreeEntryPoint bucket = new NormalizedKeyBTreeEntryPoint(cacheEntry);
+    bucket.setTreeSize(treeSize);
+  }
+
+  @Override
+  public void undo(OCacheEntry cacheEntry) {
+    final NormalizedKeyBTreeEntryPoint bucket = new NormalizedKeyBTreeEntryPoint(cacheEntry);
+    bucket.setTreeSize(prevTreeSize);
+  }
+
+  @Override
+  public int getId() {
+    return WALRecordTypes.NORMALIZED_KEY_BTREE_ENTRY_POINT_SET_TREE_SIZE_PO;
+  }
+
+  @Override
+  public int serializedSize() {
+    return super.serializedSize() + 2 * OLongSerializer.LONG_SIZE;
+  }
+
+  @Override
+  protected void serializeToByteBuffer(ByteBuffer buffer) {
+    super.serializeToByteBuffer(buffer);
+
+    buffer.putLong(treeSize);
+    buffer.putLong(prevTreeSize);
+  }
+
+  @Override
+  protected void deserializeFromByteBuffer(ByteBuffer buffer) {
+    super.deserializeFromByteBuffer(buffer);
+
+    treeSize = buffer.getLong();
+    prevTreeSize = buffer.getLong();
+  }
+}
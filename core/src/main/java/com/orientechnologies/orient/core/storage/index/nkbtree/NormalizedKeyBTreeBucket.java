@@ -0,0 +1,654 @@
+package com.orientechnologies.orient.core.storage.index.nkbtree;
+
+import com.orientechnologies.common.serialization.types.OByteSerializer;
+import com.orientechnologies.common.serialization.types.OIntegerSerializer;
+import com.orientechnologies.common.serialization.types.OLongSerializer;
+import com.orientechnologies.common.serialization.types.OShortSerializer;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.storage.cache.OCacheEntry;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.base.ODurablePage;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket.NormalizedKeyBTreeBucketAddAllPO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket.NormalizedKeyBTreeBucketAddLeafEntryPO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket.NormalizedKeyBTreeBucketAddNonLeafEntryPO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket.NormalizedKeyBTreeBucketInitPO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket.NormalizedKeyBTreeBucketRemoveLeafEntryPO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket.NormalizedKeyBTreeBucketRemoveNonLeafEntryPO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket.NormalizedKeyBTreeBucketSetLeftSiblingPO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket.NormalizedKeyBTreeBucketSetRightSiblingPO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket.NormalizedKeyBTreeBucketShrinkPO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket.NormalizedKeyBTreeBucketSwitchBucketTypePO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.bucket.NormalizedKeyBTreeBucketUpdateValuePO;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bucket of {@link NormalizedKeyBTreeValue}. Layout of the page is the same as the layout of the
+ * bucket of {@link
+ * com.orientechnologies.orient.core.storage.index.sbtree.singlevalue.v3.CellBTreeSingleValueV3}:
+ * array of positions of entries grows from the start of the page and entries grow from its end.
+ * Keys are normalized so they are compared as unsigned bytes directly inside of the page, and the
+ * prefix which is common for all keys of the bucket is stored only once before the array of
+ * positions, entries contain only the rest of the key.
+ *
+ * <p>Leaf entry contains the rest of the normalized key, the key serialized by the key serializer
+ * of the tree, which is used to return the original keys from the cursors, and the value. Non-leaf
+ * entry contains pointers to the left and right children and the rest of the normalized key.
+ * Length of the normalized and serialized key is written before the key as unsigned short.
+ *
+ * <p>Prefix is calculated when entries are added to the bucket in bulk, during split of the bucket,
+ * and is shortened when the added key does not start with it, all entries of the bucket are
+ * rewritten in such case. "Raw" entries which are used to move entries between buckets contain the
+ * whole normalized key.
+ */
+public final class NormalizedKeyBTreeBucket extends ODurablePage {
+  public static final int RID_SIZE = OShortSerializer.SHORT_SIZE + OLongSerializer.LONG_SIZE;
+
+  private static final int FREE_POINTER_OFFSET = NEXT_FREE_POSITION;
+  private static final int SIZE_OFFSET = FREE_POINTER_OFFSET + OIntegerSerializer.INT_SIZE;
+  private static final int IS_LEAF_OFFSET = SIZE_OFFSET + OIntegerSerializer.INT_SIZE;
+  private static final int LEFT_SIBLING_OFFSET = IS_LEAF_OFFSET + OByteSerializer.BYTE_SIZE;
+  private static final int RIGHT_SIBLING_OFFSET = LEFT_SIBLING_OFFSET + OLongSerializer.LONG_SIZE;
+  private static final int PREFIX_SIZE_OFFSET = RIGHT_SIBLING_OFFSET + OLongSerializer.LONG_SIZE;
+  private static final int PREFIX_OFFSET = PREFIX_SIZE_OFFSET + OShortSerializer.SHORT_SIZE;
+
+  private static final int CHILDREN_SIZE = 2 * OIntegerSerializer.INT_SIZE;
+
+  public NormalizedKeyBTreeBucket(final OCacheEntry cacheEntry) {
+    super(cacheEntry);
+  }
+
+  public void switchBucketType() {
+    if (!isEmpty()) {
+      throw new IllegalStateException(
+          "Type of bucket can be changed only bucket if bucket is empty");
+    }
+
+    final boolean isLeaf = isLeaf();
+    if (isLeaf) {
+      setByteValue(IS_LEAF_OFFSET, (byte) 0);
+    } else {
+      setByteValue(IS_LEAF_OFFSET, (byte) 1);
+    }
+
+    addPageOperation(new NormalizedKeyBTreeBucketSwitchBucketTypePO());
+  }
+
+  public void init(boolean isLeaf) {
+    setIntValue(FREE_POINTER_OFFSET, MAX_PAGE_SIZE_BYTES);
+    setIntValue(SIZE_OFFSET, 0);
+
+    setByteValue(IS_LEAF_OFFSET, (byte) (isLeaf ? 1 : 0));
+    setLongValue(LEFT_SIBLING_OFFSET, -1);
+    setLongValue(RIGHT_SIBLING_OFFSET, -1);
+    setShortValue(PREFIX_SIZE_OFFSET, (short) 0);
+
+    addPageOperation(new NormalizedKeyBTreeBucketInitPO(isLeaf));
+  }
+
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  public int size() {
+    return getIntValue(SIZE_OFFSET);
+  }
+
+  public boolean isLeaf() {
+    return getByteValue(IS_LEAF_OFFSET) > 0;
+  }
+
+  /**
+   * Binary search of the normalized key inside of the bucket.
+   *
+   * @return index of the key or <code>-(insertion point) - 1</code> if key is absent.
+   */
+  public int find(final byte[] key) {
+    final int size = size();
+    if (size == 0) {
+      return -1;
+    }
+
+    final int prefixSize = getPrefixSize();
+    final int prefixCmp = compare(PREFIX_OFFSET, prefixSize, key, 0, true);
+    if (prefixCmp != 0) {
+      // if key does not start with prefix it is less or greater than all keys of the bucket
+      return prefixCmp < 0 ? -(size + 1) : -1;
+    }
+
+    final int positionsOffset = PREFIX_OFFSET + prefixSize;
+    final boolean isLeaf = isLeaf();
+
+    int low = 0;
+    int high = size - 1;
+
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      int keyOffset = getIntValue(positionsOffset + mid * OIntegerSerializer.INT_SIZE);
+      if (!isLeaf) {
+        keyOffset += CHILDREN_SIZE;
+      }
+
+      final int cmp =
+          compare(
+              keyOffset + OShortSerializer.SHORT_SIZE,
+              getUnsignedShort(keyOffset),
+              key,
+              prefixSize,
+              false);
+
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        return mid; // key found
+      }
+    }
+
+    return -(low + 1); // key not found.
+  }
+
+  /**
+   * Compares bytes of the page with the part of the key which starts from the passed in offset as
+   * unsigned bytes.
+   *
+   * @param isPrefix if <code>true</code> bytes of the page are considered as equal to the key if
+   *     they are its prefix.
+   */
+  private int compare(
+      final int pageOffset,
+      final int length,
+      final byte[] key,
+      final int offset,
+      final boolean isPrefix) {
+    final int keyLength = key.length - offset;
+    final int commonLength = Math.min(length, keyLength);
+
+    for (int i = 0; i < commonLength; i++) {
+      final int diff = (getByteValue(pageOffset + i) & 0xFF) - (key[offset + i] & 0xFF);
+      if (diff != 0) {
+        return diff;
+      }
+    }
+
+    if (isPrefix) {
+      return length > keyLength ? 1 : 0;
+    }
+    return length - keyLength;
+  }
+
+  /** @return whole normalized key of the entry. */
+  public byte[] getKey(final int entryIndex) {
+    int keyOffset = getEntryPosition(entryIndex);
+    if (!isLeaf()) {
+      keyOffset += CHILDREN_SIZE;
+    }
+
+    final int prefixSize = getPrefixSize();
+    final int suffixSize = getUnsignedShort(keyOffset);
+
+    final byte[] key = new byte[prefixSize + suffixSize];
+    System.arraycopy(getBinaryValue(PREFIX_OFFSET, prefixSize), 0, key, 0, prefixSize);
+    System.arraycopy(
+        getBinaryValue(keyOffset + OShortSerializer.SHORT_SIZE, suffixSize),
+        0,
+        key,
+        prefixSize,
+        suffixSize);
+    return key;
+  }
+
+  /** @return key of the leaf entry serialized by the key serializer of the tree. */
+  public byte[] getSerializedKey(final int entryIndex) {
+    assert isLeaf();
+
+    int position = getEntryPosition(entryIndex);
+    position += OShortSerializer.SHORT_SIZE + getUnsignedShort(position);
+
+    return getBinaryValue(position + OShortSerializer.SHORT_SIZE, getUnsignedShort(position));
+  }
+
+  /**
+   * Obtains the value stored under the given entry index in this bucket.
+   *
+   * @param entryIndex the value entry index.
+   * @return the obtained value.
+   */
+  public ORID getValue(final int entryIndex) {
+    final int position = getValuePosition(entryIndex);
+
+    final int clusterId = getShortValue(position);
+    final long clusterPosition = getLongValue(position + OShortSerializer.SHORT_SIZE);
+
+    return new ORecordId(clusterId, clusterPosition);
+  }
+
+  private int getValuePosition(final int entryIndex) {
+    assert isLeaf();
+
+    int position = getEntryPosition(entryIndex);
+    position += OShortSerializer.SHORT_SIZE + getUnsignedShort(position);
+    position += OShortSerializer.SHORT_SIZE + getUnsignedShort(position);
+
+    return position;
+  }
+
+  public int getLeft(final int entryIndex) {
+    assert !isLeaf();
+
+    return getIntValue(getEntryPosition(entryIndex));
+  }
+
+  public int getRight(final int entryIndex) {
+    assert !isLeaf();
+
+    return getIntValue(getEntryPosition(entryIndex) + OIntegerSerializer.INT_SIZE);
+  }
+
+  /** @return entry with the whole normalized key. */
+  public byte[] getRawEntry(final int entryIndex) {
+    final int entryPosition = getEntryPosition(entryIndex);
+    final byte[] entry = getBinaryValue(entryPosition, getEntrySize(entryPosition, isLeaf()));
+
+    return expandEntry(entry, getBinaryValue(PREFIX_OFFSET, getPrefixSize()), isLeaf());
+  }
+
+  public boolean addLeafEntry(
+      final int index, final byte[] key, final byte[] serializedKey, final byte[] value) {
+    assert isLeaf();
+
+    final byte[] rawEntry = new byte[leafEntrySize(key.length, serializedKey.length)];
+    int position = 0;
+    position = writeKey(rawEntry, position, key, 0);
+    position = writeKey(rawEntry, position, serializedKey, 0);
+    System.arraycopy(value, 0, rawEntry, position, value.length);
+
+    if (!addEntry(index, key, rawEntry, true)) {
+      return false;
+    }
+
+    addPageOperation(
+        new NormalizedKeyBTreeBucketAddLeafEntryPO(index, key, serializedKey, value));
+
+    return true;
+  }
+
+  public void removeLeafEntry(
+      final int entryIndex, final byte[] key, final byte[] serializedKey, final byte[] value) {
+    if (!isLeaf()) {
+      throw new IllegalStateException("Remove is applies to leaf buckets only");
+    }
+
+    removeEntry(entryIndex, true);
+
+    addPageOperation(
+        new NormalizedKeyBTreeBucketRemoveLeafEntryPO(entryIndex, key, serializedKey, value));
+  }
+
+  public boolean addNonLeafEntry(
+      final int index,
+      final int leftChild,
+      final int rightChild,
+      final byte[] key,
+      final boolean updateNeighbors) {
+    assert !isLeaf();
+
+    final byte[] rawEntry = new byte[nonLeafEntrySize(key.length)];
+    OIntegerSerializer.INSTANCE.serializeNative(leftChild, rawEntry, 0);
+    OIntegerSerializer.INSTANCE.serializeNative(
+        rightChild, rawEntry, OIntegerSerializer.INT_SIZE);
+    writeKey(rawEntry, CHILDREN_SIZE, key, 0);
+
+    if (!addEntry(index, key, rawEntry, false)) {
+      return false;
+    }
+
+    final int size = size();
+    final int positionsOffset = PREFIX_OFFSET + getPrefixSize();
+
+    int prevChild = -1;
+    if (updateNeighbors && size > 1) {
+      if (index < size - 1) {
+        final int nextEntryPosition =
+            getIntValue(positionsOffset + (index + 1) * OIntegerSerializer.INT_SIZE);
+        prevChild = getIntValue(nextEntryPosition);
+        setIntValue(nextEntryPosition, rightChild);
+      }
+
+      if (index > 0) {
+        final int prevEntryPosition =
+            getIntValue(positionsOffset + (index - 1) * OIntegerSerializer.INT_SIZE);
+        prevChild = getIntValue(prevEntryPosition + OIntegerSerializer.INT_SIZE);
+        setIntValue(prevEntryPosition + OIntegerSerializer.INT_SIZE, leftChild);
+      }
+    }
+
+    addPageOperation(
+        new NormalizedKeyBTreeBucketAddNonLeafEntryPO(
+            index, key, updateNeighbors, leftChild, rightChild, prevChild));
+
+    return true;
+  }
+
+  public void removeNonLeafEntry(final int entryIndex, final byte[] key, final int prevChild) {
+    if (isLeaf()) {
+      throw new IllegalStateException("Remove is applied to non-leaf buckets only");
+    }
+
+    final int leftChild = getLeft(entryIndex);
+    final int rightChild = getRight(entryIndex);
+
+    removeEntry(entryIndex, false);
+
+    final int size = size();
+    final int positionsOffset = PREFIX_OFFSET + getPrefixSize();
+    if (prevChild >= 0) {
+      if (entryIndex > 0) {
+        final int prevEntryPosition =
+            getIntValue(positionsOffset + (entryIndex - 1) * OIntegerSerializer.INT_SIZE);
+        setIntValue(prevEntryPosition + OIntegerSerializer.INT_SIZE, prevChild);
+      }
+
+      if (entryIndex < size) {
+        final int nextEntryPosition =
+            getIntValue(positionsOffset + entryIndex * OIntegerSerializer.INT_SIZE);
+        setIntValue(nextEntryPosition, prevChild);
+      }
+    }
+
+    addPageOperation(
+        new NormalizedKeyBTreeBucketRemoveNonLeafEntryPO(
+            entryIndex, prevChild, key, leftChild, rightChild));
+  }
+
+  public void updateValue(final int index, final byte[] value) {
+    final int position = getValuePosition(index);
+    final byte[] prevValue = getBinaryValue(position, RID_SIZE);
+
+    setBinaryValue(position, value);
+    addPageOperation(new NormalizedKeyBTreeBucketUpdateValuePO(index, prevValue, value));
+  }
+
+  public void addAll(final List<byte[]> rawEntries) {
+    final int currentSize = size();
+    final List<byte[]> entries = new ArrayList<>(currentSize + rawEntries.size());
+    for (int i = 0; i < currentSize; i++) {
+      entries.add(getRawEntry(i));
+    }
+    entries.addAll(rawEntries);
+
+    writeEntries(entries, commonPrefix(entries));
+
+    addPageOperation(new NormalizedKeyBTreeBucketAddAllPO(currentSize, rawEntries));
+  }
+
+  public void shrink(final int newSize) {
+    final int currentSize = size();
+    final List<byte[]> rawEntries = new ArrayList<>(newSize);
+    final List<byte[]> removedEntries = new ArrayList<>(currentSize - newSize);
+
+    for (int i = 0; i < newSize; i++) {
+      rawEntries.add(getRawEntry(i));
+    }
+
+    for (int i = newSize; i < currentSize; i++) {
+      removedEntries.add(getRawEntry(i));
+    }
+
+    writeEntries(rawEntries, commonPrefix(rawEntries));
+
+    addPageOperation(new NormalizedKeyBTreeBucketShrinkPO(newSize, removedEntries));
+  }
+
+  public void setLeftSibling(final long pageIndex) {
+    final int prevLeft = (int) getLongValue(LEFT_SIBLING_OFFSET);
+    setLongValue(LEFT_SIBLING_OFFSET, pageIndex);
+
+    addPageOperation(new NormalizedKeyBTreeBucketSetLeftSiblingPO(prevLeft, (int) pageIndex));
+  }
+
+  public long getLeftSibling() {
+    return getLongValue(LEFT_SIBLING_OFFSET);
+  }
+
+  public void setRightSibling(final long pageIndex) {
+    final int prevRight = (int) getLongValue(RIGHT_SIBLING_OFFSET);
+
+    setLongValue(RIGHT_SIBLING_OFFSET, pageIndex);
+
+    addPageOperation(new NormalizedKeyBTreeBucketSetRightSiblingPO(prevRight, (int) pageIndex));
+  }
+
+  public long getRightSibling() {
+    return getLongValue(RIGHT_SIBLING_OFFSET);
+  }
+
+  /**
+   * Adds raw entry to the bucket, if key does not start with the prefix of the bucket, prefix is
+   * shortened and all entries are rewritten.
+   *
+   * @return <code>false</code> if there is no free space in the bucket, bucket is not changed in
+   *     such case.
+   */
+  private boolean addEntry(
+      final int index, final byte[] key, final byte[] rawEntry, final boolean isLeaf) {
+    final int size = size();
+    final int prefixSize = getPrefixSize();
+    final byte[] prefix = getBinaryValue(PREFIX_OFFSET, prefixSize);
+    final int newPrefixSize = size == 0 ? 0 : commonPrefixSize(prefix, key);
+    final int prefixDiff = prefixSize - newPrefixSize;
+
+    final int freePointer = getIntValue(FREE_POINTER_OFFSET);
+    final int freeSpace =
+        freePointer - (PREFIX_OFFSET + prefixSize + size * OIntegerSerializer.INT_SIZE);
+    final int requiredSpace =
+        rawEntry.length - newPrefixSize + OIntegerSerializer.INT_SIZE + (size - 1) * prefixDiff;
+    if (requiredSpace > freeSpace) {
+      return false;
+    }
+
+    if (prefixDiff > 0) {
+      final List<byte[]> entries = new ArrayList<>(size + 1);
+      for (int i = 0; i < size; i++) {
+        entries.add(getRawEntry(i));
+      }
+      entries.add(index, rawEntry);
+
+      writeEntries(entries, Arrays.copyOf(prefix, newPrefixSize));
+      return true;
+    }
+
+    final int positionsOffset = PREFIX_OFFSET + prefixSize;
+    if (index <= size - 1) {
+      moveData(
+          positionsOffset + index * OIntegerSerializer.INT_SIZE,
+          positionsOffset + (index + 1) * OIntegerSerializer.INT_SIZE,
+          (size - index) * OIntegerSerializer.INT_SIZE);
+    }
+
+    appendEntry(index, compressEntry(rawEntry, prefixSize, isLeaf));
+    setIntValue(SIZE_OFFSET, size + 1);
+
+    return true;
+  }
+
+  private void removeEntry(final int entryIndex, final boolean isLeaf) {
+    final int positionsOffset = PREFIX_OFFSET + getPrefixSize();
+    final int entryPosition =
+        getIntValue(positionsOffset + entryIndex * OIntegerSerializer.INT_SIZE);
+    final int entrySize = getEntrySize(entryPosition, isLeaf);
+
+    int size = getIntValue(SIZE_OFFSET);
+    if (entryIndex < size - 1) {
+      moveData(
+          positionsOffset + (entryIndex + 1) * OIntegerSerializer.INT_SIZE,
+          positionsOffset + entryIndex * OIntegerSerializer.INT_SIZE,
+          (size - entryIndex - 1) * OIntegerSerializer.INT_SIZE);
+    }
+
+    size--;
+    setIntValue(SIZE_OFFSET, size);
+
+    final int freePointer = getIntValue(FREE_POINTER_OFFSET);
+    if (size > 0 && entryPosition > freePointer) {
+      moveData(freePointer, freePointer + entrySize, entryPosition - freePointer);
+    }
+
+    setIntValue(FREE_POINTER_OFFSET, freePointer + entrySize);
+
+    int currentPositionOffset = positionsOffset;
+
+    for (int i = 0; i < size; i++) {
+      final int currentEntryPosition = getIntValue(currentPositionOffset);
+      if (currentEntryPosition < entryPosition) {
+        setIntValue(currentPositionOffset, currentEntryPosition + entrySize);
+      }
+      currentPositionOffset += OIntegerSerializer.INT_SIZE;
+    }
+  }
+
+  /** Rewrites content of the bucket by passed in raw entries using passed in prefix. */
+  private void writeEntries(final List<byte[]> rawEntries, final byte[] prefix) {
+    final boolean isLeaf = isLeaf();
+
+    setShortValue(PREFIX_SIZE_OFFSET, (short) prefix.length);
+    setBinaryValue(PREFIX_OFFSET, prefix);
+    setIntValue(FREE_POINTER_OFFSET, MAX_PAGE_SIZE_BYTES);
+
+    for (int i = 0; i < rawEntries.size(); i++) {
+      appendEntry(i, compressEntry(rawEntries.get(i), prefix.length, isLeaf));
+    }
+
+    setIntValue(SIZE_OFFSET, rawEntries.size());
+  }
+
+  private void appendEntry(final int index, final byte[] entry) {
+    int freePointer = getIntValue(FREE_POINTER_OFFSET);
+    freePointer -= entry.length;
+
+    setIntValue(FREE_POINTER_OFFSET, freePointer);
+    setIntValue(
+        PREFIX_OFFSET + getPrefixSize() + index * OIntegerSerializer.INT_SIZE, freePointer);
+
+    setBinaryValue(freePointer, entry);
+  }
+
+  private byte[] commonPrefix(final List<byte[]> rawEntries) {
+    if (rawEntries.isEmpty()) {
+      return new byte[0];
+    }
+
+    // entries are sorted so the prefix of the first and the last keys is common for all of them
+    final boolean isLeaf = isLeaf();
+    final byte[] first = readRawKey(rawEntries.get(0), isLeaf);
+    final byte[] last = readRawKey(rawEntries.get(rawEntries.size() - 1), isLeaf);
+
+    return Arrays.copyOf(first, commonPrefixSize(first, last));
+  }
+
+  private int getEntryPosition(final int entryIndex) {
+    return getIntValue(
+        PREFIX_OFFSET + getPrefixSize() + entryIndex * OIntegerSerializer.INT_SIZE);
+  }
+
+  private int getEntrySize(final int entryPosition, final boolean isLeaf) {
+    if (isLeaf) {
+      final int serializedKeyOffset =
+          entryPosition + OShortSerializer.SHORT_SIZE + getUnsignedShort(entryPosition);
+      return serializedKeyOffset
+          - entryPosition
+          + OShortSerializer.SHORT_SIZE
+          + getUnsignedShort(serializedKeyOffset)
+          + RID_SIZE;
+    }
+
+    return nonLeafEntrySize(getUnsignedShort(entryPosition + CHILDREN_SIZE));
+  }
+
+  private int getPrefixSize() {
+    return getUnsignedShort(PREFIX_SIZE_OFFSET);
+  }
+
+  private int getUnsignedShort(final int pageOffset) {
+    return getShortValue(pageOffset) & 0xFFFF;
+  }
+
+  public static int commonPrefixSize(final byte[] first, final byte[] second) {
+    final int length = Math.min(first.length, second.length);
+    for (int i = 0; i < length; i++) {
+      if (first[i] != second[i]) {
+        return i;
+      }
+    }
+    return length;
+  }
+
+  public static int leafEntrySize(final int keySize, final int serializedKeySize) {
+    return 2 * OShortSerializer.SHORT_SIZE + keySize + serializedKeySize + RID_SIZE;
+  }
+
+  private static int nonLeafEntrySize(final int keySize) {
+    return CHILDREN_SIZE + OShortSerializer.SHORT_SIZE + keySize;
+  }
+
+  private static int writeKey(
+      final byte[] entry, final int position, final byte[] key, final int offset) {
+    final int length = key.length - offset;
+    OShortSerializer.INSTANCE.serializeNative((short) length, entry, position);
+    System.arraycopy(key, offset, entry, position + OShortSerializer.SHORT_SIZE, length);
+    return position + OShortSerializer.SHORT_SIZE + length;
+  }
+
+  private static int keyOffset(final boolean isLeaf) {
+    return isLeaf ? 0 : CHILDREN_SIZE;
+  }
+
+  private static byte[] readRawKey(final byte[] rawEntry, final boolean isLeaf) {
+    final int keyOffset = keyOffset(isLeaf);
+    final int keySize =
+        OShortSerializer.INSTANCE.deserializeNative(rawEntry, keyOffset) & 0xFFFF;
+    final int start = keyOffset + OShortSerializer.SHORT_SIZE;
+    return Arrays.copyOfRange(rawEntry, start, start + keySize);
+  }
+
+  /** Removes prefix from the normalized key of the raw entry. */
+  private static byte[] compressEntry(
+      final byte[] rawEntry, final int prefixSize, final boolean isLeaf) {
+    if (prefixSize == 0) {
+      return rawEntry;
+    }
+
+    final int keyOffset = keyOffset(isLeaf);
+    final byte[] key = readRawKey(rawEntry, isLeaf);
+    final int tailOffset = keyOffset + OShortSerializer.SHORT_SIZE + key.length;
+
+    final byte[] entry = new byte[rawEntry.length - prefixSize];
+    System.arraycopy(rawEntry, 0, entry, 0, keyOffset);
+    final int position = writeKey(entry, keyOffset, key, prefixSize);
+    System.arraycopy(rawEntry, tailOffset, entry, position, rawEntry.length - tailOffset);
+    return entry;
+  }
+
+  /** Restores the whole normalized key inside of the entry stored in the bucket. */
+  private static byte[] expandEntry(final byte[] entry, final byte[] prefix, boolean isLeaf) {
+    if (prefix.length == 0) {
+      return entry;
+    }
+
+    final int keyOffset = keyOffset(isLeaf);
+    final byte[] suffix = readRawKey(entry, isLeaf);
+    final int tailOffset = keyOffset + OShortSerializer.SHORT_SIZE + suffix.length;
+
+    final byte[] key = new byte[prefix.length + suffix.length];
+    System.arraycopy(prefix, 0, key, 0, prefix.length);
+    System.arraycopy(suffix, 0, key, prefix.length, suffix.length);
+
+    final byte[] rawEntry = new byte[entry.length + prefix.length];
+    System.arraycopy(entry, 0, rawEntry, 0, keyOffset);
+    final int position = writeKey(rawEntry, keyOffset, key, 0);
+    System.arraycopy(entry, tailOffset, rawEntry, position, entry.length - tailOffset);
+    return rawEntry;
+  }
+}
@@ -0,0 +1,47 @@
+package com.orientechnologies.orient.core.storage.index.nkbtree;
+
+import com.orientechnologies.common.serialization.types.OLongSerializer;
+import com.orientechnologies.orient.core.storage.cache.OCacheEntry;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.base.ODurablePage;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.entrypoint.NormalizedKeyBTreeEntryPointInitPO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.entrypoint.NormalizedKeyBTreeEntryPointSetPagesSizePO;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.nkbtree.entrypoint.NormalizedKeyBTreeEntryPointSetTreeSizePO;
+
+public final class NormalizedKeyBTreeEntryPoint extends ODurablePage {
+  private static final int TREE_SIZE_OFFSET = NEXT_FREE_POSITION;
+  private static final int PAGES_SIZE_OFFSET = TREE_SIZE_OFFSET + OLongSerializer.LONG_SIZE;
+
+  public NormalizedKeyBTreeEntryPoint(final OCacheEntry cacheEntry) {
+    super(cacheEntry);
+  }
+
+  public void init() {
+    setLongValue(TREE_SIZE_OFFSET, 0);
+    setIntValue(PAGES_SIZE_OFFSET, 1);
+
+    addPageOperation(new NormalizedKeyBTreeEntryPointInitPO());
+  }
+
+  public void setTreeSize(final long size) {
+    final long prevSize = getLongValue(TREE_SIZE_OFFSET);
+
+    setLongValue(TREE_SIZE_OFFSET, size);
+
+    addPageOperation(new NormalizedKeyBTreeEntryPointSetTreeSizePO(prevSize, size));
+  }
+
+  public long getTreeSize() {
+    return getLongValue(TREE_SIZE_OFFSET);
+  }
+
+  public void setPagesSize(final int pages) {
+    final int prevPagesSize = getIntValue(PAGES_SIZE_OFFSET);
+
+    setIntValue(PAGES_SIZE_OFFSET, pages);
+    addPageOperation(new NormalizedKeyBTreeEntryPointSetPagesSizePO(prevPagesSize, pages));
+  }
+
+  public int getPagesSize() {
+    return getIntValue(PAGES_SIZE_OFFSET);
+  }
+}
@@ -1,31 +1,1429 @@
 package com.orientechnologies.orient.core.storage.index.nkbtree;
 
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.serialization.types.OBinarySerializer;
+import com.orientechnologies.common.serialization.types.OLongSerializer;
+import com.orientechnologies.common.serialization.types.OShortSerializer;
+import com.orientechnologies.common.util.ORawPair;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.encryption.OEncryption;
+import com.orientechnologies.orient.core.exception.NotEmptyComponentCanNotBeRemovedException;
+import com.orientechnologies.orient.core.exception.OTooBigIndexKeyException;
+import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.index.OCompositeKey;
+import com.orientechnologies.orient.core.index.engine.OBaseIndexEngine;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.storage.cache.OCacheEntry;
 import com.orientechnologies.orient.core.storage.impl.local.OAbstractPaginatedStorage;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.atomicoperations.OAtomicOperation;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.base.ODurableComponent;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.base.ODurablePage;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OLogSequenceNumber;
+import com.orientechnologies.orient.core.storage.index.nkbtree.normalizers.KeyNormalizer;
+import java.io.IOException;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public class NormalizedKeyBTreeValue<K> extends ODurableComponent implements NormalizedKeyBTree<K> {
-  private final String nullFileExtension;
+/**
+ * B+-tree which is based on the implementation of {@link
+ * com.orientechnologies.orient.core.storage.index.sbtree.singlevalue.v3.CellBTreeSingleValueV3},
+ * but keys are normalized by {@link KeyNormalizer} before they are stored in the tree. Normalized
+ * keys are compared as unsigned bytes, so search inside of the bucket does not deserialize any key.
+ * The main differences are:
+ *
+ * <ol>
+ *   <li>Buckets keep the prefix which is common for all keys of the bucket only once, see {@link
+ *       NormalizedKeyBTreeBucket}.
+ *   <li>Separation keys of the non-leaf buckets are the shortest byte strings which separate the
+ *       last key of the left bucket and the first key of the right bucket, so they are usually much
+ *       shorter than the keys itself and more keys fit in the non-leaf buckets.
+ *   <li><code>null</code> key is stored in the tree as the key which is less than all other keys,
+ *       so there is no separate file for the <code>null</code> key.
+ *   <li>Partial composite keys are converted into the ranges of normalized keys, all keys which
+ *       start from the normalized partial key match it.
+ * </ol>
+ *
+ * <p>Normalized keys are used only for comparison, original key serialized by the key serializer of
+ * the tree is stored in the leaf buckets too and is returned by cursors.
+ */
+public final class NormalizedKeyBTreeValue<K> extends ODurableComponent
+    implements NormalizedKeyBTree<K> {
+  private static final int SPLITERATOR_CACHE_SIZE =
+      OGlobalConfiguration.INDEX_CURSOR_PREFETCH_SIZE.getValueAsInteger();
+  private static final int MAX_KEY_SIZE =
+      OGlobalConfiguration.SBTREE_MAX_KEY_SIZE.getValueAsInteger();
+  /** Bucket has to contain at least several entries to be split. */
+  private static final int MAX_ENTRY_SIZE = ODurablePage.MAX_PAGE_SIZE_BYTES / 4;
+
+  private static final int MAX_PATH_LENGTH =
+      OGlobalConfiguration.SBTREE_MAX_DEPTH.getValueAsInteger();
+
+  private static final int ENTRY_POINT_INDEX = 0;
+  private static final long ROOT_INDEX = 1;
+
+  /** Normalized <code>null</code> key, it is less than any other key. */
+  private static final byte[] NULL_KEY = {0};
+  /** Prefix of all normalized keys except the <code>null</code> key. */
+  private static final byte NOT_NULL_KEY = 1;
+
+  private static final byte[] LOWEST_KEY = {NOT_NULL_KEY};
+  private static final byte[] HIGHEST_KEY = {NOT_NULL_KEY + 1};
+
+  private static final KeyNormalizer KEY_NORMALIZER = KeyNormalizer.forIndex();
+
+  private long fileId;
+  private int keySize;
+  private OBinarySerializer<K> keySerializer;
+  private OType[] keyTypes;
 
   public NormalizedKeyBTreeValue(
-      final String name,
-      final String dataFileExtension,
-      final String nullFileExtension,
-      final OAbstractPaginatedStorage storage) {
+      final String name, final String dataFileExtension, final OAbstractPaginatedStorage storage) {
     super(storage, name, dataFileExtension, name + dataFileExtension);
+  }
+
+  public void create(
+      final OAtomicOperation atomicOperation,
+      final OBinarySerializer<K> keySerializer,
+      final OType[] keyTypes,
+      final int keySize,
+      final OEncryption encryption) {
+    assert keySerializer != null;
+    assert keyTypes != null;
+
+    executeInsideComponentOperation(
+        atomicOperation,
+        operation -> {
+          acquireExclusiveLock();
+          try {
+            this.keySize = keySize;
+            this.keyTypes = Arrays.copyOf(keyTypes, keyTypes.length);
+            this.keySerializer = keySerializer;
+
+            fileId = addFile(atomicOperation, getFullName());
+
+            final OCacheEntry entryPointCacheEntry = addPage(atomicOperation, fileId);
+            try {
+              final NormalizedKeyBTreeEntryPoint entryPoint =
+                  new NormalizedKeyBTreeEntryPoint(entryPointCacheEntry);
+              entryPoint.init();
+            } finally {
+              releasePageFromWrite(atomicOperation, entryPointCacheEntry);
+            }
+
+            final OCacheEntry rootCacheEntry = addPage(atomicOperation, fileId);
+            try {
+              final NormalizedKeyBTreeBucket rootBucket =
+                  new NormalizedKeyBTreeBucket(rootCacheEntry);
+              rootBucket.init(true);
+            } finally {
+              releasePageFromWrite(atomicOperation, rootCacheEntry);
+            }
+          } finally {
+            releaseExclusiveLock();
+          }
+        });
+  }
+
+  public ORID get(final K key) {
+    atomicOperationsManager.acquireReadLock(this);
+    try {
+      acquireSharedLock();
+      try {
+        final OAtomicOperation atomicOperation = atomicOperationsManager.getCurrentOperation();
+        final byte[] normalizedKey = normalizeKey(key);
+
+        final BucketSearchResult bucketSearchResult = findBucket(normalizedKey, atomicOperation);
+        if (bucketSearchResult.itemIndex < 0) {
+          return null;
+        }
+
+        final OCacheEntry keyBucketCacheEntry =
+            loadPageForRead(atomicOperation, fileId, bucketSearchResult.pageIndex, false);
+        try {
+          final NormalizedKeyBTreeBucket keyBucket =
+              new NormalizedKeyBTreeBucket(keyBucketCacheEntry);
+          return keyBucket.getValue(bucketSearchResult.itemIndex);
+        } finally {
+          releasePageFromRead(atomicOperation, keyBucketCacheEntry);
+        }
+      } finally {
+        releaseSharedLock();
+      }
+    } catch (final IOException e) {
+      throw OException.wrapException(
+          new NormalizedKeyBTreeException(
+              "Error during retrieving  of sbtree with name " + getName(), this),
+          e);
+    } finally {
+      atomicOperationsManager.releaseReadLock(this);
+    }
+  }
+
+  public void put(final OAtomicOperation atomicOperation, final K key, final ORID value) {
+    update(atomicOperation, key, value, null);
+  }
+
+  public boolean validatedPut(
+      final OAtomicOperation atomicOperation,
+      final K key,
+      final ORID value,
+      final OBaseIndexEngine.Validator<K, ORID> validator) {
+    return update(atomicOperation, key, value, validator);
+  }
+
+  private boolean update(
+      final OAtomicOperation atomicOperation,
+      final K k,
+      final ORID rid,
+      final OBaseIndexEngine.Validator<K, ORID> validator) {
+    return calculateInsideComponentOperation(
+        atomicOperation,
+        operation -> {
+          acquireExclusiveLock();
+          try {
+            ORID value = rid;
+
+            final K key = k != null ? keySerializer.preprocess(k, (Object[]) keyTypes) : null;
+            final byte[] normalizedKey = normalizeKey(key);
+            final byte[] serializedKey;
+            if (key != null) {
+              serializedKey = keySerializer.serializeNativeAsWhole(key, (Object[]) keyTypes);
+            } else {
+              serializedKey = new byte[0];
+            }
+
+            final int entrySize =
+                NormalizedKeyBTreeBucket.leafEntrySize(
+                    normalizedKey.length, serializedKey.length);
+            if (normalizedKey.length + serializedKey.length > MAX_KEY_SIZE
+                || entrySize > MAX_ENTRY_SIZE) {
+              throw new OTooBigIndexKeyException(
+                  "Key size is more than allowed, operation was canceled. Current key size "
+                      + (normalizedKey.length + serializedKey.length)
+                      + ", allowed  "
+                      + Math.min(MAX_KEY_SIZE, MAX_ENTRY_SIZE),
+                  getName());
+            }
+
+            UpdateBucketSearchResult bucketSearchResult =
+                findBucketForUpdate(normalizedKey, atomicOperation);
+
+            OCacheEntry keyBucketCacheEntry =
+                loadPageForWrite(
+                    atomicOperation, fileId, bucketSearchResult.getLastPathItem(), false, true);
+            NormalizedKeyBTreeBucket keyBucket = new NormalizedKeyBTreeBucket(keyBucketCacheEntry);
+
+            final ORID oldValue;
+            if (bucketSearchResult.itemIndex > -1) {
+              oldValue = keyBucket.getValue(bucketSearchResult.itemIndex);
+            } else {
+              oldValue = null;
+            }
+
+            if (validator != null) {
+              boolean failure = true; // assuming validation throws by default
+              boolean ignored = false;
+
+              try {
+
+                final Object result = validator.validate(key, oldValue, value);
+                if (result == OBaseIndexEngine.Validator.IGNORE) {
+                  ignored = true;
+                  failure = false;
+                  return false;
+                }
+
+                value = (ORID) result;
+                failure = false;
+              } finally {
+                if (failure || ignored) {
+                  releasePageFromWrite(atomicOperation, keyBucketCacheEntry);
+                }
+              }
+            }
+
+            final byte[] serializedValue = serializeValue(value);
+
+            if (bucketSearchResult.itemIndex >= 0) {
+              keyBucket.updateValue(bucketSearchResult.itemIndex, serializedValue);
+              releasePageFromWrite(atomicOperation, keyBucketCacheEntry);
+              return true;
+            }
+
+            int insertionIndex = -bucketSearchResult.itemIndex - 1;
+
+            while (!keyBucket.addLeafEntry(
+                insertionIndex, normalizedKey, serializedKey, serializedValue)) {
+              bucketSearchResult =
+                  splitBucket(
+                      keyBucket,
+                      keyBucketCacheEntry,
+                      bucketSearchResult.path,
+                      bucketSearchResult.insertionIndexes,
+                      insertionIndex,
+                      normalizedKey,
+                      atomicOperation);
+
+              insertionIndex = bucketSearchResult.itemIndex;
+
+              final long pageIndex = bucketSearchResult.getLastPathItem();
+
+              if (pageIndex != keyBucketCacheEntry.getPageIndex()) {
+                releasePageFromWrite(atomicOperation, keyBucketCacheEntry);
+
+                keyBucketCacheEntry =
+                    loadPageForWrite(atomicOperation, fileId, pageIndex, false, true);
+              }
+
+              //noinspection ObjectAllocationInLoop
+              keyBucket = new NormalizedKeyBTreeBucket(keyBucketCacheEntry);
+            }
+
+            releasePageFromWrite(atomicOperation, keyBucketCacheEntry);
+
+            updateSize(1, atomicOperation);
+            return true;
+          } finally {
+            releaseExclusiveLock();
+          }
+        });
+  }
+
+  public void close() {
     acquireExclusiveLock();
     try {
-      this.nullFileExtension = nullFileExtension;
+      readCache.closeFile(fileId, true, writeCache);
     } finally {
       releaseExclusiveLock();
     }
   }
 
-  @Override
-  public byte[] get(final OCompositeKey key) {
-    return new byte[0];
+  public void delete(final OAtomicOperation atomicOperation) {
+    executeInsideComponentOperation(
+        atomicOperation,
+        operation -> {
+          acquireExclusiveLock();
+          try {
+            final long size = size();
+            if (size > 0) {
+              throw new NotEmptyComponentCanNotBeRemovedException(
+                  getName()
+                      + " : Not empty index can not be deleted. Index has "
+                      + size
+                      + " records");
+            }
+
+            deleteFile(atomicOperation, fileId);
+          } finally {
+            releaseExclusiveLock();
+          }
+        });
+  }
+
+  public void load(
+      final String name,
+      final int keySize,
+      final OType[] keyTypes,
+      final OBinarySerializer<K> keySerializer,
+      final OEncryption encryption) {
+    acquireExclusiveLock();
+    try {
+      final OAtomicOperation atomicOperation = atomicOperationsManager.getCurrentOperation();
+
+      fileId = openFile(atomicOperation, getFullName());
+
+      this.keySize = keySize;
+      this.keyTypes = keyTypes;
+      this.keySerializer = keySerializer;
+    } catch (final IOException e) {
+      throw OException.wrapException(
+          new NormalizedKeyBTreeException("Exception during loading of sbtree " + name, this), e);
+    } finally {
+      releaseExclusiveLock();
+    }
+  }
+
+  public long size() {
+    atomicOperationsManager.acquireReadLock(this);
+    try {
+      acquireSharedLock();
+      try {
+        final OAtomicOperation atomicOperation = atomicOperationsManager.getCurrentOperation();
+
+        final OCacheEntry entryPointCacheEntry =
+            loadPageForRead(atomicOperation, fileId, ENTRY_POINT_INDEX, false);
+        try {
+          final NormalizedKeyBTreeEntryPoint entryPoint =
+              new NormalizedKeyBTreeEntryPoint(entryPointCacheEntry);
+          return entryPoint.getTreeSize();
+        } finally {
+          releasePageFromRead(atomicOperation, entryPointCacheEntry);
+        }
+      } finally {
+        releaseSharedLock();
+      }
+    } catch (final IOException e) {
+      throw OException.wrapException(
+          new NormalizedKeyBTreeException(
+              "Error during retrieving of size of index " + getName(), this),
+          e);
+    } finally {
+      atomicOperationsManager.releaseReadLock(this);
+    }
+  }
+
+  public ORID remove(final OAtomicOperation atomicOperation, final K key) {
+    return calculateInsideComponentOperation(
+        atomicOperation,
+        operation -> {
+          acquireExclusiveLock();
+          try {
+            final byte[] normalizedKey = normalizeKey(key);
+
+            final BucketSearchResult bucketSearchResult =
+                findBucket(normalizedKey, atomicOperation);
+            if (bucketSearchResult.itemIndex < 0) {
+              return null;
+            }
+
+            final OCacheEntry keyBucketCacheEntry =
+                loadPageForWrite(
+                    atomicOperation, fileId, bucketSearchResult.pageIndex, false, true);
+            final ORID removedValue;
+            try {
+              final NormalizedKeyBTreeBucket keyBucket =
+                  new NormalizedKeyBTreeBucket(keyBucketCacheEntry);
+              final int itemIndex = bucketSearchResult.itemIndex;
+
+              removedValue = keyBucket.getValue(itemIndex);
+              keyBucket.removeLeafEntry(
+                  itemIndex,
+                  normalizedKey,
+                  keyBucket.getSerializedKey(itemIndex),
+                  serializeValue(removedValue));
+              updateSize(-1, atomicOperation);
+            } finally {
+              releasePageFromWrite(atomicOperation, keyBucketCacheEntry);
+            }
+
+            return removedValue;
+          } finally {
+            releaseExclusiveLock();
+          }
+        });
+  }
+
+  public Stream<ORawPair<K, ORID>> iterateEntriesMinor(
+      final K key, final boolean inclusive, final boolean ascSortOrder) {
+    atomicOperationsManager.acquireReadLock(this);
+    try {
+      acquireSharedLock();
+      try {
+        return iterateEntries(LOWEST_KEY, toBoundary(key, inclusive), ascSortOrder);
+      } finally {
+        releaseSharedLock();
+      }
+    } finally {
+      atomicOperationsManager.releaseReadLock(this);
+    }
+  }
+
+  public Stream<ORawPair<K, ORID>> iterateEntriesMajor(
+      final K key, final boolean inclusive, final boolean ascSortOrder) {
+    atomicOperationsManager.acquireReadLock(this);
+    try {
+      acquireSharedLock();
+      try {
+        return iterateEntries(fromBoundary(key, inclusive), HIGHEST_KEY, ascSortOrder);
+      } finally {
+        releaseSharedLock();
+      }
+    } finally {
+      atomicOperationsManager.releaseReadLock(this);
+    }
+  }
+
+  public K firstKey() {
+    try (Stream<ORawPair<K, ORID>> stream = iterateEntries(LOWEST_KEY, HIGHEST_KEY, true)) {
+      return stream.findFirst().map(entry -> entry.first).orElse(null);
+    }
   }
 
-  @Override
-  public void put(final OCompositeKey key, final byte[] value) {}
+  public K lastKey() {
+    try (Stream<ORawPair<K, ORID>> stream = iterateEntries(LOWEST_KEY, HIGHEST_KEY, false)) {
+      return stream.findFirst().map(entry -> entry.first).orElse(null);
+    }
+  }
+
+  public Stream<K> keyStream() {
+    return allEntries().map((entry) -> entry.first);
+  }
+
+  public Stream<ORawPair<K, ORID>> allEntries() {
+    atomicOperationsManager.acquireReadLock(this);
+    try {
+      acquireSharedLock();
+      try {
+        return iterateEntries(LOWEST_KEY, HIGHEST_KEY, true);
+      } finally {
+        releaseSharedLock();
+      }
+    } finally {
+      atomicOperationsManager.releaseReadLock(this);
+    }
+  }
+
+  public Stream<ORawPair<K, ORID>> iterateEntriesBetween(
+      final K keyFrom,
+      final boolean fromInclusive,
+      final K keyTo,
+      final boolean toInclusive,
+      final boolean ascSortOrder) {
+    atomicOperationsManager.acquireReadLock(this);
+    try {
+      acquireSharedLock();
+      try {
+        return iterateEntries(
+            fromBoundary(keyFrom, fromInclusive), toBoundary(keyTo, toInclusive), ascSortOrder);
+      } finally {
+        releaseSharedLock();
+      }
+    } finally {
+      atomicOperationsManager.releaseReadLock(this);
+    }
+  }
+
+  /**
+   * Acquires exclusive lock in the active atomic operation running on the current thread for this
+   * SB-tree.
+   */
+  public void acquireAtomicExclusiveLock() {
+    atomicOperationsManager.acquireExclusiveLockTillOperationComplete(this);
+  }
+
+  /**
+   * Iterates over normalized keys which are bigger or equal to the <code>fromKey</code> and less
+   * than the <code>toKey</code>.
+   */
+  private Stream<ORawPair<K, ORID>> iterateEntries(
+      final byte[] fromKey, final byte[] toKey, final boolean ascSortOrder) {
+    if (fromKey == null || compareKeys(fromKey, toKey) >= 0) {
+      return StreamSupport.stream(Spliterators.emptySpliterator(), false);
+    }
+
+    if (ascSortOrder) {
+      return StreamSupport.stream(new SpliteratorForward(fromKey, toKey), false);
+    }
+    return StreamSupport.stream(new SpliteratorBackward(fromKey, toKey), false);
+  }
+
+  /**
+   * @return the smallest normalized key which matches the lower boundary of the range or <code>null
+   *     </code> if there are no such keys.
+   */
+  private byte[] fromBoundary(final K key, final boolean inclusive) {
+    if (key == null) {
+      return LOWEST_KEY;
+    }
+
+    final byte[] normalizedKey = normalizeKey(keySerializer.preprocess(key, (Object[]) keyTypes));
+    if (inclusive) {
+      return normalizedKey;
+    }
+
+    // all keys which start from the partial key are skipped too
+    return successor(normalizedKey);
+  }
+
+  /**
+   * @return the smallest normalized key which is bigger than the keys which match the upper
+   *     boundary of the range.
+   */
+  private byte[] toBoundary(final K key, final boolean inclusive) {
+    if (key == null) {
+      return HIGHEST_KEY;
+    }
+
+    final byte[] normalizedKey = normalizeKey(keySerializer.preprocess(key, (Object[]) keyTypes));
+    if (!inclusive) {
+      return normalizedKey;
+    }
+
+    // all keys which start from the partial key are included too
+    final byte[] successor = successor(normalizedKey);
+    if (successor == null) {
+      return HIGHEST_KEY;
+    }
+    return successor;
+  }
+
+  /**
+   * Converts the key into the form which is compared as unsigned bytes. Partial composite keys are
+   * accepted, normalized partial key is the prefix of normalized keys which match it.
+   */
+  private byte[] normalizeKey(final K key) {
+    if (key == null) {
+      return NULL_KEY;
+    }
+
+    final OCompositeKey compositeKey;
+    if (key instanceof OCompositeKey) {
+      compositeKey = (OCompositeKey) key;
+    } else {
+      compositeKey = new OCompositeKey(key);
+    }
+
+    final List<Object> items = compositeKey.getKeys();
+    if (items.size() > keyTypes.length) {
+      throw new NormalizedKeyBTreeException(
+          "Key " + key + " contains more items than index definition " + keySize, this);
+    }
+
+    final OCompositeKey convertedKey = new OCompositeKey();
+    for (int i = 0; i < items.size(); i++) {
+      final Object item = items.get(i);
+      if (item == null) {
+        convertedKey.addKey(null);
+      } else {
+        convertedKey.addKey(OType.convert(item, keyTypes[i].getDefaultJavaType()));
+      }
+    }
+
+    final byte[] normalizedItems =
+        KEY_NORMALIZER.normalize(
+            convertedKey, Arrays.copyOf(keyTypes, items.size()), Collator.NO_DECOMPOSITION);
+
+    final byte[] normalizedKey = new byte[normalizedItems.length + 1];
+    normalizedKey[0] = NOT_NULL_KEY;
+    System.arraycopy(normalizedItems, 0, normalizedKey, 1, normalizedItems.length);
+    return normalizedKey;
+  }
+
+  /**
+   * @return the smallest byte string which is bigger than all byte strings which start from the
+   *     passed in one or <code>null</code> if there is no such string.
+   */
+  private static byte[] successor(final byte[] key) {
+    for (int i = key.length - 1; i >= 0; i--) {
+      if (key[i] != (byte) 0xFF) {
+        final byte[] successor = Arrays.copyOf(key, i + 1);
+        successor[i]++;
+        return successor;
+      }
+    }
+
+    return null;
+  }
+
+  private static int compareKeys(final byte[] first, final byte[] second) {
+    final int length = Math.min(first.length, second.length);
+    for (int i = 0; i < length; i++) {
+      final int diff = (first[i] & 0xFF) - (second[i] & 0xFF);
+      if (diff != 0) {
+        return diff;
+      }
+    }
+
+    return first.length - second.length;
+  }
+
+  private static byte[] serializeValue(final ORID value) {
+    final byte[] serializedValue =
+        new byte[OShortSerializer.SHORT_SIZE + OLongSerializer.LONG_SIZE];
+    OShortSerializer.INSTANCE.serializeNative((short) value.getClusterId(), serializedValue, 0);
+    OLongSerializer.INSTANCE.serializeNative(
+        value.getClusterPosition(), serializedValue, OShortSerializer.SHORT_SIZE);
+    return serializedValue;
+  }
+
+  private K deserializeKey(final byte[] serializedKey) {
+    if (serializedKey.length == 0) {
+      return null;
+    }
+
+    return keySerializer.deserializeNativeObject(serializedKey, 0);
+  }
+
+  private void updateSize(final long diffSize, final OAtomicOperation atomicOperation)
+      throws IOException {
+    final OCacheEntry entryPointCacheEntry =
+        loadPageForWrite(atomicOperation, fileId, ENTRY_POINT_INDEX, false, true);
+    try {
+      final NormalizedKeyBTreeEntryPoint entryPoint =
+          new NormalizedKeyBTreeEntryPoint(entryPointCacheEntry);
+      entryPoint.setTreeSize(entryPoint.getTreeSize() + diffSize);
+    } finally {
+      releasePageFromWrite(atomicOperation, entryPointCacheEntry);
+    }
+  }
+
+  private UpdateBucketSearchResult splitBucket(
+      final NormalizedKeyBTreeBucket bucketToSplit,
+      final OCacheEntry entryToSplit,
+      final List<Long> path,
+      final List<Integer> itemPointers,
+      final int keyIndex,
+      final byte[] key,
+      final OAtomicOperation atomicOperation)
+      throws IOException {
+    final boolean splitLeaf = bucketToSplit.isLeaf();
+    final int bucketSize = bucketToSplit.size();
+
+    final int indexToSplit = bucketSize >>> 1;
+    final byte[] separationKey;
+    final boolean keyToLeft;
+    if (splitLeaf) {
+      // the shortest key which is bigger than the last key of the left bucket and is not bigger
+      // than the first key of the right bucket
+      final byte[] leftKey = bucketToSplit.getKey(indexToSplit - 1);
+      final byte[] rightKey = bucketToSplit.getKey(indexToSplit);
+      separationKey =
+          Arrays.copyOf(rightKey, NormalizedKeyBTreeBucket.commonPrefixSize(leftKey, rightKey) + 1);
+
+      // added key may be bigger than the separation key even if it is less than the right key
+      keyToLeft =
+          keyIndex < indexToSplit
+              || keyIndex == indexToSplit && compareKeys(key, separationKey) < 0;
+    } else {
+      separationKey = bucketToSplit.getKey(indexToSplit);
+      keyToLeft = keyIndex <= indexToSplit;
+    }
+
+    final List<byte[]> rightEntries = new ArrayList<>(indexToSplit);
+
+    final int startRightIndex = splitLeaf ? indexToSplit : indexToSplit + 1;
+
+    for (int i = startRightIndex; i < bucketSize; i++) {
+      rightEntries.add(bucketToSplit.getRawEntry(i));
+    }
+
+    if (entryToSplit.getPageIndex() != ROOT_INDEX) {
+      return splitNonRootBucket(
+          path,
+          itemPointers,
+          keyIndex,
+          keyToLeft,
+          entryToSplit.getPageIndex(),
+          bucketToSplit,
+          splitLeaf,
+          indexToSplit,
+          separationKey,
+          rightEntries,
+          atomicOperation);
+    } else {
+      return splitRootBucket(
+          keyIndex,
+          keyToLeft,
+          entryToSplit,
+          bucketToSplit,
+          splitLeaf,
+          indexToSplit,
+          separationKey,
+          rightEntries,
+          atomicOperation);
+    }
+  }
+
+  private UpdateBucketSearchResult splitNonRootBucket(
+      final List<Long> path,
+      final List<Integer> itemPointers,
+      final int keyIndex,
+      final boolean keyToLeft,
+      final long pageIndex,
+      final NormalizedKeyBTreeBucket bucketToSplit,
+      final boolean splitLeaf,
+      final int indexToSplit,
+      final byte[] separationKey,
+      final List<byte[]> rightEntries,
+      final OAtomicOperation atomicOperation)
+      throws IOException {
+
+    final OCacheEntry rightBucketEntry;
+    final OCacheEntry entryPointCacheEntry =
+        loadPageForWrite(atomicOperation, fileId, ENTRY_POINT_INDEX, false, true);
+    try {
+      final NormalizedKeyBTreeEntryPoint entryPoint =
+          new NormalizedKeyBTreeEntryPoint(entryPointCacheEntry);
+      int pageSize = entryPoint.getPagesSize();
+
+      if (pageSize < getFilledUpTo(atomicOperation, fileId) - 1) {
+        pageSize++;
+        rightBucketEntry = loadPageForWrite(atomicOperation, fileId, pageSize, false, false);
+        entryPoint.setPagesSize(pageSize);
+      } else {
+        assert pageSize == getFilledUpTo(atomicOperation, fileId) - 1;
+
+        rightBucketEntry = addPage(atomicOperation, fileId);
+        entryPoint.setPagesSize(rightBucketEntry.getPageIndex());
+      }
+    } finally {
+      releasePageFromWrite(atomicOperation, entryPointCacheEntry);
+    }
+
+    try {
+      final NormalizedKeyBTreeBucket newRightBucket =
+          new NormalizedKeyBTreeBucket(rightBucketEntry);
+      newRightBucket.init(splitLeaf);
+      newRightBucket.addAll(rightEntries);
+
+      bucketToSplit.shrink(indexToSplit);
+
+      if (splitLeaf) {
+        final long rightSiblingPageIndex = bucketToSplit.getRightSibling();
+
+        newRightBucket.setRightSibling(rightSiblingPageIndex);
+        newRightBucket.setLeftSibling(pageIndex);
+
+        bucketToSplit.setRightSibling(rightBucketEntry.getPageIndex());
+
+        if (rightSiblingPageIndex >= 0) {
+          final OCacheEntry rightSiblingBucketEntry =
+              loadPageForWrite(atomicOperation, fileId, rightSiblingPageIndex, false, true);
+          final NormalizedKeyBTreeBucket rightSiblingBucket =
+              new NormalizedKeyBTreeBucket(rightSiblingBucketEntry);
+          try {
+            rightSiblingBucket.setLeftSibling(rightBucketEntry.getPageIndex());
+          } finally {
+            releasePageFromWrite(atomicOperation, rightSiblingBucketEntry);
+          }
+        }
+      }
+
+      long parentIndex = path.get(path.size() - 2);
+      OCacheEntry parentCacheEntry =
+          loadPageForWrite(atomicOperation, fileId, parentIndex, false, true);
+      try {
+        NormalizedKeyBTreeBucket parentBucket = new NormalizedKeyBTreeBucket(parentCacheEntry);
+        int insertionIndex = itemPointers.get(itemPointers.size() - 2);
+        while (!parentBucket.addNonLeafEntry(
+            insertionIndex,
+            (int) pageIndex,
+            rightBucketEntry.getPageIndex(),
+            separationKey,
+            true)) {
+          final UpdateBucketSearchResult bucketSearchResult =
+              splitBucket(
+                  parentBucket,
+                  parentCacheEntry,
+                  path.subList(0, path.size() - 1),
+                  itemPointers.subList(0, itemPointers.size() - 1),
+                  insertionIndex,
+                  separationKey,
+                  atomicOperation);
+
+          parentIndex = bucketSearchResult.getLastPathItem();
+          insertionIndex = bucketSearchResult.itemIndex;
+
+          if (parentIndex != parentCacheEntry.getPageIndex()) {
+            releasePageFromWrite(atomicOperation, parentCacheEntry);
+
+            parentCacheEntry = loadPageForWrite(atomicOperation, fileId, parentIndex, false, true);
+          }
+
+          //noinspection ObjectAllocationInLoop
+          parentBucket = new NormalizedKeyBTreeBucket(parentCacheEntry);
+        }
+
+      } finally {
+        releasePageFromWrite(atomicOperation, parentCacheEntry);
+      }
+
+    } finally {
+      releasePageFromWrite(atomicOperation, rightBucketEntry);
+    }
+
+    final ArrayList<Long> resultPath = new ArrayList<>(path.subList(0, path.size() - 1));
+    final ArrayList<Integer> resultItemPointers =
+        new ArrayList<>(itemPointers.subList(0, itemPointers.size() - 1));
+
+    if (keyToLeft) {
+      resultPath.add(pageIndex);
+      resultItemPointers.add(keyIndex);
+
+      return new UpdateBucketSearchResult(resultItemPointers, resultPath, keyIndex);
+    }
+
+    final int parentIndex = resultItemPointers.size() - 1;
+    resultItemPointers.set(parentIndex, resultItemPointers.get(parentIndex) + 1);
+    resultPath.add((long) rightBucketEntry.getPageIndex());
+
+    if (splitLeaf) {
+      resultItemPointers.add(keyIndex - indexToSplit);
+      return new UpdateBucketSearchResult(resultItemPointers, resultPath, keyIndex - indexToSplit);
+    }
+
+    resultItemPointers.add(keyIndex - indexToSplit - 1);
+    return new UpdateBucketSearchResult(
+        resultItemPointers, resultPath, keyIndex - indexToSplit - 1);
+  }
+
+  private UpdateBucketSearchResult splitRootBucket(
+      final int keyIndex,
+      final boolean keyToLeft,
+      final OCacheEntry bucketEntry,
+      NormalizedKeyBTreeBucket bucketToSplit,
+      final boolean splitLeaf,
+      final int indexToSplit,
+      final byte[] separationKey,
+      final List<byte[]> rightEntries,
+      final OAtomicOperation atomicOperation)
+      throws IOException {
+    final List<byte[]> leftEntries = new ArrayList<>(indexToSplit);
+
+    for (int i = 0; i < indexToSplit; i++) {
+      leftEntries.add(bucketToSplit.getRawEntry(i));
+    }
+
+    final OCacheEntry leftBucketEntry;
+    final OCacheEntry rightBucketEntry;
+
+    final OCacheEntry entryPointCacheEntry =
+        loadPageForWrite(atomicOperation, fileId, ENTRY_POINT_INDEX, false, true);
+    try {
+      final NormalizedKeyBTreeEntryPoint entryPoint =
+          new NormalizedKeyBTreeEntryPoint(entryPointCacheEntry);
+      int pageSize = entryPoint.getPagesSize();
+
+      final int filledUpTo = (int) getFilledUpTo(atomicOperation, fileId);
+
+      if (pageSize < filledUpTo - 1) {
+        pageSize++;
+        leftBucketEntry = loadPageForWrite(atomicOperation, fileId, pageSize, false, false);
+      } else {
+        assert pageSize == filledUpTo - 1;
+        leftBucketEntry = addPage(atomicOperation, fileId);
+        pageSize = leftBucketEntry.getPageIndex();
+      }
+
+      if (pageSize < filledUpTo) {
+        pageSize++;
+        rightBucketEntry = loadPageForWrite(atomicOperation, fileId, pageSize, false, false);
+      } else {
+        assert pageSize == filledUpTo;
+        rightBucketEntry = addPage(atomicOperation, fileId);
+        pageSize = rightBucketEntry.getPageIndex();
+      }
+
+      entryPoint.setPagesSize(pageSize);
+    } finally {
+      releasePageFromWrite(atomicOperation, entryPointCacheEntry);
+    }
+
+    try {
+      final NormalizedKeyBTreeBucket newLeftBucket = new NormalizedKeyBTreeBucket(leftBucketEntry);
+      newLeftBucket.init(splitLeaf);
+      newLeftBucket.addAll(leftEntries);
+
+      if (splitLeaf) {
+        newLeftBucket.setRightSibling(rightBucketEntry.getPageIndex());
+      }
+
+    } finally {
+      releasePageFromWrite(atomicOperation, leftBucketEntry);
+    }
+
+    try {
+      final NormalizedKeyBTreeBucket newRightBucket =
+          new NormalizedKeyBTreeBucket(rightBucketEntry);
+      newRightBucket.init(splitLeaf);
+      newRightBucket.addAll(rightEntries);
+
+      if (splitLeaf) {
+        newRightBucket.setLeftSibling(leftBucketEntry.getPageIndex());
+      }
+    } finally {
+      releasePageFromWrite(atomicOperation, rightBucketEntry);
+    }
+
+    bucketToSplit = new NormalizedKeyBTreeBucket(bucketEntry);
+    bucketToSplit.shrink(0);
+    if (splitLeaf) {
+      bucketToSplit.switchBucketType();
+    }
+    bucketToSplit.addNonLeafEntry(
+        0, leftBucketEntry.getPageIndex(), rightBucketEntry.getPageIndex(), separationKey, true);
+
+    final ArrayList<Long> resultPath = new ArrayList<>(8);
+    resultPath.add(ROOT_INDEX);
+
+    final ArrayList<Integer> itemPointers = new ArrayList<>(8);
+
+    if (keyToLeft) {
+      itemPointers.add(-1);
+      itemPointers.add(keyIndex);
+
+      resultPath.add((long) leftBucketEntry.getPageIndex());
+      return new UpdateBucketSearchResult(itemPointers, resultPath, keyIndex);
+    }
+
+    resultPath.add((long) rightBucketEntry.getPageIndex());
+    itemPointers.add(0);
+
+    if (splitLeaf) {
+      itemPointers.add(keyIndex - indexToSplit);
+      return new UpdateBucketSearchResult(itemPointers, resultPath, keyIndex - indexToSplit);
+    }
+
+    itemPointers.add(keyIndex - indexToSplit - 1);
+    return new UpdateBucketSearchResult(itemPointers, resultPath, keyIndex - indexToSplit - 1);
+  }
+
+  private BucketSearchResult findBucket(final byte[] key, final OAtomicOperation atomicOperation)
+      throws IOException {
+    long pageIndex = ROOT_INDEX;
+
+    int depth = 0;
+    while (true) {
+      depth++;
+      if (depth > MAX_PATH_LENGTH) {
+        throw new NormalizedKeyBTreeException(
+            "We reached max level of depth of SBTree but still found nothing, seems like tree is in corrupted state. You should rebuild index related to given query.",
+            this);
+      }
+
+      final OCacheEntry bucketEntry = loadPageForRead(atomicOperation, fileId, pageIndex, false);
+      try {
+        @SuppressWarnings("ObjectAllocationInLoop")
+        final NormalizedKeyBTreeBucket keyBucket = new NormalizedKeyBTreeBucket(bucketEntry);
+        final int index = keyBucket.find(key);
+
+        if (keyBucket.isLeaf()) {
+          return new BucketSearchResult(index, pageIndex);
+        }
+
+        if (index >= 0) {
+          pageIndex = keyBucket.getRight(index);
+        } else {
+          final int insertionIndex = -index - 1;
+          if (insertionIndex >= keyBucket.size()) {
+            pageIndex = keyBucket.getRight(insertionIndex - 1);
+          } else {
+            pageIndex = keyBucket.getLeft(insertionIndex);
+          }
+        }
+      } finally {
+        releasePageFromRead(atomicOperation, bucketEntry);
+      }
+    }
+  }
+
+  private UpdateBucketSearchResult findBucketForUpdate(
+      final byte[] key, final OAtomicOperation atomicOperation) throws IOException {
+    long pageIndex = ROOT_INDEX;
+
+    final ArrayList<Long> path = new ArrayList<>(8);
+    final ArrayList<Integer> itemIndexes = new ArrayList<>(8);
+
+    while (true) {
+      if (path.size() > MAX_PATH_LENGTH) {
+        throw new NormalizedKeyBTreeException(
+            "We reached max level of depth of SBTree but still found nothing, seems like tree is in corrupted state. You should rebuild index related to given query.",
+            this);
+      }
+
+      path.add(pageIndex);
+      final OCacheEntry bucketEntry = loadPageForRead(atomicOperation, fileId, pageIndex, false);
+      try {
+        @SuppressWarnings("ObjectAllocationInLoop")
+        final NormalizedKeyBTreeBucket keyBucket = new NormalizedKeyBTreeBucket(bucketEntry);
+        final int index = keyBucket.find(key);
+
+        if (keyBucket.isLeaf()) {
+          itemIndexes.add(index);
+          return new UpdateBucketSearchResult(itemIndexes, path, index);
+        }
+
+        if (index >= 0) {
+          pageIndex = keyBucket.getRight(index);
+          itemIndexes.add(index + 1);
+        } else {
+          final int insertionIndex = -index - 1;
+
+          if (insertionIndex >= keyBucket.size()) {
+            pageIndex = keyBucket.getRight(insertionIndex - 1);
+          } else {
+            pageIndex = keyBucket.getLeft(insertionIndex);
+          }
+
+          itemIndexes.add(insertionIndex);
+        }
+      } finally {
+        releasePageFromRead(atomicOperation, bucketEntry);
+      }
+    }
+  }
+
+  private static final class BucketSearchResult {
+    private final int itemIndex;
+    private final long pageIndex;
+
+    private BucketSearchResult(final int itemIndex, final long pageIndex) {
+      this.itemIndex = itemIndex;
+      this.pageIndex = pageIndex;
+    }
+  }
+
+  private static final class UpdateBucketSearchResult {
+    private final List<Integer> insertionIndexes;
+    private final ArrayList<Long> path;
+    private final int itemIndex;
+
+    private UpdateBucketSearchResult(
+        final List<Integer> insertionIndexes, final ArrayList<Long> path, final int itemIndex) {
+      this.insertionIndexes = insertionIndexes;
+      this.path = path;
+      this.itemIndex = itemIndex;
+    }
+
+    private long getLastPathItem() {
+      return path.get(path.size() - 1);
+    }
+  }
+
+  /** Iterates over normalized keys which belong to the range <code>[fromKey, toKey)</code>. */
+  private final class SpliteratorForward implements Spliterator<ORawPair<K, ORID>> {
+    private final byte[] fromKey;
+    private final byte[] toKey;
+
+    private int pageIndex = -1;
+    private int itemIndex = -1;
+
+    private OLogSequenceNumber lastLSN = null;
+    private byte[] lastKey = null;
+
+    private final List<ORawPair<K, ORID>> dataCache = new ArrayList<>();
+    private Iterator<ORawPair<K, ORID>> cacheIterator = Collections.emptyIterator();
+
+    private SpliteratorForward(final byte[] fromKey, final byte[] toKey) {
+      this.fromKey = fromKey;
+      this.toKey = toKey;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super ORawPair<K, ORID>> action) {
+      if (cacheIterator == null) {
+        return false;
+      }
+
+      if (cacheIterator.hasNext()) {
+        action.accept(cacheIterator.next());
+        return true;
+      }
+
+      fetchNextCachePortion();
+
+      cacheIterator = dataCache.iterator();
+
+      if (cacheIterator.hasNext()) {
+        action.accept(cacheIterator.next());
+        return true;
+      }
+
+      cacheIterator = null;
+
+      return false;
+    }
+
+    private void fetchNextCachePortion() {
+      dataCache.clear();
+      cacheIterator = Collections.emptyIterator();
+
+      atomicOperationsManager.acquireReadLock(NormalizedKeyBTreeValue.this);
+      try {
+        acquireSharedLock();
+        try {
+          final OAtomicOperation atomicOperation = atomicOperationsManager.getCurrentOperation();
+          if (pageIndex > -1) {
+            if (readKeysFromBuckets(atomicOperation)) {
+              return;
+            }
+          }
+
+          // this can only happen if page LSN does not equal to stored LSN or index of current
+          // iterated page equals to -1
+          // so we only started iteration
+          if (dataCache.isEmpty()) {
+            final BucketSearchResult bucketSearchResult;
+            if (lastKey == null) {
+              bucketSearchResult = findBucket(fromKey, atomicOperation);
+
+              pageIndex = (int) bucketSearchResult.pageIndex;
+              if (bucketSearchResult.itemIndex >= 0) {
+                itemIndex = bucketSearchResult.itemIndex;
+              } else {
+                itemIndex = -bucketSearchResult.itemIndex - 1;
+              }
+            } else {
+              bucketSearchResult = findBucket(lastKey, atomicOperation);
+
+              pageIndex = (int) bucketSearchResult.pageIndex;
+              if (bucketSearchResult.itemIndex >= 0) {
+                itemIndex = bucketSearchResult.itemIndex + 1;
+              } else {
+                itemIndex = -bucketSearchResult.itemIndex - 1;
+              }
+            }
+
+            lastLSN = null;
+            readKeysFromBuckets(atomicOperation);
+          }
+        } finally {
+          releaseSharedLock();
+        }
+      } catch (final IOException e) {
+        throw OException.wrapException(
+            new NormalizedKeyBTreeException(
+                "Error during element iteration", NormalizedKeyBTreeValue.this),
+            e);
+      } finally {
+        atomicOperationsManager.releaseReadLock(NormalizedKeyBTreeValue.this);
+      }
+    }
+
+    private boolean readKeysFromBuckets(OAtomicOperation atomicOperation) throws IOException {
+      OCacheEntry cacheEntry = loadPageForRead(atomicOperation, fileId, pageIndex, false);
+      try {
+        NormalizedKeyBTreeBucket bucket = new NormalizedKeyBTreeBucket(cacheEntry);
+        if (lastLSN == null || bucket.getLSN().equals(lastLSN)) {
+          while (true) {
+            int bucketSize = bucket.size();
+            if (itemIndex >= bucketSize) {
+              pageIndex = (int) bucket.getRightSibling();
+
+              if (pageIndex < 0) {
+                return true;
+              }
+
+              itemIndex = 0;
+              releasePageFromRead(atomicOperation, cacheEntry);
+
+              cacheEntry = loadPageForRead(atomicOperation, fileId, pageIndex, false);
+              bucket = new NormalizedKeyBTreeBucket(cacheEntry);
+
+              bucketSize = bucket.size();
+            }
+
+            lastLSN = bucket.getLSN();
+
+            for (;
+                itemIndex < bucketSize && dataCache.size() < SPLITERATOR_CACHE_SIZE;
+                itemIndex++) {
+              final byte[] key = bucket.getKey(itemIndex);
+              if (compareKeys(key, toKey) >= 0) {
+                return true;
+              }
+
+              lastKey = key;
+              //noinspection ObjectAllocationInLoop
+              dataCache.add(
+                  new ORawPair<>(
+                      deserializeKey(bucket.getSerializedKey(itemIndex)),
+                      bucket.getValue(itemIndex)));
+            }
+
+            if (dataCache.size() >= SPLITERATOR_CACHE_SIZE) {
+              return true;
+            }
+          }
+        }
+      } finally {
+        releasePageFromRead(atomicOperation, cacheEntry);
+      }
+
+      return false;
+    }
+
+    @Override
+    public Spliterator<ORawPair<K, ORID>> trySplit() {
+      return null;
+    }
+
+    @Override
+    public long estimateSize() {
+      return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+      return NONNULL | ORDERED;
+    }
+
+    @Override
+    public Comparator<? super ORawPair<K, ORID>> getComparator() {
+      throw new IllegalStateException();
+    }
+  }
+
+  /**
+   * Iterates in descending order over normalized keys which belong to the range <code>
+   * [fromKey, toKey)</code>.
+   */
+  private final class SpliteratorBackward implements Spliterator<ORawPair<K, ORID>> {
+    private final byte[] fromKey;
+    private final byte[] toKey;
+
+    private int pageIndex = -1;
+    private int itemIndex = -1;
+
+    private OLogSequenceNumber lastLSN = null;
+    private byte[] lastKey = null;
+
+    private final List<ORawPair<K, ORID>> dataCache = new ArrayList<>();
+    private Iterator<ORawPair<K, ORID>> cacheIterator = Collections.emptyIterator();
+
+    private SpliteratorBackward(final byte[] fromKey, final byte[] toKey) {
+      this.fromKey = fromKey;
+      this.toKey = toKey;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super ORawPair<K, ORID>> action) {
+      if (cacheIterator == null) {
+        return false;
+      }
+
+      if (cacheIterator.hasNext()) {
+        action.accept(cacheIterator.next());
+        return true;
+      }
+
+      fetchNextCachePortion();
+
+      cacheIterator = dataCache.iterator();
+
+      if (cacheIterator.hasNext()) {
+        action.accept(cacheIterator.next());
+        return true;
+      }
+
+      cacheIterator = null;
+
+      return false;
+    }
+
+    private void fetchNextCachePortion() {
+      dataCache.clear();
+      cacheIterator = Collections.emptyIterator();
+
+      atomicOperationsManager.acquireReadLock(NormalizedKeyBTreeValue.this);
+      try {
+        acquireSharedLock();
+        try {
+          final OAtomicOperation atomicOperation = atomicOperationsManager.getCurrentOperation();
+          if (pageIndex > -1) {
+            if (readKeysFromBuckets(atomicOperation)) {
+              return;
+            }
+          }
+
+          // this can only happen if page LSN does not equal to stored LSN or index of current
+          // iterated page equals to -1
+          // so we only started iteration
+          if (dataCache.isEmpty()) {
+            // upper boundary is exclusive as well as the last returned key
+            final BucketSearchResult bucketSearchResult =
+                findBucket(lastKey == null ? toKey : lastKey, atomicOperation);
+
+            pageIndex = (int) bucketSearchResult.pageIndex;
+            if (bucketSearchResult.itemIndex >= 0) {
+              itemIndex = bucketSearchResult.itemIndex - 1;
+            } else {
+              itemIndex = -bucketSearchResult.itemIndex - 2;
+            }
+
+            lastLSN = null;
+            readKeysFromBuckets(atomicOperation);
+          }
+        } finally {
+          releaseSharedLock();
+        }
+      } catch (final IOException e) {
+        throw OException.wrapException(
+            new NormalizedKeyBTreeException(
+                "Error during element iteration", NormalizedKeyBTreeValue.this),
+            e);
+      } finally {
+        atomicOperationsManager.releaseReadLock(NormalizedKeyBTreeValue.this);
+      }
+    }
+
+    private boolean readKeysFromBuckets(OAtomicOperation atomicOperation) throws IOException {
+      OCacheEntry cacheEntry = loadPageForRead(atomicOperation, fileId, pageIndex, false);
+      try {
+        NormalizedKeyBTreeBucket bucket = new NormalizedKeyBTreeBucket(cacheEntry);
+        if (lastLSN == null || bucket.getLSN().equals(lastLSN)) {
+          while (true) {
+            if (itemIndex < 0) {
+              pageIndex = (int) bucket.getLeftSibling();
+
+              if (pageIndex < 0) {
+                return true;
+              }
+
+              releasePageFromRead(atomicOperation, cacheEntry);
+
+              cacheEntry = loadPageForRead(atomicOperation, fileId, pageIndex, false);
+              bucket = new NormalizedKeyBTreeBucket(cacheEntry);
+              final int bucketSize = bucket.size();
+              itemIndex = bucketSize - 1;
+            }
+
+            lastLSN = bucket.getLSN();
+
+            for (; itemIndex >= 0 && dataCache.size() < SPLITERATOR_CACHE_SIZE; itemIndex--) {
+              final byte[] key = bucket.getKey(itemIndex);
+              if (compareKeys(key, fromKey) < 0) {
+                return true;
+              }
+
+              lastKey = key;
+              //noinspection ObjectAllocationInLoop
+              dataCache.add(
+                  new ORawPair<>(
+                      deserializeKey(bucket.getSerializedKey(itemIndex)),
+                      bucket.getValue(itemIndex)));
+            }
+
+            if (dataCache.size() >= SPLITERATOR_CACHE_SIZE) {
+              return true;
+            }
+          }
+        }
+      } finally {
+        releasePageFromRead(atomicOperation, cacheEntry);
+      }
+
+      return false;
+    }
+
+    @Override
+    public Spliterator<ORawPair<K, ORID>> trySplit() {
+      return null;
+    }
+
+    @Override
+    public long estimateSize() {
+      return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+      return NONNULL | ORDERED;
+    }
+
+    @Override
+    public Comparator<? super ORawPair<K, ORID>> getComparator() {
+      throw new IllegalStateException();
+    }
+  }
 }
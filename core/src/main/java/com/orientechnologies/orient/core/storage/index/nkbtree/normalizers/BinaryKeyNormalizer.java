@@ -1,15 +1,23 @@
-package com.orientechnologies.orient.core.storage.index.nkbtree.normalizers;
-
-import java.io.IOException;
-import java.nio.ByteBuffer;
-
-public class BinaryKeyNormalizer implements KeyNormalizers {
-  @Override
-  public byte[] execute(Object key, int decomposition) throws IOException {
-    final byte[] matKey = (byte[]) key;
-    final ByteBuffer bb = ByteBuffer.allocate(1 + matKey.length);
-    bb.put((byte) 0);
-    bb.put(matKey);
-    return bb.array();
-  }
-}
+package com.orientechnologies.orient.core.storage.index.nkbtree.normalizers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Byte arrays are ordered by length first like {@link
+ * com.orientechnologies.common.comparator.OByteArrayComparator} does, so the length is written
+ * before the content which also makes normalized key self-delimiting inside of the composite key.
+ */
+public class BinaryKeyNormalizer implements KeyNormalizers {
+  @Override
+  public byte[] execute(Object key, int decomposition) throws IOException {
+    final byte[] matKey = (byte[]) key;
+    final ByteBuffer bb = ByteBuffer.allocate(5 + matKey.length);
+    bb.order(ByteOrder.BIG_ENDIAN);
+    bb.put((byte) 1);
+    bb.putInt(matKey.length);
+    bb.put(matKey);
+    return bb.array();
+  }
+}
@@ -1,17 +1,17 @@
-package com.orientechnologies.orient.core.storage.index.nkbtree.normalizers;
-
-import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.util.Date;
-
-public class DateKeyNormalizer implements KeyNormalizers {
-  @Override
-  public byte[] execute(Object key, int decomposition) throws IOException {
-    final ByteBuffer bb = ByteBuffer.allocate(9);
-    bb.order(ByteOrder.BIG_ENDIAN);
-    bb.put((byte) 0);
-    bb.putLong(((Date) key).getTime());
-    return bb.array();
-  }
-}
+package com.orientechnologies.orient.core.storage.index.nkbtree.normalizers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Date;
+
+public class DateKeyNormalizer implements KeyNormalizers {
+  @Override
+  public byte[] execute(Object key, int decomposition) throws IOException {
+    final ByteBuffer bb = ByteBuffer.allocate(9);
+    bb.order(ByteOrder.BIG_ENDIAN);
+    bb.put((byte) 1);
+    bb.putLong(((Date) key).getTime() ^ Long.MIN_VALUE);
+    return bb.array();
+  }
+}
@@ -10,8 +10,8 @@ public class DateTimeKeyNormalizer implements KeyNormalizers {
   public byte[] execute(Object key, int decomposition) throws IOException {
     final ByteBuffer bb = ByteBuffer.allocate(9);
     bb.order(ByteOrder.BIG_ENDIAN);
-    bb.put((byte) 0);
-    bb.putLong(((Date) key).getTime());
+    bb.put((byte) 1);
+    bb.putLong(((Date) key).getTime() ^ Long.MIN_VALUE);
     return bb.array();
   }
 }
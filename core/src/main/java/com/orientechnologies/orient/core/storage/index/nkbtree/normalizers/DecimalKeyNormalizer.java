@@ -26,12 +26,13 @@ public class DecimalKeyNormalizer implements KeyNormalizers {
 
     final ByteBuffer bb = ByteBuffer.allocate(1 + 8); // bytes.length);
     bb.order(ByteOrder.BIG_ENDIAN);
-    bb.put((byte) 0);
+    bb.put((byte) 1);
     // bb.putInt(matKey.scale());
     // bb.putLong(matKey.unscaledValue().longValue());
     // bb.put(bytes);
     /** NOTE: bigdecimal to double / long loses precision */
-    bb.putLong(Double.doubleToLongBits(matKey.doubleValue()) + Long.MAX_VALUE + 1);
+    final long bits = Double.doubleToLongBits(matKey.doubleValue());
+    bb.putLong(bits < 0 ? ~bits : bits ^ Long.MIN_VALUE);
     return bb.array();
   }
 
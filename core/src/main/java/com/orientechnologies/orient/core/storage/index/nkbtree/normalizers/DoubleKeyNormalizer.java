@@ -9,11 +9,12 @@ public class DoubleKeyNormalizer implements KeyNormalizers {
   public byte[] execute(Object key, int decomposition) throws IOException {
     final double matKey = (double) key;
     final ByteBuffer bb = ByteBuffer.allocate(9);
-    // IEEE 754 (endian sensitive), positive, big-endian to match lexicographical ordering of bytes
-    // for comparison
+    // IEEE 754 (endian sensitive), big-endian to match lexicographical ordering of bytes for
+    // comparison: sign bit is flipped for positive values, all bits are flipped for negative ones
     bb.order(ByteOrder.BIG_ENDIAN);
-    bb.put((byte) 0);
-    bb.putLong(Double.doubleToLongBits(matKey) + Long.MAX_VALUE + 1);
+    bb.put((byte) 1);
+    final long bits = Double.doubleToLongBits(matKey);
+    bb.putLong(bits < 0 ? ~bits : bits ^ Long.MIN_VALUE);
     return bb.array();
   }
 }
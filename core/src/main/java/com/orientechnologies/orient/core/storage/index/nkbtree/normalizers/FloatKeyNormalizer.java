@@ -9,11 +9,12 @@ public class FloatKeyNormalizer implements KeyNormalizers {
   public byte[] execute(Object key, int decomposition) throws IOException {
     final Float matKey = (float) key;
     final ByteBuffer bb = ByteBuffer.allocate(5);
-    // IEEE 754 (endian sensitive), positive, big-endian to match lexicographical ordering of bytes
-    // for comparison
+    // IEEE 754 (endian sensitive), big-endian to match lexicographical ordering of bytes for
+    // comparison: sign bit is flipped for positive values, all bits are flipped for negative ones
     bb.order(ByteOrder.BIG_ENDIAN);
-    bb.put((byte) 0);
-    bb.putInt((Float.floatToIntBits(matKey)) + Integer.MAX_VALUE + 1);
+    bb.put((byte) 1);
+    final int bits = Float.floatToIntBits(matKey);
+    bb.putInt(bits < 0 ? ~bits : bits ^ Integer.MIN_VALUE);
     return bb.array();
   }
 }
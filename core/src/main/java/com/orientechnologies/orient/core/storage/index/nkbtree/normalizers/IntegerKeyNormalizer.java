@@ -13,7 +13,7 @@ public class IntegerKeyNormalizer implements KeyNormalizers {
   public byte[] execute(Object key, int decomposition) throws IOException {
     final ByteBuffer bb = ByteBuffer.allocate(5);
     bb.order(ByteOrder.BIG_ENDIAN);
-    bb.put((byte) 0);
+    bb.put((byte) 1);
     bb.putInt(((int) key) + Integer.MAX_VALUE + 1);
     return bb.array();
   }
@@ -5,8 +5,8 @@ import com.orientechnologies.orient.core.metadata.schema.OType;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
 
 public class KeyNormalizer {
   private final Map<OType, KeyNormalizers> normalizers = new HashMap<>();
@@ -25,6 +25,24 @@ public class KeyNormalizer {
     normalizers.put(OType.DATE, new DateKeyNormalizer());
     normalizers.put(OType.DATETIME, new DateTimeKeyNormalizer());
     normalizers.put(OType.BINARY, new BinaryKeyNormalizer());
+    normalizers.put(OType.LINK, new LinkKeyNormalizer());
+  }
+
+  /**
+   * Creates normalizer of the index keys. Normalized keys are ordered as unsigned bytes the same
+   * way as the original keys are ordered by the index, so strings are ordered by their UTF-16 code
+   * units instead of the collation rules and {@link OType#DECIMAL} keys which can be normalized
+   * only with the loss of precision are not supported.
+   */
+  public static KeyNormalizer forIndex() {
+    final KeyNormalizer keyNormalizer = new KeyNormalizer();
+    keyNormalizer.normalizers.put(OType.STRING, new Utf16StringKeyNormalizer());
+    keyNormalizer.normalizers.remove(OType.DECIMAL);
+    return keyNormalizer;
+  }
+
+  public boolean isSupported(final OType keyType) {
+    return normalizers.containsKey(keyType);
   }
 
   public byte[] normalize(
@@ -32,23 +50,21 @@ public class KeyNormalizer {
     if (keys == null) {
       throw new IllegalArgumentException("Keys must not be null.");
     }
-    if (keys.getKeys().size() != keyTypes.length) {
+    final List<Object> items = keys.getKeys();
+    if (items.size() != keyTypes.length) {
       throw new IllegalArgumentException(
           "Number of keys must fit to number of types: "
-              + keys.getKeys().size()
+              + items.size()
               + " != "
               + keyTypes.length
               + ".");
     }
-    final AtomicInteger counter = new AtomicInteger(0);
-    return keys.getKeys().stream()
-        .collect(
-            ByteArrayOutputStream::new,
-            (baos, key) -> {
-              normalizeCompositeKeys(baos, key, keyTypes[counter.getAndIncrement()], decompositon);
-            },
-            (baos1, baos2) -> baos1.write(baos2.toByteArray(), 0, baos2.size()))
-        .toByteArray();
+
+    final ByteArrayOutputStream normalizedKeyStream = new ByteArrayOutputStream();
+    for (int i = 0; i < keyTypes.length; i++) {
+      normalizeCompositeKeys(normalizedKeyStream, items.get(i), keyTypes[i], decompositon);
+    }
+    return normalizedKeyStream.toByteArray();
   }
 
   private void normalizeCompositeKeys(
@@ -57,14 +73,14 @@ public class KeyNormalizer {
       final OType keyType,
       final int decompositon) {
     try {
-      final KeyNormalizers keyNormalizer = normalizers.get(keyType);
+      final KeyNormalizers keyNormalizer = normalizers.get(key != null ? keyType : null);
       if (keyNormalizer == null) {
         throw new UnsupportedOperationException(
             "Type " + key.getClass().getTypeName() + " is currently not supported");
       }
       normalizedKeyStream.write(keyNormalizer.execute(key, decompositon));
     } catch (final IOException e) {
-      e.printStackTrace();
+      throw new IllegalStateException("Key " + key + " can not be normalized", e);
     }
   }
 }
@@ -1,7 +1,13 @@
-package com.orientechnologies.orient.core.storage.index.nkbtree.normalizers;
-
-import java.io.IOException;
-
-public interface KeyNormalizers {
-  byte[] execute(Object key, int decomposition) throws IOException;
-}
+package com.orientechnologies.orient.core.storage.index.nkbtree.normalizers;
+
+import java.io.IOException;
+
+/**
+ * Converts single item of the composite key into the bytes which are compared as unsigned bytes in
+ * the same order as the original items are compared. Normalized non-null item starts with the
+ * <code>1</code> byte, while <code>null</code> is normalized into the single <code>0</code> byte,
+ * so <code>null</code> is ordered before all other values.
+ */
+public interface KeyNormalizers {
+  byte[] execute(Object key, int decomposition) throws IOException;
+}
@@ -0,0 +1,21 @@
+package com.orientechnologies.orient.core.storage.index.nkbtree.normalizers;
+
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.id.ORID;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/** Links are ordered by cluster id and then by cluster position like {@link ORID} does. */
+public class LinkKeyNormalizer implements KeyNormalizers {
+  @Override
+  public byte[] execute(Object key, int decomposition) throws IOException {
+    final ORID rid = ((OIdentifiable) key).getIdentity();
+    final ByteBuffer bb = ByteBuffer.allocate(11);
+    bb.order(ByteOrder.BIG_ENDIAN);
+    bb.put((byte) 1);
+    bb.putShort((short) (rid.getClusterId() ^ Short.MIN_VALUE));
+    bb.putLong(rid.getClusterPosition() ^ Long.MIN_VALUE);
+    return bb.array();
+  }
+}
@@ -9,7 +9,7 @@ public class LongKeyNormalizer implements KeyNormalizers {
   public byte[] execute(Object key, int decomposition) throws IOException {
     final ByteBuffer bb = ByteBuffer.allocate(9);
     bb.order(ByteOrder.BIG_ENDIAN);
-    bb.put((byte) 0);
+    bb.put((byte) 1);
     bb.putLong(((long) key) + Long.MAX_VALUE + 1);
     return bb.array();
   }
@@ -0,0 +1,57 @@
+package com.orientechnologies.orient.core.storage.index.nkbtree.normalizers;
+
+import java.io.IOException;
+
+/**
+ * Strings are ordered by their UTF-16 code units like {@link String#compareTo} does, unlike {@link
+ * StringKeyNormalizer} which follows the collation rules. Every code unit is incremented by one and
+ * written in the UTF-8 like variable length form which preserves the order of the code units and
+ * never contains zero byte, so zero byte terminates the string and shorter string is ordered before
+ * the longer one with the same beginning.
+ */
+public class Utf16StringKeyNormalizer implements KeyNormalizers {
+  @Override
+  public byte[] execute(Object key, int decomposition) throws IOException {
+    final String matKey = (String) key;
+
+    int size = 2;
+    for (int i = 0; i < matKey.length(); i++) {
+      final int value = matKey.charAt(i) + 1;
+      if (value < 0x80) {
+        size += 1;
+      } else if (value < 0x800) {
+        size += 2;
+      } else if (value < 0x10000) {
+        size += 3;
+      } else {
+        size += 4;
+      }
+    }
+
+    final byte[] bytes = new byte[size];
+    bytes[0] = 1;
+
+    int pos = 1;
+    for (int i = 0; i < matKey.length(); i++) {
+      final int value = matKey.charAt(i) + 1;
+      if (value < 0x80) {
+        bytes[pos++] = (byte) value;
+      } else if (value < 0x800) {
+        bytes[pos++] = (byte) (0xC0 | (value >> 6));
+        bytes[pos++] = (byte) (0x80 | (value & 0x3F));
+      } else if (value < 0x10000) {
+        bytes[pos++] = (byte) (0xE0 | (value >> 12));
+        bytes[pos++] = (byte) (0x80 | ((value >> 6) & 0x3F));
+        bytes[pos++] = (byte) (0x80 | (value & 0x3F));
+      } else {
+        bytes[pos++] = (byte) (0xF0 | (value >> 18));
+        bytes[pos++] = (byte) (0x80 | ((value >> 12) & 0x3F));
+        bytes[pos++] = (byte) (0x80 | ((value >> 6) & 0x3F));
+        bytes[pos++] = (byte) (0x80 | (value & 0x3F));
+      }
+    }
+
+    assert pos == size - 1;
+    return bytes;
+  }
+}
@@ -209,142 +209,185 @@ public final class CellBTreeMultiValueV2<K> extends ODurableComponent
   }
 
   public Stream<ORID> get(K key) {
+    if (atomicOperationsManager.getCurrentOperation() == null) {
+      storage.checkErrorState();
+
+      final long stamp = startOptimisticRead();
+      if (stamp != 0) {
+        try {
+          final List<ORID> result = doGet(key, null, stamp);
+          if (result != null && validateOptimisticRead(stamp)) {
+            return result.stream();
+          }
+        } catch (final Throwable ignore) {
+          // pages were read while they were changed, so any error including the allocation of
+          // memory for the garbage size of an entry may be caused by the inconsistent pages, read
+          // is repeated under the locks below
+        }
+      }
+    }
+
     atomicOperationsManager.acquireReadLock(this);
     try {
       acquireSharedLock();
       try {
         final OAtomicOperation atomicOperation = atomicOperationsManager.getCurrentOperation();
-        if (key != null) {
-          key = keySerializer.preprocess(key, (Object[]) keyTypes);
+        return doGet(key, atomicOperation, 0).stream();
+      } finally {
+        releaseSharedLock();
+      }
+    } catch (final IOException e) {
+      throw OException.wrapException(
+          new CellBTreeMultiValueException(
+              "Error during retrieving  of sbtree with name " + getName(), this),
+          e);
+    } finally {
+      atomicOperationsManager.releaseReadLock(this);
+    }
+  }
 
-          final BucketSearchResult bucketSearchResult = findBucket(key, atomicOperation);
-          if (bucketSearchResult.itemIndex < 0) {
-            return Stream.empty();
-          }
+  /**
+   * @param optimisticStamp stamp of the optimistic read or <code>0</code> if the read is done under
+   *     the locks
+   * @return values of the key or <code>null</code> if the optimistic read was invalidated while the
+   *     tree was traversed or the siblings of the leaf page were read, their pointers can not be
+   *     trusted then
+   */
+  private List<ORID> doGet(
+      K key, final OAtomicOperation atomicOperation, final long optimisticStamp)
+      throws IOException {
+    if (key != null) {
+      key = keySerializer.preprocess(key, (Object[]) keyTypes);
 
-          final long pageIndex = bucketSearchResult.pageIndex;
-          final int itemIndex = bucketSearchResult.itemIndex;
+      final BucketSearchResult bucketSearchResult =
+          findBucket(key, atomicOperation, optimisticStamp);
+      if (bucketSearchResult == null) {
+        return null;
+      }
+      if (bucketSearchResult.itemIndex < 0) {
+        return Collections.emptyList();
+      }
 
-          long leftSibling = -1;
-          long rightSibling = -1;
+      final long pageIndex = bucketSearchResult.pageIndex;
+      final int itemIndex = bucketSearchResult.itemIndex;
 
-          final List<ORID> result = new ArrayList<>(8);
-          OCacheEntry cacheEntry = loadPageForRead(atomicOperation, fileId, pageIndex, false);
-          try {
-            final CellBTreeMultiValueV2Bucket<K> bucket =
-                new CellBTreeMultiValueV2Bucket<>(cacheEntry);
-            fetchValues(itemIndex, result, bucket);
+      long leftSibling = -1;
+      long rightSibling = -1;
 
-            if (itemIndex == 0) {
-              leftSibling = bucket.getLeftSibling();
-            }
+      final List<ORID> result = new ArrayList<>(8);
+      OCacheEntry cacheEntry = loadPageForRead(atomicOperation, fileId, pageIndex, false);
+      try {
+        final CellBTreeMultiValueV2Bucket<K> bucket =
+            new CellBTreeMultiValueV2Bucket<>(cacheEntry);
+        fetchValues(itemIndex, result, bucket);
 
-            if (itemIndex == bucket.size() - 1) {
-              rightSibling = bucket.getRightSibling();
-            }
-          } finally {
-            releasePageFromRead(atomicOperation, cacheEntry);
-          }
+        if (itemIndex == 0) {
+          leftSibling = bucket.getLeftSibling();
+        }
 
-          while (leftSibling >= 0) {
-            cacheEntry = loadPageForRead(atomicOperation, fileId, leftSibling, false);
-            try {
-              @SuppressWarnings("ObjectAllocationInLoop")
-              final CellBTreeMultiValueV2Bucket<K> bucket =
-                  new CellBTreeMultiValueV2Bucket<>(cacheEntry);
-              final int size = bucket.size();
+        if (itemIndex == bucket.size() - 1) {
+          rightSibling = bucket.getRightSibling();
+        }
+      } finally {
+        releasePageFromRead(atomicOperation, cacheEntry);
+      }
 
-              if (size > 0) {
-                if (bucket.getKey(size - 1, keySerializer, encryption).equals(key)) {
-                  fetchValues(size - 1, result, bucket);
+      while (leftSibling >= 0) {
+        if (optimisticStamp != 0 && !validateOptimisticRead(optimisticStamp)) {
+          return null;
+        }
 
-                  if (size == 1) {
-                    leftSibling = bucket.getLeftSibling();
-                  } else {
-                    leftSibling = -1;
-                  }
-                } else {
-                  leftSibling = -1;
-                }
-              } else {
+        cacheEntry = loadPageForRead(atomicOperation, fileId, leftSibling, false);
+        try {
+          @SuppressWarnings("ObjectAllocationInLoop")
+          final CellBTreeMultiValueV2Bucket<K> bucket =
+              new CellBTreeMultiValueV2Bucket<>(cacheEntry);
+          final int size = bucket.size();
+
+          if (size > 0) {
+            if (bucket.getKey(size - 1, keySerializer, encryption).equals(key)) {
+              fetchValues(size - 1, result, bucket);
+
+              if (size == 1) {
                 leftSibling = bucket.getLeftSibling();
+              } else {
+                leftSibling = -1;
               }
-            } finally {
-              releasePageFromRead(atomicOperation, cacheEntry);
+            } else {
+              leftSibling = -1;
             }
+          } else {
+            leftSibling = bucket.getLeftSibling();
           }
+        } finally {
+          releasePageFromRead(atomicOperation, cacheEntry);
+        }
+      }
 
-          while (rightSibling >= 0) {
-            cacheEntry = loadPageForRead(atomicOperation, fileId, rightSibling, false);
-            try {
-              final CellBTreeMultiValueV2Bucket<K> bucket =
-                  new CellBTreeMultiValueV2Bucket<>(cacheEntry);
-              final int size = bucket.size();
+      while (rightSibling >= 0) {
+        if (optimisticStamp != 0 && !validateOptimisticRead(optimisticStamp)) {
+          return null;
+        }
 
-              if (size > 0) {
-                if (bucket.getKey(0, keySerializer, encryption).equals(key)) {
-                  fetchValues(0, result, bucket);
+        cacheEntry = loadPageForRead(atomicOperation, fileId, rightSibling, false);
+        try {
+          final CellBTreeMultiValueV2Bucket<K> bucket =
+              new CellBTreeMultiValueV2Bucket<>(cacheEntry);
+          final int size = bucket.size();
 
-                  if (size == 1) {
-                    rightSibling = bucket.getRightSibling();
-                  } else {
-                    rightSibling = -1;
-                  }
-                } else {
-                  rightSibling = -1;
-                }
-              } else {
+          if (size > 0) {
+            if (bucket.getKey(0, keySerializer, encryption).equals(key)) {
+              fetchValues(0, result, bucket);
+
+              if (size == 1) {
                 rightSibling = bucket.getRightSibling();
+              } else {
+                rightSibling = -1;
               }
-            } finally {
-              releasePageFromRead(atomicOperation, cacheEntry);
+            } else {
+              rightSibling = -1;
             }
+          } else {
+            rightSibling = bucket.getRightSibling();
           }
+        } finally {
+          releasePageFromRead(atomicOperation, cacheEntry);
+        }
+      }
 
-          return result.stream();
-        } else {
-          final OCacheEntry nullCacheEntry =
-              loadPageForRead(atomicOperation, nullBucketFileId, 0, false);
-          try {
-            final CellBTreeMultiValueV2NullBucket nullBucket =
-                new CellBTreeMultiValueV2NullBucket(nullCacheEntry);
-            final int size = nullBucket.getSize();
-            final List<ORID> values = nullBucket.getValues();
-            if (values.size() < size) {
-              final long mId = nullBucket.getMid();
-
-              try (final Stream<ORawPair<MultiValueEntry, Byte>> stream =
-                  multiContainer.iterateEntriesBetween(
-                      new MultiValueEntry(mId, 0, 0),
-                      true,
-                      new MultiValueEntry(mId, Integer.MAX_VALUE, Long.MAX_VALUE),
-                      true,
-                      true)) {
-                values.addAll(
-                    stream
-                        .map(
-                            (pair) -> {
-                              final MultiValueEntry entry = pair.first;
-                              return new ORecordId(entry.clusterId, entry.clusterPosition);
-                            })
-                        .collect(Collectors.toList()));
-              }
-            }
-            return values.stream();
-          } finally {
-            releasePageFromRead(atomicOperation, nullCacheEntry);
+      return result;
+    } else {
+      final OCacheEntry nullCacheEntry =
+          loadPageForRead(atomicOperation, nullBucketFileId, 0, false);
+      try {
+        final CellBTreeMultiValueV2NullBucket nullBucket =
+            new CellBTreeMultiValueV2NullBucket(nullCacheEntry);
+        final int size = nullBucket.getSize();
+        final List<ORID> values = nullBucket.getValues();
+        if (values.size() < size) {
+          final long mId = nullBucket.getMid();
+
+          try (final Stream<ORawPair<MultiValueEntry, Byte>> stream =
+              multiContainer.iterateEntriesBetween(
+                  new MultiValueEntry(mId, 0, 0),
+                  true,
+                  new MultiValueEntry(mId, Integer.MAX_VALUE, Long.MAX_VALUE),
+                  true,
+                  true)) {
+            values.addAll(
+                stream
+                    .map(
+                        (pair) -> {
+                          final MultiValueEntry entry = pair.first;
+                          return new ORecordId(entry.clusterId, entry.clusterPosition);
+                        })
+                    .collect(Collectors.toList()));
           }
         }
+        return values;
       } finally {
-        releaseSharedLock();
+        releasePageFromRead(atomicOperation, nullCacheEntry);
       }
-    } catch (final IOException e) {
-      throw OException.wrapException(
-          new CellBTreeMultiValueException(
-              "Error during retrieving  of sbtree with name " + getName(), this),
-          e);
-    } finally {
-      atomicOperationsManager.releaseReadLock(this);
     }
   }
 
@@ -1718,6 +1761,18 @@ public final class CellBTreeMultiValueV2<K> extends ODurableComponent
 
   private BucketSearchResult findBucket(final K key, final OAtomicOperation atomicOperation)
       throws IOException {
+    return findBucket(key, atomicOperation, 0);
+  }
+
+  /**
+   * @param optimisticStamp stamp of the optimistic read or <code>0</code> if the read is done under
+   *     the locks, the stamp is validated on each level before the child page is read
+   * @return bucket of the key or <code>null</code> if the optimistic read was invalidated, the
+   *     pointers to the child pages can not be trusted then
+   */
+  private BucketSearchResult findBucket(
+      final K key, final OAtomicOperation atomicOperation, final long optimisticStamp)
+      throws IOException {
     long pageIndex = ROOT_INDEX;
 
     int depth = 0;
@@ -1729,6 +1784,10 @@ public final class CellBTreeMultiValueV2<K> extends ODurableComponent
             this);
       }
 
+      if (optimisticStamp != 0 && !validateOptimisticRead(optimisticStamp)) {
+        return null;
+      }
+
       final OCacheEntry bucketEntry = loadPageForRead(atomicOperation, fileId, pageIndex, false);
       try {
         final CellBTreeMultiValueV2Bucket<K> keyBucket =
@@ -5,6 +5,7 @@ import com.orientechnologies.common.util.ORawPair;
 import com.orientechnologies.orient.core.encryption.OEncryption;
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.index.engine.OBaseIndexEngine;
+import com.orientechnologies.orient.core.index.engine.OIndexBulkLoader;
 import com.orientechnologies.orient.core.metadata.schema.OType;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.atomicoperations.OAtomicOperation;
 import java.io.IOException;
@@ -61,4 +62,13 @@ public interface OCellBTreeSingleValue<K> {
       K keyFrom, boolean fromInclusive, K keyTo, boolean toInclusive, boolean ascSortOrder);
 
   void acquireAtomicExclusiveLock();
+
+  /**
+   * Creates loader which fills the empty tree with sorted entries, changes of the tree are recorded
+   * by the loader from this point till the load is completed or the loader is closed.
+   *
+   * @return loader or {@code null} if bulk loading is not supported by this version of the tree or
+   *     if another bulk load is in progress
+   */
+  OIndexBulkLoader<K> createBulkLoader(OAtomicOperation atomicOperation);
 }
@@ -37,6 +37,7 @@ import com.orientechnologies.orient.core.index.OAlwaysGreaterKey;
 import com.orientechnologies.orient.core.index.OAlwaysLessKey;
 import com.orientechnologies.orient.core.index.OCompositeKey;
 import com.orientechnologies.orient.core.index.engine.OBaseIndexEngine;
+import com.orientechnologies.orient.core.index.engine.OIndexBulkLoader;
 import com.orientechnologies.orient.core.iterator.OEmptyIterator;
 import com.orientechnologies.orient.core.metadata.schema.OType;
 import com.orientechnologies.orient.core.storage.cache.OCacheEntry;
@@ -780,6 +781,11 @@ public final class CellBTreeSingleValueV1<K> extends ODurableComponent
     atomicOperationsManager.acquireExclusiveLockTillOperationComplete(this);
   }
 
+  @Override
+  public OIndexBulkLoader<K> createBulkLoader(final OAtomicOperation atomicOperation) {
+    return null;
+  }
+
   private void updateSize(final long diffSize, final OAtomicOperation atomicOperation)
       throws IOException {
     final OCacheEntry entryPointCacheEntry =
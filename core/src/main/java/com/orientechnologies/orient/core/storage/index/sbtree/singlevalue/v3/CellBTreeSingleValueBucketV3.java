@@ -337,6 +337,14 @@ public final class CellBTreeSingleValueBucketV3<K> extends ODurablePage {
     return getByteValue(IS_LEAF_OFFSET) > 0;
   }
 
+  /**
+   * @return amount of bytes of the page which are occupied by the given number of entries with
+   *     given total size in bytes, including page header
+   */
+  static int usedSpace(final int entriesCount, final int entriesSize) {
+    return POSITIONS_ARRAY_OFFSET + entriesCount * OIntegerSerializer.INT_SIZE + entriesSize;
+  }
+
   public void addAll(final List<byte[]> rawEntries, final OBinarySerializer<K> keySerializer) {
     final int currentSize = size();
     for (int i = 0; i < rawEntries.size(); i++) {
@@ -22,7 +22,9 @@ package com.orientechnologies.orient.core.storage.index.sbtree.singlevalue.v3;
 
 import com.orientechnologies.common.comparator.ODefaultComparator;
 import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.log.OLogManager;
 import com.orientechnologies.common.serialization.types.OBinarySerializer;
+import com.orientechnologies.common.serialization.types.OIntegerSerializer;
 import com.orientechnologies.common.serialization.types.OLongSerializer;
 import com.orientechnologies.common.serialization.types.OShortSerializer;
 import com.orientechnologies.common.util.ORawPair;
@@ -36,11 +38,13 @@ import com.orientechnologies.orient.core.index.OAlwaysGreaterKey;
 import com.orientechnologies.orient.core.index.OAlwaysLessKey;
 import com.orientechnologies.orient.core.index.OCompositeKey;
 import com.orientechnologies.orient.core.index.engine.OBaseIndexEngine;
+import com.orientechnologies.orient.core.index.engine.OIndexBulkLoader;
 import com.orientechnologies.orient.core.metadata.schema.OType;
 import com.orientechnologies.orient.core.storage.cache.OCacheEntry;
 import com.orientechnologies.orient.core.storage.impl.local.OAbstractPaginatedStorage;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.atomicoperations.OAtomicOperation;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.base.ODurableComponent;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.base.ODurablePage;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OLogSequenceNumber;
 import com.orientechnologies.orient.core.storage.index.sbtree.singlevalue.OCellBTreeSingleValue;
 import java.io.IOException;
@@ -101,6 +105,9 @@ public final class CellBTreeSingleValueV3<K> extends ODurableComponent
 
   private static final int ENTRY_POINT_INDEX = 0;
   private static final long ROOT_INDEX = 1;
+
+  private static final int BULK_LOAD_PAGES_PER_OPERATION = 1024;
+  private static final int RID_SIZE = OShortSerializer.SHORT_SIZE + OLongSerializer.LONG_SIZE;
   private final Comparator<? super K> comparator = ODefaultComparator.INSTANCE;
 
   private final String nullFileExtension;
@@ -110,6 +117,9 @@ public final class CellBTreeSingleValueV3<K> extends ODurableComponent
   private OBinarySerializer<K> keySerializer;
   private OType[] keyTypes;
 
+  // bulk load in progress, changes of the tree are recorded till it is completed
+  private volatile BulkLoader bulkLoader;
+
   public CellBTreeSingleValueV3(
       final String name,
       final String dataFileExtension,
@@ -183,40 +193,30 @@ public final class CellBTreeSingleValueV3<K> extends ODurableComponent
   }
 
   public ORID get(K key) {
+    if (atomicOperationsManager.getCurrentOperation() == null) {
+      storage.checkErrorState();
+
+      final long stamp = startOptimisticRead();
+      if (stamp != 0) {
+        try {
+          final ORID result = doGet(key, null, stamp);
+          if (validateOptimisticRead(stamp)) {
+            return result;
+          }
+        } catch (final Throwable ignore) {
+          // pages were read while they were changed, so any error including the allocation of
+          // memory for the garbage size of an entry may be caused by the inconsistent pages, read
+          // is repeated under the locks below
+        }
+      }
+    }
+
     atomicOperationsManager.acquireReadLock(this);
     try {
       acquireSharedLock();
       try {
         final OAtomicOperation atomicOperation = atomicOperationsManager.getCurrentOperation();
-        if (key != null) {
-          key = keySerializer.preprocess(key, (Object[]) keyTypes);
-
-          final BucketSearchResult bucketSearchResult = findBucket(key, atomicOperation);
-          if (bucketSearchResult.itemIndex < 0) {
-            return null;
-          }
-
-          final long pageIndex = bucketSearchResult.pageIndex;
-          final OCacheEntry keyBucketCacheEntry =
-              loadPageForRead(atomicOperation, fileId, pageIndex, false);
-          try {
-            final CellBTreeSingleValueBucketV3<K> keyBucket =
-                new CellBTreeSingleValueBucketV3<>(keyBucketCacheEntry);
-            return keyBucket.getValue(bucketSearchResult.itemIndex, keySerializer);
-          } finally {
-            releasePageFromRead(atomicOperation, keyBucketCacheEntry);
-          }
-        } else {
-          final OCacheEntry nullBucketCacheEntry =
-              loadPageForRead(atomicOperation, nullBucketFileId, 0, false);
-          try {
-            final CellBTreeSingleValueV3NullBucket nullBucket =
-                new CellBTreeSingleValueV3NullBucket(nullBucketCacheEntry);
-            return nullBucket.getValue();
-          } finally {
-            releasePageFromRead(atomicOperation, nullBucketCacheEntry);
-          }
-        }
+        return doGet(key, atomicOperation, 0);
       } finally {
         releaseSharedLock();
       }
@@ -230,6 +230,45 @@ public final class CellBTreeSingleValueV3<K> extends ODurableComponent
     }
   }
 
+  /**
+   * @param optimisticStamp stamp of the optimistic read or <code>0</code> if the read is done under
+   *     the locks
+   * @return value of the key, result of the optimistic read has to be validated by the caller
+   */
+  private ORID doGet(K key, final OAtomicOperation atomicOperation, final long optimisticStamp)
+      throws IOException {
+    if (key != null) {
+      key = keySerializer.preprocess(key, (Object[]) keyTypes);
+
+      final BucketSearchResult bucketSearchResult =
+          findBucket(key, atomicOperation, optimisticStamp);
+      if (bucketSearchResult == null || bucketSearchResult.itemIndex < 0) {
+        return null;
+      }
+
+      final long pageIndex = bucketSearchResult.pageIndex;
+      final OCacheEntry keyBucketCacheEntry =
+          loadPageForRead(atomicOperation, fileId, pageIndex, false);
+      try {
+        final CellBTreeSingleValueBucketV3<K> keyBucket =
+            new CellBTreeSingleValueBucketV3<>(keyBucketCacheEntry);
+        return keyBucket.getValue(bucketSearchResult.itemIndex, keySerializer);
+      } finally {
+        releasePageFromRead(atomicOperation, keyBucketCacheEntry);
+      }
+    } else {
+      final OCacheEntry nullBucketCacheEntry =
+          loadPageForRead(atomicOperation, nullBucketFileId, 0, false);
+      try {
+        final CellBTreeSingleValueV3NullBucket nullBucket =
+            new CellBTreeSingleValueV3NullBucket(nullBucketCacheEntry);
+        return nullBucket.getValue();
+      } finally {
+        releasePageFromRead(atomicOperation, nullBucketCacheEntry);
+      }
+    }
+  }
+
   public void put(final OAtomicOperation atomicOperation, final K key, final ORID value) {
     update(atomicOperation, key, value, null);
   }
@@ -314,6 +353,8 @@ public final class CellBTreeSingleValueV3<K> extends ODurableComponent
                 }
               }
 
+              recordChange(atomicOperation, key, value, validator);
+
               final byte[] serializedValue =
                   new byte[OShortSerializer.SHORT_SIZE + OLongSerializer.LONG_SIZE];
               OShortSerializer.INSTANCE.serializeNative(
@@ -389,6 +430,8 @@ public final class CellBTreeSingleValueV3<K> extends ODurableComponent
                   }
                 }
 
+                recordChange(atomicOperation, null, value, validator);
+
                 if (oldValue != null) {
                   sizeDiff = -1;
                 }
@@ -503,6 +546,8 @@ public final class CellBTreeSingleValueV3<K> extends ODurableComponent
             K key = k;
             if (key != null) {
               key = keySerializer.preprocess(key, (Object[]) keyTypes);
+              // removal of the absent key is recorded too, the key may be added by the bulk load
+              recordChange(atomicOperation, key, null, null);
 
               final BucketSearchResult bucketSearchResult = findBucket(key, atomicOperation);
               if (bucketSearchResult.itemIndex < 0) {
@@ -531,6 +576,7 @@ public final class CellBTreeSingleValueV3<K> extends ODurableComponent
 
               removedValue = new ORecordId(clusterId, clusterPosition);
             } else {
+              recordChange(atomicOperation, null, null, null);
               if (getFilledUpTo(atomicOperation, nullBucketFileId) == 0) {
                 return null;
               }
@@ -737,6 +783,91 @@ public final class CellBTreeSingleValueV3<K> extends ODurableComponent
     atomicOperationsManager.acquireExclusiveLockTillOperationComplete(this);
   }
 
+  @Override
+  public OIndexBulkLoader<K> createBulkLoader(final OAtomicOperation atomicOperation) {
+    return calculateInsideComponentOperation(
+        atomicOperation,
+        operation -> {
+          acquireExclusiveLock();
+          try {
+            if (bulkLoader != null) {
+              return null;
+            }
+
+            releasePagesOfEmptyTree(atomicOperation);
+
+            bulkLoader = new BulkLoader();
+            return bulkLoader;
+          } finally {
+            releaseExclusiveLock();
+          }
+        });
+  }
+
+  /**
+   * If the tree does not contain any key, for example it was cleared before it is rebuilt, makes
+   * the root an empty leaf and marks all other pages as free, so the bulk loader reuses them
+   * instead of appending new pages to the file. Called under the exclusive lock of the tree.
+   */
+  private void releasePagesOfEmptyTree(final OAtomicOperation atomicOperation) throws IOException {
+    final OCacheEntry entryPointCacheEntry =
+        loadPageForWrite(atomicOperation, fileId, ENTRY_POINT_INDEX, false, true);
+    try {
+      final CellBTreeSingleValueEntryPointV3<K> entryPoint =
+          new CellBTreeSingleValueEntryPointV3<>(entryPointCacheEntry);
+      if (entryPoint.getPagesSize() <= ROOT_INDEX) {
+        return;
+      }
+
+      final OCacheEntry nullCacheEntry =
+          loadPageForRead(atomicOperation, nullBucketFileId, 0, false);
+      final boolean hasNullKey;
+      try {
+        hasNullKey = new CellBTreeSingleValueV3NullBucket(nullCacheEntry).getValue() != null;
+      } finally {
+        releasePageFromRead(atomicOperation, nullCacheEntry);
+      }
+
+      if (entryPoint.getTreeSize() - (hasNullKey ? 1 : 0) > 0) {
+        return;
+      }
+
+      final OCacheEntry rootCacheEntry =
+          loadPageForWrite(atomicOperation, fileId, ROOT_INDEX, false, true);
+      try {
+        final CellBTreeSingleValueBucketV3<K> rootBucket =
+            new CellBTreeSingleValueBucketV3<>(rootCacheEntry);
+        rootBucket.shrink(0, keySerializer);
+        if (!rootBucket.isLeaf()) {
+          rootBucket.switchBucketType();
+        }
+      } finally {
+        releasePageFromWrite(atomicOperation, rootCacheEntry);
+      }
+
+      entryPoint.setPagesSize((int) ROOT_INDEX);
+    } finally {
+      releasePageFromWrite(atomicOperation, entryPointCacheEntry);
+    }
+  }
+
+  /**
+   * Records the change of the tree if bulk load is in progress, it is called under the exclusive
+   * lock of the tree.
+   *
+   * @param value new value of the key or {@code null} if the key is removed
+   */
+  private void recordChange(
+      final OAtomicOperation atomicOperation,
+      final K key,
+      final ORID value,
+      final OBaseIndexEngine.Validator<K, ORID> validator) {
+    final BulkLoader loader = bulkLoader;
+    if (loader != null) {
+      loader.changes.add(new BulkLoadChange<>(atomicOperation, key, value, validator));
+    }
+  }
+
   private void updateSize(final long diffSize, final OAtomicOperation atomicOperation)
       throws IOException {
     final OCacheEntry entryPointCacheEntry =
@@ -1027,6 +1158,34 @@ public final class CellBTreeSingleValueV3<K> extends ODurableComponent
     return keyFrom;
   }
 
+  /**
+   * Adds a new page to the pages used by the tree, the same way as it is done when a bucket is
+   * split.
+   */
+  private OCacheEntry allocatePage(final OAtomicOperation atomicOperation) throws IOException {
+    final OCacheEntry entryPointCacheEntry =
+        loadPageForWrite(atomicOperation, fileId, ENTRY_POINT_INDEX, false, true);
+    try {
+      final CellBTreeSingleValueEntryPointV3<K> entryPoint =
+          new CellBTreeSingleValueEntryPointV3<>(entryPointCacheEntry);
+      int pageSize = entryPoint.getPagesSize();
+
+      final OCacheEntry cacheEntry;
+      if (pageSize < getFilledUpTo(atomicOperation, fileId) - 1) {
+        pageSize++;
+        cacheEntry = loadPageForWrite(atomicOperation, fileId, pageSize, false, false);
+        entryPoint.setPagesSize(pageSize);
+      } else {
+        cacheEntry = addPage(atomicOperation, fileId);
+        entryPoint.setPagesSize(cacheEntry.getPageIndex());
+      }
+
+      return cacheEntry;
+    } finally {
+      releasePageFromWrite(atomicOperation, entryPointCacheEntry);
+    }
+  }
+
   private UpdateBucketSearchResult splitBucket(
       final CellBTreeSingleValueBucketV3<K> bucketToSplit,
       final OCacheEntry entryToSplit,
@@ -1322,6 +1481,18 @@ public final class CellBTreeSingleValueV3<K> extends ODurableComponent
 
   private BucketSearchResult findBucket(final K key, final OAtomicOperation atomicOperation)
       throws IOException {
+    return findBucket(key, atomicOperation, 0);
+  }
+
+  /**
+   * @param optimisticStamp stamp of the optimistic read or <code>0</code> if the read is done under
+   *     the locks, the stamp is validated on each level before the child page is read
+   * @return bucket of the key or <code>null</code> if the optimistic read was invalidated, the
+   *     pointers to the child pages can not be trusted then
+   */
+  private BucketSearchResult findBucket(
+      final K key, final OAtomicOperation atomicOperation, final long optimisticStamp)
+      throws IOException {
     long pageIndex = ROOT_INDEX;
 
     int depth = 0;
@@ -1333,6 +1504,10 @@ public final class CellBTreeSingleValueV3<K> extends ODurableComponent
             this);
       }
 
+      if (optimisticStamp != 0 && !validateOptimisticRead(optimisticStamp)) {
+        return null;
+      }
+
       final OCacheEntry bucketEntry = loadPageForRead(atomicOperation, fileId, pageIndex, false);
       try {
         @SuppressWarnings("ObjectAllocationInLoop")
@@ -1489,6 +1664,352 @@ public final class CellBTreeSingleValueV3<K> extends ODurableComponent
     }
   }
 
+  /**
+   * Builds the tree bottom-up from the sorted entries. Leaf pages are filled up to {@link
+   * OGlobalConfiguration#INDEX_BULK_BUILD_FILL_FACTOR} percent of their space and written one
+   * after another, each written page is added to the non-leaf level above it which is filled and
+   * written the same way. Only the current page of every level is kept in memory.
+   *
+   * <p>Written pages are not reachable from the root until {@link #complete(OAtomicOperation)} is
+   * called, so the tree is not changed for other threads till then. Puts and removals done by other
+   * operations since the creation of the loader are recorded in the order in which they are done.
+   * On completion the root of the tree is replaced by the topmost built page and the recorded
+   * changes of the committed operations are applied again on top of the loaded entries, puts are
+   * validated against the loaded entries by the validators they were done with.
+   */
+  private final class BulkLoader implements OIndexBulkLoader<K> {
+    private final int pageSpace =
+        ODurablePage.MAX_PAGE_SIZE_BYTES
+            * OGlobalConfiguration.INDEX_BULK_BUILD_FILL_FACTOR.getValueAsInteger()
+            / 100;
+
+    private final List<byte[]> leafEntries = new ArrayList<>();
+    private int leafEntriesSize;
+    private byte[] leafSeparator;
+    private int lastLeafIndex = -1;
+
+    private final List<BulkLoadLevel> levels = new ArrayList<>();
+
+    private final List<BulkLoadChange<K>> changes = new ArrayList<>();
+
+    private K lastKey;
+    private ORID nullKeyValue;
+    private long loadedEntries;
+    private int writtenPages;
+
+    @Override
+    public boolean load(
+        final OAtomicOperation atomicOperation, final Iterator<ORawPair<K, ORID>> entries) {
+      return calculateInsideComponentOperation(
+          atomicOperation,
+          operation -> {
+            acquireExclusiveLock();
+            try {
+              writtenPages = 0;
+              while (writtenPages < BULK_LOAD_PAGES_PER_OPERATION && entries.hasNext()) {
+                final ORawPair<K, ORID> entry = entries.next();
+                addEntry(atomicOperation, entry.first, entry.second);
+              }
+
+              return entries.hasNext();
+            } finally {
+              releaseExclusiveLock();
+            }
+          });
+    }
+
+    private void addEntry(final OAtomicOperation atomicOperation, K key, final ORID value)
+        throws IOException {
+      if (key == null) {
+        // the null bucket is visible to other threads, it is written on completion
+        nullKeyValue = value;
+        return;
+      }
+
+      key = keySerializer.preprocess(key, (Object[]) keyTypes);
+      final int compareResult = lastKey == null ? -1 : comparator.compare(lastKey, key);
+      if (compareResult > 0) {
+        throw new CellBTreeSingleValueV3Exception(
+            "Bulk loaded entries are not sorted, key " + key + " follows key " + lastKey,
+            CellBTreeSingleValueV3.this);
+      }
+
+      final byte[] serializedKey = keySerializer.serializeNativeAsWhole(key, (Object[]) keyTypes);
+      if (serializedKey.length > MAX_KEY_SIZE) {
+        OLogManager.instance()
+            .warn(
+                this,
+                "Key %s is not added to the index %s, its size %d is bigger than allowed %d",
+                key,
+                getName(),
+                serializedKey.length,
+                MAX_KEY_SIZE);
+        return;
+      }
+
+      final byte[] entry = new byte[serializedKey.length + RID_SIZE];
+      System.arraycopy(serializedKey, 0, entry, 0, serializedKey.length);
+      OShortSerializer.INSTANCE.serializeNative(
+          (short) value.getClusterId(), entry, serializedKey.length);
+      OLongSerializer.INSTANCE.serializeNative(
+          value.getClusterPosition(), entry, serializedKey.length + OShortSerializer.SHORT_SIZE);
+
+      if (compareResult == 0) {
+        // the last added entry is always kept in memory, so its value can be replaced
+        leafEntries.set(leafEntries.size() - 1, entry);
+        return;
+      }
+
+      if (!leafEntries.isEmpty() && !fits(leafEntries.size(), leafEntriesSize, entry.length)) {
+        flushLeaf(atomicOperation);
+      }
+
+      if (leafEntries.isEmpty()) {
+        leafSeparator = serializedKey;
+      }
+
+      leafEntries.add(entry);
+      leafEntriesSize += entry.length;
+
+      lastKey = key;
+      loadedEntries++;
+    }
+
+    private boolean fits(final int entriesCount, final int entriesSize, final int entrySize) {
+      final int usedSpace =
+          CellBTreeSingleValueBucketV3.usedSpace(entriesCount + 1, entriesSize + entrySize);
+      // at least two entries are placed on each page whatever fill factor is
+      return usedSpace <= (entriesCount < 2 ? ODurablePage.MAX_PAGE_SIZE_BYTES : pageSpace);
+    }
+
+    private void flushLeaf(final OAtomicOperation atomicOperation) throws IOException {
+      final OCacheEntry cacheEntry = allocatePage(atomicOperation);
+      final int pageIndex = cacheEntry.getPageIndex();
+      try {
+        final CellBTreeSingleValueBucketV3<K> bucket =
+            new CellBTreeSingleValueBucketV3<>(cacheEntry);
+        bucket.init(true);
+        bucket.addAll(leafEntries, keySerializer);
+
+        if (lastLeafIndex >= 0) {
+          bucket.setLeftSibling(lastLeafIndex);
+        }
+      } finally {
+        releasePageFromWrite(atomicOperation, cacheEntry);
+      }
+
+      if (lastLeafIndex >= 0) {
+        final OCacheEntry leftCacheEntry =
+            loadPageForWrite(atomicOperation, fileId, lastLeafIndex, false, true);
+        try {
+          final CellBTreeSingleValueBucketV3<K> leftBucket =
+              new CellBTreeSingleValueBucketV3<>(leftCacheEntry);
+          leftBucket.setRightSibling(pageIndex);
+        } finally {
+          releasePageFromWrite(atomicOperation, leftCacheEntry);
+        }
+      }
+
+      addChild(atomicOperation, 0, leafSeparator, pageIndex);
+
+      lastLeafIndex = pageIndex;
+      leafEntries.clear();
+      leafEntriesSize = 0;
+      writtenPages++;
+    }
+
+    private void addChild(
+        final OAtomicOperation atomicOperation,
+        final int levelIndex,
+        final byte[] separator,
+        final int child)
+        throws IOException {
+      if (levels.size() == levelIndex) {
+        levels.add(new BulkLoadLevel());
+      }
+
+      final BulkLoadLevel level = levels.get(levelIndex);
+      if (level.lastChild < 0) {
+        level.lastChild = child;
+        return;
+      }
+
+      final byte[] entry = new byte[2 * OIntegerSerializer.INT_SIZE + separator.length];
+      OIntegerSerializer.INSTANCE.serializeNative(level.lastChild, entry, 0);
+      OIntegerSerializer.INSTANCE.serializeNative(child, entry, OIntegerSerializer.INT_SIZE);
+      System.arraycopy(
+          separator, 0, entry, 2 * OIntegerSerializer.INT_SIZE, separator.length);
+
+      if (!fits(level.entries.size(), level.entriesSize, entry.length)) {
+        // the last entry is moved up to the parent, so the next page starts with its right child
+        // and contains at least one entry
+        final byte[] lastEntry = level.entries.remove(level.entries.size() - 1);
+        level.entriesSize -= lastEntry.length;
+
+        final int pageIndex = writeNonLeafPage(atomicOperation, level.entries);
+        addChild(atomicOperation, levelIndex + 1, level.separator, pageIndex);
+
+        level.separator =
+            Arrays.copyOfRange(lastEntry, 2 * OIntegerSerializer.INT_SIZE, lastEntry.length);
+        level.hasPages = true;
+        level.entries.clear();
+        level.entriesSize = 0;
+      }
+
+      level.entries.add(entry);
+      level.entriesSize += entry.length;
+      level.lastChild = child;
+    }
+
+    private int writeNonLeafPage(final OAtomicOperation atomicOperation, final List<byte[]> entries)
+        throws IOException {
+      final OCacheEntry cacheEntry = allocatePage(atomicOperation);
+      try {
+        final CellBTreeSingleValueBucketV3<K> bucket =
+            new CellBTreeSingleValueBucketV3<>(cacheEntry);
+        bucket.init(false);
+        bucket.addAll(entries, keySerializer);
+      } finally {
+        releasePageFromWrite(atomicOperation, cacheEntry);
+      }
+
+      writtenPages++;
+      return cacheEntry.getPageIndex();
+    }
+
+    @Override
+    public void complete(final OAtomicOperation atomicOperation) {
+      executeInsideComponentOperation(
+          atomicOperation,
+          operation -> {
+            acquireExclusiveLock();
+            try {
+              // changes which are applied below are not recorded
+              bulkLoader = null;
+
+              final List<byte[]> rootEntries;
+              final boolean rootIsLeaf;
+              if (lastLeafIndex < 0) {
+                rootEntries = leafEntries;
+                rootIsLeaf = true;
+              } else {
+                flushLeaf(atomicOperation);
+
+                int levelIndex = 0;
+                while (levels.get(levelIndex).hasPages) {
+                  final BulkLoadLevel level = levels.get(levelIndex);
+                  final int pageIndex = writeNonLeafPage(atomicOperation, level.entries);
+                  addChild(atomicOperation, levelIndex + 1, level.separator, pageIndex);
+                  levelIndex++;
+                }
+
+                rootEntries = levels.get(levelIndex).entries;
+                rootIsLeaf = false;
+              }
+
+              final OCacheEntry rootCacheEntry =
+                  loadPageForWrite(atomicOperation, fileId, ROOT_INDEX, false, true);
+              try {
+                final CellBTreeSingleValueBucketV3<K> rootBucket =
+                    new CellBTreeSingleValueBucketV3<>(rootCacheEntry);
+                rootBucket.shrink(0, keySerializer);
+                if (rootBucket.isLeaf() != rootIsLeaf) {
+                  rootBucket.switchBucketType();
+                }
+                rootBucket.addAll(rootEntries, keySerializer);
+              } finally {
+                releasePageFromWrite(atomicOperation, rootCacheEntry);
+              }
+
+              final OCacheEntry nullCacheEntry =
+                  loadPageForWrite(atomicOperation, nullBucketFileId, 0, false, true);
+              try {
+                final CellBTreeSingleValueV3NullBucket nullBucket =
+                    new CellBTreeSingleValueV3NullBucket(nullCacheEntry);
+                if (nullKeyValue != null) {
+                  nullBucket.setValue(nullKeyValue);
+                } else if (nullBucket.getValue() != null) {
+                  nullBucket.removeValue();
+                }
+              } finally {
+                releasePageFromWrite(atomicOperation, nullCacheEntry);
+              }
+
+              final OCacheEntry entryPointCacheEntry =
+                  loadPageForWrite(atomicOperation, fileId, ENTRY_POINT_INDEX, false, true);
+              try {
+                final CellBTreeSingleValueEntryPointV3<K> entryPoint =
+                    new CellBTreeSingleValueEntryPointV3<>(entryPointCacheEntry);
+                entryPoint.setTreeSize(loadedEntries + (nullKeyValue != null ? 1 : 0));
+              } finally {
+                releasePageFromWrite(atomicOperation, entryPointCacheEntry);
+              }
+
+              // all the operations which changed the tree are completed, they released the lock
+              // of the tree acquired above
+              for (final BulkLoadChange<K> change : changes) {
+                if (change.operation.isRollbackInProgress()) {
+                  continue;
+                }
+
+                if (change.value == null) {
+                  remove(atomicOperation, change.key);
+                } else {
+                  update(atomicOperation, change.key, change.value, change.validator);
+                }
+              }
+
+              leafEntries.clear();
+              levels.clear();
+              changes.clear();
+            } finally {
+              releaseExclusiveLock();
+            }
+          });
+    }
+
+    @Override
+    public void close() {
+      acquireExclusiveLock();
+      try {
+        if (bulkLoader == this) {
+          bulkLoader = null;
+        }
+        changes.clear();
+      } finally {
+        releaseExclusiveLock();
+      }
+    }
+  }
+
+  private static final class BulkLoadChange<K> {
+    private final OAtomicOperation operation;
+    private final K key;
+    private final ORID value;
+    private final OBaseIndexEngine.Validator<K, ORID> validator;
+
+    private BulkLoadChange(
+        final OAtomicOperation operation,
+        final K key,
+        final ORID value,
+        final OBaseIndexEngine.Validator<K, ORID> validator) {
+      this.operation = operation;
+      this.key = key;
+      this.value = value;
+      this.validator = validator;
+    }
+  }
+
+  private static final class BulkLoadLevel {
+    private final List<byte[]> entries = new ArrayList<>();
+    private int entriesSize;
+
+    private int lastChild = -1;
+    // key which separates the current page of the level from the previous one
+    private byte[] separator;
+    private boolean hasPages;
+  }
+
   private final class SpliteratorForward implements Spliterator<ORawPair<K, ORID>> {
     private final K fromKey;
     private final K toKey;
@@ -151,6 +151,11 @@ public abstract class OChannel extends OListenerManger<OChannelListener> {
     return lockWrite;
   }
 
+  /** @return amount of bytes received by the channel so far. */
+  public long getMetricReceivedBytes() {
+    return metricReceivedBytes;
+  }
+
   public synchronized void close() {
     PROFILER.unregisterHookValue(profilerMetric + ".transmittedBytes");
     PROFILER.unregisterHookValue(profilerMetric + ".receivedBytes");
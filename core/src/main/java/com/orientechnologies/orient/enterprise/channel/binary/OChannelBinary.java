@@ -22,12 +22,15 @@ package com.orientechnologies.orient.enterprise.channel.binary;
 import com.orientechnologies.common.exception.OInvalidBinaryChunkException;
 import com.orientechnologies.common.io.OIOException;
 import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.orient.core.compression.OCompression;
 import com.orientechnologies.orient.core.config.OContextConfiguration;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.id.ORecordId;
 import com.orientechnologies.orient.core.serialization.OBinaryProtocol;
 import com.orientechnologies.orient.enterprise.channel.OChannel;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -43,6 +46,8 @@ import java.util.Arrays;
 public abstract class OChannelBinary extends OChannel
     implements OChannelDataInput, OChannelDataOutput {
   private static final int MAX_LENGTH_DEBUG = 150;
+  private static final byte FRAME_RAW = 0;
+  private static final byte FRAME_COMPRESSED = 1;
   protected final boolean debug;
   private final int maxChunkSize;
   public DataInputStream in;
@@ -50,6 +55,11 @@ public abstract class OChannelBinary extends OChannel
   private int responseTimeout;
   private int networkTimeout;
 
+  // STREAMS WHICH ARE REPLACED BY THE STREAMS OF THE FRAME TILL THE END OF THE FRAME
+  private DataOutputStream frameParentOut;
+  private ByteArrayOutputStream frameBuffer;
+  private DataInputStream frameParentIn;
+
   public OChannelBinary(final Socket iSocket, final OContextConfiguration iConfig)
       throws IOException {
     super(iSocket, iConfig);
@@ -369,6 +379,94 @@ public abstract class OChannelBinary extends OChannel
     throw new OIOException(message);
   }
 
+  /**
+   * Starts the frame, all the data written till the call of {@link #endFrame(OCompression, int)} is
+   * kept in memory and sent as single block which may be compressed.
+   */
+  public void beginFrame() {
+    if (frameBuffer != null) throw new IllegalStateException("Frame is already started");
+
+    frameBuffer = new ByteArrayOutputStream();
+    frameParentOut = out;
+    out = new DataOutputStream(frameBuffer);
+  }
+
+  /** @return amount of bytes written to the current frame. */
+  public int getFrameSize() {
+    return frameBuffer != null ? frameBuffer.size() : 0;
+  }
+
+  /**
+   * Sends the data of the frame. Data is compressed if its size is not less than the threshold and
+   * compression decreases its size.
+   *
+   * @return amount of bytes of the frame which are sent to the network.
+   */
+  public int endFrame(final OCompression compression, final int threshold) throws IOException {
+    if (frameBuffer == null) throw new IllegalStateException("Frame is not started");
+
+    final byte[] content = frameBuffer.toByteArray();
+    abortFrame();
+
+    byte[] payload = content;
+    byte type = FRAME_RAW;
+    if (content.length >= threshold) {
+      final byte[] compressed = compression.compress(content);
+      if (compressed.length < content.length) {
+        payload = compressed;
+        type = FRAME_COMPRESSED;
+      }
+    }
+
+    // CONTENT OF THE FRAME IS ALREADY COUNTED BY THE METRICS WHEN IT WAS WRITTEN TO THE FRAME
+    out.writeByte(type);
+    out.writeInt(payload.length);
+    out.write(payload);
+
+    return OBinaryProtocol.SIZE_BYTE + OBinaryProtocol.SIZE_INT + payload.length;
+  }
+
+  /** Drops the data of the current frame, if any, and restores the network output. */
+  public void abortFrame() {
+    if (frameBuffer != null) {
+      out = frameParentOut;
+      frameParentOut = null;
+      frameBuffer = null;
+    }
+  }
+
+  /**
+   * Reads the frame which was sent by {@link #endFrame(OCompression, int)}, the following reads
+   * return data of the frame till the call of {@link #endFrameRead()}.
+   */
+  public void beginFrameRead(final OCompression compression) throws IOException {
+    endFrameRead();
+
+    // CONTENT OF THE FRAME IS COUNTED BY THE METRICS WHEN IT IS READ FROM THE FRAME
+    final byte type = in.readByte();
+    final int length = in.readInt();
+    if (length < 0) throw new IOException("Invalid length of the frame: " + length);
+
+    final byte[] payload = new byte[length];
+    in.readFully(payload);
+
+    final byte[] content;
+    if (type == FRAME_RAW) content = payload;
+    else if (type == FRAME_COMPRESSED) content = compression.uncompress(payload);
+    else throw new IOException("Invalid type of the frame: " + type);
+
+    frameParentIn = in;
+    in = new DataInputStream(new ByteArrayInputStream(content));
+  }
+
+  /** Restores the network input if the frame is read. */
+  public void endFrameRead() {
+    if (frameParentIn != null) {
+      in = frameParentIn;
+      frameParentIn = null;
+    }
+  }
+
   @Override
   public void flush() throws IOException {
     if (debug)
@@ -85,6 +85,8 @@ public class OChannelBinaryProtocol {
   public static final byte REQUEST_SERVER_INFO = 75; // SINCE 2.2.0
 
   public static final byte REQUEST_OK_PUSH = 90;
+  // WRAPS THE REQUEST TAGGED BY THE REQUEST ID, RESPONSE CARRIES THE ID IN PLACE OF THE SESSION ID
+  public static final byte REQUEST_MULTIPLEXED = 91; // since 3.2
 
   // DISTRIBUTED
   public static final byte REQUEST_CLUSTER = 92; // SINCE 1.0
@@ -143,8 +145,10 @@ public class OChannelBinaryProtocol {
       36; // ABILITY TO CREATE DATABASE FROM INCREMENTAL BACKUP
   public static final int PROTOCOL_VERSION_37 = 37;
   public static final int PROTOCOL_VERSION_38 = 38;
+  public static final int PROTOCOL_VERSION_39 = 39; // REQUEST MULTIPLEXING
+  public static final int PROTOCOL_VERSION_40 = 40; // RESPONSE COMPRESSION ON HANDSHAKE
 
-  public static final int CURRENT_PROTOCOL_VERSION = PROTOCOL_VERSION_38;
+  public static final int CURRENT_PROTOCOL_VERSION = PROTOCOL_VERSION_40;
   public static final int OLDEST_SUPPORTED_PROTOCOL_VERSION = PROTOCOL_VERSION_26;
 
   // This are specific messages inside the subscribe message
@@ -26,7 +26,10 @@ import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.Socket;
+import java.nio.channels.SocketChannel;
 
 public class OChannelBinaryServer extends OChannelBinary {
 
@@ -34,16 +37,36 @@ public class OChannelBinaryServer extends OChannelBinary {
       throws IOException {
     super(iSocket, iConfig);
 
+    final InputStream socketIn;
+    final OutputStream socketOut;
+    final SocketChannel socketChannel = socket.getChannel();
+    if (socketChannel != null && !socketChannel.isBlocking()) {
+      socketIn = new ONonBlockingChannelStreams.Input(socket);
+      socketOut = new ONonBlockingChannelStreams.Output(socket);
+    } else {
+      socketIn = socket.getInputStream();
+      socketOut = socket.getOutputStream();
+    }
+
     if (socketBufferSize > 0) {
-      inStream = new BufferedInputStream(socket.getInputStream(), socketBufferSize);
-      outStream = new BufferedOutputStream(socket.getOutputStream(), socketBufferSize);
+      inStream = new BufferedInputStream(socketIn, socketBufferSize);
+      outStream = new BufferedOutputStream(socketOut, socketBufferSize);
     } else {
-      inStream = new BufferedInputStream(socket.getInputStream());
-      outStream = new BufferedOutputStream(socket.getOutputStream());
+      inStream = new BufferedInputStream(socketIn);
+      outStream = new BufferedOutputStream(socketOut);
     }
 
     out = new DataOutputStream(outStream);
     in = new DataInputStream(inStream);
     connected();
   }
+
+  /**
+   * @return <code>true</code> if part of the next request is already read from the socket and is
+   *     waiting in the input buffer.
+   */
+  public boolean isInputBuffered() throws IOException {
+    final InputStream stream = inStream;
+    return stream != null && stream.available() > 0;
+  }
 }
@@ -0,0 +1,157 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.enterprise.channel.binary;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Blocking streams over the socket channel which is configured in non-blocking mode. Such channel
+ * may stay registered in the selector of the server event loop while connection is idle, the thread
+ * which serves the request is blocked only if the rest of the request is not received yet or if the
+ * send buffer of the socket is full. Read timeout is taken from {@link Socket#getSoTimeout()} like
+ * for the usual socket streams.
+ */
+final class ONonBlockingChannelStreams {
+  /** Selectors used to wait for the channel, they are shared by all the channels. */
+  private static final ConcurrentLinkedQueue<Selector> selectors = new ConcurrentLinkedQueue<>();
+
+  private ONonBlockingChannelStreams() {}
+
+  private static void await(final SocketChannel channel, final int ops, final long deadline)
+      throws IOException {
+    long timeout = 0;
+    if (deadline > 0) {
+      timeout = deadline - System.currentTimeMillis();
+      if (timeout <= 0) {
+        throw new SocketTimeoutException("Read timed out");
+      }
+    }
+
+    Selector selector = selectors.poll();
+    if (selector == null) {
+      selector = Selector.open();
+    }
+
+    try {
+      final SelectionKey key = channel.register(selector, ops);
+      try {
+        selector.select(timeout);
+      } finally {
+        key.cancel();
+        // deregisters channel from the selector, so selector can be reused
+        selector.selectNow();
+      }
+    } catch (final IOException | RuntimeException e) {
+      selector.close();
+      throw e;
+    }
+
+    selectors.offer(selector);
+
+    if (Thread.currentThread().isInterrupted()) {
+      throw new InterruptedIOException("Wait for the socket channel was interrupted");
+    }
+  }
+
+  static final class Input extends InputStream {
+    private final Socket socket;
+    private final SocketChannel channel;
+
+    Input(final Socket socket) {
+      this.socket = socket;
+      this.channel = socket.getChannel();
+    }
+
+    @Override
+    public int read() throws IOException {
+      final byte[] data = new byte[1];
+      final int read = read(data, 0, 1);
+      if (read < 0) {
+        return -1;
+      }
+
+      return data[0] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+
+      final ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+      final int timeout = socket.getSoTimeout();
+      final long deadline = timeout > 0 ? System.currentTimeMillis() + timeout : 0;
+
+      while (true) {
+        final int read = channel.read(buffer);
+        if (read != 0) {
+          return read;
+        }
+
+        await(channel, SelectionKey.OP_READ, deadline);
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+
+  static final class Output extends OutputStream {
+    private final SocketChannel channel;
+
+    Output(final Socket socket) {
+      this.channel = socket.getChannel();
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+      final ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+
+      while (buffer.hasRemaining()) {
+        if (channel.write(buffer) == 0) {
+          await(channel, SelectionKey.OP_WRITE, 0);
+        }
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+}
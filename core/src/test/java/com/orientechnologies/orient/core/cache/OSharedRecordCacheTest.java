@@ -0,0 +1,116 @@
+package com.orientechnologies.orient.core.cache;
+
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.db.ODatabaseType;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.storage.ORawBuffer;
+import com.orientechnologies.orient.core.storage.impl.local.OAbstractPaginatedStorage;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OSharedRecordCacheTest {
+  @Test
+  public void testPutGetInvalidate() {
+    final OSharedRecordCache cache = new OSharedRecordCache(1024 * 1024, "*");
+    final ORecordId rid = new ORecordId(10, 1);
+
+    Assert.assertTrue(cache.isClusterCached(10));
+    Assert.assertNull(cache.get(rid));
+
+    final byte[] content = {1, 2, 3};
+    cache.put(rid, new ORawBuffer(content, 2, ODocument.RECORD_TYPE), cache.stamp(rid));
+
+    final ORawBuffer buffer = cache.get(rid);
+    Assert.assertNotNull(buffer);
+    Assert.assertArrayEquals(new byte[] {1, 2, 3}, buffer.buffer);
+    Assert.assertEquals(2, buffer.version);
+    Assert.assertEquals(ODocument.RECORD_TYPE, buffer.recordType);
+    Assert.assertEquals(1, cache.getHits());
+    Assert.assertEquals(1, cache.getMisses());
+
+    cache.invalidate(rid);
+    Assert.assertNull(cache.get(rid));
+    Assert.assertEquals(0, cache.getSize());
+  }
+
+  @Test
+  public void testStaleStampIsRejected() {
+    final OSharedRecordCache cache = new OSharedRecordCache(1024 * 1024, "*");
+    final ORecordId rid = new ORecordId(10, 1);
+
+    final long stamp = cache.stamp(rid);
+    cache.invalidate(rid);
+
+    cache.put(rid, new ORawBuffer(new byte[] {1}, 1, ODocument.RECORD_TYPE), stamp);
+    Assert.assertNull(cache.get(rid));
+
+    cache.put(rid, new ORawBuffer(new byte[] {1}, 1, ODocument.RECORD_TYPE), cache.stamp(rid));
+    Assert.assertNotNull(cache.get(rid));
+  }
+
+  @Test
+  public void testSizeIsBounded() {
+    final OSharedRecordCache cache = new OSharedRecordCache(64 * 1024, "*");
+
+    for (int i = 0; i < 10_000; i++) {
+      final ORecordId rid = new ORecordId(10, i);
+      cache.put(rid, new ORawBuffer(new byte[512], 1, ODocument.RECORD_TYPE), cache.stamp(rid));
+    }
+
+    Assert.assertTrue(cache.getSize() <= cache.getMaxSize());
+
+    cache.clear();
+    Assert.assertEquals(0, cache.getSize());
+  }
+
+  @Test
+  public void testClusterAddedToCachedClass() {
+    Assert.assertEquals(
+        0, OGlobalConfiguration.STORAGE_SHARED_RECORD_CACHE_SIZE.getValueAsInteger());
+
+    final String dbName = OSharedRecordCacheTest.class.getSimpleName();
+    try (OrientDB orientDB = new OrientDB("memory:", OrientDBConfig.defaultConfig())) {
+      orientDB.create(
+          dbName,
+          ODatabaseType.MEMORY,
+          OrientDBConfig.builder()
+              .addConfig(OGlobalConfiguration.STORAGE_SHARED_RECORD_CACHE_SIZE, 16)
+              .addConfig(OGlobalConfiguration.STORAGE_SHARED_RECORD_CACHE_CLASSES, "Cached")
+              .build());
+
+      try (ODatabaseSession db = orientDB.open(dbName, "admin", "admin")) {
+        final OSharedRecordCache cache =
+            ((OAbstractPaginatedStorage) ((ODatabaseDocumentInternal) db).getStorage())
+                .getSharedRecordCache();
+        Assert.assertNotNull(cache);
+        Assert.assertEquals(16 * 1024 * 1024, cache.getMaxSize());
+
+        db.createClass("Cached");
+        final int clusterId = db.addCluster("cached_extra");
+
+        final ODocument document = new ODocument();
+        document.field("name", "extra");
+        db.save(document, "cached_extra");
+        final ORID rid = document.getIdentity();
+
+        Assert.assertFalse(cache.isClusterCached(clusterId));
+        db.load(rid, null, true);
+        Assert.assertEquals(0, cache.getSize());
+
+        db.command("alter class Cached addcluster cached_extra").close();
+
+        Assert.assertTrue(cache.isClusterCached(clusterId));
+        db.load(rid, null, true);
+        Assert.assertTrue(cache.getSize() > 0);
+      } finally {
+        orientDB.drop(dbName);
+      }
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package com.orientechnologies.orient.core.metadata.schema.clusterselection;
+
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.db.ODatabaseType;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.record.OElement;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OThreadAffinityClusterSelectionStrategyTest {
+  private static final int CLUSTERS = 4;
+  private static final int RECORDS = 20;
+
+  private OrientDB orientDB;
+
+  @Before
+  public void before() {
+    orientDB = new OrientDB("embedded:", OrientDBConfig.defaultConfig());
+    orientDB.create(
+        OThreadAffinityClusterSelectionStrategyTest.class.getSimpleName(), ODatabaseType.MEMORY);
+  }
+
+  @After
+  public void after() {
+    orientDB.drop(OThreadAffinityClusterSelectionStrategyTest.class.getSimpleName());
+    orientDB.close();
+  }
+
+  @Test
+  public void testSameThreadGetsSameCluster() {
+    final OThreadAffinityClusterSelectionStrategy strategy =
+        new OThreadAffinityClusterSelectionStrategy();
+    final int[] clusters = {10, 11, 12, 13};
+
+    final int cluster = strategy.getCluster(null, clusters, null);
+    for (int i = 0; i < 100; i++) {
+      Assert.assertEquals(cluster, strategy.getCluster(null, clusters, null));
+    }
+
+    Assert.assertEquals(42, strategy.getCluster(null, new int[] {42}, null));
+  }
+
+  @Test
+  public void testDistinctThreadsGetDistinctClusters() throws Exception {
+    final OThreadAffinityClusterSelectionStrategy strategy =
+        new OThreadAffinityClusterSelectionStrategy();
+    final int[] clusters = {10, 11, 12, 13};
+
+    final CyclicBarrier barrier = new CyclicBarrier(clusters.length);
+    final ExecutorService executor = Executors.newFixedThreadPool(clusters.length);
+    try {
+      final List<Future<Integer>> futures = new ArrayList<>();
+      for (int i = 0; i < clusters.length; i++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  barrier.await();
+                  final int cluster = strategy.getCluster(null, clusters, null);
+                  barrier.await();
+                  for (int n = 0; n < 100; n++) {
+                    Assert.assertEquals(cluster, strategy.getCluster(null, clusters, null));
+                  }
+                  return cluster;
+                }));
+      }
+
+      final Set<Integer> selected = new HashSet<>();
+      for (final Future<Integer> future : futures) {
+        Assert.assertTrue(selected.add(future.get()));
+      }
+      Assert.assertEquals(clusters.length, selected.size());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testRecordsOfThreadAreStoredInOneCluster() throws Exception {
+    try (ODatabaseSession session =
+        orientDB.open(
+            OThreadAffinityClusterSelectionStrategyTest.class.getSimpleName(), "admin", "admin")) {
+      final OClass clazz = session.createClass("Item");
+      while (clazz.getClusterIds().length < CLUSTERS) {
+        clazz.addCluster("item_extra_" + clazz.getClusterIds().length);
+      }
+      clazz.setClusterSelection(OThreadAffinityClusterSelectionStrategy.NAME);
+      Assert.assertEquals(
+          OThreadAffinityClusterSelectionStrategy.NAME, clazz.getClusterSelection().getName());
+    }
+
+    final CyclicBarrier barrier = new CyclicBarrier(CLUSTERS);
+    final ExecutorService executor = Executors.newFixedThreadPool(CLUSTERS);
+    try {
+      final List<Future<Set<Integer>>> futures = new ArrayList<>();
+      for (int i = 0; i < CLUSTERS; i++) {
+        final int thread = i;
+        futures.add(
+            executor.submit(
+                () -> {
+                  try (ODatabaseSession session =
+                      orientDB.open(
+                          OThreadAffinityClusterSelectionStrategyTest.class.getSimpleName(),
+                          "admin",
+                          "admin")) {
+                    barrier.await();
+
+                    final Set<Integer> usedClusters = new HashSet<>();
+                    session.begin();
+                    for (int n = 0; n < RECORDS; n++) {
+                      final OElement element = session.newElement("Item");
+                      element.setProperty("thread", thread);
+                      element.setProperty("value", n);
+                      session.save(element);
+                    }
+                    session.commit();
+
+                    try (OResultSet result =
+                        session.query("select from Item where thread = ?", thread)) {
+                      result
+                          .stream()
+                          .forEach(
+                              item -> usedClusters.add(item.getIdentity().get().getClusterId()));
+                    }
+                    return usedClusters;
+                  }
+                }));
+      }
+
+      final Set<Integer> allClusters = new HashSet<>();
+      for (final Future<Set<Integer>> future : futures) {
+        final Set<Integer> usedClusters = future.get();
+        // ALL THE RECORDS OF A THREAD ARE IN THE SAME CLUSTER
+        Assert.assertEquals(1, usedClusters.size());
+        Assert.assertTrue(allClusters.addAll(usedClusters));
+      }
+      Assert.assertEquals(CLUSTERS, allClusters.size());
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -18,12 +18,15 @@ package com.orientechnologies.orient.core.serialization.serializer.binary.impl;
 import com.orientechnologies.common.exception.OException;
 import com.orientechnologies.common.serialization.types.OIntegerSerializer;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.db.record.ridbag.ORidBag;
 import com.orientechnologies.orient.core.exception.OSerializationException;
+import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.id.ORecordId;
 import com.orientechnologies.orient.core.metadata.schema.OType;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.serialization.serializer.record.binary.BytesContainer;
 import com.orientechnologies.orient.core.serialization.serializer.record.binary.ORecordSerializerBinary;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.ORecordSerializerBinaryV2;
 import com.orientechnologies.orient.core.serialization.serializer.record.binary.OResultBinary;
 import com.orientechnologies.orient.core.serialization.serializer.record.binary.OVarIntSerializer;
 import com.orientechnologies.orient.core.sql.OCommandSQL;
@@ -31,6 +34,7 @@ import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -300,6 +304,85 @@ public class ORecordSerializerBinaryTest {
     Assert.assertNull(deserializedMap.get("nullValue"));
   }
 
+  @Test
+  public void testGetFieldsOfDocumentWithManyFields() {
+    ODocument doc = new ODocument("TestClass");
+    for (int i = 0; i < 2 * ORecordSerializerBinaryV2.DIRECTORY_MIN_FIELDS; i++) {
+      doc.setProperty("field" + i, i);
+    }
+    // NAMES WITH THE SAME HASH CODE
+    doc.setProperty("Aa", "first");
+    doc.setProperty("BB", "second");
+    doc.setProperty("TestPropAny", 42);
+    doc.setProperty("nullField", null);
+    ODocument embedded = new ODocument();
+    for (int i = 0; i < 2 * ORecordSerializerBinaryV2.DIRECTORY_MIN_FIELDS; i++) {
+      embedded.setProperty("inner" + i, "value" + i);
+    }
+    doc.setProperty("TestEmbedded", embedded);
+    db.save(doc);
+
+    byte[] serializedDoc = serializer.toStream(doc);
+    OResultBinary docBinary =
+        (OResultBinary) serializer.getBinaryResult(db, serializedDoc, new ORecordId(-1, -1));
+    for (int i = 0; i < 2 * ORecordSerializerBinaryV2.DIRECTORY_MIN_FIELDS; i++) {
+      Assert.assertEquals((Integer) i, docBinary.getProperty("field" + i));
+    }
+    Assert.assertEquals("first", docBinary.getProperty("Aa"));
+    Assert.assertEquals("second", docBinary.getProperty("BB"));
+    Assert.assertEquals((Integer) 42, docBinary.getProperty("TestPropAny"));
+    Assert.assertNull(docBinary.getProperty("nullField"));
+    Assert.assertNull(docBinary.getProperty("missingField"));
+    Assert.assertEquals(doc.fieldNames().length, docBinary.getPropertyNames().size());
+
+    OResultBinary embeddedBinary = docBinary.getProperty("TestEmbedded");
+    Assert.assertEquals("value7", embeddedBinary.getProperty("inner7"));
+    Assert.assertEquals(
+        2 * ORecordSerializerBinaryV2.DIRECTORY_MIN_FIELDS,
+        embeddedBinary.getPropertyNames().size());
+
+    ODocument partial = new ODocument();
+    serializer.fromStream(serializedDoc, partial, new String[] {"field3", "BB", "nullField"});
+    Assert.assertEquals((Integer) 3, partial.field("field3"));
+    Assert.assertEquals("second", partial.field("BB"));
+    Assert.assertTrue(partial.containsField("nullField"));
+    Assert.assertFalse(partial.containsField("Aa"));
+
+    ODocument full = new ODocument();
+    serializer.fromStream(serializedDoc, full, null);
+    Assert.assertEquals((Integer) 42, full.field("TestPropAny"));
+    Assert.assertEquals("first", full.field("Aa"));
+    Assert.assertEquals("value0", ((ODocument) full.field("TestEmbedded")).field("inner0"));
+  }
+
+  @Test
+  public void testEmbeddedRidBag() {
+    ODocument doc = new ODocument("TestClass");
+    ORidBag ridBag = new ORidBag();
+    List<ORID> expected = new ArrayList<>();
+    for (int i = 0; i < 30; i++) {
+      // DUPLICATES, GAPS AND SEVERAL CLUSTERS IN RANDOM ORDER
+      ORID rid = new ORecordId(10 + i % 3, (i * 7919L) % 100 + (i % 5 == 0 ? 1_000_000 : 0));
+      ridBag.add(rid);
+      expected.add(rid);
+    }
+    ridBag.add(expected.get(4));
+    expected.add(expected.get(4));
+    doc.setProperty("ridBag", ridBag);
+
+    byte[] serializedDoc = serializer.toStream(doc);
+    ODocument deserialized = new ODocument();
+    serializer.fromStream(serializedDoc, deserialized, null);
+
+    ORidBag deserializedBag = deserialized.field("ridBag");
+    Assert.assertEquals(expected.size(), deserializedBag.size());
+    List<ORID> actual = new ArrayList<>();
+    deserializedBag.rawIterator().forEachRemaining(item -> actual.add(item.getIdentity()));
+    Collections.sort(expected);
+    Collections.sort(actual);
+    Assert.assertEquals(expected, actual);
+  }
+
   private void decreasePositionsBy(byte[] recordBytes, int stepSize, boolean isNested) {
     if (serializerVersion > 0) return;
 
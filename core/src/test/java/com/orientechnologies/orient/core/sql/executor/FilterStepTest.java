@@ -0,0 +1,115 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import com.orientechnologies.orient.core.command.OBasicCommandContext;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.OSQLEngine;
+import com.orientechnologies.orient.core.sql.parser.OOrBlock;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FilterStepTest extends TestUtilsFixture {
+
+  @Test
+  public void testBinaryFilterOnLoadedDocument() {
+    final OClass clazz = createClassInstance();
+    final ODocument doc = new ODocument(clazz.getName());
+    doc.field("name", "John");
+    doc.field("surname", "Smith\nJr");
+    doc.field("age", 30);
+    doc.field("active", true);
+    database.save(doc);
+
+    database.getLocalCache().clear();
+    final OResultInternal item = new OResultInternal(database.load(doc.getIdentity()));
+    final OBinaryRecord record = OBinaryRecord.of(item);
+    Assert.assertNotNull(record);
+
+    assertBinaryMatch("age = 30", item, record, true);
+    assertBinaryMatch("age = 30.0", item, record, true);
+    assertBinaryMatch("age <> 30", item, record, false);
+    assertBinaryMatch("age > 40", item, record, false);
+    assertBinaryMatch("age <= 30", item, record, true);
+    assertBinaryMatch("age in [1, 30]", item, record, true);
+    assertBinaryMatch("age in [1, 2]", item, record, false);
+    assertBinaryMatch("active = true", item, record, true);
+    assertBinaryMatch("name = 'Bob'", item, record, false);
+    assertBinaryMatch("name like 'jo%'", item, record, true);
+    assertBinaryMatch("name like 'bo%'", item, record, false);
+    assertBinaryMatch("name is not null", item, record, true);
+    assertBinaryMatch("name is null", item, record, false);
+    assertBinaryMatch("age = 30 and name = 'Bob'", item, record, false);
+    assertBinaryMatch("not (age < 20)", item, record, true);
+    assertBinaryMatch("age = 30 or name.size() = 3", item, record, true);
+
+    // UNDECIDED CONDITIONS ARE EVALUATED ON THE DESERIALIZED DOCUMENT
+    assertBinaryMatch("surname like 'smith%'", item, record, null);
+    assertBinaryMatch("missing is null", item, record, null);
+    assertBinaryMatch("age = '30'", item, record, null);
+    assertBinaryMatch("age = 30 and name.size() = 4", item, record, null);
+  }
+
+  @Test
+  public void testFilterStepMatchesFullEvaluation() {
+    final OClass clazz = createClassInstance();
+    for (int i = 0; i < 50; i++) {
+      final ODocument doc = new ODocument(clazz.getName());
+      doc.field("name", "name" + i);
+      doc.field("value", i);
+      if (i % 2 == 0) {
+        doc.field("even", true);
+      }
+      database.save(doc);
+    }
+
+    final String[] conditions = {
+      "value > 10 and name like 'name1%'",
+      "value in [1, 2, 3] or even is null",
+      "not (value >= 25) and name <> 'name3'",
+      "even = true and value < 20"
+    };
+    for (String condition : conditions) {
+      final String query = "select from " + clazz.getName() + " where " + condition;
+      database.getLocalCache().clear();
+      final List<Object> expected;
+      OGlobalConfiguration.QUERY_BINARY_FILTER.setValue(false);
+      try {
+        expected = names(query);
+      } finally {
+        OGlobalConfiguration.QUERY_BINARY_FILTER.setValue(true);
+      }
+
+      database.getLocalCache().clear();
+      Assert.assertFalse(expected.isEmpty());
+      Assert.assertEquals(condition, expected, names(query));
+    }
+  }
+
+  private static List<Object> names(final String query) {
+    final List<Object> names = new ArrayList<>();
+    try (OResultSet result = database.query(query)) {
+      result.forEachRemaining(item -> names.add(item.getProperty("name")));
+    }
+    return names;
+  }
+
+  private static void assertBinaryMatch(
+      final String predicate,
+      final OResult item,
+      final OBinaryRecord record,
+      final Boolean expected) {
+    final OBasicCommandContext ctx = new OBasicCommandContext();
+    ctx.setDatabase((ODatabaseDocumentInternal) database);
+
+    final OOrBlock condition = OSQLEngine.parsePredicate(predicate);
+    final OBinaryFilter filter = condition.createBinaryFilter(ctx);
+    Assert.assertEquals(predicate, expected, filter != null ? filter.matches(record) : null);
+    if (expected != null) {
+      Assert.assertEquals(predicate, expected, condition.evaluate(item, ctx));
+    }
+  }
+}
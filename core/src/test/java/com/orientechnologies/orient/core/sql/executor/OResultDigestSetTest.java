@@ -0,0 +1,167 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import com.orientechnologies.common.concur.OTimeoutException;
+import com.orientechnologies.orient.core.command.OBasicCommandContext;
+import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import java.nio.charset.StandardCharsets;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OResultDigestSetTest {
+
+  @Test
+  public void testAddContains() {
+    try (OResultDigestSet set = new OResultDigestSet()) {
+      for (int i = 0; i < 10_000; i++) {
+        Assert.assertTrue(set.add(bytes("value" + i)));
+      }
+      for (int i = 0; i < 10_000; i++) {
+        Assert.assertFalse(set.add(bytes("value" + i)));
+        Assert.assertTrue(set.contains(bytes("value" + i)));
+      }
+      Assert.assertFalse(set.contains(bytes("value" + 10_000)));
+      Assert.assertEquals(10_000, set.size());
+    }
+  }
+
+  @Test
+  public void testDigestCollisionKeepsDistinctContents() {
+    try (OResultDigestSet set = new OResultDigestSet()) {
+      Assert.assertTrue(set.add(42, bytes("first")));
+      Assert.assertTrue(set.add(42, bytes("second")));
+      Assert.assertFalse(set.add(42, bytes("first")));
+
+      Assert.assertTrue(set.contains(42, bytes("first")));
+      Assert.assertTrue(set.contains(42, bytes("second")));
+      Assert.assertFalse(set.contains(42, bytes("third")));
+      Assert.assertFalse(set.contains(42, bytes("firs")));
+      Assert.assertEquals(2, set.size());
+    }
+  }
+
+  @Test
+  public void testLargeContents() {
+    try (OResultDigestSet set = new OResultDigestSet()) {
+      final byte[] large = new byte[200_000];
+      large[large.length - 1] = 1;
+      Assert.assertTrue(set.add(large));
+      Assert.assertTrue(set.add(new byte[200_000]));
+      Assert.assertTrue(set.contains(large));
+      Assert.assertFalse(set.add(large.clone()));
+    }
+  }
+
+  @Test
+  public void testDistinctOnSimpleProjections() {
+    final OResultInternal first = new OResultInternal();
+    first.setProperty("name", "foo");
+    first.setProperty("value", 1);
+    final OResultInternal same = new OResultInternal();
+    same.setProperty("value", 1);
+    same.setProperty("name", "foo");
+    final OResultInternal other = new OResultInternal();
+    other.setProperty("name", "foo");
+    other.setProperty("value", 1L);
+
+    final OCommandContext context = new OBasicCommandContext();
+    final DistinctExecutionStep step = new DistinctExecutionStep(context, false);
+    step.setPrevious(
+        new AbstractExecutionStep(context, false) {
+          boolean done = false;
+
+          @Override
+          public OResultSet syncPull(OCommandContext ctx, int nRecords) throws OTimeoutException {
+            OInternalResultSet result = new OInternalResultSet();
+            if (!done) {
+              result.add(first);
+              result.add(same);
+              result.add(other);
+              done = true;
+            }
+            return result;
+          }
+        });
+
+    final OResultSet result = step.syncPull(context, 10);
+    Assert.assertTrue(result.hasNext());
+    Assert.assertSame(first, result.next());
+    // an Integer and a Long are different values
+    Assert.assertTrue(result.hasNext());
+    Assert.assertSame(other, result.next());
+    Assert.assertFalse(result.hasNext());
+    step.close();
+  }
+
+  @Test
+  public void testMemoryLimit() {
+    final long maxMemory = 64 * 1024;
+    try (OResultDigestSet set = new OResultDigestSet(maxMemory)) {
+      int added = 0;
+      while (set.hasRoomFor(bytes("value" + added))) {
+        Assert.assertTrue(set.add(bytes("value" + added)));
+        added++;
+      }
+      Assert.assertTrue(added > 0);
+      Assert.assertEquals(added, set.size());
+      for (int i = 0; i < added; i++) {
+        Assert.assertTrue(set.contains(bytes("value" + i)));
+      }
+      Assert.assertFalse(set.hasRoomFor(new byte[(int) maxMemory]));
+    }
+  }
+
+  @Test
+  public void testAbandonedSetIsReleased() throws InterruptedException {
+    OResultDigestSet set = new OResultDigestSet();
+    set.add(bytes("value"));
+    set = null;
+
+    int released = 0;
+    for (int i = 0; i < 100 && released == 0; i++) {
+      System.gc();
+      Thread.sleep(10);
+      released = OResultDigestSet.releaseAbandonedSets();
+    }
+    Assert.assertTrue(released > 0);
+  }
+
+  @Test
+  public void testDistinctFallsBackToHeap() {
+    final long oldValue = OGlobalConfiguration.QUERY_DISTINCT_MAX_DIRECT_MEMORY.getValueAsLong();
+    OGlobalConfiguration.QUERY_DISTINCT_MAX_DIRECT_MEMORY.setValue(0);
+    try {
+      final OCommandContext context = new OBasicCommandContext();
+      final DistinctExecutionStep step = new DistinctExecutionStep(context, false);
+      step.setPrevious(
+          new AbstractExecutionStep(context, false) {
+            boolean done = false;
+
+            @Override
+            public OResultSet syncPull(OCommandContext ctx, int nRecords)
+                throws OTimeoutException {
+              OInternalResultSet result = new OInternalResultSet();
+              if (!done) {
+                for (int i = 0; i < 20; i++) {
+                  final OResultInternal item = new OResultInternal();
+                  item.setProperty("value", i % 10);
+                  result.add(item);
+                }
+                done = true;
+              }
+              return result;
+            }
+          });
+
+      final OResultSet result = step.syncPull(context, 100);
+      Assert.assertEquals(10, result.stream().count());
+      step.close();
+    } finally {
+      OGlobalConfiguration.QUERY_DISTINCT_MAX_DIRECT_MEMORY.setValue(oldValue);
+    }
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -4,7 +4,9 @@ import static com.orientechnologies.orient.core.sql.executor.ExecutionPlanPrintU
 
 import com.orientechnologies.common.concur.OTimeoutException;
 import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.config.OContextConfiguration;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.db.ODatabaseSession;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
@@ -29,10 +31,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import org.junit.AfterClass;
 import org.junit.Assert;
@@ -2112,6 +2116,85 @@ public class OSelectStatementExecutionTest {
     result.close();
   }
 
+  @Test
+  public void testFetchFromSubclassIndexesParallel() {
+    String parent = "testFetchFromSubclassIndexesParallel_parent";
+    OClass parentClass = db.getMetadata().getSchema().createClass(parent);
+    parentClass.createProperty("name", OType.STRING);
+    for (int c = 0; c < 4; c++) {
+      String child = "testFetchFromSubclassIndexesParallel_child" + c;
+      OClass childClass = db.getMetadata().getSchema().createClass(child, parentClass);
+      childClass.createIndex(child + ".name", OClass.INDEX_TYPE.NOTUNIQUE, "name");
+      for (int i = 0; i < 1000; i++) {
+        ODocument doc = db.newInstance(child);
+        doc.setProperty("name", "name" + (i % 2));
+        doc.save();
+      }
+    }
+
+    OResultSet result = db.query("select from " + parent + " where name = 'name1' parallel");
+    OInternalExecutionPlan plan = (OInternalExecutionPlan) result.getExecutionPlan().get();
+    Assert.assertTrue(plan.getSteps().get(0) instanceof ParallelExecStep);
+    Set<ORID> rids = new HashSet<>();
+    while (result.hasNext()) {
+      OResult item = result.next();
+      Assert.assertEquals("name1", item.getProperty("name"));
+      rids.add(item.getIdentity().get());
+    }
+    Assert.assertEquals(2000, rids.size());
+    result.close();
+
+    result = db.query("select from " + parent + " where name = 'name1' limit 10 parallel");
+    Assert.assertEquals(10, result.stream().count());
+    result.close();
+  }
+
+  @Test
+  public void testFetchFromClassParallel() {
+    String className = "testFetchFromClassParallel";
+    OClass clazz = db.getMetadata().getSchema().createClass(className);
+    while (clazz.getClusterIds().length < 8) {
+      clazz.addCluster(className + "_" + clazz.getClusterIds().length);
+    }
+    for (int i = 0; i < 4000; i++) {
+      ODocument doc = db.newInstance(className);
+      doc.setProperty("name", "name" + (i % 2));
+      doc.save();
+    }
+
+    OResultSet result = db.query("select from " + className + " where name = 'name1' parallel");
+    OInternalExecutionPlan plan = (OInternalExecutionPlan) result.getExecutionPlan().get();
+    Assert.assertTrue(plan.getSteps().get(0) instanceof ParallelExecStep);
+    // one sub-plan per cluster, plus the records of the current tx
+    Assert.assertEquals(
+        9, ((ParallelExecStep) plan.getSteps().get(0)).getSubExecutionPlans().size());
+    Set<ORID> rids = new HashSet<>();
+    while (result.hasNext()) {
+      OResult item = result.next();
+      Assert.assertEquals("name1", item.getProperty("name"));
+      rids.add(item.getIdentity().get());
+    }
+    Assert.assertEquals(2000, rids.size());
+    result.close();
+
+    result = db.query("select from " + className + " limit 10 parallel");
+    Assert.assertEquals(10, result.stream().count());
+    result.close();
+
+    db.begin();
+    try {
+      ODocument doc = db.newInstance(className);
+      doc.setProperty("name", "name1");
+      doc.save();
+
+      result = db.query("select from " + className + " where name = 'name1' parallel");
+      Assert.assertEquals(2001, result.stream().count());
+      result.close();
+    } finally {
+      db.rollback();
+    }
+  }
+
   @Test
   public void testFetchFromSubclassIndexes2() {
     String parent = "testFetchFromSubclassIndexes2_parent";
@@ -3990,6 +4073,179 @@ public class OSelectStatementExecutionTest {
     }
   }
 
+  @Test
+  public void testSpillToDiskForOrderBy() {
+    Long oldValue = OGlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP.getValueAsLong();
+    Boolean oldSpill = OGlobalConfiguration.QUERY_SPILL_TO_DISK.getValueAsBoolean();
+    try {
+      OGlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP.setValue(3);
+      OGlobalConfiguration.QUERY_SPILL_TO_DISK.setValue(true);
+
+      String className = "testSpillToDiskForOrderBy";
+
+      db.createClassIfNotExist(className);
+
+      for (int i = 0; i < 20; i++) {
+        db.command("INSERT INTO " + className + " set name = ?, num = ?", "n" + (i % 7), i).close();
+      }
+
+      try (OResultSet result =
+          db.query("select from " + className + " ORDER BY name desc, num")) {
+        String lastName = null;
+        int lastNum = -1;
+        int count = 0;
+        while (result.hasNext()) {
+          OResult item = result.next();
+          String name = item.getProperty("name");
+          int num = item.getProperty("num");
+          if (lastName != null) {
+            Assert.assertTrue(name.compareTo(lastName) <= 0);
+            if (name.equals(lastName)) {
+              Assert.assertTrue(num > lastNum);
+            }
+          }
+          Assert.assertTrue(item.isElement());
+          lastName = name;
+          lastNum = num;
+          count++;
+        }
+        Assert.assertEquals(20, count);
+      }
+
+      try (OResultSet result =
+          db.query("select name, num from " + className + " ORDER BY num desc limit 5")) {
+        for (int i = 19; i > 14; i--) {
+          Assert.assertTrue(result.hasNext());
+          Assert.assertEquals(i, (int) result.next().getProperty("num"));
+        }
+        Assert.assertFalse(result.hasNext());
+      }
+    } finally {
+      OGlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP.setValue(oldValue);
+      OGlobalConfiguration.QUERY_SPILL_TO_DISK.setValue(oldSpill);
+    }
+  }
+
+  @Test
+  public void testSpillToDiskForOrderByFromDatabaseConfiguration() {
+    final OContextConfiguration configuration = db.getConfiguration();
+    final long oldValue =
+        configuration.getValueAsLong(OGlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP);
+    final boolean oldSpill =
+        configuration.getValueAsBoolean(OGlobalConfiguration.QUERY_SPILL_TO_DISK);
+    final Long oldGlobalValue =
+        OGlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP.getValueAsLong();
+    try {
+      OGlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP.setValue(3);
+      configuration.setValue(OGlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP, 3);
+      configuration.setValue(OGlobalConfiguration.QUERY_SPILL_TO_DISK, true);
+
+      String className = "testSpillToDiskForOrderByFromDatabaseConfiguration";
+
+      db.createClassIfNotExist(className);
+
+      for (int i = 0; i < 20; i++) {
+        db.command("INSERT INTO " + className + " set num = ?", i).close();
+      }
+
+      // SPILLING IS DISABLED GLOBALLY, THE QUERY FAILS UNLESS THE DATABASE CONFIGURATION IS USED
+      try (OResultSet result = db.query("select from " + className + " ORDER BY num desc")) {
+        for (int i = 19; i >= 0; i--) {
+          Assert.assertTrue(result.hasNext());
+          Assert.assertEquals(i, (int) result.next().getProperty("num"));
+        }
+        Assert.assertFalse(result.hasNext());
+      }
+    } finally {
+      OGlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP.setValue(oldGlobalValue);
+      configuration.setValue(OGlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP, oldValue);
+      configuration.setValue(OGlobalConfiguration.QUERY_SPILL_TO_DISK, oldSpill);
+    }
+  }
+
+  @Test
+  public void testSpillToDiskForGroupBy() {
+    Long oldValue = OGlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP.getValueAsLong();
+    Boolean oldSpill = OGlobalConfiguration.QUERY_SPILL_TO_DISK.getValueAsBoolean();
+    try {
+      OGlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP.setValue(3);
+      OGlobalConfiguration.QUERY_SPILL_TO_DISK.setValue(true);
+
+      String className = "testSpillToDiskForGroupBy";
+
+      db.createClassIfNotExist(className);
+
+      for (int i = 0; i < 100; i++) {
+        db.command("INSERT INTO " + className + " set name = ?, num = ?", "n" + (i % 40), i)
+            .close();
+      }
+
+      OQueryStats stats = OQueryStats.get((ODatabaseDocumentInternal) db);
+      long spilledBefore = stats.getSpilledGroupByRecords();
+
+      Map<String, Long> counts = new HashMap<>();
+      try (OResultSet result =
+          db.query(
+              "select name, count(*) as cnt, sum(num) as total from "
+                  + className
+                  + " group by name")) {
+        while (result.hasNext()) {
+          OResult item = result.next();
+          String name = item.getProperty("name");
+          Assert.assertNull(counts.put(name, ((Number) item.getProperty("cnt")).longValue()));
+          int n = Integer.parseInt(name.substring(1));
+          int expectedTotal = 0;
+          for (int i = n; i < 100; i += 40) {
+            expectedTotal += i;
+          }
+          Assert.assertEquals(expectedTotal, ((Number) item.getProperty("total")).intValue());
+        }
+      }
+      Assert.assertEquals(40, counts.size());
+      for (int i = 0; i < 40; i++) {
+        Assert.assertEquals(i < 20 ? 3L : 2L, (long) counts.get("n" + i));
+      }
+      Assert.assertTrue(stats.getSpilledGroupByRecords() > spilledBefore);
+    } finally {
+      OGlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP.setValue(oldValue);
+      OGlobalConfiguration.QUERY_SPILL_TO_DISK.setValue(oldSpill);
+    }
+  }
+
+  @Test
+  public void testSpillToDiskForGroupByExceedsMaxSize() {
+    Long oldValue = OGlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP.getValueAsLong();
+    Boolean oldSpill = OGlobalConfiguration.QUERY_SPILL_TO_DISK.getValueAsBoolean();
+    Long oldMaxSize = OGlobalConfiguration.QUERY_SPILL_MAX_SIZE.getValueAsLong();
+    try {
+      OGlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP.setValue(3);
+      OGlobalConfiguration.QUERY_SPILL_TO_DISK.setValue(true);
+      OGlobalConfiguration.QUERY_SPILL_MAX_SIZE.setValue(0);
+
+      String className = "testSpillToDiskForGroupByExceedsMaxSize";
+
+      db.createClassIfNotExist(className);
+
+      for (int i = 0; i < 100; i++) {
+        db.command("INSERT INTO " + className + " set name = ?, num = ?", "n" + (i % 40), i)
+            .close();
+      }
+
+      try (OResultSet result =
+          db.query("select name, count(*) as cnt from " + className + " group by name")) {
+        result.stream().count();
+        Assert.fail();
+      } catch (OCommandExecutionException e) {
+        Assert.assertTrue(
+            e.getMessage().contains(OGlobalConfiguration.QUERY_SPILL_MAX_SIZE.getKey()));
+      }
+    } finally {
+      OGlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP.setValue(oldValue);
+      OGlobalConfiguration.QUERY_SPILL_TO_DISK.setValue(oldSpill);
+      OGlobalConfiguration.QUERY_SPILL_MAX_SIZE.setValue(oldMaxSize);
+    }
+  }
+
   @Test
   public void testXor() {
     try (OResultSet result = db.query("select 15 ^ 4 as foo")) {
@@ -33,6 +33,8 @@ public class OAlterClassStatementTest extends OParserTestAbstract {
     checkRightSyntax("ALTER CLASS Foo CLUSTERSELECTION round-robin");
     checkRightSyntax("ALTER CLASS Foo clusterselection round-robin");
 
+    checkRightSyntax("ALTER CLASS Foo CLUSTERSELECTION thread");
+
     checkRightSyntax("ALTER CLASS Foo SUPERCLASS Bar");
     checkRightSyntax("ALTER CLASS Foo superclass Bar");
 
@@ -162,4 +162,37 @@ public class ORidSetTest extends OParserTestAbstract {
     Assert.assertFalse(iterator.hasNext());
     Assert.assertTrue(control.isEmpty());
   }
+
+  @Test
+  public void testNegatives() {
+    Set<ORID> control = new HashSet<>();
+    ORidSet set = new ORidSet();
+
+    for (long id = 2; id < 1000; id++) {
+      ORecordId rid = new ORecordId(-1, -id);
+      Assert.assertTrue(set.add(rid));
+      control.add(rid);
+    }
+    set.add(new ORecordId(5, 10));
+    Assert.assertFalse(set.add(new ORecordId(-1, -2)));
+    Assert.assertEquals(999, set.size());
+
+    for (long id = 2; id < 1000; id += 2) {
+      ORecordId rid = new ORecordId(-1, -id);
+      set.remove(rid);
+      control.remove(rid);
+    }
+    for (long id = 2; id < 1000; id++) {
+      Assert.assertEquals(id % 2 == 1, set.contains(new ORecordId(-1, -id)));
+    }
+
+    Iterator<ORID> iterator = set.iterator();
+    while (iterator.hasNext()) {
+      ORID next = iterator.next();
+      if (next.getClusterId() == -1) {
+        Assert.assertTrue(control.remove(next));
+      }
+    }
+    Assert.assertTrue(control.isEmpty());
+  }
 }
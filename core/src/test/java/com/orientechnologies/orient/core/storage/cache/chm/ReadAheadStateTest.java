@@ -0,0 +1,64 @@
+package com.orientechnologies.orient.core.storage.cache.chm;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ReadAheadStateTest {
+  @Test
+  public void testSequentialReadIsDetected() {
+    final ReadAheadState state = new ReadAheadState(16);
+
+    for (int i = 0; i < ReadAheadState.SEQUENTIAL_THRESHOLD; i++) {
+      Assert.assertEquals(0, state.onAccess(1, i));
+    }
+
+    Assert.assertEquals(4, state.onAccess(1, ReadAheadState.SEQUENTIAL_THRESHOLD));
+    Assert.assertEquals(ReadAheadState.SEQUENTIAL_THRESHOLD + 1, state.getWindowStart());
+  }
+
+  @Test
+  public void testWindowGrowsTillMaximum() {
+    final ReadAheadState state = new ReadAheadState(16);
+
+    int maxWindow = 0;
+    long readAheadEnd = 0;
+    for (int i = 0; i < 200; i++) {
+      final int pages = state.onAccess(1, i);
+      if (pages > 0) {
+        Assert.assertTrue(state.getWindowStart() > i);
+        Assert.assertTrue(state.getWindowStart() >= readAheadEnd);
+
+        readAheadEnd = state.getWindowStart() + pages;
+        maxWindow = Math.max(maxWindow, pages);
+      }
+
+      Assert.assertTrue(readAheadEnd == 0 || readAheadEnd > i);
+    }
+
+    Assert.assertEquals(16, maxWindow);
+  }
+
+  @Test
+  public void testRandomReadIsNotReadAhead() {
+    final ReadAheadState state = new ReadAheadState(16);
+
+    for (int i = 0; i < 100; i++) {
+      Assert.assertEquals(0, state.onAccess(1, (i * 7919L) % 1000));
+    }
+  }
+
+  @Test
+  public void testSeveralFilesAreTracked() {
+    final ReadAheadState state = new ReadAheadState(16);
+
+    int readAheadFirst = 0;
+    int readAheadSecond = 0;
+    for (int i = 0; i < 10; i++) {
+      readAheadFirst += state.onAccess(1, i);
+      readAheadSecond += state.onAccess(2, 100 + i);
+    }
+
+    Assert.assertTrue(readAheadFirst > 0);
+    Assert.assertTrue(readAheadSecond > 0);
+  }
+}
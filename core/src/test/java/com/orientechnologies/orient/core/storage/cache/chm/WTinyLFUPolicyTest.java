@@ -664,6 +664,52 @@ public class WTinyLFUPolicyTest {
     clearPointers(wTinyLFU);
   }
 
+  @Test
+  public void testScanRing() {
+    ODirectMemoryAllocator memoryAllocator = new ODirectMemoryAllocator();
+    OByteBufferPool pool = new OByteBufferPool(1, memoryAllocator, 0);
+
+    ConcurrentHashMap<PageKey, OCacheEntry> data = new ConcurrentHashMap<>();
+    Admittor admittor = mock(Admittor.class);
+
+    AtomicInteger cacheSize = new AtomicInteger();
+    WTinyLFUPolicy wTinyLFU = new WTinyLFUPolicy(data, admittor, cacheSize, 2);
+    wTinyLFU.setMaxSize(100);
+
+    Assert.assertEquals(2, wTinyLFU.getMaxScanSize());
+
+    OCacheEntry[] cacheEntries = new OCacheEntry[4];
+    OCachePointer[] cachePointers = new OCachePointer[4];
+
+    generateEntries(cacheEntries, cachePointers, pool);
+
+    for (int i = 0; i < 4; i++) {
+      cacheSize.incrementAndGet();
+      data.put(new PageKey(1, i), cacheEntries[i]);
+      wTinyLFU.onScanAdd(cacheEntries[i]);
+    }
+
+    Mockito.verify(admittor, Mockito.never()).increment(Mockito.anyInt());
+
+    Assert.assertEquals(2, cacheSize.get());
+    Assert.assertTrue(cacheEntries[0].isDead());
+    Assert.assertTrue(cacheEntries[1].isDead());
+    Assert.assertFalse(wTinyLFU.eden().hasNext());
+    Assert.assertArrayEquals(
+        new OCacheEntry[] {cacheEntries[3], cacheEntries[2]}, toArray(wTinyLFU.scan()));
+
+    wTinyLFU.onAccess(cacheEntries[3]);
+
+    Assert.assertArrayEquals(new OCacheEntry[] {cacheEntries[2]}, toArray(wTinyLFU.scan()));
+    Assert.assertArrayEquals(new OCacheEntry[] {cacheEntries[3]}, toArray(wTinyLFU.eden()));
+
+    wTinyLFU.assertSize();
+    wTinyLFU.assertConsistency();
+
+    Assert.assertEquals(2, memoryAllocator.getMemoryConsumption());
+    clearPointers(wTinyLFU);
+  }
+
   private static OCacheEntry[] toArray(Iterator<OCacheEntry> iterator) {
     final List<OCacheEntry> entries = new ArrayList<>();
     while (iterator.hasNext()) {
@@ -691,6 +737,7 @@ public class WTinyLFUPolicyTest {
     clearQueue(policy.eden());
     clearQueue(policy.probation());
     clearQueue(policy.protection());
+    clearQueue(policy.scan());
   }
 
   private static void clearQueue(final Iterator<OCacheEntry> iterator) {
@@ -0,0 +1,88 @@
+package com.orientechnologies.orient.core.storage.cache.local;
+
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.db.ODatabaseType;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.storage.impl.local.OAbstractPaginatedStorage;
+import java.io.File;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class WOWCacheFlushThreadsTest {
+  private static final int CLASSES = 8;
+  private static final int RECORDS = 500;
+
+  private String url;
+  private OrientDB orientDB;
+  private String dbName;
+
+  @Before
+  public void before() {
+    final String buildDirectory = System.getProperty("buildDirectory", ".");
+    url = "embedded:" + buildDirectory + File.separator + "databases";
+    dbName = WOWCacheFlushThreadsTest.class.getSimpleName();
+    orientDB = new OrientDB(url, OrientDBConfig.defaultConfig());
+    if (orientDB.exists(dbName)) {
+      orientDB.drop(dbName);
+    }
+  }
+
+  @After
+  public void after() {
+    if (orientDB.exists(dbName)) {
+      orientDB.drop(dbName);
+    }
+    orientDB.close();
+  }
+
+  @Test
+  public void testFlushThreadsAreReadFromDatabaseConfiguration() {
+    Assert.assertEquals(
+        1, OGlobalConfiguration.DISK_WRITE_CACHE_FLUSH_THREADS.getValueAsInteger());
+
+    orientDB.create(
+        dbName,
+        ODatabaseType.PLOCAL,
+        OrientDBConfig.builder()
+            .addConfig(OGlobalConfiguration.DISK_WRITE_CACHE_FLUSH_THREADS, 4)
+            .build());
+
+    try (ODatabaseSession db = orientDB.open(dbName, "admin", "admin")) {
+      final OWOWCache writeCache =
+          (OWOWCache)
+              ((OAbstractPaginatedStorage) ((ODatabaseDocumentInternal) db).getStorage())
+                  .getWriteCache();
+      Assert.assertEquals(4, writeCache.getFlushThreads());
+
+      for (int i = 0; i < CLASSES; i++) {
+        db.createClass("FlushThreads" + i);
+        for (int n = 0; n < RECORDS; n++) {
+          final ODocument document = new ODocument("FlushThreads" + i);
+          document.field("value", n);
+          document.field("payload", "payload of record " + n + " of class " + i);
+          db.save(document);
+        }
+      }
+
+      final long flushedPages = writeCache.getFlushedPagesCount();
+      writeCache.flush();
+      Assert.assertTrue(writeCache.getFlushedPagesCount() > flushedPages);
+    }
+
+    // pages written by flush threads have to be readable after reopen of the database
+    orientDB.close();
+    orientDB = new OrientDB(url, OrientDBConfig.defaultConfig());
+
+    try (ODatabaseSession db = orientDB.open(dbName, "admin", "admin")) {
+      for (int i = 0; i < CLASSES; i++) {
+        Assert.assertEquals(RECORDS, db.countClass("FlushThreads" + i));
+      }
+    }
+  }
+}
@@ -0,0 +1,156 @@
+package com.orientechnologies.orient.core.storage.impl.local.paginated;
+
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.io.OFileUtils;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.db.ODatabaseType;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
+import com.orientechnologies.orient.core.db.OrientDBInternal;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.db.tool.ODatabaseCompare;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import com.orientechnologies.orient.core.storage.OStorage;
+import java.io.File;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StorageIncrementalBackupTest {
+  private String dbDirectory;
+  private String restoredDbDirectory;
+  private File backupDir;
+
+  @Before
+  public void before() {
+    final String buildDirectory = System.getProperty("buildDirectory", ".");
+    dbDirectory =
+        buildDirectory + File.separator + StorageIncrementalBackupTest.class.getSimpleName();
+    restoredDbDirectory = dbDirectory + "Restored";
+    backupDir = new File(dbDirectory + "BackupDir");
+
+    OFileUtils.deleteRecursively(new File(dbDirectory));
+    OFileUtils.deleteRecursively(new File(restoredDbDirectory));
+    OFileUtils.deleteRecursively(backupDir);
+  }
+
+  @After
+  public void after() {
+    OFileUtils.deleteRecursively(new File(dbDirectory));
+    OFileUtils.deleteRecursively(new File(restoredDbDirectory));
+    OFileUtils.deleteRecursively(backupDir);
+  }
+
+  @Test
+  public void testIncrementalBackupRestore() {
+    final ODatabaseDocumentTx db = new ODatabaseDocumentTx("plocal:" + dbDirectory);
+    db.create();
+
+    final OClass cls = db.getMetadata().getSchema().createClass("BackupTest");
+    cls.createProperty("id", OType.INTEGER).createIndex(OClass.INDEX_TYPE.UNIQUE);
+
+    for (int i = 0; i < 1000; i++) {
+      new ODocument("BackupTest").field("id", i).field("value", "full " + i).save();
+    }
+    final String fullBackup = db.incrementalBackup(backupDir.getAbsolutePath());
+    Assert.assertTrue(fullBackup.endsWith("_full.ibu"));
+
+    for (int i = 1000; i < 1500; i++) {
+      new ODocument("BackupTest").field("id", i).field("value", "incremental " + i).save();
+    }
+    db.command("delete from BackupTest where id < 100").close();
+    final String incrementalBackup = db.incrementalBackup(backupDir.getAbsolutePath());
+    Assert.assertFalse(incrementalBackup.endsWith("_full.ibu"));
+
+    db.getMetadata().getSchema().createClass("CreatedAfterBackup");
+    final String lastBackup = db.incrementalBackup(backupDir.getAbsolutePath());
+    Assert.assertFalse(lastBackup.endsWith("_full.ibu"));
+
+    final OStorage storage = db.getStorage();
+    db.close();
+    storage.close(true, false);
+
+    final ODatabaseDocumentTx restoredDb = new ODatabaseDocumentTx("plocal:" + restoredDbDirectory);
+    restoredDb.create(backupDir.getAbsolutePath());
+    Assert.assertEquals(1400, restoredDb.countClass("BackupTest"));
+    Assert.assertTrue(restoredDb.getMetadata().getSchema().existsClass("CreatedAfterBackup"));
+
+    final OStorage restoredStorage = restoredDb.getStorage();
+    restoredDb.close();
+    restoredStorage.close(true, false);
+
+    final ODatabaseCompare compare =
+        new ODatabaseCompare(
+            "plocal:" + dbDirectory, "plocal:" + restoredDbDirectory, "admin", "admin", text -> {});
+    Assert.assertTrue(compare.compare());
+  }
+
+  @Test
+  public void testEncryptedIncrementalBackupRestore() {
+    final OrientDBConfig encrypted =
+        OrientDBConfig.builder()
+            .addConfig(OGlobalConfiguration.STORAGE_ENCRYPTION_KEY, "T1JJRU5UREJfSVNfQ09PTA==")
+            .build();
+
+    try (final OrientDB orientDB = new OrientDB("embedded:" + dbDirectory, encrypted)) {
+      orientDB.create("encrypted", ODatabaseType.PLOCAL);
+      try (final ODatabaseSession session = orientDB.open("encrypted", "admin", "admin")) {
+        final OClass cls = session.getMetadata().getSchema().createClass("BackupTest");
+        cls.createProperty("id", OType.INTEGER).createIndex(OClass.INDEX_TYPE.UNIQUE);
+
+        for (int i = 0; i < 1000; i++) {
+          session.save(new ODocument("BackupTest").field("id", i).field("value", "full " + i));
+        }
+        Assert.assertTrue(
+            session.incrementalBackup(backupDir.getAbsolutePath()).endsWith("_full.ibu"));
+
+        for (int i = 1000; i < 1500; i++) {
+          session.save(
+              new ODocument("BackupTest").field("id", i).field("value", "incremental " + i));
+        }
+        session.command("delete from BackupTest where id < 100").close();
+        Assert.assertFalse(
+            session.incrementalBackup(backupDir.getAbsolutePath()).endsWith("_full.ibu"));
+      }
+
+      OrientDBInternal.extract(orientDB)
+          .restore(
+              "encryptedRestored",
+              null,
+              null,
+              ODatabaseType.PLOCAL,
+              backupDir.getAbsolutePath(),
+              encrypted);
+      try (final ODatabaseSession session =
+          orientDB.open("encryptedRestored", "admin", "admin")) {
+        Assert.assertEquals(1400, session.countClass("BackupTest"));
+        try (final OResultSet result =
+            session.query("select value from BackupTest where id = ?", 1200)) {
+          Assert.assertEquals("incremental 1200", result.next().getProperty("value"));
+        }
+      }
+    }
+
+    try (final OrientDB orientDB =
+        new OrientDB("embedded:" + dbDirectory, OrientDBConfig.defaultConfig())) {
+      try {
+        OrientDBInternal.extract(orientDB)
+            .restore(
+                "restoredWithoutKey",
+                null,
+                null,
+                ODatabaseType.PLOCAL,
+                backupDir.getAbsolutePath(),
+                OrientDBConfig.defaultConfig());
+        Assert.fail("Encrypted backup was restored without encryption key");
+      } catch (OException e) {
+        // expected
+      }
+    }
+  }
+}
@@ -0,0 +1,234 @@
+package com.orientechnologies.orient.core.storage.impl.local.paginated;
+
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.io.OFileUtils;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.db.tool.ODatabaseCompare;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import com.orientechnologies.orient.core.storage.OStorage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StorageOnlineBackupTest {
+  private String dbDirectory;
+  private String restoredDbDirectory;
+
+  @Before
+  public void before() {
+    final String buildDirectory = System.getProperty("buildDirectory", ".");
+    dbDirectory = buildDirectory + File.separator + StorageOnlineBackupTest.class.getSimpleName();
+    restoredDbDirectory = dbDirectory + "Restored";
+
+    OFileUtils.deleteRecursively(new File(dbDirectory));
+    OFileUtils.deleteRecursively(new File(restoredDbDirectory));
+  }
+
+  @After
+  public void after() {
+    OFileUtils.deleteRecursively(new File(dbDirectory));
+    OFileUtils.deleteRecursively(new File(restoredDbDirectory));
+  }
+
+  @Test
+  public void testOnlineBackupRestore() throws IOException {
+    final ODatabaseDocumentTx db = createDatabase();
+    for (int i = 0; i < 1000; i++) {
+      new ODocument("BackupTest").field("id", i).field("value", "value " + i).save();
+    }
+
+    final ByteArrayOutputStream backup = new ByteArrayOutputStream();
+    db.backup(backup, null, null, null, 1, 1024);
+
+    final OStorage storage = db.getStorage();
+    db.close();
+    storage.close(true, false);
+
+    final ODatabaseDocumentTx restoredDb = new ODatabaseDocumentTx("plocal:" + restoredDbDirectory);
+    restoredDb.create();
+    restoredDb.restore(new ByteArrayInputStream(backup.toByteArray()), null, null, null);
+    Assert.assertEquals(1000, restoredDb.countClass("BackupTest"));
+
+    final OStorage restoredStorage = restoredDb.getStorage();
+    restoredDb.close();
+    restoredStorage.close(true, false);
+
+    final ODatabaseCompare compare =
+        new ODatabaseCompare(
+            "plocal:" + dbDirectory, "plocal:" + restoredDbDirectory, "admin", "admin", text -> {});
+    Assert.assertTrue(compare.compare());
+  }
+
+  @Test
+  public void testOnlineBackupDoesNotBlockWrites() throws Exception {
+    final ODatabaseDocumentTx db = createDatabase();
+    for (int i = 0; i < 1000; i++) {
+      new ODocument("BackupTest").field("id", i).field("value", "value " + i).save();
+    }
+
+    final AtomicBoolean stop = new AtomicBoolean();
+    final AtomicInteger written = new AtomicInteger();
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    final Future<Integer> writer =
+        executor.submit(
+            () -> {
+              final ODatabaseDocumentTx writerDb = new ODatabaseDocumentTx("plocal:" + dbDirectory);
+              writerDb.open("admin", "admin");
+              try {
+                int id = 1000;
+                while (!stop.get()) {
+                  new ODocument("BackupTest").field("id", id).field("value", "value " + id).save();
+                  written.incrementAndGet();
+                  id++;
+                }
+                return id;
+              } finally {
+                writerDb.close();
+              }
+            });
+
+    while (written.get() == 0) {
+      Thread.sleep(10);
+    }
+
+    // backup is suspended on the first write into the stream till the writer saves more records
+    final WaitingForWritesStream backup = new WaitingForWritesStream(written, 10);
+    db.activateOnCurrentThread();
+    db.backup(backup, null, null, null, 1, 1024);
+
+    stop.set(true);
+    final int recordsCount = writer.get();
+    executor.shutdown();
+
+    Assert.assertTrue(backup.writesDuringBackup >= 10);
+
+    final OStorage storage = db.getStorage();
+    db.close();
+    storage.close(true, false);
+
+    final ODatabaseDocumentTx restoredDb = new ODatabaseDocumentTx("plocal:" + restoredDbDirectory);
+    restoredDb.create();
+    restoredDb.restore(new ByteArrayInputStream(backup.toByteArray()), null, null, null);
+
+    final long restoredCount = restoredDb.countClass("BackupTest");
+    Assert.assertTrue(restoredCount >= 1000);
+    Assert.assertTrue(restoredCount <= recordsCount);
+
+    // every restored record is found by the index
+    try (final OResultSet result =
+        restoredDb.query("select count(*) as count from BackupTest where id >= 0")) {
+      Assert.assertEquals(restoredCount, (long) result.next().<Long>getProperty("count"));
+    }
+
+    final OStorage restoredStorage = restoredDb.getStorage();
+    restoredDb.close();
+    restoredStorage.close(true, false);
+  }
+
+  @Test
+  public void testBrokenBackupDoesNotChangeStorage() throws IOException {
+    final ODatabaseDocumentTx db = createDatabase();
+    for (int i = 0; i < 1000; i++) {
+      new ODocument("BackupTest").field("id", i).field("value", "value " + i).save();
+    }
+
+    final ByteArrayOutputStream backup = new ByteArrayOutputStream();
+    db.backup(backup, null, null, null, 1, 1024);
+
+    final OStorage storage = db.getStorage();
+    db.close();
+    storage.close(true, false);
+
+    final ODatabaseDocumentTx restoredDb = new ODatabaseDocumentTx("plocal:" + restoredDbDirectory);
+    restoredDb.create();
+    restoredDb.getMetadata().getSchema().createClass("Existing");
+    new ODocument("Existing").field("id", 1).save();
+
+    // manifest with the checksums is the last entry of the backup, so it is lost
+    final byte[] brokenBackup = Arrays.copyOf(backup.toByteArray(), backup.size() / 2);
+    try {
+      restoredDb.restore(new ByteArrayInputStream(brokenBackup), null, null, null);
+      Assert.fail("Broken backup was restored");
+    } catch (final OException e) {
+      // expected
+    }
+
+    final ODatabaseDocumentTx reopenedDb = new ODatabaseDocumentTx("plocal:" + restoredDbDirectory);
+    reopenedDb.open("admin", "admin");
+    Assert.assertEquals(1, reopenedDb.countClass("Existing"));
+    Assert.assertFalse(reopenedDb.getMetadata().getSchema().existsClass("BackupTest"));
+
+    final OStorage restoredStorage = reopenedDb.getStorage();
+    reopenedDb.close();
+    restoredStorage.close(true, false);
+  }
+
+  private static final class WaitingForWritesStream extends ByteArrayOutputStream {
+    private final AtomicInteger written;
+    private final int expectedWrites;
+    private int writesDuringBackup = -1;
+
+    private WaitingForWritesStream(final AtomicInteger written, final int expectedWrites) {
+      this.written = written;
+      this.expectedWrites = expectedWrites;
+    }
+
+    @Override
+    public synchronized void write(final int b) {
+      awaitWrites();
+      super.write(b);
+    }
+
+    @Override
+    public synchronized void write(final byte[] b, final int off, final int len) {
+      awaitWrites();
+      super.write(b, off, len);
+    }
+
+    private void awaitWrites() {
+      if (writesDuringBackup >= 0) {
+        return;
+      }
+
+      final int start = written.get();
+      final long deadline = System.currentTimeMillis() + 30_000;
+      while (written.get() - start < expectedWrites && System.currentTimeMillis() < deadline) {
+        try {
+          Thread.sleep(10);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+      }
+      writesDuringBackup = written.get() - start;
+    }
+  }
+
+  private ODatabaseDocumentTx createDatabase() {
+    final ODatabaseDocumentTx db = new ODatabaseDocumentTx("plocal:" + dbDirectory);
+    db.create();
+    db.getStorage()
+        .getConfiguration()
+        .getContextConfiguration()
+        .setValue(OGlobalConfiguration.STORAGE_ONLINE_BACKUP, true);
+
+    final OClass cls = db.getMetadata().getSchema().createClass("BackupTest");
+    cls.createProperty("id", OType.INTEGER).createIndex(OClass.INDEX_TYPE.UNIQUE);
+    return db;
+  }
+}
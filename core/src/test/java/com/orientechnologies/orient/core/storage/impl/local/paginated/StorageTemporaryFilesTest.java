@@ -0,0 +1,63 @@
+package com.orientechnologies.orient.core.storage.impl.local.paginated;
+
+import com.orientechnologies.common.io.OFileUtils;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.index.OIndexEntrySorter;
+import com.orientechnologies.orient.core.sql.executor.OResultSpillFile;
+import com.orientechnologies.orient.core.storage.disk.OLocalPaginatedStorage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StorageTemporaryFilesTest {
+  private String dbDirectory;
+
+  @Before
+  public void before() {
+    final String buildDirectory = System.getProperty("buildDirectory", ".");
+    dbDirectory = buildDirectory + File.separator + StorageTemporaryFilesTest.class.getSimpleName();
+
+    OFileUtils.deleteRecursively(new File(dbDirectory));
+  }
+
+  @After
+  public void after() {
+    OFileUtils.deleteRecursively(new File(dbDirectory));
+  }
+
+  @Test
+  public void testTemporaryFilesAreOutsideOfStorageAndRemovedOnOpen() throws IOException {
+    ODatabaseDocumentTx db = new ODatabaseDocumentTx("plocal:" + dbDirectory);
+    db.create();
+
+    OLocalPaginatedStorage storage = (OLocalPaginatedStorage) db.getStorage();
+    final Path temporaryPath = storage.getTemporaryPath();
+    Assert.assertFalse(
+        temporaryPath.toAbsolutePath().startsWith(storage.getStoragePath().toAbsolutePath()));
+
+    // FILE LEFT BY A CRASH
+    final Path spillDirectory = temporaryPath.resolve(OResultSpillFile.SPILL_DIRECTORY);
+    Files.createDirectories(spillDirectory);
+    final Path staleFile = Files.createFile(spillDirectory.resolve("orderBy.spill"));
+    final Path sortDirectory = temporaryPath.resolve(OIndexEntrySorter.SORT_DIRECTORY);
+    Files.createDirectories(sortDirectory);
+    final Path staleSortFile = Files.createFile(sortDirectory.resolve("index.sort"));
+
+    db.close();
+    storage.close(true, false);
+
+    db = new ODatabaseDocumentTx("plocal:" + dbDirectory);
+    db.open("admin", "admin");
+    Assert.assertFalse(Files.exists(staleFile));
+    Assert.assertFalse(Files.exists(staleSortFile));
+
+    Files.createDirectories(spillDirectory);
+    db.drop();
+    Assert.assertFalse(Files.exists(temporaryPath));
+  }
+}
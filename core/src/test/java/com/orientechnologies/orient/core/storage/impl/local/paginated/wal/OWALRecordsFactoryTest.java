@@ -0,0 +1,160 @@
+package com.orientechnologies.orient.core.storage.impl.local.paginated.wal;
+
+import com.orientechnologies.common.serialization.types.OIntegerSerializer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class OWALRecordsFactoryTest {
+  private static final int RECORD_ID = 1100;
+  // low enough for the failed compressions of the records to be tracked
+  private static final int TRACKED_RECORD_ID = 250;
+
+  @BeforeClass
+  public static void beforeClass() {
+    OWALRecordsFactory.INSTANCE.registerNewRecord(RECORD_ID, TestRecord.class);
+    OWALRecordsFactory.INSTANCE.registerNewRecord(TRACKED_RECORD_ID, TestRecord.class);
+  }
+
+  @Test
+  public void testCompressionIsSwitchedOff() {
+    final TestRecord record = new TestRecord(compressibleData(16 * 1024));
+    final ByteBuffer content = OWALRecordsFactory.toStream(record, -1, false);
+
+    Assert.assertEquals(RECORD_ID, content.getShort(0));
+    assertRestored(record, content);
+  }
+
+  @Test
+  public void testRecordSmallerThanThresholdIsNotCompressed() {
+    final TestRecord record = new TestRecord(compressibleData(512));
+    final ByteBuffer content = OWALRecordsFactory.toStream(record, 1024, false);
+
+    Assert.assertEquals(RECORD_ID, content.getShort(0));
+    assertRestored(record, content);
+  }
+
+  @Test
+  public void testFastAndHighCompression() {
+    final TestRecord record = new TestRecord(compressibleData(16 * 1024));
+
+    final ByteBuffer fast = OWALRecordsFactory.toStream(record, 1024, false);
+    Assert.assertTrue(fast.getShort(0) < 0);
+    Assert.assertTrue(fast.limit() < record.serializedSize());
+    assertRestored(record, fast);
+
+    final ByteBuffer high = OWALRecordsFactory.toStream(record, 1024, true);
+    Assert.assertTrue(high.getShort(0) < 0);
+    Assert.assertTrue(high.limit() <= fast.limit());
+    assertRestored(record, high);
+  }
+
+  @Test
+  public void testCompressionIsRetriedAfterIncompressibleRecords() {
+    final Random random = new Random(42);
+    for (int i = 0; i < 10_000; i++) {
+      final byte[] data = new byte[2 * 1024];
+      random.nextBytes(data);
+      final ByteBuffer content =
+          OWALRecordsFactory.toStream(new TestRecord(TRACKED_RECORD_ID, data), 1024, false);
+      Assert.assertEquals(TRACKED_RECORD_ID, content.getShort(0));
+    }
+
+    // the counter of failed compressions decays, compression is tried again within a window
+    int uncompressed = 0;
+    ByteBuffer content;
+    do {
+      final TestRecord record = new TestRecord(TRACKED_RECORD_ID, compressibleData(16 * 1024));
+      content = OWALRecordsFactory.toStream(record, 1024, false);
+      assertRestored(record, content);
+    } while (content.getShort(0) >= 0 && ++uncompressed <= 64);
+    Assert.assertTrue(uncompressed <= 64);
+
+    for (int i = 0; i < 100; i++) {
+      final TestRecord record = new TestRecord(TRACKED_RECORD_ID, compressibleData(16 * 1024));
+      Assert.assertTrue(OWALRecordsFactory.toStream(record, 1024, false).getShort(0) < 0);
+    }
+  }
+
+  private static void assertRestored(final TestRecord record, final ByteBuffer content) {
+    final byte[] serialized = new byte[content.limit()];
+    final ByteBuffer duplicate = content.duplicate();
+    duplicate.position(0);
+    duplicate.get(serialized);
+
+    final TestRecord restored = (TestRecord) OWALRecordsFactory.INSTANCE.fromStream(serialized);
+    Assert.assertArrayEquals(record.data, restored.data);
+  }
+
+  private static byte[] compressibleData(final int size) {
+    final byte[] data = new byte[size];
+    int written = 0;
+    int counter = 0;
+    while (written < size) {
+      final byte[] line = ("record line " + counter++ + ";").getBytes(StandardCharsets.UTF_8);
+      final int len = Math.min(line.length, size - written);
+      System.arraycopy(line, 0, data, written, len);
+      written += len;
+    }
+    return data;
+  }
+
+  public static final class TestRecord extends OAbstractWALRecord {
+    private int id = RECORD_ID;
+    private byte[] data;
+
+    @SuppressWarnings("unused")
+    public TestRecord() {}
+
+    TestRecord(byte[] data) {
+      this.data = data;
+    }
+
+    TestRecord(int id, byte[] data) {
+      this.id = id;
+      this.data = data;
+    }
+
+    @Override
+    public int toStream(byte[] content, int offset) {
+      OIntegerSerializer.INSTANCE.serializeNative(data.length, content, offset);
+      offset += OIntegerSerializer.INT_SIZE;
+
+      System.arraycopy(data, 0, content, offset, data.length);
+      offset += data.length;
+
+      return offset;
+    }
+
+    @Override
+    public void toStream(ByteBuffer buffer) {
+      buffer.putInt(data.length);
+      buffer.put(data);
+    }
+
+    @Override
+    public int fromStream(byte[] content, int offset) {
+      int len = OIntegerSerializer.INSTANCE.deserializeNative(content, offset);
+      offset += OIntegerSerializer.INT_SIZE;
+
+      data = new byte[len];
+      System.arraycopy(content, offset, data, 0, len);
+      offset += len;
+
+      return offset;
+    }
+
+    @Override
+    public int serializedSize() {
+      return data.length + OIntegerSerializer.INT_SIZE;
+    }
+
+    @Override
+    public int getId() {
+      return id;
+    }
+  }
+}
@@ -5148,6 +5148,134 @@ public class CASDiskWriteAheadLogIT {
     }
   }
 
+  @Test
+  public void testGroupCommitConcurrentCommitters() throws Exception {
+    final int threads = 8;
+    final int commits = 200;
+
+    final CASDiskWriteAheadLog wal =
+        new CASDiskWriteAheadLog(
+            "walTest",
+            testDirectory,
+            testDirectory,
+            100,
+            64,
+            null,
+            null,
+            Integer.MAX_VALUE,
+            Integer.MAX_VALUE,
+            20,
+            true,
+            Locale.US,
+            -1,
+            10_000,
+            false,
+            false,
+            true,
+            10,
+            500);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      final List<Future<List<OLogSequenceNumber>>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  final Random random = new Random();
+                  final List<OLogSequenceNumber> lsns = new ArrayList<>();
+                  for (int n = 0; n < commits; n++) {
+                    final OLogSequenceNumber lsn =
+                        wal.log(new TestRecord(random, wal.pageSize(), 1));
+                    wal.waitForGroupCommit(lsn);
+
+                    // the commit is durable once the wait is over
+                    final OLogSequenceNumber flushedLSN = wal.getFlushedLsn();
+                    Assert.assertNotNull(flushedLSN);
+                    Assert.assertTrue(flushedLSN.compareTo(lsn) >= 0);
+                    lsns.add(lsn);
+                  }
+                  return lsns;
+                }));
+      }
+
+      final TreeSet<OLogSequenceNumber> lsns = new TreeSet<>();
+      for (final Future<List<OLogSequenceNumber>> future : futures) {
+        lsns.addAll(future.get());
+      }
+      Assert.assertEquals(threads * commits, lsns.size());
+
+      long waits = 0;
+      for (final long bucket : wal.getGroupCommitWaitHistogram()) {
+        waits += bucket;
+      }
+      Assert.assertTrue(waits > 0);
+      Assert.assertTrue(waits <= threads * commits);
+    } finally {
+      executor.shutdown();
+      wal.close();
+    }
+  }
+
+  @Test
+  public void testCompressionSettingsArePassedToWAL() throws Exception {
+    final byte[] data = new byte[16 * 1024];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) (i % 7);
+    }
+
+    final int compressedSize = loggedRecordSize(data, 1024, true);
+    final int uncompressedSize = loggedRecordSize(data, -1, false);
+
+    Assert.assertTrue(uncompressedSize >= data.length);
+    Assert.assertTrue(compressedSize < uncompressedSize / 4);
+  }
+
+  /** @return distance between positions of the logged record and of the record which follows it */
+  private static int loggedRecordSize(
+      final byte[] data, final int minCompressedRecordSize, final boolean highCompression)
+      throws Exception {
+    OFileUtils.deleteRecursively(testDirectory.toFile());
+
+    final CASDiskWriteAheadLog wal =
+        new CASDiskWriteAheadLog(
+            "walTest",
+            testDirectory,
+            testDirectory,
+            100,
+            64,
+            null,
+            null,
+            Integer.MAX_VALUE,
+            Integer.MAX_VALUE,
+            20,
+            true,
+            Locale.US,
+            -1,
+            1000,
+            false,
+            false,
+            true,
+            10,
+            -1,
+            minCompressedRecordSize,
+            highCompression);
+    try {
+      final OLogSequenceNumber lsn = wal.log(new TestRecord(data));
+      final OLogSequenceNumber nextLSN = wal.log(new TestRecord(new byte[1]));
+      Assert.assertEquals(lsn.getSegment(), nextLSN.getSegment());
+
+      wal.flush();
+
+      final List<WriteableWALRecord> records = wal.read(lsn, 1);
+      Assert.assertArrayEquals(data, ((TestRecord) records.get(0)).data);
+
+      return nextLSN.getPosition() - lsn.getPosition();
+    } finally {
+      wal.close();
+    }
+  }
+
   private static OLogSequenceNumber chooseRandomRecord(
       Random random, NavigableMap<OLogSequenceNumber, ? extends WriteableWALRecord> records) {
     if (records.isEmpty()) {
@@ -0,0 +1,319 @@
+package com.orientechnologies.orient.core.storage.index.nkbtree;
+
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.exception.OHighLevelException;
+import com.orientechnologies.common.io.OFileUtils;
+import com.orientechnologies.common.serialization.types.OUTF8Serializer;
+import com.orientechnologies.common.util.ORawPair;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseInternal;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.db.ODatabaseType;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.index.OCompositeKey;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.serialization.serializer.binary.impl.index.OCompositeKeySerializer;
+import com.orientechnologies.orient.core.storage.impl.local.OAbstractPaginatedStorage;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.atomicoperations.OAtomicOperationsManager;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NormalizedKeyBTreeValueTestIT {
+  private OAtomicOperationsManager atomicOperationsManager;
+  private OAbstractPaginatedStorage storage;
+  private NormalizedKeyBTreeValue<String> tree;
+  private OrientDB orientDB;
+
+  private String dbName;
+
+  @Before
+  public void before() throws Exception {
+    final String buildDirectory =
+        System.getProperty("buildDirectory", ".")
+            + File.separator
+            + NormalizedKeyBTreeValueTestIT.class.getSimpleName();
+
+    dbName = "normalizedKeyBTreeTest";
+    final File dbDirectory = new File(buildDirectory, dbName);
+    OFileUtils.deleteRecursively(dbDirectory);
+
+    final OrientDBConfig config =
+        OrientDBConfig.builder()
+            .addConfig(OGlobalConfiguration.STORAGE_TRACK_PAGE_OPERATIONS_IN_TX, true)
+            .build();
+    orientDB = new OrientDB("plocal:" + buildDirectory, config);
+    orientDB.create(dbName, ODatabaseType.PLOCAL);
+
+    try (ODatabaseSession databaseDocumentTx = orientDB.open(dbName, "admin", "admin")) {
+      storage = (OAbstractPaginatedStorage) ((ODatabaseInternal) databaseDocumentTx).getStorage();
+    }
+    tree = new NormalizedKeyBTreeValue<>("normalizedKeyBTree", ".nkbt", storage);
+    atomicOperationsManager = storage.getAtomicOperationsManager();
+    atomicOperationsManager.executeInsideAtomicOperation(
+        null,
+        atomicOperation ->
+            tree.create(
+                atomicOperation, OUTF8Serializer.INSTANCE, new OType[] {OType.STRING}, 1, null));
+  }
+
+  @After
+  public void afterMethod() {
+    orientDB.drop(dbName);
+    orientDB.close();
+  }
+
+  @Test
+  public void testKeyPutWithRollback() throws Exception {
+    final NavigableMap<String, ORID> expected = new TreeMap<>();
+    final Random random = new Random(42);
+    final int keysCount = 100_000;
+
+    final int rollbackInterval = 100;
+    for (int i = 0; i < keysCount / rollbackInterval; i++) {
+      final List<String> keys = new ArrayList<>(rollbackInterval);
+      for (int j = 0; j < rollbackInterval; j++) {
+        keys.add(randomKey(random));
+      }
+
+      for (int n = 0; n < 2; n++) {
+        final int rollbackCounter = n;
+        try {
+          atomicOperationsManager.executeInsideAtomicOperation(
+              null,
+              atomicOperation -> {
+                for (String key : keys) {
+                  final ORID value = new ORecordId(key.length(), key.hashCode() & 0xFFFF);
+                  tree.put(atomicOperation, key, value);
+                  if (rollbackCounter == 1) {
+                    expected.put(key, value);
+                  }
+                }
+
+                if (rollbackCounter == 0) {
+                  throw new RollbackException();
+                }
+              });
+        } catch (RollbackException ignore) {
+        }
+      }
+    }
+
+    Assert.assertEquals(expected.size(), tree.size());
+    Assert.assertEquals(expected.firstKey(), tree.firstKey());
+    Assert.assertEquals(expected.lastKey(), tree.lastKey());
+
+    for (Map.Entry<String, ORID> entry : expected.entrySet()) {
+      Assert.assertEquals(entry.getKey(), entry.getValue(), tree.get(entry.getKey()));
+    }
+
+    assertEntries(expected, tree.allEntries());
+  }
+
+  @Test
+  public void testKeyDelete() throws Exception {
+    final NavigableMap<String, ORID> expected = new TreeMap<>();
+    final Random random = new Random(7);
+
+    atomicOperationsManager.executeInsideAtomicOperation(
+        null,
+        atomicOperation -> {
+          for (int i = 0; i < 50_000; i++) {
+            final String key = randomKey(random);
+            final ORID value = new ORecordId(1, i);
+            tree.put(atomicOperation, key, value);
+            expected.put(key, value);
+          }
+        });
+
+    final Iterator<Map.Entry<String, ORID>> iterator = expected.entrySet().iterator();
+    atomicOperationsManager.executeInsideAtomicOperation(
+        null,
+        atomicOperation -> {
+          int counter = 0;
+          while (iterator.hasNext()) {
+            final Map.Entry<String, ORID> entry = iterator.next();
+            if (counter++ % 3 == 0) {
+              Assert.assertEquals(entry.getValue(), tree.remove(atomicOperation, entry.getKey()));
+              iterator.remove();
+            }
+          }
+        });
+
+    Assert.assertEquals(expected.size(), tree.size());
+    assertEntries(expected, tree.allEntries());
+    assertEntries(
+        expected.descendingMap(), tree.iterateEntriesMinor(expected.lastKey(), true, false));
+  }
+
+  @Test
+  public void testIterateEntries() throws Exception {
+    final NavigableMap<String, ORID> expected = new TreeMap<>();
+    final Random random = new Random(13);
+
+    atomicOperationsManager.executeInsideAtomicOperation(
+        null,
+        atomicOperation -> {
+          for (int i = 0; i < 20_000; i++) {
+            final String key = randomKey(random);
+            final ORID value = new ORecordId(2, i);
+            tree.put(atomicOperation, key, value);
+            expected.put(key, value);
+          }
+        });
+
+    for (int i = 0; i < 100; i++) {
+      String from = randomKey(random);
+      String to = randomKey(random);
+      if (from.compareTo(to) > 0) {
+        final String key = from;
+        from = to;
+        to = key;
+      }
+
+      final boolean fromInclusive = random.nextBoolean();
+      final boolean toInclusive = random.nextBoolean();
+      final boolean ascOrder = random.nextBoolean();
+
+      final NavigableMap<String, ORID> between =
+          expected.subMap(from, fromInclusive, to, toInclusive);
+      assertEntries(
+          ascOrder ? between : between.descendingMap(),
+          tree.iterateEntriesBetween(from, fromInclusive, to, toInclusive, ascOrder));
+
+      final NavigableMap<String, ORID> major = expected.tailMap(from, fromInclusive);
+      assertEntries(
+          ascOrder ? major : major.descendingMap(),
+          tree.iterateEntriesMajor(from, fromInclusive, ascOrder));
+
+      final NavigableMap<String, ORID> minor = expected.headMap(to, toInclusive);
+      assertEntries(
+          ascOrder ? minor : minor.descendingMap(),
+          tree.iterateEntriesMinor(to, toInclusive, ascOrder));
+    }
+  }
+
+  @Test
+  public void testNullKey() throws Exception {
+    atomicOperationsManager.executeInsideAtomicOperation(
+        null,
+        atomicOperation -> {
+          tree.put(atomicOperation, "", new ORecordId(3, 1));
+          tree.put(atomicOperation, null, new ORecordId(3, 2));
+        });
+
+    Assert.assertEquals(2, tree.size());
+    Assert.assertEquals(new ORecordId(3, 1), tree.get(""));
+    Assert.assertEquals(new ORecordId(3, 2), tree.get(null));
+    Assert.assertEquals("", tree.firstKey());
+    Assert.assertEquals(1, tree.keyStream().count());
+
+    atomicOperationsManager.executeInsideAtomicOperation(
+        null,
+        atomicOperation ->
+            Assert.assertEquals(new ORecordId(3, 2), tree.remove(atomicOperation, null)));
+    Assert.assertNull(tree.get(null));
+    Assert.assertEquals(1, tree.size());
+  }
+
+  @Test
+  public void testPartialCompositeKey() throws Exception {
+    final NormalizedKeyBTreeValue<OCompositeKey> compositeTree =
+        new NormalizedKeyBTreeValue<>("compositeKeyBTree", ".nkbt", storage);
+    final OType[] keyTypes = {OType.INTEGER, OType.STRING};
+    atomicOperationsManager.executeInsideAtomicOperation(
+        null,
+        atomicOperation -> {
+          compositeTree.create(
+              atomicOperation, OCompositeKeySerializer.INSTANCE, keyTypes, 2, null);
+          for (int i = -50; i < 50; i++) {
+            for (int j = 0; j < 10; j++) {
+              compositeTree.put(
+                  atomicOperation, new OCompositeKey(i, "key" + j), new ORecordId(4, i * 10 + j));
+            }
+          }
+        });
+
+    Assert.assertEquals(new ORecordId(4, -495), compositeTree.get(new OCompositeKey(-50, "key5")));
+    Assert.assertEquals(new OCompositeKey(-50, "key0"), compositeTree.firstKey());
+    Assert.assertEquals(new OCompositeKey(49, "key9"), compositeTree.lastKey());
+
+    try (Stream<ORawPair<OCompositeKey, ORID>> stream =
+        compositeTree.iterateEntriesBetween(
+            new OCompositeKey(-1), true, new OCompositeKey(1), true, true)) {
+      final List<OCompositeKey> keys =
+          stream.map(entry -> entry.first).collect(Collectors.toList());
+      Assert.assertEquals(30, keys.size());
+      Assert.assertEquals(new OCompositeKey(-1, "key0"), keys.get(0));
+      Assert.assertEquals(new OCompositeKey(1, "key9"), keys.get(29));
+    }
+
+    try (Stream<ORawPair<OCompositeKey, ORID>> stream =
+        compositeTree.iterateEntriesMajor(new OCompositeKey(47), false, false)) {
+      final List<OCompositeKey> keys =
+          stream.map(entry -> entry.first).collect(Collectors.toList());
+      Assert.assertEquals(20, keys.size());
+      Assert.assertEquals(new OCompositeKey(49, "key9"), keys.get(0));
+      Assert.assertEquals(new OCompositeKey(48, "key0"), keys.get(19));
+    }
+  }
+
+  private static String randomKey(final Random random) {
+    final int length = random.nextInt(40);
+    final StringBuilder builder = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      // mostly ASCII keys with long common prefixes and some characters outside of it
+      if (random.nextInt(20) == 0) {
+        builder.append((char) random.nextInt(Character.MIN_SURROGATE));
+      } else {
+        builder.append((char) ('a' + random.nextInt(3)));
+      }
+    }
+    return builder.toString();
+  }
+
+  private static void assertEntries(
+      final NavigableMap<String, ORID> expected, final Stream<ORawPair<String, ORID>> stream) {
+    try (Stream<ORawPair<String, ORID>> entries = stream) {
+      final Iterator<Map.Entry<String, ORID>> expectedIterator = expected.entrySet().iterator();
+      entries.forEach(
+          entry -> {
+            Assert.assertTrue(expectedIterator.hasNext());
+            final Map.Entry<String, ORID> expectedEntry = expectedIterator.next();
+            Assert.assertEquals(expectedEntry.getKey(), entry.first);
+            Assert.assertEquals(expectedEntry.getValue(), entry.second);
+          });
+      Assert.assertFalse(expectedIterator.hasNext());
+    }
+  }
+
+  static final class RollbackException extends OException implements OHighLevelException {
+
+    public RollbackException() {
+      this("");
+    }
+
+    public RollbackException(String message) {
+      super(message);
+    }
+
+    @SuppressWarnings("unused")
+    public RollbackException(RollbackException exception) {
+      super(exception);
+    }
+  }
+}
@@ -46,7 +46,7 @@ public class KeyNormalizationTest {
   @Test
   public void normalizeCompositeNull() {
     final byte[] bytes = getNormalizedKeySingle(null, null);
-    Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[0]);
+    Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[0]);
   }
 
   @Test
@@ -61,8 +61,8 @@ public class KeyNormalizationTest {
     types[1] = OType.INTEGER;
 
     final byte[] bytes = keyNormalizer.normalize(compositeKey, types, Collator.NO_DECOMPOSITION);
-    Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[0]);
-    Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[1]);
+    Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[0]);
+    Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[1]);
     Assert.assertEquals((new byte[] {(byte) 0x80})[0], bytes[2]);
     Assert.assertEquals((new byte[] {(byte) 0x5})[0], bytes[5]);
   }
@@ -70,21 +70,21 @@ public class KeyNormalizationTest {
   @Test
   public void normalizeCompositeInt() {
     final byte[] bytes = getNormalizedKeySingle(5, OType.INTEGER);
-    Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[0]);
+    Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[0]);
     Assert.assertEquals((new byte[] {(byte) 0x5})[0], bytes[4]);
   }
 
   @Test
   public void normalizeCompositeIntZero() {
     final byte[] bytes = getNormalizedKeySingle(0, OType.INTEGER);
-    Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[0]);
+    Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[0]);
     Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[4]);
   }
 
   @Test
   public void normalizeCompositeNegInt() {
     final byte[] bytes = getNormalizedKeySingle(-62, OType.INTEGER);
-    Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[0]);
+    Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[0]);
     // -62 signed := 4294967234 unsigned := FFFFFFC2 hex
     Assert.assertEquals((new byte[] {(byte) 0x7f})[0], bytes[1]);
     Assert.assertEquals((new byte[] {(byte) 0xff})[0], bytes[2]);
@@ -118,7 +118,7 @@ public class KeyNormalizationTest {
   @Test
   public void normalizeCompositeDouble() {
     final byte[] bytes = getNormalizedKeySingle(1.5d, OType.DOUBLE);
-    Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[0]);
+    Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[0]);
     Assert.assertEquals((new byte[] {(byte) 0xbf})[0], bytes[1]);
     Assert.assertEquals((new byte[] {(byte) 0xf8})[0], bytes[2]);
   }
@@ -135,7 +135,7 @@ public class KeyNormalizationTest {
   @Test
   public void normalizeCompositeFloat() {
     final byte[] bytes = getNormalizedKeySingle(1.5f, OType.FLOAT);
-    Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[0]);
+    Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[0]);
     Assert.assertEquals((new byte[] {(byte) 0xbf})[0], bytes[1]);
     Assert.assertEquals((new byte[] {(byte) 0xc0})[0], bytes[2]);
   }
@@ -217,7 +217,7 @@ public class KeyNormalizationTest {
   @Test
   public void normalizeCompositeBigDecimal() {
     final byte[] bytes = getNormalizedKeySingle(new BigDecimal("3.14159265359"), OType.DECIMAL);
-    Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[0]);
+    Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[0]);
     Assert.assertEquals((new byte[] {(byte) 0xc0})[0], bytes[1]);
     Assert.assertEquals((new byte[] {(byte) 0x9})[0], bytes[2]);
     Assert.assertEquals((new byte[] {(byte) 0x21})[0], bytes[3]);
@@ -231,15 +231,15 @@ public class KeyNormalizationTest {
   @Test
   public void normalizeCompositeNegBigDecimal() {
     final byte[] bytes = getNormalizedKeySingle(new BigDecimal("-3.14159265359"), OType.DECIMAL);
-    Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[0]);
-    Assert.assertEquals((new byte[] {(byte) 0x40})[0], bytes[1]);
-    Assert.assertEquals((new byte[] {(byte) 0x9})[0], bytes[2]);
-    Assert.assertEquals((new byte[] {(byte) 0x21})[0], bytes[3]);
-    Assert.assertEquals((new byte[] {(byte) 0xfb})[0], bytes[4]);
-    Assert.assertEquals((new byte[] {(byte) 0x54})[0], bytes[5]);
-    Assert.assertEquals((new byte[] {(byte) 0x44})[0], bytes[6]);
-    Assert.assertEquals((new byte[] {(byte) 0x2e})[0], bytes[7]);
-    Assert.assertEquals((new byte[] {(byte) 0xea})[0], bytes[8]);
+    Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[0]);
+    Assert.assertEquals((new byte[] {(byte) 0x3f})[0], bytes[1]);
+    Assert.assertEquals((new byte[] {(byte) 0xf6})[0], bytes[2]);
+    Assert.assertEquals((new byte[] {(byte) 0xde})[0], bytes[3]);
+    Assert.assertEquals((new byte[] {(byte) 0x4})[0], bytes[4]);
+    Assert.assertEquals((new byte[] {(byte) 0xab})[0], bytes[5]);
+    Assert.assertEquals((new byte[] {(byte) 0xbb})[0], bytes[6]);
+    Assert.assertEquals((new byte[] {(byte) 0xd1})[0], bytes[7]);
+    Assert.assertEquals((new byte[] {(byte) 0x15})[0], bytes[8]);
   }
 
   @Test
@@ -261,12 +261,13 @@ public class KeyNormalizationTest {
   public void normalizeCompositeBoolean() {
     final byte[] bytes = getNormalizedKeySingle(true, OType.BOOLEAN);
     Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[0]);
+    Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[1]);
   }
 
   @Test
   public void normalizeCompositeLong() {
     final byte[] bytes = getNormalizedKeySingle(5L, OType.LONG);
-    Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[0]);
+    Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[0]);
     Assert.assertEquals((new byte[] {(byte) 0x80})[0], bytes[1]);
     Assert.assertEquals((new byte[] {(byte) 0x5})[0], bytes[8]);
   }
@@ -274,7 +275,7 @@ public class KeyNormalizationTest {
   @Test
   public void normalizeCompositeNegLong() {
     final byte[] bytes = getNormalizedKeySingle(-62L, OType.LONG);
-    Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[0]);
+    Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[0]);
     Assert.assertEquals((new byte[] {(byte) 0x7f})[0], bytes[1]);
     Assert.assertEquals((new byte[] {(byte) 0xff})[0], bytes[2]);
     Assert.assertEquals((new byte[] {(byte) 0xff})[0], bytes[3]);
@@ -305,14 +306,14 @@ public class KeyNormalizationTest {
   @Test
   public void normalizeCompositeByte() {
     final byte[] bytes = getNormalizedKeySingle((byte) 3, OType.BYTE);
-    Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[0]);
+    Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[0]);
     Assert.assertEquals((new byte[] {(byte) 0x83})[0], bytes[1]);
   }
 
   @Test
   public void normalizeCompositeNegByte() {
     final byte[] bytes = getNormalizedKeySingle((byte) -62, OType.BYTE);
-    Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[0]);
+    Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[0]);
     Assert.assertEquals((new byte[] {(byte) 0x42})[0], bytes[1]);
   }
 
@@ -328,7 +329,7 @@ public class KeyNormalizationTest {
   @Test
   public void normalizeCompositeShort() {
     final byte[] bytes = getNormalizedKeySingle((short) 3, OType.SHORT);
-    Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[0]);
+    Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[0]);
     Assert.assertEquals((new byte[] {(byte) 0x80})[0], bytes[1]);
     Assert.assertEquals((new byte[] {(byte) 0x3})[0], bytes[2]);
   }
@@ -336,7 +337,7 @@ public class KeyNormalizationTest {
   @Test
   public void normalizeCompositeNegShort() {
     final byte[] bytes = getNormalizedKeySingle((short) -62, OType.SHORT);
-    Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[0]);
+    Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[0]);
     Assert.assertEquals((new byte[] {(byte) 0x7f})[0], bytes[1]);
     Assert.assertEquals((new byte[] {(byte) 0xc2})[0], bytes[2]);
   }
@@ -359,7 +360,7 @@ public class KeyNormalizationTest {
         types,
         getCompositeKey("abc"),
         (byte[] bytes) -> {
-          Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[0]);
+          Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[0]);
           Assert.assertEquals((new byte[] {(byte) 0x2a})[0], bytes[1]);
           Assert.assertEquals((new byte[] {(byte) 0x2c})[0], bytes[2]);
           Assert.assertEquals((new byte[] {(byte) 0x2e})[0], bytes[3]);
@@ -374,7 +375,7 @@ public class KeyNormalizationTest {
         types,
         getCompositeKey("Abc"),
         (byte[] bytes) -> {
-          Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[0]);
+          Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[0]);
           Assert.assertEquals((new byte[] {(byte) 0x2a})[0], bytes[1]);
           Assert.assertEquals((new byte[] {(byte) 0x2c})[0], bytes[2]);
           Assert.assertEquals((new byte[] {(byte) 0x2e})[0], bytes[3]);
@@ -390,7 +391,7 @@ public class KeyNormalizationTest {
         types,
         getCompositeKey("abC"),
         (byte[] bytes) -> {
-          Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[0]);
+          Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[0]);
           Assert.assertEquals((new byte[] {(byte) 0x2a})[0], bytes[1]);
           Assert.assertEquals((new byte[] {(byte) 0x2c})[0], bytes[2]);
           Assert.assertEquals((new byte[] {(byte) 0x2e})[0], bytes[3]);
@@ -441,7 +442,7 @@ public class KeyNormalizationTest {
         types,
         getCompositeKey("ü"),
         (byte[] bytes) -> {
-          Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[0]);
+          Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[0]);
           Assert.assertEquals((new byte[] {(byte) 0x52})[0], bytes[1]);
           Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[2]);
           Assert.assertEquals((new byte[] {(byte) 0x45})[0], bytes[3]);
@@ -455,7 +456,7 @@ public class KeyNormalizationTest {
         types,
         getCompositeKey("u"),
         (byte[] bytes) -> {
-          Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[0]);
+          Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[0]);
           Assert.assertEquals((new byte[] {(byte) 0x52})[0], bytes[1]);
           Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[2]);
           Assert.assertEquals((new byte[] {(byte) 0x5})[0], bytes[3]);
@@ -483,11 +484,11 @@ public class KeyNormalizationTest {
         compositeKey,
         (byte[] bytes) -> {
           // check 'not null' and beginning of first entry
-          Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[0]);
+          Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[0]);
           Assert.assertEquals((new byte[] {(byte) 0x2a})[0], bytes[1]);
 
           // finally assert 'not null' for second entry ..
-          Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[10]);
+          Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[10]);
           Assert.assertEquals((new byte[] {(byte) 0x50})[0], bytes[11]);
         });
   }
@@ -499,8 +500,8 @@ public class KeyNormalizationTest {
     final byte[] bytes = getNormalizedKeySingle(key, OType.DATE);
 
     // 1383606000000 := Tue Nov 05 2013 00:00:00
-    Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[0]);
-    Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[1]);
+    Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[0]);
+    Assert.assertEquals((new byte[] {(byte) 0x80})[0], bytes[1]);
     Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[2]);
     Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[3]);
     Assert.assertEquals((new byte[] {(byte) 0x42})[0], bytes[4]);
@@ -547,8 +548,8 @@ public class KeyNormalizationTest {
     print(bytes);
 
     // 1383616983000 := Tue Nov 05 2013 03:03:03
-    Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[0]);
-    Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[1]);
+    Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[0]);
+    Assert.assertEquals((new byte[] {(byte) 0x80})[0], bytes[1]);
     Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[2]);
     Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[3]);
     Assert.assertEquals((new byte[] {(byte) 0x42})[0], bytes[4]);
@@ -596,9 +597,11 @@ public class KeyNormalizationTest {
     types[0] = OType.BINARY;
 
     final byte[] bytes = keyNormalizer.normalize(compositeKey, types, Collator.NO_DECOMPOSITION);
-    Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[0]);
-    Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[1]);
-    Assert.assertEquals((new byte[] {(byte) 0x6})[0], bytes[6]);
+    Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[0]);
+    Assert.assertEquals((new byte[] {(byte) 0x0})[0], bytes[1]);
+    Assert.assertEquals((new byte[] {(byte) 0x6})[0], bytes[4]);
+    Assert.assertEquals((new byte[] {(byte) 0x1})[0], bytes[5]);
+    Assert.assertEquals((new byte[] {(byte) 0x6})[0], bytes[10]);
   }
 
   @Test
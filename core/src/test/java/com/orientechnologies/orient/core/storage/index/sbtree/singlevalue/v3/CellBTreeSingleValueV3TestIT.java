@@ -13,16 +13,24 @@ import com.orientechnologies.orient.core.db.OrientDB;
 import com.orientechnologies.orient.core.db.OrientDBConfig;
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.index.engine.OIndexBulkLoader;
 import com.orientechnologies.orient.core.storage.impl.local.OAbstractPaginatedStorage;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.atomicoperations.OAtomicOperationsManager;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.NavigableSet;
 import java.util.Random;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 import org.junit.After;
 import org.junit.Assert;
@@ -31,6 +39,7 @@ import org.junit.Test;
 
 public class CellBTreeSingleValueV3TestIT {
   private OAtomicOperationsManager atomicOperationsManager;
+  private OAbstractPaginatedStorage storage;
   private CellBTreeSingleValueV3<String> singleValueTree;
   private OrientDB orientDB;
 
@@ -54,7 +63,6 @@ public class CellBTreeSingleValueV3TestIT {
     orientDB = new OrientDB("plocal:" + buildDirectory, config);
     orientDB.create(dbName, ODatabaseType.PLOCAL);
 
-    OAbstractPaginatedStorage storage;
     try (ODatabaseSession databaseDocumentTx = orientDB.open(dbName, "admin", "admin")) {
       storage = (OAbstractPaginatedStorage) ((ODatabaseInternal) databaseDocumentTx).getStorage();
     }
@@ -694,6 +702,276 @@ public class CellBTreeSingleValueV3TestIT {
     Assert.assertEquals(singleValueTree.lastKey(), keyValues.lastKey());
   }
 
+  @Test
+  public void testBulkLoad() throws Exception {
+    final NavigableMap<String, ORID> keyValues = new TreeMap<>();
+    final Random random = new Random(42);
+
+    while (keyValues.size() < 500_000) {
+      final int val = random.nextInt(Integer.MAX_VALUE);
+      keyValues.put(Integer.toString(val), new ORecordId(val % 32000, val));
+    }
+
+    // entries put before completion of the load should win over the loaded ones
+    final Map<String, ORID> putEntries = new TreeMap<>();
+    final OIndexBulkLoader<String> bulkLoader =
+        atomicOperationsManager.calculateInsideAtomicOperation(
+            null, singleValueTree::createBulkLoader);
+    final Iterator<ORawPair<String, ORID>> entries =
+        Stream.concat(
+                Stream.of(new ORawPair<String, ORID>(null, new ORecordId(1, 1))),
+                keyValues.entrySet().stream()
+                    .map(entry -> new ORawPair<>(entry.getKey(), entry.getValue())))
+            .iterator();
+
+    boolean hasNext = true;
+    while (hasNext) {
+      hasNext =
+          atomicOperationsManager.calculateInsideAtomicOperation(
+              null, atomicOperation -> bulkLoader.load(atomicOperation, entries));
+
+      final String key = keyValues.lastKey() + putEntries.size();
+      putEntries.put(key, new ORecordId(2, putEntries.size()));
+      atomicOperationsManager.executeInsideAtomicOperation(
+          null, atomicOperation -> singleValueTree.put(atomicOperation, key, putEntries.get(key)));
+    }
+    atomicOperationsManager.executeInsideAtomicOperation(null, bulkLoader::complete);
+    bulkLoader.close();
+
+    keyValues.putAll(putEntries);
+    Assert.assertEquals(keyValues.size() + 1, singleValueTree.size());
+    Assert.assertEquals(new ORecordId(1, 1), singleValueTree.get(null));
+    for (final Map.Entry<String, ORID> entry : keyValues.entrySet()) {
+      Assert.assertEquals(entry.getValue(), singleValueTree.get(entry.getKey()));
+    }
+
+    Assert.assertEquals(keyValues.firstKey(), singleValueTree.firstKey());
+    Assert.assertEquals(keyValues.lastKey(), singleValueTree.lastKey());
+    assertIterateMajorEntries(keyValues, random, true, true);
+    assertIterateMinorEntries(keyValues, random, false, false);
+
+    final String key = Integer.toString(random.nextInt(Integer.MAX_VALUE)) + "a";
+    atomicOperationsManager.executeInsideAtomicOperation(
+        null, atomicOperation -> singleValueTree.put(atomicOperation, key, new ORecordId(3, 3)));
+    Assert.assertEquals(new ORecordId(3, 3), singleValueTree.get(key));
+  }
+
+
+  @Test
+  public void testBulkLoadReusesPagesOfClearedTree() throws Exception {
+    final NavigableMap<String, ORID> keyValues = new TreeMap<>();
+    for (int i = 0; i < 100_000; i++) {
+      keyValues.put(Integer.toString(i), new ORecordId(i % 32000, i));
+    }
+
+    final long fileId = storage.getWriteCache().fileIdByName(singleValueTree.getFullName());
+
+    bulkLoad(keyValues);
+    final long filledUpTo = storage.getWriteCache().getFilledUpTo(fileId);
+
+    // the index is cleared and loaded again twice, as it is done on rebuild
+    for (int n = 0; n < 2; n++) {
+      atomicOperationsManager.executeInsideAtomicOperation(
+          null,
+          atomicOperation -> {
+            for (final String key : keyValues.keySet()) {
+              singleValueTree.remove(atomicOperation, key);
+            }
+          });
+      Assert.assertEquals(0, singleValueTree.size());
+
+      bulkLoad(keyValues);
+
+      Assert.assertEquals(filledUpTo, storage.getWriteCache().getFilledUpTo(fileId));
+      Assert.assertEquals(keyValues.size(), singleValueTree.size());
+      for (final Map.Entry<String, ORID> entry : keyValues.entrySet()) {
+        Assert.assertEquals(entry.getValue(), singleValueTree.get(entry.getKey()));
+      }
+    }
+  }
+
+  private void bulkLoad(final NavigableMap<String, ORID> keyValues) throws Exception {
+    final OIndexBulkLoader<String> bulkLoader =
+        atomicOperationsManager.calculateInsideAtomicOperation(
+            null, singleValueTree::createBulkLoader);
+    final Iterator<ORawPair<String, ORID>> entries =
+        keyValues.entrySet().stream()
+            .map(entry -> new ORawPair<>(entry.getKey(), entry.getValue()))
+            .iterator();
+
+    boolean hasNext = true;
+    while (hasNext) {
+      hasNext =
+          atomicOperationsManager.calculateInsideAtomicOperation(
+              null, atomicOperation -> bulkLoader.load(atomicOperation, entries));
+    }
+    atomicOperationsManager.executeInsideAtomicOperation(null, bulkLoader::complete);
+    bulkLoader.close();
+  }
+
+  @Test
+  public void testBulkLoadReplaysConcurrentChanges() throws Exception {
+    final NavigableMap<String, ORID> keyValues = new TreeMap<>();
+    for (int i = 0; i < 100_000; i++) {
+      keyValues.put(Integer.toString(i), new ORecordId(i % 32000, i));
+    }
+
+    final OIndexBulkLoader<String> bulkLoader =
+        atomicOperationsManager.calculateInsideAtomicOperation(
+            null, singleValueTree::createBulkLoader);
+    // only one bulk load at a time
+    Assert.assertNull(
+        atomicOperationsManager.calculateInsideAtomicOperation(
+            null, singleValueTree::createBulkLoader));
+
+    // changes done while the entries are collected and loaded
+    atomicOperationsManager.executeInsideAtomicOperation(
+        null,
+        atomicOperation -> {
+          singleValueTree.remove(atomicOperation, "10");
+          singleValueTree.remove(atomicOperation, null);
+          singleValueTree.put(atomicOperation, "20", new ORecordId(2, 20));
+          singleValueTree.put(atomicOperation, "new", new ORecordId(2, 1));
+          singleValueTree.validatedPut(
+              atomicOperation, "30", new ORecordId(30 % 32000, 30), (k, ov, v) -> v);
+        });
+    try {
+      atomicOperationsManager.executeInsideAtomicOperation(
+          null,
+          atomicOperation -> {
+            singleValueTree.remove(atomicOperation, "40");
+            singleValueTree.put(atomicOperation, "rolledBack", new ORecordId(2, 2));
+            throw new RollbackException();
+          });
+      Assert.fail();
+    } catch (RollbackException ignore) {
+    }
+
+    final Iterator<ORawPair<String, ORID>> entries =
+        Stream.concat(
+                Stream.of(new ORawPair<String, ORID>(null, new ORecordId(1, 1))),
+                keyValues.entrySet().stream()
+                    .map(entry -> new ORawPair<>(entry.getKey(), entry.getValue())))
+            .iterator();
+    boolean hasNext = true;
+    while (hasNext) {
+      hasNext =
+          atomicOperationsManager.calculateInsideAtomicOperation(
+              null, atomicOperation -> bulkLoader.load(atomicOperation, entries));
+    }
+    atomicOperationsManager.executeInsideAtomicOperation(null, bulkLoader::complete);
+    bulkLoader.close();
+
+    keyValues.remove("10");
+    keyValues.put("20", new ORecordId(2, 20));
+    keyValues.put("new", new ORecordId(2, 1));
+
+    Assert.assertNull(singleValueTree.get(null));
+    Assert.assertNull(singleValueTree.get("rolledBack"));
+    Assert.assertEquals(keyValues.size(), singleValueTree.size());
+    for (final Map.Entry<String, ORID> entry : keyValues.entrySet()) {
+      Assert.assertEquals(entry.getValue(), singleValueTree.get(entry.getKey()));
+    }
+
+    // changes done after completion are not recorded any more
+    final OIndexBulkLoader<String> nextLoader =
+        atomicOperationsManager.calculateInsideAtomicOperation(
+            null, singleValueTree::createBulkLoader);
+    Assert.assertNotNull(nextLoader);
+    nextLoader.close();
+  }
+
+  @Test
+  public void testBulkLoadValidatesConcurrentPuts() throws Exception {
+    final OIndexBulkLoader<String> bulkLoader =
+        atomicOperationsManager.calculateInsideAtomicOperation(
+            null, singleValueTree::createBulkLoader);
+
+    // key is absent in the tree yet, so the validator accepts the put
+    atomicOperationsManager.executeInsideAtomicOperation(
+        null,
+        atomicOperation ->
+            singleValueTree.validatedPut(
+                atomicOperation,
+                "key",
+                new ORecordId(2, 2),
+                (k, ov, v) -> {
+                  if (ov != null && !ov.equals(v)) {
+                    throw new RollbackException("duplicate key " + k);
+                  }
+                  return v;
+                }));
+
+    final Iterator<ORawPair<String, ORID>> entries =
+        Stream.of(new ORawPair<String, ORID>("key", new ORecordId(1, 1))).iterator();
+    atomicOperationsManager.calculateInsideAtomicOperation(
+        null, atomicOperation -> bulkLoader.load(atomicOperation, entries));
+    try {
+      atomicOperationsManager.executeInsideAtomicOperation(null, bulkLoader::complete);
+      Assert.fail();
+    } catch (RollbackException e) {
+      Assert.assertTrue(e.getMessage().contains("duplicate key"));
+    } finally {
+      bulkLoader.close();
+    }
+
+    // failed completion does not change the tree
+    Assert.assertEquals(new ORecordId(2, 2), singleValueTree.get("key"));
+  }
+  @Test
+  public void testGetDuringPut() throws Exception {
+    final int keysCount = 200_000;
+    final AtomicInteger addedKeys = new AtomicInteger();
+    final AtomicBoolean stop = new AtomicBoolean();
+
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<Void>> readers = new ArrayList<>();
+      for (int n = 0; n < 4; n++) {
+        readers.add(
+            executor.submit(
+                () -> {
+                  final Random random = new Random();
+                  while (!stop.get()) {
+                    final int added = addedKeys.get();
+                    if (added == 0) {
+                      continue;
+                    }
+
+                    // keys which were already added should be found whatever is changed meanwhile
+                    final int key = random.nextInt(added);
+                    Assert.assertEquals(
+                        new ORecordId(key % 32000, key), singleValueTree.get(keyByIndex(key)));
+                  }
+                  return null;
+                }));
+      }
+
+      for (int i = 0; i < keysCount; i++) {
+        final int key = i;
+        atomicOperationsManager.executeInsideAtomicOperation(
+            null,
+            atomicOperation ->
+                singleValueTree.put(
+                    atomicOperation, keyByIndex(key), new ORecordId(key % 32000, key)));
+        addedKeys.incrementAndGet();
+      }
+
+      stop.set(true);
+      for (final Future<Void> reader : readers) {
+        reader.get();
+      }
+    } finally {
+      stop.set(true);
+      executor.shutdown();
+    }
+  }
+
+  private static String keyByIndex(final int index) {
+    // reversed digits spread subsequent keys over the whole tree
+    return new StringBuilder(Integer.toString(index)).reverse().toString() + "k";
+  }
+
   private void assertIterateMajorEntries(
       NavigableMap<String, ORID> keyValues,
       Random random,
@@ -3,7 +3,11 @@ package com.orientechnologies.orient.core.tx;
 import com.orientechnologies.orient.core.OCreateDatabaseUtil;
 import com.orientechnologies.orient.core.db.OrientDB;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.record.OVertex;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -36,6 +40,43 @@ public class TransactionTest {
     Assert.assertEquals("Foo", v.getProperty("name"));
   }
 
+  @Test
+  public void testCommitLinksToRecordsCreatedInTransaction() {
+    db.begin();
+    final ODocument persistent = new ODocument();
+    persistent.field("name", "persistent");
+    db.save(persistent, db.getClusterNameById(db.getDefaultClusterId()));
+    db.commit();
+
+    db.begin();
+    final ODocument created = new ODocument();
+    created.field("name", "created");
+    created.field("link", persistent);
+    db.save(created, db.getClusterNameById(db.getDefaultClusterId()));
+
+    final ODocument linking = new ODocument();
+    linking.field("name", "linking");
+    linking.field("link", created);
+    linking.field("links", Arrays.asList(persistent, created));
+    db.save(linking, db.getClusterNameById(db.getDefaultClusterId()));
+
+    persistent.field("name", "updated");
+    db.save(persistent);
+    db.commit();
+
+    final ODocument loadedLinking = db.load(linking.getIdentity());
+    Assert.assertEquals(created.getIdentity(), loadedLinking.<OIdentifiable>field("link"));
+    final List<OIdentifiable> links = loadedLinking.field("links");
+    Assert.assertEquals(persistent.getIdentity(), links.get(0).getIdentity());
+    Assert.assertEquals(created.getIdentity(), links.get(1).getIdentity());
+
+    final ODocument loadedCreated = db.load(created.getIdentity());
+    Assert.assertEquals(persistent.getIdentity(), loadedCreated.<OIdentifiable>field("link"));
+
+    final ODocument loadedPersistent = db.load(persistent.getIdentity());
+    Assert.assertEquals("updated", loadedPersistent.field("name"));
+  }
+
   @After
   public void after() {
     db.close();
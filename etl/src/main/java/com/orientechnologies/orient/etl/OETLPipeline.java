@@ -27,6 +27,8 @@ import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
 import com.orientechnologies.orient.etl.context.OETLContextWrapper;
 import com.orientechnologies.orient.etl.loader.OETLLoader;
 import com.orientechnologies.orient.etl.transformer.OETLTransformer;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.logging.Level;
 
@@ -81,32 +83,38 @@ public class OETLPipeline {
     return context;
   }
 
-  protected Object execute(final OETLExtractedItem source) {
+  public int getBatchCommitSize() {
+    return Math.max(1, loader.getBatchCommitSize());
+  }
+
+  /**
+   * Transforms and loads a batch of extracted items in the same session and commits them together.
+   * If the commit needs to be retried, the whole batch is executed again. If an item of the batch
+   * fails, the batch is rolled back and, unless the pipeline halts on errors, its items are executed
+   * again one by one, so the partial changes of the failed item are not committed with the others.
+   */
+  protected void execute(final List<OETLExtractedItem> batch) {
+    final List<Object> inputs = parse(batch);
+    boolean failed = false;
+
     int retry = 0;
     do {
       ODatabaseDocument db = pool.acquire();
       db.activateOnCurrentThread();
       try {
-        Object current = source.payload;
-
-        context.setVariable("extractedNum", source.num);
-        context.setVariable("extractedPayload", source.payload);
-
         for (OETLTransformer t : transformers) {
-          current = t.transform(db, current);
-          if (current == null) {
-            OETLContextWrapper.getInstance()
-                .getMessageHandler()
-                .warn(this, "Transformer [%s] returned null, skip rest of pipeline execution", t);
-          }
+          prefetch(db, t, inputs);
         }
-        if (current != null) {
-          // LOAD
-          loader.load(db, current, context);
+
+        for (int i = 0; i < batch.size(); i++) {
+          final Object input = inputs.get(i);
+          if (input != null) {
+            execute(db, batch.get(i), input);
+          }
         }
 
         db.commit();
-        return current;
+        return;
       } catch (ONeedRetryException e) {
         loader.rollback(db);
         retry++;
@@ -129,25 +137,97 @@ public class OETLPipeline {
         throw e;
 
       } catch (Exception e) {
-        OETLContextWrapper.getInstance()
-            .getMessageHandler()
-            .error(this, "Error in Pipeline execution:", e);
-
-        processor.getStats().incrementErrors();
+        loader.rollback(db);
 
-        if (!haltOnError) {
-          return null;
+        if (haltOnError || batch.size() == 1) {
+          onError(e);
+          return;
         }
 
-        loader.rollback(db);
-        throw OException.wrapException(new OETLProcessHaltedException("Halt"), e);
+        // THE ERROR IS COUNTED WHEN THE FAILED ITEM IS EXECUTED ALONE
+        OETLContextWrapper.getInstance()
+            .getMessageHandler()
+            .warn(
+                this,
+                "Error in pipeline execution, the batch is executed item by item (exception=%s)",
+                e);
+        failed = true;
+        break;
 
       } finally {
         db.close();
       }
     } while (retry < maxRetries);
 
-    return this;
+    if (failed) {
+      for (int i = 0; i < batch.size(); i++) {
+        if (inputs.get(i) != null) {
+          // PARSED AGAIN, THE TRANSFORMERS CAN HAVE CHANGED THE INPUT
+          execute(Collections.singletonList(batch.get(i)));
+        }
+      }
+    }
+  }
+
+  private List<Object> parse(final List<OETLExtractedItem> batch) {
+    final List<Object> inputs = new ArrayList<>(batch.size());
+    for (OETLExtractedItem item : batch) {
+      Object input = null;
+      try {
+        input = processor.getExtractor().parse(item.payload);
+      } catch (Exception e) {
+        onError(e);
+      }
+      inputs.add(input);
+    }
+    return inputs;
+  }
+
+  private void prefetch(
+      final ODatabaseDocument db, final OETLTransformer transformer, final List<Object> inputs) {
+    try {
+      transformer.prefetch(db, inputs);
+    } catch (ONeedRetryException e) {
+      throw e;
+    } catch (Exception e) {
+      // THE TRANSFORMER LOOKS UP THE ITEMS ONE BY ONE
+      OETLContextWrapper.getInstance()
+          .getMessageHandler()
+          .warn(this, "Transformer [%s] cannot prefetch the batch: %s", transformer, e);
+    }
+  }
+
+  private void execute(
+      final ODatabaseDocument db, final OETLExtractedItem source, final Object input) {
+    Object current = input;
+
+    context.setVariable("extractedNum", source.num);
+    context.setVariable("extractedPayload", input);
+
+    for (OETLTransformer t : transformers) {
+      current = t.transform(db, current);
+      if (current == null) {
+        OETLContextWrapper.getInstance()
+            .getMessageHandler()
+            .warn(this, "Transformer [%s] returned null, skip rest of pipeline execution", t);
+      }
+    }
+    if (current != null) {
+      // LOAD
+      loader.load(db, current, context);
+    }
+  }
+
+  private void onError(final Exception e) {
+    OETLContextWrapper.getInstance()
+        .getMessageHandler()
+        .error(this, "Error in Pipeline execution:", e);
+
+    processor.getStats().incrementErrors();
+
+    if (haltOnError) {
+      throw OException.wrapException(new OETLProcessHaltedException("Halt"), e);
+    }
   }
 
   public void end() {
@@ -18,6 +18,8 @@
 
 package com.orientechnologies.orient.etl;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 
 /** Created by frank on 14/06/2016. */
@@ -35,9 +37,22 @@ final class OETLPipelineWorker implements Runnable {
   @Override
   public void run() {
     try {
+      final int batchSize = pipeline.getBatchCommitSize();
+      final List<OETLExtractedItem> batch = new ArrayList<>(batchSize);
+
       OETLExtractedItem content;
       while (!(content = queue.take()).finished) {
-        pipeline.execute(content);
+        batch.add(content);
+
+        // TAKE WHAT IS ALREADY EXTRACTED, WITHOUT WAITING TO FILL THE BATCH
+        while (batch.size() < batchSize && (content = queue.poll()) != null && !content.finished) {
+          batch.add(content);
+        }
+
+        pipeline.execute(batch);
+        batch.clear();
+
+        if (content != null && content.finished) break;
       }
       pipeline.end();
       // RE-ADD END FLAG FOR OTHER THREADS
@@ -193,7 +193,8 @@ public class OETLProcessor {
       extractor.extract(source.read());
 
       BlockingQueue<OETLExtractedItem> queue =
-          new LinkedBlockingQueue<OETLExtractedItem>(workers * 500);
+          new LinkedBlockingQueue<OETLExtractedItem>(
+              workers * Math.max(500, loader.getBatchCommitSize()));
 
       List<CompletableFuture<Void>> futures =
           IntStream.range(0, workers)
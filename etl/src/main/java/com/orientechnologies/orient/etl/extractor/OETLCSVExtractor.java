@@ -203,6 +203,16 @@ public class OETLCSVExtractor extends OETLAbstractSourceExtractor {
   }
 
   private OETLExtractedItem fetchNext(CSVRecord csvRecord) {
+    current++;
+    return new OETLExtractedItem(current, csvRecord);
+  }
+
+  /** Converts the CSV record into a document: it runs in the pipeline workers, in parallel. */
+  @Override
+  public Object parse(final Object payload) {
+    if (!(payload instanceof CSVRecord)) return payload;
+
+    final CSVRecord csvRecord = (CSVRecord) payload;
     ODocument doc = new ODocument();
     final Map<String, String> recordAsMap = csvRecord.toMap();
 
@@ -250,8 +260,7 @@ public class OETLCSVExtractor extends OETLAbstractSourceExtractor {
     }
 
     log(Level.FINE, "document=%s", doc);
-    current++;
-    return new OETLExtractedItem(current, doc);
+    return doc;
   }
 
   private Object determineTheType(String fieldStringValue) {
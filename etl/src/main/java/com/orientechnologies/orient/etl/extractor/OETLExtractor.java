@@ -32,4 +32,12 @@ public interface OETLExtractor extends OETLComponent, Iterator<OETLExtractedItem
   long getTotal();
 
   String getUnit();
+
+  /**
+   * Converts an extracted payload into the object passed to the transformers. Called by the
+   * pipeline workers, so it must not depend on the state of the extraction.
+   */
+  default Object parse(Object payload) {
+    return payload;
+  }
 }
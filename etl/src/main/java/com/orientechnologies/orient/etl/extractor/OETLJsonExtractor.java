@@ -125,6 +125,14 @@ public class OETLJsonExtractor extends OETLAbstractSourceExtractor {
 
     if (value.isEmpty()) return null;
 
-    return new OETLExtractedItem(current++, new ODocument().fromJSON(value));
+    return new OETLExtractedItem(current++, value);
+  }
+
+  /** Parses the JSON read by the extractor: it runs in the pipeline workers, in parallel. */
+  @Override
+  public Object parse(final Object payload) {
+    if (payload instanceof String) return new ODocument().fromJSON((String) payload);
+
+    return payload;
   }
 }
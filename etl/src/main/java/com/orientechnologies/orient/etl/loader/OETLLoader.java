@@ -37,6 +37,11 @@ public interface OETLLoader extends OETLComponent {
 
   void rollback(ODatabaseDocument db);
 
+  /** Returns how many extracted items a pipeline loads in the same session before committing. */
+  default int getBatchCommitSize() {
+    return 1;
+  }
+
   ODatabasePool getPool();
 
   void close();
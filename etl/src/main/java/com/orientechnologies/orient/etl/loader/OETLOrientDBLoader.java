@@ -45,7 +45,6 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 
 /** ETL Loader that saves record into OrientDB database. */
@@ -71,7 +70,6 @@ public class OETLOrientDBLoader extends OETLAbstractLoader implements OETLLoader
   private boolean standardElementConstraints = true;
   private boolean tx = false;
   private int batchCommitSize = 0;
-  private AtomicLong batchCounter = new AtomicLong(0);
   private DB_TYPE dbType = DOCUMENT;
   private boolean wal = true;
   private boolean txUseLog = false;
@@ -137,22 +135,16 @@ public class OETLOrientDBLoader extends OETLAbstractLoader implements OETLLoader
     }
 
     progress.incrementAndGet();
+  }
 
-    // DO BATCH COMMIT if on TX
-
-    if (tx && batchCommitSize > 0 && batchCounter.get() > batchCommitSize) {
-      synchronized (this) {
-        if (batchCommitSize > 0 && batchCounter.get() > batchCommitSize) {
-          log(Level.FINE, "committing document batch %d", progress.get());
-          db.commit();
-          db.begin();
-          db.getTransaction().setUsingLog(txUseLog);
-          batchCounter.set(0);
-        }
-      }
-    } else {
-      batchCounter.incrementAndGet();
-    }
+  /**
+   * In transactional mode every pipeline commits its own batch, so with the "thread" cluster
+   * selection on the loaded classes the batches of the parallel workers commit to different
+   * clusters.
+   */
+  @Override
+  public int getBatchCommitSize() {
+    return tx && batchCommitSize > 0 ? batchCommitSize : 1;
   }
 
   private void autoCreateProperties(ODatabaseDocument db, Object input) {
@@ -350,13 +342,13 @@ public class OETLOrientDBLoader extends OETLAbstractLoader implements OETLLoader
                 + "{dbAutoCreate:{optional:true,description:'Auto create the database if not exists. Default is true'}},"
                 + "{dbAutoCreateProperties:{optional:true,description:'Auto create properties in schema'}},"
                 + "{dbAutoDropIfExists:{optional:true,description:'Auto drop the database if already exists. Default is false.'}},"
-                + "{batchCommit:{optional:true,description:'Auto commit every X items. This speed up creation of edges.'}},"
+                + "{batchCommit:{optional:true,description:'Auto commit every X items in transactional mode, each worker commits its own batches. This speed up creation of edges.'}},"
                 + "{wal:{optional:true,description:'Use the WAL (Write Ahead Log)'}},"
                 + "{useLightweightEdges:{optional:true,description:'Enable/Disable LightweightEdges in Graphs. Default is false'}},"
                 + "{standardElementConstraints:{optional:true,description:'Enable/Disable Standard Blueprints constraints on names. Default is true'}},"
                 + "{cluster:{optional:true,description:'Cluster name where to store the new record'}},"
                 + "{settings:{optional:true,description:'OrientDB settings as a map'}},"
-                + "{classes:{optional:true,description:'Classes used. It assure the classes exist or in case create them'}},"
+                + "{classes:{optional:true,description:'Classes used. It assure the classes exist or in case create them. Set clusterSelection to thread to let parallel workers commit to different clusters'}},"
                 + "{indexes:{optional:true,description:'Indexes used. It assure the indexes exist or in case create them'}}],"
                 + "input:['OrientVertex','ODocument']}");
   }
@@ -495,6 +487,9 @@ public class OETLOrientDBLoader extends OETLAbstractLoader implements OETLLoader
         Integer clusters = cls.field("clusters");
         if (clusters != null) OClassImpl.addClusters(schemaClass, clusters);
 
+        final String clusterSelection = cls.field("clusterSelection");
+        if (clusterSelection != null) schemaClass.setClusterSelection(clusterSelection);
+
         log(
             Level.FINE,
             "%s: found %d %s in class '%s'",
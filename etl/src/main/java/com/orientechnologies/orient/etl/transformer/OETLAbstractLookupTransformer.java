@@ -18,20 +18,29 @@
 
 package com.orientechnologies.orient.etl.transformer;
 
+import com.orientechnologies.common.collection.OMultiValue;
 import com.orientechnologies.orient.core.command.OCommandContext;
 import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.index.OIndex;
 import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.OElement;
 import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.executor.OResult;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
 import com.orientechnologies.orient.core.sql.query.OSQLQuery;
 import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
 import com.orientechnologies.orient.etl.context.OETLContextWrapper;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -43,6 +52,7 @@ public abstract class OETLAbstractLookupTransformer extends OETLAbstractTransfor
   protected ACTION unresolvedLinkAction = ACTION.NOTHING;
   private OSQLQuery<ODocument> sqlQuery;
   private OIndex index;
+  private final ThreadLocal<Map<Object, List<ORID>>> prefetched = new ThreadLocal<>();
 
   @Override
   public void configure(final ODocument iConfiguration, OCommandContext iContext) {
@@ -60,26 +70,84 @@ public abstract class OETLAbstractLookupTransformer extends OETLAbstractTransfor
               iConfiguration.field("unresolvedLinkAction").toString().toUpperCase(Locale.ENGLISH));
   }
 
+  /**
+   * Resolves with one index multiget, or one IN query when the lookup has no index, the join values
+   * of the batch that are found in the database. Values not found, or not available before the
+   * previous transformers run, are still looked up row by row. Only transformers which look up RIDs
+   * prefetch, see {@link #isRidLookup()}.
+   */
+  @Override
+  public void prefetch(ODatabaseDocument db, final List<Object> inputs) {
+    prefetched.remove();
+
+    if (!isRidLookup()) return;
+    if (joinFieldName == null || joinFieldName.startsWith("$") || lookup == null) return;
+
+    final ODatabaseDocumentInternal database = (ODatabaseDocumentInternal) db;
+    initLookup(database);
+    if (index == null && isCustomQuery()) return;
+
+    final Set<Object> keys = new HashSet<>();
+    for (Object input : inputs) {
+      if (!(input instanceof OElement)) continue;
+
+      final Object value = ((OElement) input).getProperty(joinFieldName);
+      if (value == null) continue;
+
+      for (Object key : OMultiValue.getMultiValueIterable(value)) {
+        if (key != null) key = prefetchKey(key);
+        if (key != null) keys.add(key);
+      }
+    }
+    if (keys.isEmpty()) return;
+
+    final Map<Object, List<ORID>> found = new HashMap<>();
+    if (index != null) {
+      //noinspection resource
+      index
+          .getInternal()
+          .streamEntries(keys, true)
+          .forEach(
+              entry ->
+                  found.computeIfAbsent(entry.first, k -> new ArrayList<>()).add(entry.second));
+    } else {
+      final String[] parts = lookup.split("\\.");
+      try (OResultSet resultSet =
+          database.query(
+              "SELECT FROM " + parts[0] + " WHERE " + parts[1] + " IN ?", new ArrayList<>(keys))) {
+        while (resultSet.hasNext()) {
+          final OResult record = resultSet.next();
+          final Object key = record.getProperty(parts[1]);
+          if (key != null && record.getIdentity().isPresent())
+            found
+                .computeIfAbsent(prefetchKey(key), k -> new ArrayList<>())
+                .add(record.getIdentity().get());
+        }
+      }
+    }
+    prefetched.set(found);
+  }
+
+  /**
+   * Returns true if the transformer calls {@link #lookup(ODatabaseDocumentInternal, Object,
+   * boolean)} to get RIDs, prefetched values are used only by these lookups.
+   */
+  protected boolean isRidLookup() {
+    return false;
+  }
+
   protected Object lookup(
       ODatabaseDocumentInternal db, Object joinValue, final boolean iReturnRIDS) {
     Object result = null;
 
     if (joinValue != null) {
-      if (sqlQuery == null && index == null) {
-        // ONLY THE FIRST TIME
-        if (lookup.toUpperCase(Locale.ENGLISH).startsWith("SELECT"))
-          sqlQuery = new OSQLSynchQuery<>(lookup);
-        else {
-          index = db.getMetadata().getIndexManagerInternal().getIndex(db, lookup);
-          if (index == null) {
-            OETLContextWrapper.getInstance()
-                .getMessageHandler()
-                .warn(this, "WARNING: index %s not found. Lookups could be really slow", lookup);
-            final String[] parts = lookup.split("\\.");
-            sqlQuery =
-                new OSQLSynchQuery<ODocument>(
-                    "SELECT FROM " + parts[0] + " WHERE " + parts[1] + " = ?");
-          }
+      initLookup(db);
+
+      if (iReturnRIDS) {
+        final Map<Object, List<ORID>> found = prefetched.get();
+        if (found != null) {
+          final List<ORID> rids = found.get(prefetchKey(joinValue));
+          if (rids != null) return rids;
         }
       }
 
@@ -125,6 +193,43 @@ public abstract class OETLAbstractLookupTransformer extends OETLAbstractTransfor
     return result;
   }
 
+  private void initLookup(final ODatabaseDocumentInternal db) {
+    if (sqlQuery == null && index == null) {
+      // ONLY THE FIRST TIME
+      if (isCustomQuery()) sqlQuery = new OSQLSynchQuery<>(lookup);
+      else {
+        index = db.getMetadata().getIndexManagerInternal().getIndex(db, lookup);
+        if (index == null) {
+          OETLContextWrapper.getInstance()
+              .getMessageHandler()
+              .warn(this, "WARNING: index %s not found. Lookups could be really slow", lookup);
+          final String[] parts = lookup.split("\\.");
+          sqlQuery =
+              new OSQLSynchQuery<ODocument>(
+                  "SELECT FROM " + parts[0] + " WHERE " + parts[1] + " = ?");
+        }
+      }
+    }
+  }
+
+  private boolean isCustomQuery() {
+    return lookup.toUpperCase(Locale.ENGLISH).startsWith("SELECT");
+  }
+
+  /**
+   * Converts a join value to the key of the prefetched values: to the index type when there is an
+   * index, otherwise integral numbers are widened to long as they are stored by the schemaless
+   * fields.
+   */
+  private Object prefetchKey(final Object value) {
+    if (index != null)
+      return OType.convert(value, index.getDefinition().getTypes()[0].getDefaultJavaType());
+
+    if (value instanceof Integer || value instanceof Short || value instanceof Byte)
+      return ((Number) value).longValue();
+    return value;
+  }
+
   protected enum ACTION {
     NOTHING,
     WARNING,
@@ -84,6 +84,11 @@ public class OETLEdgeTransformer extends OETLAbstractLookupTransformer {
       skipDuplicates = (Boolean) resolve(iConfiguration.field("skipDuplicates"));
   }
 
+  @Override
+  protected boolean isRidLookup() {
+    return true;
+  }
+
   @Override
   public String getName() {
     return "edge";
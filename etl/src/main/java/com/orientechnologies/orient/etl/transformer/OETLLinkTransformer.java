@@ -68,6 +68,11 @@ public class OETLLinkTransformer extends OETLAbstractLookupTransformer {
       linkFieldType = OType.valueOf((String) iConfiguration.field("linkFieldType"));
   }
 
+  @Override
+  protected boolean isRidLookup() {
+    return true;
+  }
+
   @Override
   public String getName() {
     return "link";
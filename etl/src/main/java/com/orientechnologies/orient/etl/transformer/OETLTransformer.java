@@ -20,9 +20,16 @@ package com.orientechnologies.orient.etl.transformer;
 
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
 import com.orientechnologies.orient.etl.OETLPipelineComponent;
+import java.util.List;
 
 /** ETL Transformer. */
 public interface OETLTransformer extends OETLPipelineComponent {
 
   Object transform(ODatabaseDocument db, final Object input);
+
+  /**
+   * Called by the pipeline with the parsed inputs of a batch before they are transformed one by
+   * one, so the transformer can resolve what the batch needs in a single round trip.
+   */
+  default void prefetch(ODatabaseDocument db, List<Object> inputs) {}
 }
@@ -25,10 +25,12 @@ import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
 import com.orientechnologies.orient.core.exception.OConfigurationException;
 import com.orientechnologies.orient.core.index.OIndex;
 import com.orientechnologies.orient.core.index.OIndexManagerAbstract;
+import com.orientechnologies.orient.core.metadata.schema.OType;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.sql.executor.OResultSet;
 import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
 import com.orientechnologies.orient.etl.OETLBaseTest;
+import com.orientechnologies.orient.etl.context.OETLContext;
 import java.util.List;
 import org.junit.Test;
 
@@ -245,4 +247,72 @@ public class OETLOrientDBLoaderTest extends OETLBaseTest {
     res.close();
     db.close();
   }
+
+  @Test
+  public void shouldCommitParallelBatchesOnThreadClusters() {
+    final StringBuilder content = new StringBuilder("id,name");
+    for (int i = 0; i < 1000; i++) content.append("\n").append(i).append(",name").append(i);
+
+    configure(
+        "{source: { content: { value: '"
+            + content
+            + "' } }, extractor : { csv: {} }, loader: { orientdb: {\n"
+            + "      dbURL: 'memory:"
+            + name.getMethodName()
+            + "', class:'Person',     dbUser: \"admin\",\n"
+            + "      dbPassword: \"admin\",\n"
+            + "      dbAutoCreate: true,\n      tx: true,\n"
+            + "      batchCommit: 100,\n"
+            + "      dbType: \"document\",\n"
+            + "      classes: [\n"
+            + "        {name:\"Person\", clusters: 4, clusterSelection: \"thread\" }\n"
+            + "      ]      } } }",
+        new OETLContext().setVariable("parallel", Boolean.TRUE));
+
+    proc.execute();
+
+    ODatabaseDocument db = proc.getLoader().getPool().acquire();
+
+    assertThat(db.getMetadata().getSchema().getClass("Person").getClusterSelection().getName())
+        .isEqualTo("thread");
+
+    OResultSet res = db.query("SELECT count(*) as count FROM Person");
+    assertThat(res.next().<Long>getProperty("count")).isEqualTo(1000L);
+
+    res.close();
+    db.close();
+  }
+
+  @Test
+  public void shouldCommitValidItemsOfBatchWithFailedItem() {
+    configure(
+        "{config: { haltOnError: false }, source: { content: { value: 'id,name\n0,ann\n1,bob\n2,johnny\n3,tom\n4,eve' } },"
+            + " extractor : { csv: {} }, loader: { orientdb: {\n"
+            + "      dbURL: 'memory:"
+            + name.getMethodName()
+            + "', class:'Person',     dbUser: \"admin\",\n"
+            + "      dbPassword: \"admin\",\n"
+            + "      dbAutoCreate: true,\n      tx: true,\n"
+            + "      batchCommit: 100,\n"
+            + "      dbType: \"document\"\n"
+            + "      } } }");
+
+    ODatabaseDocument db = proc.getLoader().getPool().acquire();
+    db.createClass("Person").createProperty("name", OType.STRING).setMax("3");
+    db.close();
+
+    proc.execute();
+
+    assertThat(proc.getStats().errors.get()).isEqualTo(1L);
+
+    db = proc.getLoader().getPool().acquire();
+    OResultSet res = db.query("SELECT count(*) as count FROM Person");
+    assertThat(res.next().<Long>getProperty("count")).isEqualTo(4L);
+    res.close();
+
+    res = db.query("SELECT FROM Person WHERE name = 'johnny'");
+    assertThat(res.hasNext()).isFalse();
+    res.close();
+    db.close();
+  }
 }
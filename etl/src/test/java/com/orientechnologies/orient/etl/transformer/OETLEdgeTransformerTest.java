@@ -20,21 +20,28 @@ package com.orientechnologies.orient.etl.transformer;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import com.orientechnologies.common.io.OFileUtils;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.db.ODatabasePool;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.metadata.schema.OType;
 import com.orientechnologies.orient.core.record.ODirection;
 import com.orientechnologies.orient.core.record.OEdge;
 import com.orientechnologies.orient.core.record.OVertex;
+import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.sql.executor.OResultSet;
 import com.orientechnologies.orient.etl.OETLBaseTest;
 import com.orientechnologies.orient.etl.loader.OETLLoader;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 import org.junit.After;
 import org.junit.Before;
@@ -131,6 +138,46 @@ public class OETLEdgeTransformerTest extends OETLBaseTest {
     pool.close();
   }
 
+  @Test
+  public void testPrefetchedLookup() {
+    configure(
+        "{source: { content: { value: 'name,surname,friend\nJay,Miner,Luca' } }, extractor : { csv: {} },"
+            + " transformers: [{vertex: {class:'V1'}}, {edge:{class:'Friend',joinFieldName:'friend',lookup:'V2.name'}},"
+            + " {merge:{joinFieldName:'friend',lookup:'V2.name'}}"
+            + "], loader: { orientdb: { dbURL: 'memory:"
+            + name.getMethodName()
+            + "', dbType:'graph', useLightweightEdges:false } } }");
+
+    ODatabasePool pool = proc.getLoader().getPool();
+    ODatabaseDocument db = pool.acquire();
+    createClasses(db);
+
+    OETLEdgeTransformer edge = (OETLEdgeTransformer) proc.getTransformers().get(1);
+    OETLMergeTransformer merge = (OETLMergeTransformer) proc.getTransformers().get(2);
+
+    List<Object> inputs = new ArrayList<>();
+    inputs.add(new ODocument().field("name", "Jay").field("friend", "Luca"));
+    inputs.add(new ODocument().field("name", "Mark").field("friend", "Luca"));
+    edge.prefetch(db, inputs);
+    merge.prefetch(db, inputs);
+
+    ORID luca;
+    try (OResultSet result = db.query("select from V2 where name = 'Luca'")) {
+      luca = result.next().getIdentity().get();
+    }
+    db.command("delete vertex V2").close();
+
+    // THE EDGE LOOKUP IS RESOLVED BY THE BATCHED QUERY RUN BEFORE THE DELETE
+    Object rids = edge.lookup((ODatabaseDocumentInternal) db, "Luca", true);
+    assertTrue(rids instanceof Collection);
+    assertEquals(1, ((Collection<?>) rids).size());
+    assertTrue(((Collection<?>) rids).contains(luca));
+
+    // THE MERGE TRANSFORMER LOOKS UP RECORDS, IT DOES NOT PREFETCH
+    assertNull(merge.lookup((ODatabaseDocumentInternal) db, "Luca", true));
+    db.close();
+  }
+
   @Test
   public void testEdgeWithProperties() {
     configure(
@@ -33,6 +33,7 @@ import com.orientechnologies.orient.core.serialization.serializer.record.ORecord
 import com.orientechnologies.orient.enterprise.channel.binary.OChannelBinary;
 import com.orientechnologies.orient.enterprise.channel.binary.OChannelBinaryProtocol;
 import com.orientechnologies.orient.enterprise.channel.binary.OTokenSecurityException;
+import com.orientechnologies.orient.server.network.OServerNetworkEventLoop;
 import com.orientechnologies.orient.server.network.protocol.ONetworkProtocol;
 import com.orientechnologies.orient.server.network.protocol.binary.ONetworkProtocolBinary;
 import com.orientechnologies.orient.server.plugin.OServerPluginHelper;
@@ -49,6 +50,7 @@ import java.util.Set;
 import java.util.TimerTask;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import javax.net.ssl.SSLSocket;
 
@@ -461,6 +463,7 @@ public class OClientConnectionManager {
     timerTask.cancel();
 
     List<ONetworkProtocol> toWait = new ArrayList<ONetworkProtocol>();
+    Set<OServerNetworkEventLoop> eventLoopsToWait = new HashSet<OServerNetworkEventLoop>();
 
     final Iterator<Entry<Integer, OClientConnection>> iterator = connections.entrySet().iterator();
     while (iterator.hasNext()) {
@@ -468,6 +471,14 @@ public class OClientConnectionManager {
 
       final ONetworkProtocol protocol = entry.getValue().getProtocol();
 
+      if (protocol instanceof ONetworkProtocolBinary
+          && ((ONetworkProtocolBinary) protocol).getEventLoop() != null) {
+        // NO PROTOCOL THREAD TO STOP: THE CONNECTION IS CLOSED BY THE EVENT LOOP WHICH SERVES IT
+        protocol.sendShutdown();
+        eventLoopsToWait.add(((ONetworkProtocolBinary) protocol).getEventLoop());
+        continue;
+      }
+
       if (protocol != null) protocol.sendShutdown();
 
       OLogManager.instance().debug(this, "Sending shutdown to thread %s", protocol);
@@ -532,6 +543,19 @@ public class OClientConnectionManager {
         Thread.currentThread().interrupt();
       }
     }
+
+    for (OServerNetworkEventLoop eventLoop : eventLoopsToWait) {
+      eventLoop.shutdown();
+      try {
+        eventLoop.awaitTermination(
+            server
+                .getContextConfiguration()
+                .getValueAsInteger(OGlobalConfiguration.SERVER_CHANNEL_CLEAN_DELAY),
+            TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
   }
 
   public void killAllChannels() {
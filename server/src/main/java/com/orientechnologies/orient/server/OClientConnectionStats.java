@@ -14,4 +14,7 @@ public class OClientConnectionStats {
   public String lastUser = null;
   public long totalCommandExecutionTime = 0;
   public List<String> activeQueries;
+  // SIZE OF THE BINARY RESPONSES BEFORE AND AFTER COMPRESSION, IF COMPRESSION IS NEGOTIATED
+  public long responseBytesUncompressed = 0;
+  public long responseBytesSent = 0;
 }
@@ -106,6 +106,8 @@ public class OServerInfo {
       writeField(json, 2, "lastExecutionTime", stats.lastCommandExecutionTime);
       writeField(json, 2, "totalWorkingTime", stats.totalCommandExecutionTime);
       writeField(json, 2, "activeQueries", stats.activeQueries);
+      writeField(json, 2, "responseBytesUncompressed", stats.responseBytesUncompressed);
+      writeField(json, 2, "responseBytesSent", stats.responseBytesSent);
       writeField(json, 2, "connectedOn", connectedOn);
       writeField(json, 2, "protocol", c.getProtocol().getType());
       writeField(json, 2, "sessionId", data.sessionId);
@@ -0,0 +1,332 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.server.network;
+
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.common.thread.OThreadPoolExecutorWithLogging;
+import com.orientechnologies.common.util.OUncaughtExceptionHandler;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves connections of the network listener without dedicated thread per connection. Channels of
+ * idle connections are registered in the single selector, once data of the next request arrives the
+ * request is served by the pool of worker threads, and channel is registered in the selector again
+ * once request is served. Threads of the pool are created on demand and are stopped once they are
+ * idle for a minute, so amount of threads is bounded by amount of requests which are served in
+ * parallel rather than by amount of opened connections. Pool has limited size, requests which
+ * arrive when all workers are busy wait in the queue.
+ *
+ * <p>Connections served by the event loop do not have own threads, so they are stopped by {@link
+ * #shutdown()} followed by {@link #awaitTermination(long, TimeUnit)}.
+ */
+public class OServerNetworkEventLoop extends Thread {
+  /** Connection served by the event loop. */
+  public interface Connection {
+    /**
+     * Reads and serves the single request.
+     *
+     * @return <code>false</code> if connection should be closed.
+     */
+    boolean serveRequest();
+
+    /** @return <code>true</code> if part of the next request is already received. */
+    boolean hasBufferedRequest();
+
+    /** Closes the connection, may be called several times. */
+    void close();
+  }
+
+  private final Selector selector;
+  private final ThreadPoolExecutor workers;
+
+  private final Queue<Registration> registrations = new ConcurrentLinkedQueue<>();
+  private final Queue<SelectionKey> readyKeys = new ConcurrentLinkedQueue<>();
+
+  private volatile boolean active = true;
+
+  /**
+   * @param maxWorkers maximum amount of threads which serve requests in parallel
+   * @see OGlobalConfiguration#NETWORK_BINARY_NON_BLOCKING_WORKERS
+   */
+  public OServerNetworkEventLoop(
+      final ThreadGroup threadGroup, final String name, final int maxWorkers) throws IOException {
+    super(threadGroup, name + " event loop");
+    setDaemon(true);
+    setUncaughtExceptionHandler(new OUncaughtExceptionHandler());
+
+    selector = Selector.open();
+    workers =
+        new OThreadPoolExecutorWithLogging(
+            Math.max(1, maxWorkers),
+            Math.max(1, maxWorkers),
+            60L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new WorkerThreadFactory(threadGroup, name));
+    workers.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Registers channel of the new connection, channel should be configured in non-blocking mode.
+   */
+  public void register(final SocketChannel channel, final Connection connection) {
+    synchronized (registrations) {
+      if (!active) {
+        connection.close();
+        return;
+      }
+
+      registrations.add(new Registration(channel, connection));
+    }
+
+    selector.wakeup();
+  }
+
+  /**
+   * Stops the event loop. Connections which wait for requests are closed, connections which serve
+   * requests are closed once requests are served.
+   */
+  public void shutdown() {
+    synchronized (registrations) {
+      active = false;
+    }
+
+    selector.wakeup();
+    workers.shutdown();
+  }
+
+  /**
+   * Waits till requests which are in progress are served and all connections are closed. If
+   * requests are not served within the timeout workers are interrupted, and connections of requests
+   * which are still waiting in the queue are closed without serving. Has to be called after {@link
+   * #shutdown()}.
+   *
+   * @return <code>true</code> if all requests were served within the timeout
+   */
+  public boolean awaitTermination(final long timeout, final TimeUnit unit)
+      throws InterruptedException {
+    final long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+    join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+    if (workers.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+      return true;
+    }
+
+    OLogManager.instance()
+        .warn(
+            this, "Requests were not served during shutdown of %s, workers are stopped", getName());
+    for (final Runnable task : workers.shutdownNow()) {
+      ((ServeTask) task).cancel();
+    }
+
+    return false;
+  }
+
+  /** @return Amount of threads which currently serve requests. */
+  public int getActiveWorkers() {
+    return workers.getActiveCount();
+  }
+
+  @Override
+  public void run() {
+    try {
+      while (active) {
+        selector.select();
+
+        registerChannels();
+        resumeChannels();
+
+        for (final SelectionKey key : selector.selectedKeys()) {
+          if (key.isValid() && key.isReadable()) {
+            // channel is not polled till request is served
+            key.interestOps(0);
+            serve(key);
+          }
+        }
+
+        selector.selectedKeys().clear();
+      }
+    } catch (final IOException e) {
+      OLogManager.instance().error(this, "Error in network event loop, connections are closed", e);
+    } finally {
+      closeConnections();
+    }
+  }
+
+  private void registerChannels() {
+    Registration registration;
+    while ((registration = registrations.poll()) != null) {
+      try {
+        registration.channel.register(selector, SelectionKey.OP_READ, registration.connection);
+      } catch (final ClosedChannelException e) {
+        registration.connection.close();
+      }
+    }
+  }
+
+  private void resumeChannels() {
+    SelectionKey key;
+    while ((key = readyKeys.poll()) != null) {
+      if (key.isValid()) {
+        key.interestOps(SelectionKey.OP_READ);
+      } else {
+        ((Connection) key.attachment()).close();
+      }
+    }
+  }
+
+  private void serve(final SelectionKey key) {
+    final ServeTask task = new ServeTask(key);
+    try {
+      workers.execute(task);
+    } catch (final RejectedExecutionException e) {
+      task.cancel();
+    }
+  }
+
+  private void closeConnections() {
+    final List<Connection> connections = new ArrayList<>();
+
+    synchronized (registrations) {
+      active = false;
+
+      for (final Registration registration : registrations) {
+        connections.add(registration.connection);
+      }
+      registrations.clear();
+
+      for (final SelectionKey key : readyKeys) {
+        connections.add((Connection) key.attachment());
+      }
+      readyKeys.clear();
+
+      try {
+        for (final SelectionKey key : selector.keys()) {
+          // connections which serve requests are closed by worker threads
+          if (key.isValid() && key.interestOps() != 0) {
+            connections.add((Connection) key.attachment());
+          }
+        }
+      } catch (final RuntimeException e) {
+        OLogManager.instance().debug(this, "Error on listing of connections of event loop", e);
+      }
+    }
+
+    for (final Connection connection : connections) {
+      connection.close();
+    }
+
+    try {
+      selector.close();
+    } catch (final IOException e) {
+      OLogManager.instance().debug(this, "Error on closing of selector of event loop", e);
+    }
+  }
+
+  /** Serves requests of the connection and registers it in the selector again. */
+  private final class ServeTask implements Runnable {
+    private final SelectionKey key;
+    private final Connection connection;
+
+    private ServeTask(final SelectionKey key) {
+      this.key = key;
+      this.connection = (Connection) key.attachment();
+    }
+
+    @Override
+    public void run() {
+      boolean open = false;
+      try {
+        do {
+          open = connection.serveRequest();
+        } while (open && connection.hasBufferedRequest());
+      } catch (final RuntimeException e) {
+        OLogManager.instance().error(this, "Error during serving of network request", e);
+        open = false;
+      }
+
+      if (!open) {
+        cancel();
+        return;
+      }
+
+      synchronized (registrations) {
+        if (!active) {
+          cancel();
+          return;
+        }
+
+        readyKeys.add(key);
+      }
+
+      selector.wakeup();
+    }
+
+    private void cancel() {
+      key.cancel();
+      connection.close();
+    }
+  }
+
+  private static final class Registration {
+    private final SocketChannel channel;
+    private final Connection connection;
+
+    private Registration(final SocketChannel channel, final Connection connection) {
+      this.channel = channel;
+      this.connection = connection;
+    }
+  }
+
+  private static final class WorkerThreadFactory implements ThreadFactory {
+    private final AtomicInteger counter = new AtomicInteger();
+    private final ThreadGroup threadGroup;
+    private final String name;
+
+    private WorkerThreadFactory(final ThreadGroup threadGroup, final String name) {
+      this.threadGroup = threadGroup;
+      this.name = name;
+    }
+
+    @Override
+    public Thread newThread(final Runnable r) {
+      final Thread thread = new Thread(threadGroup, r);
+      thread.setDaemon(true);
+      thread.setName(name + " worker " + counter.incrementAndGet());
+      thread.setUncaughtExceptionHandler(new OUncaughtExceptionHandler());
+      return thread;
+    }
+  }
+}
@@ -32,6 +32,7 @@ import com.orientechnologies.orient.server.config.OServerCommandConfiguration;
 import com.orientechnologies.orient.server.config.OServerParameterConfiguration;
 import com.orientechnologies.orient.server.network.protocol.OBeforeDatabaseOpenNetworkEventListener;
 import com.orientechnologies.orient.server.network.protocol.ONetworkProtocol;
+import com.orientechnologies.orient.server.network.protocol.binary.ONetworkProtocolBinary;
 import com.orientechnologies.orient.server.network.protocol.http.command.OServerCommand;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
@@ -42,6 +43,7 @@ import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
 import java.net.UnknownHostException;
+import java.nio.channels.ServerSocketChannel;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -60,6 +62,7 @@ public class OServerNetworkListener extends Thread {
   private int protocolVersion = -1;
   private List<OBeforeDatabaseOpenNetworkEventListener> beforeDatabaseOpenNetworkEventListener =
       new ArrayList<OBeforeDatabaseOpenNetworkEventListener>();
+  private OServerNetworkEventLoop eventLoop;
 
   public OServerNetworkListener(
       final OServer iServer,
@@ -88,11 +91,11 @@ public class OServerNetworkListener extends Thread {
       throw OException.wrapException(new ONetworkProtocolException(message), e);
     }
 
+    readParameters(iServer.getContextConfiguration(), iParameters);
+
     listen(iHostName, iHostPortRange, iProtocolName, iProtocol);
     protocolType = iProtocol;
 
-    readParameters(iServer.getContextConfiguration(), iParameters);
-
     if (iCommands != null) {
       for (int i = 0; i < iCommands.length; ++i) {
         if (iCommands[i].stateful)
@@ -196,6 +199,16 @@ public class OServerNetworkListener extends Thread {
         serverSocket.close();
       } catch (IOException e) {
       }
+
+    if (eventLoop != null) eventLoop.shutdown();
+  }
+
+  /**
+   * @return Event loop which serves connections of this listener or <code>null</code> if each
+   *     connection is served by the dedicated thread.
+   */
+  public OServerNetworkEventLoop getEventLoop() {
+    return eventLoop;
   }
 
   public boolean isActive() {
@@ -366,12 +379,27 @@ public class OServerNetworkListener extends Thread {
       final String iProtocolName,
       Class<? extends ONetworkProtocol> protocolClass) {
 
+    final boolean nonBlocking = isNonBlocking(protocolClass);
+
     for (int port : getPorts(iHostPortRange)) {
       inboundAddr = new InetSocketAddress(iHostName, port);
       try {
-        serverSocket = socketFactory.createServerSocket(port, 0, InetAddress.getByName(iHostName));
+        if (nonBlocking) serverSocket = createChannelServerSocket(port, iHostName);
+        else
+          serverSocket =
+              socketFactory.createServerSocket(port, 0, InetAddress.getByName(iHostName));
 
         if (serverSocket.isBound()) {
+          if (nonBlocking) {
+            eventLoop =
+                new OServerNetworkEventLoop(
+                    server.getThreadGroup(),
+                    getName(),
+                    configuration.getValueAsInteger(
+                        OGlobalConfiguration.NETWORK_BINARY_NON_BLOCKING_WORKERS));
+            eventLoop.start();
+          }
+
           OLogManager.instance()
               .info(
                   this,
@@ -385,6 +413,7 @@ public class OServerNetworkListener extends Thread {
                       + protocolVersion
                       + ", socket="
                       + socketFactory.getName()
+                      + (nonBlocking ? ", non-blocking" : "")
                       + ")");
 
           return;
@@ -415,6 +444,40 @@ public class OServerNetworkListener extends Thread {
             iHostPortRange, iHostName));
   }
 
+  /**
+   * Creates server socket which accepts sockets with channels, such channels can be registered in
+   * the selector of the event loop.
+   */
+  private static ServerSocket createChannelServerSocket(final int port, final String iHostName)
+      throws IOException {
+    final ServerSocketChannel serverChannel = ServerSocketChannel.open();
+    try {
+      final ServerSocket socket = serverChannel.socket();
+      socket.bind(new InetSocketAddress(InetAddress.getByName(iHostName), port));
+      return socket;
+    } catch (IOException | RuntimeException e) {
+      serverChannel.close();
+      throw e;
+    }
+  }
+
+  private boolean isNonBlocking(final Class<? extends ONetworkProtocol> protocolClass) {
+    if (!configuration.getValueAsBoolean(OGlobalConfiguration.NETWORK_BINARY_NON_BLOCKING)
+        || !ONetworkProtocolBinary.class.isAssignableFrom(protocolClass)) return false;
+
+    if (!(socketFactory instanceof ODefaultServerSocketFactory)) {
+      OLogManager.instance()
+          .warn(
+              this,
+              "Non-blocking mode is not supported by socket factory '%s', connections are served"
+                  + " by dedicated threads",
+              socketFactory.getName());
+      return false;
+    }
+
+    return true;
+  }
+
   /**
    * Initializes connection parameters by the reading XML configuration. If not specified, get the
    * parameters defined as global configuration.
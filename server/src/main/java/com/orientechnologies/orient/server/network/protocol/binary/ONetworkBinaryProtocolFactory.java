@@ -42,6 +42,10 @@ public class ONetworkBinaryProtocolFactory {
       case 37:
         return ONetworkBinaryProtocolFactory::createRequest37;
       case 38:
+      case 39:
+      case 40:
+        // versions 39 and 40 add only request multiplexing and compression of the responses
+        // which are handled by the protocol itself
         return ONetworkBinaryProtocolFactory::createRequest38;
       default:
         return ONetworkBinaryProtocolFactory::createRequest;
@@ -36,6 +36,9 @@ import com.orientechnologies.orient.client.remote.message.OBinaryPushResponse;
 import com.orientechnologies.orient.client.remote.message.OError37Response;
 import com.orientechnologies.orient.client.remote.message.OErrorResponse;
 import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.compression.OCompression;
+import com.orientechnologies.orient.core.compression.OCompressionFactory;
+import com.orientechnologies.orient.core.compression.impl.ONothingCompression;
 import com.orientechnologies.orient.core.config.OContextConfiguration;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
@@ -44,6 +47,7 @@ import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.exception.OCoreException;
 import com.orientechnologies.orient.core.exception.ODatabaseException;
 import com.orientechnologies.orient.core.exception.OSecurityAccessException;
+import com.orientechnologies.orient.core.exception.OSecurityException;
 import com.orientechnologies.orient.core.exception.OSerializationException;
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.id.ORecordId;
@@ -62,6 +66,7 @@ import com.orientechnologies.orient.enterprise.channel.binary.OChannelBinaryServ
 import com.orientechnologies.orient.enterprise.channel.binary.ONetworkProtocolException;
 import com.orientechnologies.orient.enterprise.channel.binary.OTokenSecurityException;
 import com.orientechnologies.orient.server.OClientConnection;
+import com.orientechnologies.orient.server.OClientConnectionStats;
 import com.orientechnologies.orient.server.OConnectionBinaryExecutor;
 import com.orientechnologies.orient.server.OServer;
 import com.orientechnologies.orient.server.OServerAware;
@@ -71,6 +76,7 @@ import com.orientechnologies.orient.server.distributed.ODistributedRequest;
 import com.orientechnologies.orient.server.distributed.ODistributedResponse;
 import com.orientechnologies.orient.server.distributed.ODistributedServerLog;
 import com.orientechnologies.orient.server.distributed.ODistributedServerManager;
+import com.orientechnologies.orient.server.network.OServerNetworkEventLoop;
 import com.orientechnologies.orient.server.network.OServerNetworkListener;
 import com.orientechnologies.orient.server.network.protocol.ONetworkProtocol;
 import com.orientechnologies.orient.server.plugin.OServerPluginHelper;
@@ -81,10 +87,12 @@ import java.io.PrintStream;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.SocketException;
+import java.nio.channels.SocketChannel;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.logging.Level;
 
@@ -95,12 +103,20 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
   protected volatile int requestType;
   protected int clientTxId;
   protected boolean okSent;
+  // ID OF THE MULTIPLEXED REQUEST WHICH IS SENT BACK IN PLACE OF THE SESSION ID
+  private boolean multiplexed;
+  private int multiplexedRequestId;
   private boolean tokenConnection = true;
   private long requests = 0;
   private HandshakeInfo handshakeInfo;
+  // COMPRESSION OF THE RESPONSES NEGOTIATED ON HANDSHAKE, NULL IF RESPONSES ARE NOT FRAMED
+  private OCompression responseCompression;
+  private int responseCompressionThreshold;
   private volatile OBinaryPushResponse expectedPushResponse;
   private BlockingQueue<OBinaryPushResponse> pushResponse =
       new SynchronousQueue<OBinaryPushResponse>();
+  // EVENT LOOP WHICH SERVES THE CONNECTION, NULL IF IT IS SERVED BY THE THREAD OF THE PROTOCOL
+  private volatile OServerNetworkEventLoop eventLoop;
 
   private Function<Integer, OBinaryRequest<? extends OBinaryResponse>> factory =
       ONetworkBinaryProtocolFactory.defaultProtocol();
@@ -137,6 +153,11 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
       final OContextConfiguration iConfig)
       throws IOException {
 
+    final OServerNetworkEventLoop listenerEventLoop =
+        iListener != null ? iListener.getEventLoop() : null;
+    final SocketChannel socketChannel = listenerEventLoop != null ? iSocket.getChannel() : null;
+    if (socketChannel != null) socketChannel.configureBlocking(false);
+
     OChannelBinaryServer channel = new OChannelBinaryServer(iSocket, iConfig);
     initVariables(iServer, channel);
 
@@ -147,7 +168,11 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
 
     OServerPluginHelper.invokeHandlerCallbackOnSocketAccepted(server, this);
 
-    start();
+    // IN NON-BLOCKING MODE THE THREAD IS NOT STARTED, REQUESTS ARE SERVED BY THE EVENT LOOP
+    if (socketChannel != null) {
+      eventLoop = listenerEventLoop;
+      eventLoop.register(socketChannel, new EventLoopConnection());
+    } else start();
     setName(
         "OrientDB ("
             + iSocket.getLocalSocketAddress()
@@ -187,6 +212,20 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
     return requestType == OChannelBinaryProtocol.COORDINATED_DISTRIBUTED_MESSAGE;
   }
 
+  private boolean isMultiplexable(int requestType) {
+    return handshakeInfo != null
+        && requestType != OChannelBinaryProtocol.REQUEST_HANDSHAKE
+        && requestType != OChannelBinaryProtocol.REQUEST_OK_PUSH
+        && requestType != OChannelBinaryProtocol.REQUEST_MULTIPLEXED
+        && !isHandshaking(requestType)
+        && !isDistributed(requestType)
+        && !isCoordinated(requestType);
+  }
+
+  private int responseId(final int iClientTxId) {
+    return multiplexed ? multiplexedRequestId : iClientTxId;
+  }
+
   @Override
   protected void execute() throws Exception {
     requestType = -1;
@@ -200,6 +239,7 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
 
     clientTxId = 0;
     okSent = false;
+    multiplexed = false;
     try {
       channel.setWaitRequestTimeout();
       requestType = channel.readByte();
@@ -227,6 +267,19 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
         handlePushResponse();
         return;
       }
+      if (requestType == OChannelBinaryProtocol.REQUEST_MULTIPLEXED) {
+        // REQUESTS ARE SERVED IN ORDER, SO CLIENT MAY SEND THE NEXT REQUEST WITHOUT WAITING FOR
+        // THE RESPONSE AND MATCH THE RESPONSES BY THE REQUEST ID
+        multiplexedRequestId = channel.readInt();
+        requestType = channel.readByte();
+        if (!isMultiplexable(requestType)) {
+          OLogManager.instance()
+              .error(this, "Request cannot be multiplexed. Code: " + requestType, null);
+          sendShutdown();
+          return;
+        }
+        multiplexed = true;
+      }
 
       clientTxId = channel.readInt();
       // GET THE CONNECTION IF EXIST
@@ -258,12 +311,73 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
     String driverVersion = channel.readString();
     byte encoding = channel.readByte();
     byte errorEncoding = channel.readByte();
+    String compression = "";
+    if (protocolVersion >= OChannelBinaryProtocol.PROTOCOL_VERSION_40) {
+      compression = channel.readString();
+    }
     OBinaryProtocolHelper.checkProtocolVersion(this, protocolVersion);
     this.handshakeInfo =
         new HandshakeInfo(protocolVersion, driverName, driverVersion, encoding, errorEncoding);
+    configureResponseCompression(compression);
     this.factory = ONetworkBinaryProtocolFactory.matchProtocol(protocolVersion);
   }
 
+  /**
+   * Once compression is requested by the client, bodies of the responses are always sent as frames
+   * and client expects them even if compression is disabled on the server side, in such case frames
+   * are just not compressed.
+   */
+  private void configureResponseCompression(final String compression) {
+    if (compression == null || compression.isEmpty()) {
+      responseCompression = null;
+      return;
+    }
+
+    final OContextConfiguration config = server.getContextConfiguration();
+    responseCompression = ONothingCompression.INSTANCE;
+    responseCompressionThreshold = Integer.MAX_VALUE;
+
+    if (config.getValueAsBoolean(OGlobalConfiguration.NETWORK_BINARY_COMPRESSION_ENABLED)) {
+      try {
+        responseCompression = OCompressionFactory.INSTANCE.getCompression(compression, null);
+        responseCompressionThreshold =
+            config.getValueAsInteger(OGlobalConfiguration.NETWORK_BINARY_COMPRESSION_THRESHOLD);
+      } catch (OSecurityException e) {
+        OLogManager.instance()
+            .warn(
+                this,
+                "Compression '%s' requested by client is not supported, responses are not"
+                    + " compressed",
+                compression);
+      }
+    }
+  }
+
+  private void writeResponse(OClientConnection connection, OBinaryResponse response)
+      throws IOException {
+    final int protocolVersion = connection.getData().protocolVersion;
+    final ORecordSerializer serializer = connection.getData().getSerializer();
+    if (responseCompression == null) {
+      response.write(channel, protocolVersion, serializer);
+      return;
+    }
+
+    channel.beginFrame();
+    final int size;
+    final int sent;
+    try {
+      response.write(channel, protocolVersion, serializer);
+      size = channel.getFrameSize();
+      sent = channel.endFrame(responseCompression, responseCompressionThreshold);
+    } finally {
+      channel.abortFrame();
+    }
+
+    final OClientConnectionStats stats = connection.getStats();
+    stats.responseBytesUncompressed += size;
+    stats.responseBytesSent += sent;
+  }
+
   public void setHandshakeInfo(HandshakeInfo handshakeInfo) {
     this.handshakeInfo = handshakeInfo;
   }
@@ -388,10 +502,7 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
               beginResponse();
               try {
                 sendOk(connection, clientTxId);
-                response.write(
-                    channel,
-                    connection.getData().protocolVersion,
-                    connection.getData().getSerializer());
+                writeResponse(connection, response);
               } finally {
                 endResponse();
               }
@@ -715,7 +826,7 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
     try {
 
       channel.writeByte(OChannelBinaryProtocol.RESPONSE_STATUS_ERROR);
-      channel.writeInt(iClientTxId);
+      channel.writeInt(responseId(iClientTxId));
       if (handshakeInfo != null) {
         byte[] renewedToken = null;
         if (connection != null && connection.getToken() != null) {
@@ -848,7 +959,7 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
 
   protected void sendOk(OClientConnection connection, final int iClientTxId) throws IOException {
     channel.writeByte(OChannelBinaryProtocol.RESPONSE_STATUS_OK);
-    channel.writeInt(iClientTxId);
+    channel.writeInt(responseId(iClientTxId));
     okSent = true;
     if (handshakeInfo != null) {
       byte[] renewedToken = null;
@@ -1032,6 +1143,53 @@ public class ONetworkProtocolBinary extends ONetworkProtocol {
     return null;
   }
 
+  /**
+   * @return Event loop which serves the connection or <code>null</code> if connection is served by
+   *     the thread of the protocol.
+   */
+  public OServerNetworkEventLoop getEventLoop() {
+    return eventLoop;
+  }
+
+  /** Connection served by the event loop of the listener instead of the protocol thread. */
+  private final class EventLoopConnection implements OServerNetworkEventLoop.Connection {
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    @Override
+    public boolean serveRequest() {
+      if (isShutdownFlag()) return false;
+
+      try {
+        beforeExecution();
+        execute();
+        afterExecution();
+      } catch (Exception e) {
+        // THE SAME AS IN THE THREAD LOOP: ERRORS ARE ALREADY HANDLED BY THE PROTOCOL
+        OLogManager.instance().debug(this, "Error during serving of binary request", e);
+      } catch (Error e) {
+        OLogManager.instance().error(this, "Error during serving of binary request", e);
+        return false;
+      }
+
+      return !isShutdownFlag();
+    }
+
+    @Override
+    public boolean hasBufferedRequest() {
+      try {
+        return channel instanceof OChannelBinaryServer
+            && ((OChannelBinaryServer) channel).isInputBuffered();
+      } catch (IOException e) {
+        return false;
+      }
+    }
+
+    @Override
+    public void close() {
+      if (closed.compareAndSet(false, true)) ONetworkProtocolBinary.this.shutdown();
+    }
+  }
+
   private void handlePushResponse() throws IOException {
     expectedPushResponse.read(channel);
     this.pushResponse.offer(expectedPushResponse);
@@ -0,0 +1,138 @@
+package com.orientechnologies.orient.server.network;
+
+import com.orientechnologies.common.io.OFileUtils;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
+import com.orientechnologies.orient.core.record.OElement;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import com.orientechnologies.orient.server.OClientConnection;
+import com.orientechnologies.orient.server.OServer;
+import com.orientechnologies.orient.server.OServerMain;
+import com.orientechnologies.orient.server.network.protocol.binary.ONetworkProtocolBinary;
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ONonBlockingRemoteTest {
+  private static final String SERVER_DIRECTORY = "./target/nonBlockingRemote";
+  private static final String DB_NAME = ONonBlockingRemoteTest.class.getSimpleName();
+
+  private OServer server;
+  private OrientDB orientDB;
+
+  @Before
+  public void before() throws Exception {
+    OGlobalConfiguration.NETWORK_BINARY_NON_BLOCKING.setValue(true);
+    OGlobalConfiguration.NETWORK_BINARY_NON_BLOCKING_WORKERS.setValue(2);
+    System.setProperty("ORIENTDB_HOME", SERVER_DIRECTORY);
+
+    InputStream stream =
+        ONonBlockingRemoteTest.class
+            .getClassLoader()
+            .getSystemResourceAsStream("abstract-orientdb-server-config.xml");
+    server = OServerMain.create(false);
+    server.startup(stream);
+    server.activate();
+
+    orientDB = new OrientDB("remote:localhost", "root", "root", OrientDBConfig.defaultConfig());
+    orientDB.execute(
+        "create database ? memory users (admin identified by 'admin' role admin)", DB_NAME);
+    try (ODatabaseSession session = orientDB.open(DB_NAME, "admin", "admin")) {
+      session.createClass("Item");
+    }
+  }
+
+  @After
+  public void after() {
+    orientDB.close();
+    if (server.isActive()) {
+      server.shutdown();
+    }
+
+    OGlobalConfiguration.NETWORK_BINARY_NON_BLOCKING.setValue(
+        OGlobalConfiguration.NETWORK_BINARY_NON_BLOCKING.getDefValue());
+    OGlobalConfiguration.NETWORK_BINARY_NON_BLOCKING_WORKERS.setValue(
+        OGlobalConfiguration.NETWORK_BINARY_NON_BLOCKING_WORKERS.getDefValue());
+
+    Orient.instance().shutdown();
+    OFileUtils.deleteRecursively(new File(SERVER_DIRECTORY));
+    Orient.instance().startup();
+  }
+
+  @Test
+  public void testRequestsAreServedByEventLoopAndStoppedOnShutdown() throws Exception {
+    final OServerNetworkListener listener =
+        server.getListenerByProtocol(ONetworkProtocolBinary.class);
+    final OServerNetworkEventLoop eventLoop = listener.getEventLoop();
+    Assert.assertNotNull(eventLoop);
+
+    final int sessions = 6;
+    final int records = 50;
+
+    // MORE SESSIONS THAN WORKERS: REQUESTS WAIT IN THE QUEUE INSTEAD OF BEING REJECTED
+    final ExecutorService executor = Executors.newFixedThreadPool(sessions);
+    try {
+      final List<Future<Long>> futures = new ArrayList<>();
+      for (int i = 0; i < sessions; i++) {
+        final int sessionId = i;
+        futures.add(
+            executor.submit(
+                () -> {
+                  try (ODatabaseSession session = orientDB.open(DB_NAME, "admin", "admin")) {
+                    for (int n = 0; n < records; n++) {
+                      final OElement element = session.newElement("Item");
+                      element.setProperty("session", sessionId);
+                      element.setProperty("value", n);
+                      session.save(element);
+                    }
+
+                    try (OResultSet result =
+                        session.query(
+                            "select count(*) as count from Item where session = ?", sessionId)) {
+                      return result.next().<Long>getProperty("count");
+                    }
+                  }
+                }));
+      }
+
+      for (final Future<Long> future : futures) {
+        Assert.assertEquals(records, future.get().longValue());
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    final List<ONetworkProtocolBinary> protocols = new ArrayList<>();
+    for (final OClientConnection connection :
+        server.getClientConnectionManager().getConnections()) {
+      if (connection.getProtocol() instanceof ONetworkProtocolBinary) {
+        final ONetworkProtocolBinary protocol = (ONetworkProtocolBinary) connection.getProtocol();
+        Assert.assertSame(eventLoop, protocol.getEventLoop());
+        // NO DEDICATED THREAD PER CONNECTION
+        Assert.assertFalse(protocol.isAlive());
+        protocols.add(protocol);
+      }
+    }
+    Assert.assertFalse(protocols.isEmpty());
+
+    server.shutdown();
+
+    Assert.assertFalse(eventLoop.isAlive());
+    Assert.assertEquals(0, eventLoop.getActiveWorkers());
+    for (final ONetworkProtocolBinary protocol : protocols) {
+      Assert.assertTrue(protocol.isShutdownFlag());
+      Assert.assertTrue(protocol.getChannel().socket.isClosed());
+    }
+  }
+}
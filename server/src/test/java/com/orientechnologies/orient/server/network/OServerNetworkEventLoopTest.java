@@ -0,0 +1,203 @@
+package com.orientechnologies.orient.server.network;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OServerNetworkEventLoopTest {
+  private ServerSocketChannel serverChannel;
+  private OServerNetworkEventLoop eventLoop;
+  private final List<Socket> clients = new ArrayList<>();
+
+  private final AtomicInteger activeRequests = new AtomicInteger();
+  private final AtomicInteger maxActiveRequests = new AtomicInteger();
+  private final AtomicInteger servedRequests = new AtomicInteger();
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  @Before
+  public void before() throws IOException {
+    serverChannel = ServerSocketChannel.open();
+    serverChannel.socket().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+  }
+
+  @After
+  public void after() throws IOException {
+    release.countDown();
+    if (eventLoop != null) {
+      eventLoop.shutdown();
+    }
+    for (final Socket client : clients) {
+      client.close();
+    }
+    serverChannel.close();
+  }
+
+  @Test
+  public void testWorkersAreBounded() throws Exception {
+    startEventLoop(2);
+
+    final List<TestConnection> connections = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      connections.add(connect());
+    }
+    for (final Socket client : clients) {
+      client.getOutputStream().write(1);
+    }
+
+    waitFor(() -> activeRequests.get() == 2);
+    Thread.sleep(200);
+    // requests which arrive when all workers are busy wait in the queue
+    Assert.assertEquals(2, activeRequests.get());
+    Assert.assertEquals(0, servedRequests.get());
+
+    release.countDown();
+    waitFor(() -> servedRequests.get() == 6);
+    Assert.assertEquals(2, maxActiveRequests.get());
+    for (final TestConnection connection : connections) {
+      Assert.assertEquals(1, connection.closed.getCount());
+    }
+  }
+
+  @Test
+  public void testShutdownWaitsForRequestsAndClosesConnections() throws Exception {
+    startEventLoop(4);
+
+    final TestConnection busy = connect();
+    final TestConnection idle = connect();
+    clients.get(0).getOutputStream().write(1);
+    waitFor(() -> activeRequests.get() == 1);
+
+    eventLoop.shutdown();
+    Assert.assertTrue(idle.closed.await(10, TimeUnit.SECONDS));
+    Assert.assertEquals(1, busy.closed.getCount());
+
+    new Thread(
+            () -> {
+              try {
+                Thread.sleep(100);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              release.countDown();
+            })
+        .start();
+
+    Assert.assertTrue(eventLoop.awaitTermination(10, TimeUnit.SECONDS));
+    Assert.assertEquals(1, servedRequests.get());
+    Assert.assertEquals(0, busy.closed.getCount());
+    Assert.assertFalse(eventLoop.isAlive());
+  }
+
+  @Test
+  public void testShutdownStopsRequestsWhichAreNotServedInTime() throws Exception {
+    startEventLoop(1);
+
+    final TestConnection busy = connect();
+    final TestConnection queued = connect();
+    clients.get(0).getOutputStream().write(1);
+    waitFor(() -> activeRequests.get() == 1);
+    clients.get(1).getOutputStream().write(1);
+    Thread.sleep(100);
+
+    eventLoop.shutdown();
+    Assert.assertFalse(eventLoop.awaitTermination(200, TimeUnit.MILLISECONDS));
+
+    Assert.assertTrue(busy.closed.await(10, TimeUnit.SECONDS));
+    Assert.assertTrue(queued.closed.await(10, TimeUnit.SECONDS));
+    Assert.assertEquals(0, servedRequests.get());
+  }
+
+  private void startEventLoop(final int maxWorkers) throws IOException {
+    eventLoop =
+        new OServerNetworkEventLoop(
+            Thread.currentThread().getThreadGroup(), "event loop test", maxWorkers);
+    eventLoop.start();
+  }
+
+  private TestConnection connect() throws IOException {
+    final Socket client =
+        new Socket(InetAddress.getLoopbackAddress(), serverChannel.socket().getLocalPort());
+    clients.add(client);
+
+    final SocketChannel channel = serverChannel.accept();
+    channel.configureBlocking(false);
+
+    final TestConnection connection = new TestConnection(channel);
+    eventLoop.register(channel, connection);
+    return connection;
+  }
+
+  private static void waitFor(final Condition condition) throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + 10_000;
+    while (!condition.isMet()) {
+      Assert.assertTrue(System.currentTimeMillis() < deadline);
+      Thread.sleep(10);
+    }
+  }
+
+  private interface Condition {
+    boolean isMet();
+  }
+
+  private final class TestConnection implements OServerNetworkEventLoop.Connection {
+    private final SocketChannel channel;
+    private final CountDownLatch closed = new CountDownLatch(1);
+
+    private TestConnection(final SocketChannel channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public boolean serveRequest() {
+      try {
+        if (channel.read(ByteBuffer.allocate(16)) < 0) {
+          return false;
+        }
+
+        final int active = activeRequests.incrementAndGet();
+        maxActiveRequests.accumulateAndGet(active, Math::max);
+        try {
+          release.await();
+        } finally {
+          activeRequests.decrementAndGet();
+        }
+
+        servedRequests.incrementAndGet();
+        return true;
+      } catch (IOException e) {
+        return false;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+
+    @Override
+    public boolean hasBufferedRequest() {
+      return false;
+    }
+
+    @Override
+    public void close() {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        // ignore
+      }
+      closed.countDown();
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package com.orientechnologies.orient.server.query;
+
+import static com.orientechnologies.orient.core.config.OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PAGE_SIZE;
+import static com.orientechnologies.orient.core.config.OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PREFETCH;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.orientechnologies.common.io.OFileUtils;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.record.OElement;
+import com.orientechnologies.orient.core.sql.executor.OResult;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import com.orientechnologies.orient.server.OServer;
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Pages of a query which are prefetched are bigger than the socket buffers, so the server can not
+ * complete the prefetch request till the client reads it, other requests of the same session sent
+ * while the query is consumed have to wait for the prefetched page to be read.
+ */
+public class RemoteQueryPrefetchTest {
+
+  private static final String SERVER_DIRECTORY = "./target/queryPrefetch";
+  private static final int RECORDS = 60;
+  private static final int RECORD_SIZE = 256 * 1024;
+
+  private OServer server;
+  private OrientDB orientDB;
+  private ODatabaseSession session;
+  private int oldPageSize;
+  private boolean oldPrefetch;
+
+  @Before
+  public void before() throws Exception {
+    OGlobalConfiguration.CLASS_MINIMUM_CLUSTERS.setValue(1);
+    server = new OServer(false);
+    server.setServerRootDirectory(SERVER_DIRECTORY);
+    server.startup(getClass().getResourceAsStream("orientdb-server-config.xml"));
+    server.activate();
+
+    orientDB = new OrientDB("remote:localhost", "root", "root", OrientDBConfig.defaultConfig());
+    orientDB.execute(
+        "create database ? memory users (admin identified by 'admin' role admin)",
+        RemoteQueryPrefetchTest.class.getSimpleName());
+    session = orientDB.open(RemoteQueryPrefetchTest.class.getSimpleName(), "admin", "admin");
+    session.createClass("Big");
+    session.createClass("Log");
+
+    final char[] payload = new char[RECORD_SIZE];
+    Arrays.fill(payload, 'x');
+    for (int i = 0; i < RECORDS; i++) {
+      final OElement element = session.newElement("Big");
+      element.setProperty("id", i);
+      element.setProperty("payload", new String(payload));
+      session.save(element);
+    }
+
+    oldPageSize = QUERY_REMOTE_RESULTSET_PAGE_SIZE.getValueAsInteger();
+    oldPrefetch = QUERY_REMOTE_RESULTSET_PREFETCH.getValueAsBoolean();
+    QUERY_REMOTE_RESULTSET_PAGE_SIZE.setValue(10);
+    QUERY_REMOTE_RESULTSET_PREFETCH.setValue(true);
+  }
+
+  @Test(timeout = 120_000)
+  public void testRequestsInterleavedWithQuery() {
+    final Set<Integer> ids = new HashSet<>();
+    try (OResultSet result = session.query("select from Big")) {
+      while (result.hasNext()) {
+        final OResult item = result.next();
+        final int id = item.getProperty("id");
+        assertTrue(ids.add(id));
+        assertEquals(RECORD_SIZE, item.<String>getProperty("payload").length());
+
+        // REQUESTS OF THE SAME SESSION WHILE THE NEXT PAGE IS PREFETCHED
+        final ORID rid = item.getIdentity().get();
+        final OElement loaded = session.load(rid);
+        assertEquals(id, (int) loaded.<Integer>getProperty("id"));
+
+        final OElement log = session.newElement("Log");
+        log.setProperty("id", id);
+        session.save(log);
+
+        try (OResultSet count = session.query("select count(*) as count from Log")) {
+          assertEquals(ids.size(), (long) count.next().<Long>getProperty("count"));
+        }
+      }
+    }
+
+    assertEquals(RECORDS, ids.size());
+    assertEquals(RECORDS, session.countClass("Log"));
+  }
+
+  @Test(timeout = 120_000)
+  public void testNestedQueriesWithPrefetch() {
+    int outer = 0;
+    try (OResultSet result = session.query("select id from Big")) {
+      while (result.hasNext() && outer < 15) {
+        result.next();
+        outer++;
+
+        int inner = 0;
+        try (OResultSet nested = session.query("select from Big")) {
+          while (nested.hasNext()) {
+            assertEquals(RECORD_SIZE, nested.next().<String>getProperty("payload").length());
+            inner++;
+          }
+        }
+        assertEquals(RECORDS, inner);
+      }
+    }
+    assertEquals(15, outer);
+  }
+
+  @Test(timeout = 120_000)
+  public void testCloseWithPrefetchedPage() {
+    try (OResultSet result = session.query("select from Big")) {
+      assertTrue(result.hasNext());
+      result.next();
+    }
+
+    try (OResultSet result = session.query("select count(*) as count from Big")) {
+      assertEquals(RECORDS, (long) result.next().<Long>getProperty("count"));
+      assertFalse(result.hasNext());
+    }
+  }
+
+  @After
+  public void after() {
+    QUERY_REMOTE_RESULTSET_PAGE_SIZE.setValue(oldPageSize);
+    QUERY_REMOTE_RESULTSET_PREFETCH.setValue(oldPrefetch);
+    session.close();
+    orientDB.close();
+    server.shutdown();
+
+    Orient.instance().shutdown();
+    OFileUtils.deleteRecursively(new File(SERVER_DIRECTORY));
+    Orient.instance().startup();
+  }
+}